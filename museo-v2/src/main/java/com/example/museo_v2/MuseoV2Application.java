@@ -2,12 +2,15 @@ package com.example.museo_v2;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Clase principal de la aplicación Spring Boot.
  * Esta clase arranca la aplicación y configura el contexto de Spring.
+ * Habilita las tareas programadas de mantenimiento.
  */
 @SpringBootApplication
+@EnableScheduling
 public class MuseoV2Application {
 
     /**
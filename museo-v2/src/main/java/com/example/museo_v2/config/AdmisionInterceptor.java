@@ -0,0 +1,102 @@
+package com.example.museo_v2.config;
+
+import com.example.museo_v2.service.AdmisionService;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Aplica el control de admisión a las rutas que crean o retienen reservas.
+ * Las solicitudes rechazadas reciben de inmediato una página estática de
+ * "intente nuevamente", precargada en memoria, sin pasar por el controlador,
+ * la plantilla ni la base de datos.
+ * <p>
+ * Las descargas que responden en segundo plano ({@code StreamingResponseBody}) pasan
+ * dos veces por el interceptor: la solicitud original y el despacho asíncrono que la
+ * termina. El turno se concede solo en la primera y se conserva mientras se escribe la
+ * respuesta; se libera al completar el despacho asíncrono.
+ */
+@Component
+public class AdmisionInterceptor implements AsyncHandlerInterceptor {
+
+    private static final Pattern RUTA_CON_EVENTO = Pattern.compile("^/reservas/(?:crear|retener|guardar|espera)/(\\d+)");
+    private static final String ATRIBUTO_TURNO = AdmisionInterceptor.class.getName() + ".TURNO";
+
+    private final AdmisionService admisionService;
+    private final byte[] paginaOcupado;
+    private final String reintentarSegundos;
+
+    public AdmisionInterceptor(AdmisionService admisionService,
+                               @Value("${app.admision.reintentar-segundos:5}") int reintentarSegundos) {
+        this.admisionService = admisionService;
+        this.reintentarSegundos = String.valueOf(reintentarSegundos);
+        try (InputStream in = new ClassPathResource("static/ocupado.html").getInputStream()) {
+            this.paginaOcupado = in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo cargar la página de espera", e);
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        // El despacho asíncrono continúa una solicitud ya admitida y con la respuesta empezada.
+        if (request.getDispatcherType() == DispatcherType.ASYNC || request.getAttribute(ATRIBUTO_TURNO) != null) {
+            return true;
+        }
+        String cliente = request.getUserPrincipal() != null
+                ? request.getUserPrincipal().getName()
+                : request.getRemoteAddr();
+
+        Optional<AdmisionService.Turno> turno = admisionService.admitir(cliente, eventoDeLaRuta(request));
+        if (turno.isPresent()) {
+            request.setAttribute(ATRIBUTO_TURNO, turno.get());
+            return true;
+        }
+
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, reintentarSegundos);
+        response.setContentType(MediaType.TEXT_HTML_VALUE + ";charset=UTF-8");
+        response.setContentLength(paginaOcupado.length);
+        response.getOutputStream().write(paginaOcupado);
+        return false;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(ATRIBUTO_TURNO) instanceof AdmisionService.Turno turno) {
+            request.removeAttribute(ATRIBUTO_TURNO);
+            turno.close();
+        }
+    }
+
+    /**
+     * No libera el turno: la respuesta se sigue escribiendo y el turno se cierra en
+     * {@link #afterCompletion} del despacho asíncrono.
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+    }
+
+    private Long eventoDeLaRuta(HttpServletRequest request) {
+        String ruta = request.getRequestURI().substring(request.getContextPath().length());
+        Matcher matcher = RUTA_CON_EVENTO.matcher(ruta);
+        return matcher.find() ? Long.valueOf(matcher.group(1)) : null;
+    }
+}
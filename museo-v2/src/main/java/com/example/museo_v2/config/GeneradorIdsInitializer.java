@@ -0,0 +1,43 @@
+package com.example.museo_v2.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Ajusta el generador por tabla de las reservas al arrancar la aplicación.
+ * Las reservas creadas antes con IDENTITY ya ocupan IDs, por lo que el siguiente
+ * bloque del generador debe comenzar después del mayor ID existente.
+ * Se ejecuta antes de que el servidor web acepte peticiones.
+ */
+@Configuration
+public class GeneradorIdsInitializer {
+
+    /** Debe coincidir con el {@code allocationSize} declarado en la entidad. */
+    private static final int TAMANO_BLOQUE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Recibe la fábrica de entidades solo para garantizar que Hibernate ya creó
+     * la tabla del generador antes de ajustarla.
+     */
+    public GeneradorIdsInitializer(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Deja el valor del generador por encima del mayor ID de reserva registrado.
+     * Con el optimizador "pooled" el valor guardado es el límite superior del
+     * bloque, de ahí que se sume el tamaño del bloque.
+     */
+    @PostConstruct
+    public void ajustarGeneradorReservas() {
+        jdbcTemplate.update(
+                "INSERT INTO generador_ids (entidad, siguiente_valor) "
+                        + "SELECT 'reservas', COALESCE(MAX(id), 0) + ? + 1 FROM reservas "
+                        + "ON DUPLICATE KEY UPDATE siguiente_valor = GREATEST(siguiente_valor, VALUES(siguiente_valor))",
+                TAMANO_BLOQUE);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.museo_v2.config;
+
+import com.example.museo_v2.service.LibroInventarioService;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Abre el libro de inventario de los productos creados antes de llevarlo, al arrancar
+ * la aplicación. Se ejecuta antes de que el servidor web acepte peticiones, para que
+ * ninguna reserva, liberación o edición registre un movimiento sobre un producto
+ * todavía sin apertura.
+ */
+@Configuration
+public class LibroInventarioInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(LibroInventarioInitializer.class);
+
+    private final LibroInventarioService libro;
+
+    /**
+     * Recibe la fábrica de entidades solo para garantizar que Hibernate ya creó
+     * las tablas del libro antes de escribir en ellas.
+     */
+    public LibroInventarioInitializer(LibroInventarioService libro, EntityManagerFactory entityManagerFactory) {
+        this.libro = libro;
+    }
+
+    /**
+     * Registra la apertura de cada producto sin alta ni apertura en el libro.
+     */
+    @PostConstruct
+    public void abrirLibro() {
+        int abiertos = libro.abrirSaldos();
+        if (abiertos > 0) {
+            logger.info("Libro de inventario abierto para {} productos", abiertos);
+        }
+    }
+}
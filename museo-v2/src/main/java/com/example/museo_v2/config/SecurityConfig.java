@@ -46,6 +46,8 @@ public class SecurityConfig {
                 ).permitAll()
                 .requestMatchers("/usuarios/**").hasRole("ADMIN")
                 .requestMatchers("/eventos/eliminar/**", "/salas/eliminar/**").hasRole("ADMIN")
+                .requestMatchers("/importaciones/**", "/reservas/tickets/**", "/reservas/cancelar/**",
+                        "/reservas/exportar/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
             .formLogin(form -> form
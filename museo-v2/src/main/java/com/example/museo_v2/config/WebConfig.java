@@ -1,13 +1,16 @@
 package com.example.museo_v2.config;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 /**
  * Configura el manejo de recursos estáticos, 
- * permitiendo acceder a archivos subidos desde una ruta externa.
+ * permitiendo acceder a archivos subidos desde una ruta externa,
+ * y el control de admisión de las rutas que crean reservas.
  */
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
@@ -15,6 +18,9 @@ public class WebConfig implements WebMvcConfigurer {
     @Value("${app.upload.dir}")
     private String uploadDir;
 
+    @Autowired
+    private AdmisionInterceptor admisionInterceptor;
+
     /**
      * Registra un manejador de recursos para servir imágenes de salas
      * desde el directorio configurado en el sistema.
@@ -32,4 +38,18 @@ public class WebConfig implements WebMvcConfigurer {
         registry.addResourceHandler("/uploads/salas/**")
                 .addResourceLocations(path);
     }
+
+    /**
+     * Registra el control de admisión sobre las rutas que crean o retienen reservas.
+     * Las descargas de tickets y exportaciones quedan fuera: un turno se conserva
+     * mientras dura la respuesta y una descarga larga lo ocuparía todo ese tiempo.
+     *
+     * @param registry registro de interceptores
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(admisionInterceptor)
+                .addPathPatterns("/reservas/crear/**", "/reservas/retener/**",
+                        "/reservas/guardar/**", "/reservas/espera/**");
+    }
 }
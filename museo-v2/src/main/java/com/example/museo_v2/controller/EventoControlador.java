@@ -1,25 +1,36 @@
 package com.example.museo_v2.controller;
 
 import com.example.museo_v2.model.Evento;
+import com.example.museo_v2.model.EventoListado;
+import com.example.museo_v2.model.PaginaKeyset;
+import com.example.museo_v2.model.TipoReporte;
 import com.example.museo_v2.service.EventoService;
-import com.example.museo_v2.service.ExcelService;
+import com.example.museo_v2.service.ExportacionService;
+import com.example.museo_v2.service.IdempotenciaService;
 import com.example.museo_v2.service.ProductoInventarioService;
+import com.example.museo_v2.service.ReintentoOptimistaService;
+import com.example.museo_v2.service.ReintentoOptimistaService.Politica;
 import com.example.museo_v2.service.SalaService;
+import com.example.museo_v2.util.FormatoExportacion;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.InputStreamResource;
-import org.springframework.core.io.Resource;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.ByteArrayInputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -42,20 +53,44 @@ public class EventoControlador {
     private SalaService salaService;
 
     @Autowired
-    private ExcelService excelService;
+    private ExportacionService exportacionService;
 
     @Autowired
     private ProductoInventarioService productoInventarioService;
 
+    @Autowired
+    private IdempotenciaService idempotenciaService;
+
+    @Autowired
+    private ReintentoOptimistaService reintentos;
+
     /**
-     * Muestra la lista de eventos registrados.
+     * Muestra una página de la lista de eventos, ordenada por fecha de inicio.
+     * La página siguiente se pide con la fecha y el ID del último evento mostrado.
      *
-     * @param modelo modelo para enviar datos a la vista
+     * @param nombre       texto que debe contener el nombre del evento
+     * @param orden        {@code asc} o {@code desc} según la fecha de inicio
+     * @param despuesFecha fecha de inicio del último evento de la página anterior
+     * @param despuesId    ID del último evento de la página anterior
+     * @param tamano       cantidad de eventos por página
+     * @param modelo       modelo para enviar datos a la vista
      * @return vista de lista de eventos
      */
     @GetMapping
-    public String listarEventos(Model modelo) {
-        modelo.addAttribute("eventos", eventoService.listarTodosLosEventos());
+    public String listarEventos(@RequestParam(required = false) String nombre,
+                                @RequestParam(defaultValue = "asc") String orden,
+                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate despuesFecha,
+                                @RequestParam(required = false) Long despuesId,
+                                @RequestParam(defaultValue = "" + PaginaKeyset.TAMANO_POR_DEFECTO) int tamano,
+                                Model modelo) {
+        PaginaKeyset<EventoListado> pagina = eventoService.listarEventosPaginados(
+                nombre, "desc".equals(orden), despuesFecha, despuesId, tamano);
+
+        modelo.addAttribute("pagina", pagina);
+        modelo.addAttribute("eventos", pagina.elementos());
+        modelo.addAttribute("nombre", nombre);
+        modelo.addAttribute("orden", orden);
+        modelo.addAttribute("tamano", tamano);
         return "eventos/listaEventos";
     }
 
@@ -70,6 +105,7 @@ public class EventoControlador {
         modelo.addAttribute("evento", new Evento());
         modelo.addAttribute("salas", salaService.listarSalasDisponibles());
         modelo.addAttribute("productosDisponibles", productoInventarioService.productosDisponibles());
+        modelo.addAttribute("claveIdempotencia", idempotenciaService.generarClave());
         return "eventos/formularioEvento";
     }
 
@@ -79,6 +115,7 @@ public class EventoControlador {
      * @param evento       datos del evento a guardar
      * @param productoIds  IDs de productos seleccionados
      * @param cantidades   cantidades requeridas de cada producto
+     * @param claveIdempotencia clave emitida con el formulario para descartar reenvíos
      * @param modelo       modelo para mostrar errores en la vista
      * @return redirección o vista del formulario en caso de error
      */
@@ -86,50 +123,68 @@ public class EventoControlador {
     public String guardarEvento(@ModelAttribute Evento evento,
                                 @RequestParam(required = false) List<Long> productoIds,
                                 @RequestParam(required = false) List<Integer> cantidades,
+                                @RequestParam(required = false) String claveIdempotencia,
                                 Model modelo) {
 
         try {
-            Preconditions.checkNotNull(evento, "El evento no puede ser nulo");
-            Preconditions.checkArgument(!Strings.isNullOrEmpty(evento.getNombre()), "El nombre no puede estar vacío");
-            Preconditions.checkNotNull(evento.getSala(), "Debe asignarse una sala");
+            return idempotenciaService.ejecutar(claveIdempotencia, () -> {
+                Preconditions.checkNotNull(evento, "El evento no puede ser nulo");
+                Preconditions.checkArgument(!Strings.isNullOrEmpty(evento.getNombre()), "El nombre no puede estar vacío");
+                Preconditions.checkNotNull(evento.getSala(), "Debe asignarse una sala");
 
-            Evento eventoGuardado = eventoService.guardarEvento(evento);
+                Evento eventoGuardado = reintentos.ejecutar("evento", Politica.RECHAZAR,
+                        () -> eventoService.guardarEvento(evento));
 
-            logger.info("EVENTO GUARDADO | ID: {} | Nombre: {} | Sala: {}",
-                    eventoGuardado.getId(),
-                    eventoGuardado.getNombre(),
-                    eventoGuardado.getSala().getNombre());
+                logger.info("EVENTO GUARDADO | ID: {} | Nombre: {} | Sala: {}",
+                        eventoGuardado.getId(),
+                        eventoGuardado.getNombre(),
+                        eventoGuardado.getSala().getNombre());
 
-            if (productoIds != null && cantidades != null && !productoIds.isEmpty()) {
-                Map<Long, Integer> requerimientos = new HashMap<>();
+                if (productoIds != null && cantidades != null && !productoIds.isEmpty()) {
+                    Map<Long, Integer> requerimientos = new HashMap<>();
 
-                for (int i = 0; i < productoIds.size(); i++) {
-                    if (i < cantidades.size() && cantidades.get(i) != null && cantidades.get(i) > 0) {
-                        requerimientos.put(productoIds.get(i), cantidades.get(i));
+                    for (int i = 0; i < productoIds.size(); i++) {
+                        if (i < cantidades.size() && cantidades.get(i) != null && cantidades.get(i) > 0) {
+                            requerimientos.put(productoIds.get(i), cantidades.get(i));
+                        }
                     }
-                }
 
-                if (!requerimientos.isEmpty()) {
-                    productoInventarioService.reservarProductos(eventoGuardado, requerimientos);
-                    logger.info("INVENTARIO RESERVADO | Evento: {} | Items: {}", 
-                                eventoGuardado.getNombre(), requerimientos.size());
+                    if (!requerimientos.isEmpty()) {
+                        productoInventarioService.reservarProductos(eventoGuardado, requerimientos);
+                        logger.info("INVENTARIO RESERVADO | Evento: {} | Items: {}", 
+                                    eventoGuardado.getNombre(), requerimientos.size());
+                    }
                 }
-            }
 
-            return "redirect:/eventos";
+                return "redirect:/eventos";
+            });
+
+        } catch (OptimisticLockingFailureException e) {
+            logger.warn("CONFLICTO AL GUARDAR EVENTO | ID: {}", evento.getId());
+
+            Evento actual = eventoService.obtenerEventoPorId(evento.getId());
+            return mostrarFormularioConError(actual != null ? actual : evento,
+                    "Otra persona modificó este evento mientras lo editaba. Se muestran los datos actuales; "
+                            + "revise los cambios y vuelva a guardar.",
+                    claveIdempotencia, modelo);
 
         } catch (RuntimeException e) {
             logger.warn("ERROR AL GUARDAR EVENTO: {}", e.getMessage());
 
-            modelo.addAttribute("error", e.getMessage());
-            modelo.addAttribute("evento", evento);
-            modelo.addAttribute("salas", salaService.listarSalasDisponibles());
-            modelo.addAttribute("productosDisponibles", productoInventarioService.productosDisponibles());
-
-            return "eventos/formularioEvento";
+            return mostrarFormularioConError(evento, e.getMessage(), claveIdempotencia, modelo);
         }
     }
 
+    private String mostrarFormularioConError(Evento evento, String error, String claveIdempotencia, Model modelo) {
+        modelo.addAttribute("error", error);
+        modelo.addAttribute("evento", evento);
+        modelo.addAttribute("salas", salaService.listarSalasDisponibles());
+        modelo.addAttribute("productosDisponibles", productoInventarioService.productosDisponibles());
+        modelo.addAttribute("claveIdempotencia", claveIdempotencia);
+
+        return "eventos/formularioEvento";
+    }
+
     /**
      * Muestra el formulario para editar un evento existente.
      *
@@ -145,47 +200,58 @@ public class EventoControlador {
         modelo.addAttribute("evento", evento);
         modelo.addAttribute("salas", salaService.listarSalasDisponibles());
         modelo.addAttribute("productosDisponibles", productoInventarioService.productosDisponibles());
+        modelo.addAttribute("claveIdempotencia", idempotenciaService.generarClave());
         return "eventos/formularioEvento";
     }
 
     /**
-     * Elimina un evento y libera el stock de productos reservados.
+     * Elimina un evento y libera el stock de productos reservados, en una misma
+     * transacción. Si el evento cambia mientras tanto, la operación se repite completa
+     * sobre los datos actuales.
      *
      * @param id identificador del evento
      * @return redirección a la lista de eventos
      */
     @PostMapping("/eliminar/{id}")
     public String eliminarEvento(@PathVariable Long id) {
-        Evento evento = eventoService.obtenerEventoPorId(id);
-
-        if (evento != null) {
-            productoInventarioService.liberarProductos(evento);
-            logger.info("STOCK RESTAURADO | Evento ID: {}", id);
-
+        boolean eliminado = reintentos.ejecutar("evento", Politica.REINTENTAR, () -> {
+            if (eventoService.obtenerEventoPorId(id) == null) {
+                return false;
+            }
+            productoInventarioService.liberarProductos(id);
             eventoService.eliminarEvento(id);
-            logger.info("EVENTO ELIMINADO | ID: {}", id);
+            return true;
+        });
+
+        if (eliminado) {
+            logger.info("STOCK RESTAURADO Y EVENTO ELIMINADO | ID: {}", id);
         }
 
         return "redirect:/eventos";
     }
 
     /**
-     * Exporta la lista de eventos a un archivo Excel.
+     * Exporta los eventos en Excel, CSV o JSON por líneas, opcionalmente comprimido con gzip.
+     * El archivo se escribe directamente en la respuesta a medida que se leen las filas;
+     * con {@code since} solo se incluyen los cambios recientes.
      *
-     * @return archivo Excel como recurso descargable
+     * @param format {@code xlsx} (por defecto), {@code csv} o {@code jsonl}
+     * @param gzip   si el archivo se comprime con gzip
+     * @param since  si se indica, solo se exportan los eventos creados o modificados desde ese instante
+     * @return archivo descargable
      */
     @GetMapping("/exportar/excel")
-    public ResponseEntity<Resource> exportarEventosExcel() {
-        List<Evento> eventos = eventoService.listarTodosLosEventos();
-        ByteArrayInputStream excelFile = excelService.crearExcelDeEventos(eventos);
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=reporte_eventos.xlsx");
+    public ResponseEntity<StreamingResponseBody> exportarEventosExcel(
+            @RequestParam(defaultValue = "xlsx") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since) {
+        FormatoExportacion formato = FormatoExportacion.desdeExtension(format)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Formato no soportado: " + format));
 
         return ResponseEntity.ok()
-                .headers(headers)
-                .contentType(MediaType.parseMediaType(
-                        "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                .body(new InputStreamResource(excelFile));
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=" + formato.nombreArchivo(TipoReporte.EVENTOS.getNombreBase(), gzip))
+                .contentType(MediaType.parseMediaType(formato.tipoContenido(gzip)))
+                .body(salida -> exportacionService.exportar(TipoReporte.EVENTOS, formato, since, gzip, salida));
     }
 }
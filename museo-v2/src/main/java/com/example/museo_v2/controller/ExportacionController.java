@@ -0,0 +1,117 @@
+package com.example.museo_v2.controller;
+
+import com.example.museo_v2.model.EstadoExportacion;
+import com.example.museo_v2.model.TipoReporte;
+import com.example.museo_v2.service.TrabajoExportacionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.security.Principal;
+
+/**
+ * Controlador de las exportaciones Excel en segundo plano.
+ * Permite solicitar un reporte, seguir su avance y descargar el archivo generado.
+ */
+@Controller
+@RequestMapping("/exportaciones")
+public class ExportacionController {
+
+    @Autowired
+    private TrabajoExportacionService trabajoExportacionService;
+
+    /**
+     * Solicita la generación de un reporte y redirige a la página de avance del trabajo.
+     *
+     * @param tipo      segmento del reporte: {@code eventos}, {@code salas} o {@code inventario};
+     *                  las reservas contienen datos de clientes y solo se descargan por
+     *                  {@code /reservas/exportar}, reservado al administrador
+     * @param principal usuario autenticado que solicita el reporte
+     * @param model     modelo con el motivo si la solicitud se rechaza
+     * @return redirección a la página de avance o la misma página con el error
+     */
+    @PostMapping("/{tipo:eventos|salas|inventario}")
+    public String solicitar(@PathVariable String tipo, Principal principal, Model model) {
+        TipoReporte reporte = TipoReporte.desdeRuta(tipo)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        try {
+            EstadoExportacion estado = trabajoExportacionService.solicitar(reporte, principal.getName());
+            return "redirect:/exportaciones/" + estado.id();
+        } catch (IllegalStateException e) {
+            model.addAttribute("error", e.getMessage());
+            return "exportaciones/estado";
+        }
+    }
+
+    /**
+     * Muestra el avance de un trabajo de exportación.
+     *
+     * @param id    identificador del trabajo
+     * @param model modelo con el estado del trabajo
+     * @return vista de avance de la exportación
+     */
+    @GetMapping("/{id}")
+    public String ver(@PathVariable String id, Model model) {
+        model.addAttribute("estado", buscar(id));
+        return "exportaciones/estado";
+    }
+
+    /**
+     * Devuelve el estado de un trabajo de exportación.
+     *
+     * @param id identificador del trabajo
+     * @return estado del trabajo en JSON
+     */
+    @GetMapping(value = "/{id}/estado", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public EstadoExportacion estado(@PathVariable String id) {
+        return buscar(id);
+    }
+
+    /**
+     * Envía el avance de un trabajo de exportación como eventos SSE.
+     *
+     * @param id identificador del trabajo
+     * @return emisor de eventos {@code progreso}
+     */
+    @GetMapping(value = "/{id}/progreso", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public SseEmitter progreso(@PathVariable String id) {
+        return trabajoExportacionService.suscribir(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Descarga el archivo de un trabajo completado.
+     *
+     * @param id identificador del trabajo
+     * @return archivo Excel descargable
+     */
+    @GetMapping("/{id}/archivo")
+    public ResponseEntity<Resource> archivo(@PathVariable String id) {
+        EstadoExportacion estado = buscar(id);
+        FileSystemResource archivo = trabajoExportacionService.archivo(id)
+                .map(FileSystemResource::new)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + estado.tipo().getArchivo())
+                .contentType(MediaType.parseMediaType(
+                        "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
+                .body(archivo);
+    }
+
+    private EstadoExportacion buscar(String id) {
+        return trabajoExportacionService.consultar(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    }
+}
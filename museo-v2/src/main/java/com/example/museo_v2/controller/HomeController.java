@@ -1,6 +1,7 @@
 package com.example.museo_v2.controller;
 
-import com.example.museo_v2.service.EventoService;
+import com.example.museo_v2.model.PaginaInicio;
+import com.example.museo_v2.service.PaginaInicioService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -14,18 +15,19 @@ import org.springframework.web.bind.annotation.GetMapping;
 public class HomeController {
 
     @Autowired
-    private EventoService eventoService;
+    private PaginaInicioService paginaInicioService;
 
     /**
-     * Muestra la página principal con los eventos relevantes.
+     * Muestra la página principal con los eventos relevantes, servidos desde memoria.
      *
      * @param modelo modelo para enviar datos a la vista
      * @return nombre de la vista principal
      */
     @GetMapping("/")
     public String home(Model modelo) {
-        modelo.addAttribute("eventosDelMes", eventoService.obtenerEventosDelMesActual());
-        modelo.addAttribute("eventosProximos", eventoService.obtenerProximosEventos(6));
+        PaginaInicio pagina = paginaInicioService.obtener();
+        modelo.addAttribute("eventosDelMes", pagina.eventosDelMes());
+        modelo.addAttribute("eventosProximos", pagina.eventosProximos());
         return "index";
     }
 
@@ -0,0 +1,63 @@
+package com.example.museo_v2.controller;
+
+import com.example.museo_v2.model.ResultadoImportacion;
+import com.example.museo_v2.service.ImportacionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Controlador de la importación masiva de productos de inventario y eventos desde
+ * archivos CSV o XLSX. Solo disponible para administradores.
+ */
+@Controller
+@RequestMapping("/importaciones")
+public class ImportacionController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportacionController.class);
+
+    @Autowired
+    private ImportacionService importacionService;
+
+    /**
+     * Importa un archivo y muestra cuántas filas se guardaron y cuáles se rechazaron.
+     *
+     * @param tipo    segmento de la importación: {@code inventario} o {@code eventos}
+     * @param archivo archivo CSV o XLSX con la cabecera en la primera fila
+     * @param model   modelo con el resultado o el motivo del rechazo del archivo
+     * @return vista con el resultado de la importación
+     */
+    @PostMapping("/{tipo:inventario|eventos}")
+    public String importar(@PathVariable String tipo, @RequestParam("archivo") MultipartFile archivo, Model model) {
+        boolean inventario = tipo.equals("inventario");
+        model.addAttribute("titulo", inventario ? "Importación de inventario" : "Importación de eventos");
+        model.addAttribute("volver", inventario ? "/inventario/lista" : "/eventos");
+
+        if (archivo.isEmpty()) {
+            model.addAttribute("error", "Seleccione un archivo CSV o XLSX");
+            return "importaciones/resultado";
+        }
+        try (InputStream entrada = archivo.getInputStream()) {
+            ResultadoImportacion resultado = inventario
+                    ? importacionService.importarProductos(archivo.getOriginalFilename(), entrada)
+                    : importacionService.importarEventos(archivo.getOriginalFilename(), entrada);
+            model.addAttribute("resultado", resultado);
+        } catch (IllegalArgumentException e) {
+            model.addAttribute("error", e.getMessage());
+        } catch (IOException e) {
+            logger.warn("No se pudo leer el archivo importado {}", archivo.getOriginalFilename(), e);
+            model.addAttribute("error", "No se pudo leer el archivo");
+        }
+        return "importaciones/resultado";
+    }
+}
@@ -1,20 +1,29 @@
 package com.example.museo_v2.controller;
 
+import com.example.museo_v2.model.PaginaKeyset;
 import com.example.museo_v2.model.ProductoInventario;
-import com.example.museo_v2.service.ExcelService;
+import com.example.museo_v2.model.ProductoListado;
+import com.example.museo_v2.model.TipoReporte;
+import com.example.museo_v2.service.DisponibilidadInventarioService;
+import com.example.museo_v2.service.ExportacionService;
+import com.example.museo_v2.service.LibroInventarioService;
 import com.example.museo_v2.service.ProductoInventarioService;
+import com.example.museo_v2.util.FormatoExportacion;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.InputStreamResource;
-import org.springframework.core.io.Resource;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.ByteArrayInputStream;
-import java.util.List;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 /**
  * Controlador para la gestión del inventario del museo.
@@ -28,17 +37,42 @@ public class InventarioController {
     private ProductoInventarioService productoInventarioService;
 
     @Autowired
-    private ExcelService excelService;
+    private ExportacionService exportacionService;
+
+    @Autowired
+    private LibroInventarioService libroInventarioService;
+
+    @Autowired
+    private DisponibilidadInventarioService disponibilidadInventarioService;
 
     /**
-     * Lista todos los productos del inventario.
+     * Lista una página de los productos del inventario, con las unidades de cada uno
+     * libres todos los días a partir de hoy. La página siguiente se pide con el ID del
+     * último producto mostrado.
      *
-     * @param model modelo con la lista de productos
+     * @param nombre    texto que debe contener el nombre del producto
+     * @param orden     {@code asc} o {@code desc} según el ID del producto
+     * @param despuesId ID del último producto de la página anterior
+     * @param tamano    cantidad de productos por página
+     * @param model     modelo con la página de productos
      * @return vista de lista de inventario
      */
     @GetMapping("/lista")
-    public String listar(Model model) {
-        model.addAttribute("productos", productoInventarioService.findAll());
+    public String listar(@RequestParam(required = false) String nombre,
+                         @RequestParam(defaultValue = "asc") String orden,
+                         @RequestParam(required = false) Long despuesId,
+                         @RequestParam(defaultValue = "" + PaginaKeyset.TAMANO_POR_DEFECTO) int tamano,
+                         Model model) {
+        PaginaKeyset<ProductoListado> pagina = productoInventarioService.listarPaginado(
+                nombre, "desc".equals(orden), despuesId, tamano);
+
+        model.addAttribute("pagina", pagina);
+        model.addAttribute("productos", pagina.elementos());
+        model.addAttribute("libres", disponibilidadInventarioService.disponiblesDesde(
+                pagina.elementos().stream().map(ProductoListado::id).toList(), LocalDate.now()));
+        model.addAttribute("nombre", nombre);
+        model.addAttribute("orden", orden);
+        model.addAttribute("tamano", tamano);
         return "inventario/listaInventario";
     }
 
@@ -81,34 +115,97 @@ public class InventarioController {
     }
 
     /**
-     * Actualiza un producto existente del inventario.
+     * Actualiza un producto existente del inventario. Si otra persona lo modificó
+     * mientras se editaba, se vuelve al formulario con los datos actuales.
      *
      * @param productoInventario datos actualizados
-     * @return redirección a la lista de inventario
+     * @param modelo             modelo con el motivo si la edición se rechaza
+     * @return redirección a la lista de inventario o el formulario con el error
      */
     @PostMapping("/actualizar")
-    public String actualizarProductoInventario(@ModelAttribute ProductoInventario productoInventario) {
-        productoInventarioService.guardar(productoInventario);
+    public String actualizarProductoInventario(@ModelAttribute ProductoInventario productoInventario, Model modelo) {
+        try {
+            productoInventarioService.guardar(productoInventario);
+        } catch (OptimisticLockingFailureException e) {
+            ProductoInventario actual = productoInventarioService.findById(productoInventario.getId());
+            modelo.addAttribute("productoInventario", actual != null ? actual : productoInventario);
+            modelo.addAttribute("error", "Otra persona modificó este producto mientras lo editaba. "
+                    + "Se muestran los datos actuales; revise los cambios y vuelva a guardar.");
+            return "inventario/formularioInventario";
+        } catch (IllegalArgumentException e) {
+            modelo.addAttribute("error", e.getMessage());
+            return "inventario/formularioInventario";
+        }
         return "redirect:/inventario/lista";
     }
 
     /**
-     * Exporta los productos del inventario a un archivo Excel.
+     * Exporta el inventario en Excel, CSV o JSON por líneas, opcionalmente comprimido con gzip.
+     * El archivo se escribe directamente en la respuesta a medida que se leen las filas;
+     * con {@code since} solo se incluyen los cambios recientes.
      *
-     * @return archivo Excel como recurso descargable
+     * @param format {@code xlsx} (por defecto), {@code csv} o {@code jsonl}
+     * @param gzip   si el archivo se comprime con gzip
+     * @param since  si se indica, solo se exportan los productos creados o modificados desde ese instante
+     * @return archivo descargable
      */
     @GetMapping("/exportar/excel")
-    public ResponseEntity<Resource> exportarInventarioExcel() {
-        List<ProductoInventario> productos = productoInventarioService.findAll();
-        ByteArrayInputStream excelFile = excelService.crearExcelDeInventario(productos);
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=reporte_inventario.xlsx");
+    public ResponseEntity<StreamingResponseBody> exportarInventarioExcel(
+            @RequestParam(defaultValue = "xlsx") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since) {
+        FormatoExportacion formato = FormatoExportacion.desdeExtension(format)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Formato no soportado: " + format));
 
         return ResponseEntity.ok()
-                .headers(headers)
-                .contentType(MediaType.parseMediaType(
-                        "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                .body(new InputStreamResource(excelFile));
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=" + formato.nombreArchivo(TipoReporte.INVENTARIO.getNombreBase(), gzip))
+                .contentType(MediaType.parseMediaType(formato.tipoContenido(gzip)))
+                .body(salida -> exportacionService.exportar(TipoReporte.INVENTARIO, formato, since, gzip, salida));
+    }
+
+    /**
+     * Devuelve el stock de un producto calculado a partir del libro de inventario,
+     * el actual o el que tenía en un momento pasado.
+     *
+     * @param id    ID del producto
+     * @param fecha momento de la consulta; si falta, el stock actual
+     * @return stock total y disponible en JSON
+     */
+    @GetMapping(value = "/{id}/stock", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public LibroInventarioService.Saldo stock(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fecha) {
+        if (productoInventarioService.findById(id) == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Producto no encontrado: " + id);
+        }
+        return libroInventarioService.saldoAl(id, fecha);
+    }
+
+    /**
+     * Devuelve cuántas unidades de un producto pueden asignarse a un evento en un rango
+     * de fechas: el stock total menos el día de mayor ocupación del rango.
+     *
+     * @param id    ID del producto
+     * @param desde primer día del rango
+     * @param hasta último día del rango; si falta, el mismo día de inicio
+     * @return disponibilidad en JSON
+     */
+    @GetMapping(value = "/{id}/disponibilidad", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public DisponibilidadInventarioService.Disponibilidad disponibilidad(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        LocalDate fin = hasta != null ? hasta : desde;
+        if (fin.isBefore(desde)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "La fecha final es anterior a la inicial");
+        }
+        try {
+            return disponibilidadInventarioService.disponibilidad(id, desde, fin);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
     }
 }
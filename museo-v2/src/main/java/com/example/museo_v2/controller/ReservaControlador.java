@@ -2,21 +2,39 @@ package com.example.museo_v2.controller;
 
 import com.example.museo_v2.model.Evento;
 import com.example.museo_v2.model.Reserva;
+import com.example.museo_v2.model.SolicitudEspera;
+import com.example.museo_v2.model.TipoReporte;
+import com.example.museo_v2.service.AforoService;
+import com.example.museo_v2.service.BloqueoEntradasService;
 import com.example.museo_v2.service.EventoService;
-import com.example.museo_v2.service.PdfService;
+import com.example.museo_v2.service.ExportacionService;
+import com.example.museo_v2.service.IdempotenciaService;
+import com.example.museo_v2.service.ListaEsperaService;
 import com.example.museo_v2.service.ReservaService;
+import com.example.museo_v2.service.TicketService;
+import com.example.museo_v2.util.FormatoExportacion;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.InputStreamResource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Optional;
 
 /**
  * Controlador para la gestión de reservas de eventos.
@@ -35,17 +53,36 @@ public class ReservaControlador {
     private EventoService eventoService;
 
     @Autowired
-    private PdfService pdfService;
+    private TicketService ticketService;
+
+    @Autowired
+    private IdempotenciaService idempotenciaService;
+
+    @Autowired
+    private BloqueoEntradasService bloqueoEntradasService;
+
+    @Autowired
+    private ListaEsperaService listaEsperaService;
+
+    @Autowired
+    private AforoService aforoService;
+
+    @Autowired
+    private ExportacionService exportacionService;
 
     /**
-     * Muestra el formulario para crear una reserva asociada a un evento.
+     * Muestra el formulario para crear una reserva asociada a un evento. Abrir el
+     * formulario no retiene entradas; eso se hace con {@link #retenerEntradas}.
      *
      * @param eventoId ID del evento a reservar
+     * @param entradas cantidad de entradas propuesta, acotada al máximo por reserva
      * @param model modelo para enviar datos a la vista
      * @return vista del formulario de reserva
      */
     @GetMapping("/crear/{eventoId}")
-    public String mostrarFormularioReserva(@PathVariable Long eventoId, Model model) {
+    public String mostrarFormularioReserva(@PathVariable Long eventoId,
+                                           @RequestParam(defaultValue = "1") int entradas,
+                                           Model model) {
         logger.info("ACCESO FORMULARIO | Solicitud de reserva para evento {}", eventoId);
 
         Evento evento = eventoService.obtenerEventoPorId(eventoId);
@@ -54,33 +91,96 @@ public class ReservaControlador {
             return "redirect:/";
         }
 
-        model.addAttribute("reserva", new Reserva());
+        int maxEntradas = reservaService.getMaxEntradas();
+        int cantidad = Math.min(maxEntradas, Math.max(1, entradas));
+        Reserva reserva = new Reserva();
+        reserva.setNEntradas(cantidad);
+
+        if (!model.containsAttribute("bloqueoId") && aforoService.entradasDisponibles(eventoId) < cantidad) {
+            model.addAttribute("agotado", true);
+            if (!model.containsAttribute("error")) {
+                model.addAttribute("error", "En este momento no quedan entradas suficientes para este evento.");
+            }
+        }
+
+        model.addAttribute("reserva", reserva);
         model.addAttribute("evento", evento);
         model.addAttribute("precioUnitario", evento.getCostoEntrada());
+        model.addAttribute("maxEntradas", maxEntradas);
+        model.addAttribute("claveIdempotencia", idempotenciaService.generarClave());
 
         return "reservas/formularioReserva";
     }
 
+    /**
+     * Retiene entradas de un evento mientras el cliente completa el formulario.
+     *
+     * @param eventoId ID del evento a reservar
+     * @param entradas cantidad de entradas a retener
+     * @param redirectAttributes atributos con el bloqueo creado o el motivo del rechazo
+     * @return redirección al formulario de reserva
+     */
+    @PostMapping("/retener/{eventoId}")
+    public String retenerEntradas(@PathVariable Long eventoId,
+                                  @RequestParam(defaultValue = "1") int entradas,
+                                  RedirectAttributes redirectAttributes) {
+        if (eventoService.obtenerEventoPorId(eventoId) == null) {
+            logger.warn("EVENTO NO ENCONTRADO | ID {}", eventoId);
+            return "redirect:/";
+        }
+
+        int maxEntradas = reservaService.getMaxEntradas();
+        if (entradas < 1 || entradas > maxEntradas) {
+            redirectAttributes.addFlashAttribute("error",
+                    "Se pueden reservar entre 1 y " + maxEntradas + " entradas por reserva.");
+            return "redirect:/reservas/crear/" + eventoId;
+        }
+
+        Optional<String> bloqueo = bloqueoEntradasService.bloquear(eventoId, entradas);
+        if (bloqueo.isPresent()) {
+            redirectAttributes.addFlashAttribute("bloqueoId", bloqueo.get());
+            redirectAttributes.addFlashAttribute("minutosBloqueo", bloqueoEntradasService.getVigencia().toMinutes());
+        } else {
+            logger.info("SIN ENTRADAS PARA RETENER | Evento {} | Cantidad {}", eventoId, entradas);
+            redirectAttributes.addFlashAttribute("error", "En este momento no quedan entradas suficientes para este evento.");
+        }
+        return "redirect:/reservas/crear/" + eventoId + "?entradas=" + entradas;
+    }
+
     /**
      * Procesa y guarda una reserva para un evento.
      *
      * @param eventoId ID del evento reservado
      * @param reserva datos de la reserva
+     * @param claveIdempotencia clave emitida con el formulario; los reenvíos con la misma clave
+     *                          obtienen la misma confirmación sin duplicar la reserva
+     * @param bloqueoId entradas retenidas al abrir el formulario
+     * @param redirectAttributes atributos para informar el motivo si la reserva no se registra
      * @return redirección a la página de confirmación
      */
     @PostMapping("/guardar/{eventoId}")
-    public String guardarReserva(@PathVariable Long eventoId, @ModelAttribute("reserva") Reserva reserva) {
+    public String guardarReserva(@PathVariable Long eventoId, @ModelAttribute("reserva") Reserva reserva,
+                                 @RequestParam(required = false) String claveIdempotencia,
+                                 @RequestParam(required = false) String bloqueoId,
+                                 RedirectAttributes redirectAttributes) {
         logger.info("RESERVA EN PROCESO | Evento {} | Cliente: {}", eventoId, reserva.getNombreCompleto());
 
         try {
-            Reserva reservaGuardada = reservaService.guardarReserva(reserva, eventoId);
+            return idempotenciaService.ejecutar(claveIdempotencia, () -> {
+                Reserva reservaGuardada = reservaService.guardarReserva(reserva, eventoId, bloqueoId);
+
+                logger.info("RESERVA EXITOSA | ID {} | Total S/ {} | Método {}",
+                        reservaGuardada.getId(),
+                        reservaGuardada.getTotalPagar(),
+                        reservaGuardada.getMetodoPago());
 
-            logger.info("RESERVA EXITOSA | ID {} | Total S/ {} | Método {}",
-                    reservaGuardada.getId(),
-                    reservaGuardada.getTotalPagar(),
-                    reservaGuardada.getMetodoPago());
+                return "redirect:/reservas/confirmacion/" + reservaGuardada.getId();
+            });
 
-            return "redirect:/reservas/confirmacion/" + reservaGuardada.getId();
+        } catch (IllegalStateException e) {
+            logger.warn("RESERVA NO REGISTRADA | Evento {} | Motivo: {}", eventoId, e.getMessage());
+            redirectAttributes.addFlashAttribute("error", e.getMessage());
+            return "redirect:/reservas/crear/" + eventoId;
 
         } catch (IllegalArgumentException e) {
             logger.error("ERROR EN RESERVA | Evento {} | Motivo: {}", eventoId, e.getMessage());
@@ -88,6 +188,71 @@ public class ReservaControlador {
         }
     }
 
+    /**
+     * Inscribe al cliente en la lista de espera de un evento agotado con los
+     * datos del formulario de reserva.
+     *
+     * @param eventoId ID del evento
+     * @param reserva datos del cliente y entradas solicitadas
+     * @param claveIdempotencia clave emitida con el formulario
+     * @return redirección al estado de la solicitud
+     */
+    @PostMapping("/espera/{eventoId}")
+    public String inscribirEnEspera(@PathVariable Long eventoId, @ModelAttribute("reserva") Reserva reserva,
+                                    @RequestParam(required = false) String claveIdempotencia) {
+        try {
+            return idempotenciaService.ejecutar(claveIdempotencia, () -> {
+                SolicitudEspera solicitud = listaEsperaService.inscribir(reserva, eventoId);
+                logger.info("LISTA DE ESPERA | Evento {} | Solicitud {} | Entradas {}",
+                        eventoId, solicitud.getId(), solicitud.getNEntradas());
+                return "redirect:/reservas/espera/estado/" + solicitud.getId();
+            });
+        } catch (IllegalArgumentException e) {
+            logger.error("ERROR EN LISTA DE ESPERA | Evento {} | Motivo: {}", eventoId, e.getMessage());
+            return "redirect:/";
+        }
+    }
+
+    /**
+     * Muestra la posición de una solicitud en la lista de espera, o la
+     * confirmación de la reserva si ya fue promovida.
+     *
+     * @param solicitudId ID de la solicitud
+     * @param model modelo con la solicitud y su posición
+     * @return vista del estado de la solicitud
+     */
+    @GetMapping("/espera/estado/{solicitudId}")
+    public String mostrarEstadoEspera(@PathVariable Long solicitudId, Model model) {
+        SolicitudEspera solicitud = listaEsperaService.obtenerSolicitud(solicitudId);
+        if (solicitud == null) {
+            return "redirect:/";
+        }
+
+        Reserva reserva = listaEsperaService.obtenerReservaPromovida(solicitudId);
+        if (reserva != null) {
+            return "redirect:/reservas/confirmacion/" + reserva.getId();
+        }
+
+        model.addAttribute("solicitud", solicitud);
+        model.addAttribute("posicion", listaEsperaService.posicion(solicitud));
+        return "reservas/listaEspera";
+    }
+
+    /**
+     * Cancela una reserva y devuelve sus entradas al evento. Solo disponible
+     * para administradores.
+     *
+     * @param id ID de la reserva
+     * @return redirección al inicio
+     */
+    @PostMapping("/cancelar/{id}")
+    public String cancelarReserva(@PathVariable Long id) {
+        if (reservaService.cancelarReserva(id)) {
+            logger.info("RESERVA CANCELADA | ID {}", id);
+        }
+        return "redirect:/";
+    }
+
     /**
      * Muestra la página de confirmación de una reserva.
      *
@@ -117,27 +282,99 @@ public class ReservaControlador {
     }
 
     /**
-     * Genera y descarga el ticket en PDF de una reserva.
+     * Descarga el ticket en PDF de una reserva.
+     * <p>
+     * El ticket se identifica con un {@code ETag} que depende de su contenido: si el
+     * navegador ya tiene esa versión responde 304 sin cuerpo; si está en la caché de
+     * tickets se envía el archivo guardado, y si no, se genera directamente en la
+     * respuesta mientras se guarda.
      *
-     * @param id ID de la reserva
-     * @return archivo PDF como respuesta
+     * @param id        ID de la reserva
+     * @param solicitud solicitud, para comparar {@code If-None-Match}
+     * @return archivo PDF como respuesta, o 304 si no cambió
      */
     @GetMapping("/ticket/{id}/pdf")
-    public ResponseEntity<InputStreamResource> descargarTicket(@PathVariable Long id) {
+    public ResponseEntity<StreamingResponseBody> descargarTicket(@PathVariable Long id, WebRequest solicitud)
+            throws IOException {
         Reserva reserva = reservaService.obtenerReservaPorId(id);
 
         if (reserva == null) {
             return ResponseEntity.notFound().build();
         }
 
-        ByteArrayInputStream pdf = pdfService.generarTicketPdf(reserva);
+        // Responde 304 si coincide If-None-Match; en ambos casos agrega el ETag a la respuesta
+        String etiqueta = ticketService.etiqueta(reserva);
+        if (solicitud.checkNotModified(etiqueta)) {
+            return null;
+        }
+
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=ticket_museo_" + id + ".pdf")
+                .contentType(MediaType.APPLICATION_PDF);
+
+        Optional<Path> guardado = ticketService.buscar(etiqueta);
+        if (guardado.isPresent()) {
+            Path archivo = guardado.get();
+            return respuesta.contentLength(Files.size(archivo))
+                    .body(salida -> ticketService.enviar(archivo, salida));
+        }
+        return respuesta.body(salida -> ticketService.generar(reserva, etiqueta, salida));
+    }
+
+    /**
+     * Descarga los tickets de todas las reservas de un evento en un solo archivo. Los
+     * tickets se generan en paralelo y se escriben en la respuesta a medida que están
+     * listos.
+     *
+     * @param eventoId ID del evento
+     * @param format   {@code zip} (por defecto), con un PDF por reserva, o {@code pdf},
+     *                 con una página por reserva
+     * @return archivo descargable, o 404 si el evento no tiene reservas
+     */
+    @GetMapping("/tickets/evento/{eventoId}")
+    public ResponseEntity<StreamingResponseBody> descargarTicketsDeEvento(
+            @PathVariable Long eventoId,
+            @RequestParam(defaultValue = "zip") String format) {
+        TicketService.FormatoLote formato = switch (format.toLowerCase()) {
+            case "zip" -> TicketService.FormatoLote.ZIP;
+            case "pdf" -> TicketService.FormatoLote.PDF;
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Formato no soportado: " + format);
+        };
+        if (ticketService.contarReservas(eventoId) == 0) {
+            return ResponseEntity.notFound().build();
+        }
+
+        String archivo = "tickets_evento_" + eventoId + (formato == TicketService.FormatoLote.ZIP ? ".zip" : ".pdf");
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + archivo)
+                .contentType(formato == TicketService.FormatoLote.ZIP
+                        ? MediaType.parseMediaType("application/zip") : MediaType.APPLICATION_PDF)
+                .body(salida -> ticketService.escribirTicketsDeEvento(eventoId, formato, salida));
+    }
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=ticket_museo_" + id + ".pdf");
+    /**
+     * Exporta las reservas en Excel, CSV o JSON por líneas, opcionalmente comprimido con gzip.
+     * El archivo se escribe directamente en la respuesta a medida que se leen las filas;
+     * con {@code since} solo se incluyen los cambios recientes.
+     *
+     * @param format {@code xlsx} (por defecto), {@code csv} o {@code jsonl}
+     * @param gzip   si el archivo se comprime con gzip
+     * @param since  si se indica, solo se exportan las reservas creadas o modificadas desde ese instante
+     * @return archivo descargable
+     */
+    @GetMapping("/exportar/excel")
+    public ResponseEntity<StreamingResponseBody> exportarReservasExcel(
+            @RequestParam(defaultValue = "xlsx") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since) {
+        FormatoExportacion formato = FormatoExportacion.desdeExtension(format)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Formato no soportado: " + format));
 
         return ResponseEntity.ok()
-                .headers(headers)
-                .contentType(MediaType.APPLICATION_PDF)
-                .body(new InputStreamResource(pdf));
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=" + formato.nombreArchivo(TipoReporte.RESERVAS.getNombreBase(), gzip))
+                .contentType(MediaType.parseMediaType(formato.tipoContenido(gzip)))
+                .body(salida -> exportacionService.exportar(TipoReporte.RESERVAS, formato, since, gzip, salida));
     }
 }
@@ -1,22 +1,28 @@
 package com.example.museo_v2.controller;
 
+import com.example.museo_v2.model.PaginaKeyset;
 import com.example.museo_v2.model.Sala;
-import com.example.museo_v2.service.ExcelService;
+import com.example.museo_v2.model.SalaListado;
+import com.example.museo_v2.model.TipoReporte;
+import com.example.museo_v2.service.ExportacionService;
+import com.example.museo_v2.service.ReintentoOptimistaService;
+import com.example.museo_v2.service.ReintentoOptimistaService.Politica;
 import com.example.museo_v2.service.SalaService;
+import com.example.museo_v2.util.FormatoExportacion;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.InputStreamResource;
-import org.springframework.core.io.Resource;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.util.List;
 
 /**
  * Controlador para manejar las salas dentro del museo.
@@ -30,16 +36,34 @@ public class SalaControlador {
     private SalaService salaService;
 
     @Autowired
-    private ExcelService excelService;
+    private ExportacionService exportacionService;
+
+    @Autowired
+    private ReintentoOptimistaService reintentos;
     /**
-     * Método que lista todas las salas disponibles en el museo.
+     * Método que lista una página de las salas del museo. La página siguiente se pide
+     * con el ID de la última sala mostrada.
      * 
-     * @param modelo El modelo que contiene los atributos necesarios para la vista.
+     * @param nombre    Texto que debe contener el nombre de la sala.
+     * @param orden     {@code asc} o {@code desc} según el ID de la sala.
+     * @param despuesId ID de la última sala de la página anterior.
+     * @param tamano    Cantidad de salas por página.
+     * @param modelo    El modelo que contiene los atributos necesarios para la vista.
      * @return La vista de la lista de salas.
      */
     @GetMapping
-    public String listarSalas(Model modelo) {
-        modelo.addAttribute("salas", salaService.listarTodasLasSalas());
+    public String listarSalas(@RequestParam(required = false) String nombre,
+                              @RequestParam(defaultValue = "asc") String orden,
+                              @RequestParam(required = false) Integer despuesId,
+                              @RequestParam(defaultValue = "" + PaginaKeyset.TAMANO_POR_DEFECTO) int tamano,
+                              Model modelo) {
+        PaginaKeyset<SalaListado> pagina = salaService.listarSalasPaginadas(nombre, "desc".equals(orden), despuesId, tamano);
+
+        modelo.addAttribute("pagina", pagina);
+        modelo.addAttribute("salas", pagina.elementos());
+        modelo.addAttribute("nombre", nombre);
+        modelo.addAttribute("orden", orden);
+        modelo.addAttribute("tamano", tamano);
         return "salas/listaSalas";
     }
 
@@ -57,17 +81,28 @@ public class SalaControlador {
 
     /**
      * Método para guardar una nueva sala, con la posibilidad de subir una imagen asociada a la sala.
+     * Si otra persona modificó la sala mientras se editaba, no se sobrescribe su cambio:
+     * se vuelve al formulario con los datos actuales.
      * 
      * @param sala El objeto Sala que contiene los datos de la sala a guardar.
      * @param file El archivo de imagen asociado a la sala.
+     * @param modelo El modelo con los datos actuales si la edición se rechaza.
      * @return Redirige a la lista de salas después de guardar la nueva sala.
      * @throws IOException Si ocurre un error al procesar el archivo de imagen.
      */
     @PostMapping("/guardar")
     public String guardarSala(@ModelAttribute Sala sala,
-            @RequestParam("file") MultipartFile file) throws IOException {
-
-        salaService.guardarSala(sala, file);
+            @RequestParam("file") MultipartFile file, Model modelo) throws IOException {
+
+        try {
+            reintentos.ejecutar("sala", Politica.RECHAZAR, () -> salaService.guardarSala(sala, file));
+        } catch (OptimisticLockingFailureException e) {
+            Sala actual = salaService.obtenerSalaPorId(sala.getId());
+            modelo.addAttribute("sala", actual != null ? actual : sala);
+            modelo.addAttribute("error", "Otra persona modificó esta sala mientras la editaba. "
+                    + "Se muestran los datos actuales; revise los cambios y vuelva a guardar.");
+            return "salas/formularioSala";
+        }
         return "redirect:/salas";
     }
 
@@ -101,22 +136,25 @@ public class SalaControlador {
         return "redirect:/salas";
     }
 
+    /**
+     * Exporta las salas en Excel, CSV o JSON por líneas, opcionalmente comprimido con gzip.
+     * El archivo se escribe directamente en la respuesta a medida que se leen las filas.
+     *
+     * @param format {@code xlsx} (por defecto), {@code csv} o {@code jsonl}
+     * @param gzip   si el archivo se comprime con gzip
+     * @return archivo descargable
+     */
     @GetMapping("/exportar/excel")
-    public ResponseEntity<Resource> exportarSalasExcel() {
-
-        List<Sala> salas = salaService.listarTodasLasSalas();
-
-        ByteArrayInputStream excelFile = excelService.crearExcelDeSalas(salas);
-
-        HttpHeaders headers = new HttpHeaders();
-        String filename = "reporte_salas.xlsx";
-        headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename);
-
-        InputStreamResource resource = new InputStreamResource(excelFile);
+    public ResponseEntity<StreamingResponseBody> exportarSalasExcel(
+            @RequestParam(defaultValue = "xlsx") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        FormatoExportacion formato = FormatoExportacion.desdeExtension(format)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Formato no soportado: " + format));
 
         return ResponseEntity.ok()
-                .headers(headers)
-                .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                .body(resource);
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=" + formato.nombreArchivo(TipoReporte.SALAS.getNombreBase(), gzip))
+                .contentType(MediaType.parseMediaType(formato.tipoContenido(gzip)))
+                .body(salida -> exportacionService.exportar(TipoReporte.SALAS, formato, null, gzip, salida));
     }
 }
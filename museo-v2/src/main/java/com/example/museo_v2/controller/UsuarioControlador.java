@@ -1,6 +1,8 @@
 package com.example.museo_v2.controller;
 
+import com.example.museo_v2.model.PaginaKeyset;
 import com.example.museo_v2.model.Usuario;
+import com.example.museo_v2.model.UsuarioListado;
 import com.example.museo_v2.service.UsuarioService;
 
 import org.springframework.stereotype.Controller;
@@ -8,7 +10,6 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.validation.BindingResult;
 
-import java.util.List;
 
 /**
  * Controlador para la gestión de usuarios: login, registro y listado.
@@ -70,15 +71,30 @@ public class UsuarioControlador {
     }
 
     /**
-     * Muestra la lista de usuarios registrados.
+     * Muestra una página de la lista de usuarios registrados. La página siguiente se
+     * pide con el ID del último usuario mostrado.
      *
-     * @param model modelo para enviar la lista de usuarios
+     * @param nombre    texto que deben contener los nombres o el nombre de usuario
+     * @param orden     {@code asc} o {@code desc} según el ID del usuario
+     * @param despuesId ID del último usuario de la página anterior
+     * @param tamano    cantidad de usuarios por página
+     * @param model     modelo para enviar la página de usuarios
      * @return vista del listado de usuarios
      */
     @GetMapping("/lista")
-    public String listarUsuarios(Model model) {
-        List<Usuario> usuarios = usuarioService.listarUsuarios();
-        model.addAttribute("usuarios", usuarios);
+    public String listarUsuarios(@RequestParam(required = false) String nombre,
+                                 @RequestParam(defaultValue = "asc") String orden,
+                                 @RequestParam(required = false) Long despuesId,
+                                 @RequestParam(defaultValue = "" + PaginaKeyset.TAMANO_POR_DEFECTO) int tamano,
+                                 Model model) {
+        PaginaKeyset<UsuarioListado> pagina = usuarioService.listarUsuariosPaginados(
+                nombre, "desc".equals(orden), despuesId, tamano);
+
+        model.addAttribute("pagina", pagina);
+        model.addAttribute("usuarios", pagina.elementos());
+        model.addAttribute("nombre", nombre);
+        model.addAttribute("orden", orden);
+        model.addAttribute("tamano", tamano);
         return "usuarios/usuarios";
     }
 }
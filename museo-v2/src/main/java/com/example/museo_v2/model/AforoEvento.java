@@ -0,0 +1,39 @@
+package com.example.museo_v2.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Contador de entradas vendidas por evento.
+ * Se mantiene en una tabla aparte para que la asignación de asientos solo
+ * bloquee la fila del evento y no interfiera con la edición del {@link Evento}.
+ */
+@Entity
+@Table(name = "aforo_eventos")
+@Getter
+@Setter
+@NoArgsConstructor
+public class AforoEvento {
+
+    /** Identificador del evento al que pertenece el contador. */
+    @Id
+    @Column(name = "id_evento")
+    private Long eventoId;
+
+    /** Cantidad de entradas ya vendidas para el evento. */
+    @Column(name = "entradas_vendidas", nullable = false)
+    private Integer entradasVendidas;
+
+    /**
+     * Crea el contador de un evento.
+     *
+     * @param eventoId identificador del evento
+     * @param entradasVendidas entradas vendidas al momento de crear el contador
+     */
+    public AforoEvento(Long eventoId, Integer entradasVendidas) {
+        this.eventoId = eventoId;
+        this.entradasVendidas = entradasVendidas;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.museo_v2.model;
+
+/**
+ * Estado de un trabajo de exportación en un momento dado. Es lo que se devuelve
+ * al consultar el progreso y lo que se envía a los suscriptores.
+ *
+ * @param id            identificador del trabajo
+ * @param tipo          reporte que se genera
+ * @param fase          fase en la que se encuentra
+ * @param filasEscritas filas escritas hasta el momento
+ * @param filasTotales  filas a escribir, o 0 si aún no se conocen
+ * @param error         motivo del fallo, o {@code null}
+ */
+public record EstadoExportacion(String id, TipoReporte tipo, Fase fase, long filasEscritas, long filasTotales,
+                                String error) {
+
+    /** Fases de un trabajo de exportación. */
+    public enum Fase {
+        PENDIENTE, EN_CURSO, COMPLETADA, FALLIDA
+    }
+
+    /**
+     * Porcentaje de avance, de 0 a 100.
+     *
+     * @return el porcentaje de filas escritas
+     */
+    public int porcentaje() {
+        if (fase == Fase.COMPLETADA) {
+            return 100;
+        }
+        return filasTotales > 0 ? (int) Math.min(99, filasEscritas * 100 / filasTotales) : 0;
+    }
+
+    /**
+     * Indica si el trabajo ya no cambiará de fase.
+     *
+     * @return {@code true} si se completó o falló
+     */
+    public boolean terminado() {
+        return fase == Fase.COMPLETADA || fase == Fase.FALLIDA;
+    }
+}
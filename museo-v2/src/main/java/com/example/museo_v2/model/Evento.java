@@ -3,10 +3,13 @@ package com.example.museo_v2.model;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
 
 /**
  * Representa un evento dentro del museo.
@@ -18,7 +21,11 @@ import lombok.EqualsAndHashCode;
 @NoArgsConstructor
 @EqualsAndHashCode(of = "nombre")
 @Entity
-@Table(name = "Evento")
+@Table(name = "Evento", indexes = {
+        @Index(name = "idx_evento_fecha_inicio_sala", columnList = "fecha_inicio, id_sala"),
+        @Index(name = "idx_evento_fecha_inicio_id", columnList = "fecha_inicio, id_evento"),
+        @Index(name = "idx_evento_fecha_modificacion", columnList = "fecha_modificacion")
+})
 public class Evento {
 
     @Id
@@ -51,4 +58,15 @@ public class Evento {
     @JoinColumn(name = "id_sala")
     private Sala sala;
 
+    /** Fecha y hora de la última modificación; Hibernate la asigna al insertar y al actualizar. */
+    @UpdateTimestamp
+    @Column(name = "fecha_modificacion")
+    private LocalDateTime fechaModificacion;
+
+    /** Versión para el control optimista de concurrencia; aumenta con cada escritura de la fila. */
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
 }
\ No newline at end of file
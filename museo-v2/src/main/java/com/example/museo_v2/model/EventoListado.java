@@ -0,0 +1,20 @@
+package com.example.museo_v2.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Fila del listado de administración de eventos. Contiene solo las columnas que
+ * muestra la tabla, incluido el nombre de la sala, y se obtiene con una sola consulta.
+ *
+ * @param id           identificador del evento
+ * @param nombre       nombre del evento
+ * @param fechaInicio  fecha de inicio; junto con {@code id} forma el cursor del listado
+ * @param horaInicio   hora de inicio
+ * @param salaNombre   nombre de la sala, o {@code null} si no tiene sala asignada
+ * @param costoEntrada costo de la entrada
+ */
+public record EventoListado(Long id, String nombre, LocalDate fechaInicio, LocalTime horaInicio,
+                            String salaNombre, BigDecimal costoEntrada) {
+}
@@ -9,7 +9,10 @@ import lombok.NoArgsConstructor;
  * indicando cuántas unidades de un producto fueron asignadas a un evento.
  */
 @Entity
-@Table(name = "evento_productos")
+@Table(name = "evento_productos", indexes = {
+        @Index(name = "idx_evento_producto_evento", columnList = "evento_id, producto_id"),
+        @Index(name = "idx_evento_producto_producto", columnList = "producto_id, evento_id")
+})
 @Data
 @NoArgsConstructor
 public class EventoProducto {
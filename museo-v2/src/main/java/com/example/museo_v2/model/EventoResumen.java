@@ -0,0 +1,33 @@
+package com.example.museo_v2.model;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Vista reducida de un evento para los listados de la página de inicio.
+ * Contiene solo las columnas que se muestran, incluida la sala, por lo que se
+ * obtiene con una sola consulta y sin cargar entidades completas.
+ *
+ * @param id            identificador del evento
+ * @param nombre        nombre del evento
+ * @param fechaInicio   fecha de inicio
+ * @param horaInicio    hora de inicio
+ * @param salaNombre    nombre de la sala, o {@code null} si no tiene sala asignada
+ * @param salaImagenUrl imagen de la sala, o {@code null} si no tiene
+ */
+public record EventoResumen(Long id, String nombre, LocalDate fechaInicio, LocalTime horaInicio,
+                            String salaNombre, String salaImagenUrl) {
+
+    /**
+     * Crea el resumen a partir de un evento cuya sala ya está cargada.
+     *
+     * @param evento evento completo
+     * @return resumen del evento
+     */
+    public static EventoResumen desde(Evento evento) {
+        Sala sala = evento.getSala();
+        return new EventoResumen(evento.getId(), evento.getNombre(), evento.getFechaInicio(), evento.getHoraInicio(),
+                sala != null ? sala.getNombre() : null,
+                sala != null ? sala.getImagenUrl() : null);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.museo_v2.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Saldo acumulado de un producto hasta un movimiento del libro de inventario. Evita
+ * sumar el libro completo: el stock actual es la última instantánea más los
+ * movimientos posteriores a ella.
+ */
+@Entity
+@Table(name = "instantaneas_inventario", indexes = @Index(name = "idx_instantanea_producto",
+        columnList = "producto_id, hasta_movimiento"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class InstantaneaInventario {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** Producto al que corresponde el saldo. */
+    @Column(name = "producto_id", nullable = false)
+    private Long productoId;
+
+    /** Stock total acumulado. */
+    @Column(name = "stock_total", nullable = false)
+    private int stockTotal;
+
+    /** Stock disponible acumulado. */
+    @Column(name = "stock_disponible", nullable = false)
+    private int stockDisponible;
+
+    /** Último movimiento incluido en el saldo. */
+    @Column(name = "hasta_movimiento", nullable = false)
+    private Long hastaMovimiento;
+
+    /** Todos los movimientos anteriores a este momento están incluidos en el saldo. */
+    @Column(nullable = false)
+    private LocalDateTime fecha;
+}
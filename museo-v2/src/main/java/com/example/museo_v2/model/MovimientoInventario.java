@@ -0,0 +1,53 @@
+package com.example.museo_v2.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Movimiento de stock de un producto. El libro de movimientos solo admite
+ * inserciones: el stock de un producto en cualquier momento es la suma de sus
+ * movimientos hasta ese momento, partiendo de la última instantánea anterior.
+ */
+@Entity
+@Table(name = "movimientos_inventario", indexes = {
+        @Index(name = "idx_movimiento_producto", columnList = "producto_id, id"),
+        @Index(name = "idx_movimiento_fecha", columnList = "fecha")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class MovimientoInventario {
+
+    /** Identificador del movimiento; crece en el orden en que se registran. */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** Producto afectado. */
+    @Column(name = "producto_id", nullable = false)
+    private Long productoId;
+
+    /** Evento que originó la reserva o liberación; nulo en los demás movimientos. */
+    @Column(name = "evento_id")
+    private Long eventoId;
+
+    /** Origen del movimiento. */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TipoMovimiento tipo;
+
+    /** Unidades que se suman (o restan, si es negativo) al stock total. */
+    @Column(name = "cambio_total", nullable = false)
+    private int cambioTotal;
+
+    /** Unidades que se suman (o restan, si es negativo) al stock disponible. */
+    @Column(name = "cambio_disponible", nullable = false)
+    private int cambioDisponible;
+
+    /** Momento del movimiento. */
+    @Column(nullable = false)
+    private LocalDateTime fecha;
+}
@@ -0,0 +1,19 @@
+package com.example.museo_v2.model;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Datos que muestra la página de inicio, listos para servirse desde memoria.
+ *
+ * @param eventosDelMes   eventos que inician en el mes de {@code fecha}
+ * @param eventosProximos próximos eventos destacados
+ * @param fecha           día para el que se calcularon los listados
+ */
+public record PaginaInicio(List<EventoResumen> eventosDelMes, List<EventoResumen> eventosProximos, LocalDate fecha) {
+
+    public PaginaInicio {
+        eventosDelMes = List.copyOf(eventosDelMes);
+        eventosProximos = List.copyOf(eventosProximos);
+    }
+}
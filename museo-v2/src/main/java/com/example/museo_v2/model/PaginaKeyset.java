@@ -0,0 +1,59 @@
+package com.example.museo_v2.model;
+
+import java.util.List;
+
+/**
+ * Página de un listado paginado por cursor (keyset). En lugar de saltar filas con un
+ * desplazamiento, la página siguiente se obtiene buscando a partir de la clave del
+ * último elemento mostrado, por lo que el costo de cada página no depende de cuántas
+ * filas tenga la tabla ni de qué tan lejos se haya navegado.
+ *
+ * @param elementos    elementos de la página
+ * @param haySiguiente {@code true} si existen más elementos después del último
+ */
+public record PaginaKeyset<T>(List<T> elementos, boolean haySiguiente) {
+
+    /** Tamaño de página por defecto de los listados. */
+    public static final int TAMANO_POR_DEFECTO = 20;
+
+    /** Tamaño de página máximo que se acepta desde una solicitud. */
+    public static final int TAMANO_MAXIMO = 100;
+
+    public PaginaKeyset {
+        elementos = List.copyOf(elementos);
+    }
+
+    /**
+     * Arma la página a partir de una consulta que pidió un elemento más que el tamaño
+     * de página: si ese elemento existe, hay una página siguiente y se descarta.
+     *
+     * @param filas  resultado de la consulta, con hasta {@code tamano + 1} elementos
+     * @param tamano tamaño de página
+     * @return la página con a lo sumo {@code tamano} elementos
+     */
+    public static <T> PaginaKeyset<T> de(List<T> filas, int tamano) {
+        if (filas.size() > tamano) {
+            return new PaginaKeyset<>(filas.subList(0, tamano), true);
+        }
+        return new PaginaKeyset<>(filas, false);
+    }
+
+    /**
+     * Ajusta el tamaño de página solicitado al rango {@code [1, TAMANO_MAXIMO]}.
+     *
+     * @param tamano tamaño solicitado
+     * @return tamaño de página a usar
+     */
+    public static int normalizarTamano(int tamano) {
+        return Math.max(1, Math.min(tamano, TAMANO_MAXIMO));
+    }
+
+    /**
+     * Último elemento de la página; sus claves son el cursor de la página siguiente.
+     *
+     * @return el último elemento, o {@code null} si la página está vacía
+     */
+    public T ultimo() {
+        return elementos.isEmpty() ? null : elementos.get(elementos.size() - 1);
+    }
+}
@@ -3,13 +3,18 @@ package com.example.museo_v2.model;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
 
 /**
  * Representa un producto dentro del inventario del museo.
  * Incluye información básica como nombre, tipo y control de stock.
  */
 @Entity
-@Table(name = "inventario_productos")
+@Table(name = "inventario_productos", indexes = @Index(name = "idx_producto_fecha_modificacion",
+        columnList = "fecha_modificacion"))
 @Getter
 @Setter
 public class ProductoInventario {
@@ -28,6 +33,21 @@ public class ProductoInventario {
     /** Cantidad total del producto en inventario. */
     private Integer stockTotal;
 
-    /** Cantidad actualmente disponible para asignar a eventos. */
+    /**
+     * Cantidad no asignada a ningún evento. Las asignaciones de eventos en fechas
+     * distintas comparten unidades, así que puede ser negativa; la disponibilidad para
+     * unas fechas la calcula {@code DisponibilidadInventarioService}.
+     */
     private Integer stockDisponible;
+
+    /** Fecha y hora de la última modificación; Hibernate la asigna al insertar y al actualizar. */
+    @UpdateTimestamp
+    @Column(name = "fecha_modificacion")
+    private LocalDateTime fechaModificacion;
+
+    /** Versión para el control optimista de concurrencia; aumenta con cada escritura de la fila. */
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
 }
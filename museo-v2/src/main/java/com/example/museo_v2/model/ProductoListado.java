@@ -0,0 +1,13 @@
+package com.example.museo_v2.model;
+
+/**
+ * Fila del listado de inventario, con solo las columnas que se muestran.
+ *
+ * @param id              identificador del producto; es el cursor del listado
+ * @param nombre          nombre del producto
+ * @param tipo            tipo o categoría
+ * @param stockTotal      unidades totales
+ * @param stockDisponible unidades sin asignar a eventos
+ */
+public record ProductoListado(Long id, String nombre, String tipo, Integer stockTotal, Integer stockDisponible) {
+}
@@ -6,6 +6,7 @@ import java.time.LocalDateTime;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.UpdateTimestamp;
 
 /**
  * Representa una reserva realizada para un evento en el museo.
@@ -16,11 +17,19 @@ import lombok.EqualsAndHashCode;
 @NoArgsConstructor
 @Entity
 @EqualsAndHashCode(of = "dniRuc")
-@Table(name = "reservas")
+@Table(name = "reservas", indexes = @Index(name = "idx_reserva_fecha_modificacion",
+        columnList = "fecha_modificacion"))
 public class Reserva {
 
+    /**
+     * Identificador de la reserva. Se obtiene de un generador por tabla que
+     * reserva bloques de 50 valores, de modo que el ID se conoce antes del
+     * INSERT y Hibernate puede agrupar las inserciones en lotes JDBC.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "reservas_gen")
+    @TableGenerator(name = "reservas_gen", table = "generador_ids", pkColumnName = "entidad",
+            valueColumnName = "siguiente_valor", pkColumnValue = "reservas", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -44,4 +53,13 @@ public class Reserva {
     private String metodoPago;
     private LocalDateTime fechaReserva = LocalDateTime.now();
 
+    /** Solicitud de la lista de espera que originó la reserva, si fue promovida desde ella. */
+    @Column(name = "solicitud_espera_id", unique = true)
+    private Long solicitudEsperaId;
+
+    /** Fecha y hora de la última modificación; Hibernate la asigna al insertar y al actualizar. */
+    @UpdateTimestamp
+    @Column(name = "fecha_modificacion")
+    private LocalDateTime fechaModificacion;
+
 }
\ No newline at end of file
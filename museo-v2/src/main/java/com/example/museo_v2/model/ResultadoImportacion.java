@@ -0,0 +1,45 @@
+package com.example.museo_v2.model;
+
+import java.util.List;
+
+/**
+ * Resultado de una importación masiva: cuántas filas se leyeron y escribieron, y el
+ * motivo de rechazo de cada fila que no se pudo importar.
+ *
+ * @param filasLeidas      filas de datos leídas, sin contar la cabecera ni las filas vacías
+ * @param insertadas       registros nuevos creados
+ * @param actualizadas     registros existentes actualizados
+ * @param errores          filas rechazadas, en orden de aparición, hasta {@link #MAXIMO_ERRORES}
+ * @param erroresOmitidos  filas rechazadas que no se listan por superar el máximo
+ * @param errorLectura     motivo por el que la lectura del archivo se detuvo antes del
+ *                         final, o {@code null} si se leyó completo; las filas anteriores
+ *                         ya quedaron guardadas
+ */
+public record ResultadoImportacion(long filasLeidas, long insertadas, long actualizadas,
+                                   List<ErrorFila> errores, long erroresOmitidos, String errorLectura) {
+
+    /** Cantidad máxima de errores que se detallan; el resto solo se cuenta. */
+    public static final int MAXIMO_ERRORES = 1000;
+
+    public ResultadoImportacion {
+        errores = List.copyOf(errores);
+    }
+
+    /**
+     * Fila rechazada.
+     *
+     * @param fila    número de fila en el archivo, contando la cabecera como 1
+     * @param mensaje motivo del rechazo
+     */
+    public record ErrorFila(int fila, String mensaje) {
+    }
+
+    /**
+     * Total de filas rechazadas, listadas u omitidas.
+     *
+     * @return la cantidad de filas con error
+     */
+    public long rechazadas() {
+        return errores.size() + erroresOmitidos;
+    }
+}
@@ -2,6 +2,7 @@ package com.example.museo_v2.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 /**
  * Representa una sala dentro del museo. Contiene información sobre su
@@ -39,6 +40,12 @@ public class Sala {
     @Column(name = "imagen_url")
     private String imagenUrl;
 
+    /** Versión para el control optimista de concurrencia; aumenta con cada escritura de la fila. */
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     /**
      * Constructor útil para crear instancias sin ID, como en pruebas de carga.
      *
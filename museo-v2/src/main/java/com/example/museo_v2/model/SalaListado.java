@@ -0,0 +1,15 @@
+package com.example.museo_v2.model;
+
+/**
+ * Tarjeta del listado de salas, con solo las columnas que se muestran.
+ *
+ * @param id          identificador de la sala; es el cursor del listado
+ * @param nombre      nombre de la sala
+ * @param capacidad   capacidad máxima de personas
+ * @param ubicacion   ubicación dentro del museo
+ * @param descripcion descripción de la sala
+ * @param imagenUrl   ruta de la imagen, o {@code null} si no tiene
+ */
+public record SalaListado(Integer id, String nombre, Integer capacidad, String ubicacion,
+                          String descripcion, String imagenUrl) {
+}
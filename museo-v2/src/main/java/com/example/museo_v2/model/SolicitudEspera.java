@@ -0,0 +1,55 @@
+package com.example.museo_v2.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Solicitud de un cliente en la lista de espera de un evento agotado.
+ * Guarda los mismos datos que una reserva para poder convertirla en una
+ * cuando se liberan entradas. El orden de llegada lo da el identificador.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "lista_espera", indexes = @Index(name = "idx_lista_espera_evento_estado",
+        columnList = "evento_id, estado, id"))
+public class SolicitudEspera {
+
+    /** Estado de una solicitud que aún no obtiene entradas. */
+    public static final String ESPERANDO = "ESPERANDO";
+
+    /** Estado de una solicitud que ya se convirtió en reserva. */
+    public static final String PROMOVIDA = "PROMOVIDA";
+
+    /** Estado de una solicitud que encabezaba la cola sin caber y superó el tiempo de espera. */
+    public static final String VENCIDA = "VENCIDA";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn(name = "evento_id", nullable = false)
+    private Evento evento;
+
+    @Column(nullable = false)
+    private String nombreCompleto;
+
+    @Column(nullable = false)
+    private String dniRuc;
+
+    private String telefono;
+
+    @Column(nullable = false)
+    private Integer nEntradas;
+
+    private String tipoComprobante;
+    private String metodoPago;
+
+    @Column(nullable = false, length = 20)
+    private String estado = ESPERANDO;
+
+    private LocalDateTime fechaSolicitud = LocalDateTime.now();
+}
@@ -0,0 +1,32 @@
+package com.example.museo_v2.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Registro de un envío de formulario identificado por su clave de idempotencia.
+ * La clave es la llave primaria, por lo que la base de datos impide que el
+ * mismo envío se procese dos veces aunque se reintente desde otra instancia.
+ */
+@Entity
+@Table(name = "solicitudes_idempotentes")
+@Getter
+@Setter
+@NoArgsConstructor
+public class SolicitudIdempotente {
+
+    /** Clave emitida junto con el formulario. */
+    @Id
+    @Column(length = 64)
+    private String clave;
+
+    /** Resultado del primer procesamiento; nulo mientras sigue en curso. */
+    private String resultado;
+
+    /** Momento en que se recibió el primer envío. */
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+}
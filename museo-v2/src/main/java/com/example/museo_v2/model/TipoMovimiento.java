@@ -0,0 +1,17 @@
+package com.example.museo_v2.model;
+
+/**
+ * Origen de un movimiento del libro de inventario.
+ */
+public enum TipoMovimiento {
+    /** Saldo inicial de un producto que ya existía antes de llevar el libro. */
+    APERTURA,
+    /** Alta de un producto nuevo con su stock inicial. */
+    ALTA,
+    /** Unidades asignadas a un evento. */
+    RESERVA,
+    /** Unidades devueltas al eliminar un evento. */
+    LIBERACION,
+    /** Cambio del stock total al editar o importar un producto. */
+    AJUSTE
+}
@@ -0,0 +1,48 @@
+package com.example.museo_v2.model;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Reportes que se pueden exportar, con el segmento de URL que los identifica
+ * y el nombre base del archivo descargado.
+ */
+public enum TipoReporte {
+
+    EVENTOS("eventos", "reporte_eventos"),
+    SALAS("salas", "reporte_salas"),
+    INVENTARIO("inventario", "reporte_inventario"),
+    RESERVAS("reservas", "reporte_reservas");
+
+    private final String ruta;
+    private final String nombreBase;
+
+    TipoReporte(String ruta, String nombreBase) {
+        this.ruta = ruta;
+        this.nombreBase = nombreBase;
+    }
+
+    public String getRuta() {
+        return ruta;
+    }
+
+    /** Nombre del archivo sin extensión. */
+    public String getNombreBase() {
+        return nombreBase;
+    }
+
+    /** Nombre del archivo Excel. */
+    public String getArchivo() {
+        return nombreBase + ".xlsx";
+    }
+
+    /**
+     * Busca el reporte por su segmento de URL.
+     *
+     * @param ruta segmento de URL, por ejemplo {@code eventos}
+     * @return el reporte, si existe
+     */
+    public static Optional<TipoReporte> desdeRuta(String ruta) {
+        return Arrays.stream(values()).filter(tipo -> tipo.ruta.equals(ruta)).findFirst();
+    }
+}
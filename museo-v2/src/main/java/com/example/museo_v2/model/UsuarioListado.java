@@ -0,0 +1,13 @@
+package com.example.museo_v2.model;
+
+/**
+ * Fila del listado de usuarios. No incluye la clave, que no debe salir de la capa
+ * de seguridad.
+ *
+ * @param id            identificador del usuario; es el cursor del listado
+ * @param nombres       nombres del usuario
+ * @param nombreUsuario nombre de usuario
+ * @param rol           rol asignado
+ */
+public record UsuarioListado(Long id, String nombres, String nombreUsuario, String rol) {
+}
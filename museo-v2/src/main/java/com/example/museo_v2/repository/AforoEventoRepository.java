@@ -0,0 +1,72 @@
+package com.example.museo_v2.repository;
+
+import com.example.museo_v2.model.AforoEvento;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Repositorio del contador de aforo por evento.
+ * Las operaciones de ocupación y liberación son actualizaciones condicionales,
+ * por lo que la verificación de capacidad y el incremento ocurren en una sola sentencia.
+ */
+public interface AforoEventoRepository extends JpaRepository<AforoEvento, Long> {
+
+    /**
+     * Suma entradas al contador solo si el resultado no supera la capacidad
+     * de la sala del evento. Una sala sin capacidad registrada no tiene límite.
+     *
+     * @param eventoId identificador del evento
+     * @param cantidad entradas a ocupar
+     * @return 1 si se ocuparon las entradas, 0 si no hay aforo suficiente
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE AforoEvento a SET a.entradasVendidas = a.entradasVendidas + :cantidad "
+            + "WHERE a.eventoId = :eventoId AND EXISTS ("
+            + "SELECT 1 FROM Evento e JOIN e.sala s WHERE e.id = :eventoId "
+            + "AND (s.capacidad IS NULL OR a.entradasVendidas + :cantidad <= s.capacidad))")
+    int ocuparEntradas(@Param("eventoId") Long eventoId, @Param("cantidad") int cantidad);
+
+    /**
+     * Calcula las entradas que quedan libres en un evento.
+     *
+     * @param eventoId identificador del evento
+     * @return capacidad de la sala menos entradas ocupadas; vacío si la sala no tiene capacidad registrada
+     */
+    @Query("SELECT s.capacidad - a.entradasVendidas FROM AforoEvento a, Evento e JOIN e.sala s "
+            + "WHERE a.eventoId = :eventoId AND e.id = :eventoId")
+    Optional<Integer> calcularDisponibles(@Param("eventoId") Long eventoId);
+
+    /**
+     * Devuelve entradas al contador sin permitir que quede en negativo.
+     *
+     * @param eventoId identificador del evento
+     * @param cantidad entradas a liberar
+     * @return número de filas actualizadas
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE AforoEvento a SET a.entradasVendidas = a.entradasVendidas - :cantidad "
+            + "WHERE a.eventoId = :eventoId AND a.entradasVendidas >= :cantidad")
+    int liberarEntradas(@Param("eventoId") Long eventoId, @Param("cantidad") int cantidad);
+
+    /**
+     * Crea el contador de un evento a partir de las reservas ya registradas.
+     * Se ejecuta en una transacción propia para que un choque de llave primaria
+     * con otro hilo no invalide la transacción de la reserva.
+     *
+     * @param eventoId identificador del evento
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query(value = "INSERT INTO aforo_eventos (id_evento, entradas_vendidas) "
+            + "SELECT :eventoId, COALESCE(SUM(r.n_entradas), 0) FROM reservas r WHERE r.evento_id = :eventoId",
+            nativeQuery = true)
+    void inicializar(@Param("eventoId") Long eventoId);
+}
@@ -2,6 +2,7 @@ package com.example.museo_v2.repository;
 
 import com.example.museo_v2.model.Evento;
 import com.example.museo_v2.model.EventoProducto;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import java.util.List;
 
@@ -12,10 +13,12 @@ import java.util.List;
 public interface EventoProductoRepository extends JpaRepository<EventoProducto, Long> {
 
     /**
-     * Obtiene la lista de productos asignados a un evento.
+     * Obtiene la lista de productos asignados a un evento, con cada producto cargado
+     * en la misma consulta en lugar de una consulta por asignación.
      *
      * @param evento evento del que se desean obtener los productos asignados
      * @return lista de {@link EventoProducto} asociados al evento
      */
+    @EntityGraph(attributePaths = {"evento", "producto"})
     List<EventoProducto> findByEvento(Evento evento);
 }
@@ -1,12 +1,22 @@
 package com.example.museo_v2.repository;
 
 import com.example.museo_v2.model.Evento;
+import com.example.museo_v2.model.EventoListado;
+import com.example.museo_v2.model.EventoResumen;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repositorio para acceder y manipular los eventos en la base de datos.
@@ -16,21 +26,150 @@ import java.util.List;
 public interface EventoRepositorio extends JpaRepository<Evento, Long> {
 
     /**
-     * Obtiene los eventos del mes actual, ordenados por fecha de inicio.
+     * Obtiene un evento junto con su sala en una sola consulta, para que pueda
+     * usarse fuera de la sesión que lo cargó (por ejemplo, desde la caché de eventos).
+     *
+     * @param id identificador del evento
+     * @return el evento con su sala inicializada
+     */
+    @Override
+    @EntityGraph(attributePaths = "sala")
+    Optional<Evento> findById(Long id);
+
+    /**
+     * Obtiene todos los eventos con su sala cargada en la misma consulta. El listado
+     * y la exportación a Excel muestran el nombre de la sala de cada fila; sin el grafo
+     * cada evento dispararía una consulta adicional para su sala.
+     *
+     * @return todos los eventos con su sala inicializada
+     */
+    @Override
+    @EntityGraph(attributePaths = "sala")
+    List<Evento> findAll();
+
+    /**
+     * Obtiene los eventos que inician en el rango semiabierto {@code [desde, hasta)},
+     * ordenados por fecha de inicio y con su sala cargada. La comparación directa sobre
+     * la columna permite usar el índice de {@code fecha_inicio} en lugar de recorrer toda la tabla.
      * 
-     * @param currentDate La fecha actual para filtrar los eventos del mes.
-     * @return Una lista de eventos que ocurren en el mismo mes y año que la fecha proporcionada.
+     * @param desde Primer día incluido en el rango.
+     * @param hasta Primer día excluido del rango.
+     * @return Una lista de eventos que inician dentro del rango.
      */
-    @Query("SELECT e FROM Evento e WHERE YEAR(e.fechaInicio) = YEAR(?1) AND MONTH(e.fechaInicio) = MONTH(?1) ORDER BY e.fechaInicio ASC")
-    List<Evento> findEventosByMonthAndYear(LocalDate currentDate);
+    @Query("SELECT e FROM Evento e LEFT JOIN FETCH e.sala WHERE e.fechaInicio >= ?1 AND e.fechaInicio < ?2 ORDER BY e.fechaInicio ASC")
+    List<Evento> findEventosEntreFechas(LocalDate desde, LocalDate hasta);
 
     /**
-     * Obtiene los eventos futuros, es decir, aquellos cuyo inicio es posterior a la fecha proporcionada.
+     * Obtiene los primeros eventos cuyo inicio es posterior a la fecha proporcionada,
+     * ordenados por fecha de inicio. El límite se aplica en la consulta SQL, por lo que
+     * solo se leen las filas solicitadas sin importar cuántos eventos futuros existan.
      * 
-     * @param date La fecha límite para filtrar eventos que ocurren después de esta fecha.
-     * @return Una lista de eventos futuros ordenados por fecha de inicio.
+     * @param fecha La fecha límite para filtrar eventos que ocurren después de esta fecha.
+     * @param pagina Página a obtener; su tamaño es la cantidad máxima de eventos.
+     * @return Una lista de resúmenes de eventos futuros ordenados por fecha de inicio.
      */
-    List<Evento> findByFechaInicioAfterOrderByFechaInicioAsc(LocalDate date);
+    @Query("SELECT new com.example.museo_v2.model.EventoResumen(e.id, e.nombre, e.fechaInicio, e.horaInicio, s.nombre, s.imagenUrl) "
+            + "FROM Evento e LEFT JOIN e.sala s WHERE e.fechaInicio > ?1 ORDER BY e.fechaInicio ASC")
+    List<EventoResumen> findProximosEventos(LocalDate fecha, Pageable pagina);
 
     long countByFechaInicioAfter(LocalDate fecha);
+
+    /**
+     * Obtiene una página del listado de eventos en orden ascendente de fecha de inicio,
+     * buscando a partir del cursor {@code (fecha, id)} del último evento mostrado. El
+     * desempate por {@code id} hace que el orden sea total aunque varios eventos
+     * compartan fecha, y la condición se resuelve sobre el índice
+     * {@code (fecha_inicio, id_evento)} sin recorrer las filas ya mostradas. Los eventos
+     * sin fecha no cumplen la condición; se listan aparte con {@link #listarSinFechaAscendente}.
+     *
+     * @param fecha  fecha de inicio del último evento mostrado
+     * @param id     identificador del último evento mostrado
+     * @param nombre texto que debe contener el nombre, o {@code null} para no filtrar
+     * @param pagina página a obtener; su tamaño es la cantidad máxima de filas
+     * @return las filas del listado posteriores al cursor
+     */
+    @Query("SELECT new com.example.museo_v2.model.EventoListado(e.id, e.nombre, e.fechaInicio, e.horaInicio, s.nombre, e.costoEntrada) "
+            + "FROM Evento e LEFT JOIN e.sala s "
+            + "WHERE (e.fechaInicio > ?1 OR (e.fechaInicio = ?1 AND e.id > ?2)) "
+            + "AND (?3 IS NULL OR e.nombre LIKE CONCAT('%', ?3, '%')) "
+            + "ORDER BY e.fechaInicio ASC, e.id ASC")
+    List<EventoListado> listarAscendente(LocalDate fecha, Long id, String nombre, Pageable pagina);
+
+    /**
+     * Igual que {@link #listarAscendente}, pero en orden descendente de fecha de inicio.
+     *
+     * @param fecha  fecha de inicio del último evento mostrado
+     * @param id     identificador del último evento mostrado
+     * @param nombre texto que debe contener el nombre, o {@code null} para no filtrar
+     * @param pagina página a obtener; su tamaño es la cantidad máxima de filas
+     * @return las filas del listado anteriores al cursor
+     */
+    @Query("SELECT new com.example.museo_v2.model.EventoListado(e.id, e.nombre, e.fechaInicio, e.horaInicio, s.nombre, e.costoEntrada) "
+            + "FROM Evento e LEFT JOIN e.sala s "
+            + "WHERE (e.fechaInicio < ?1 OR (e.fechaInicio = ?1 AND e.id < ?2)) "
+            + "AND (?3 IS NULL OR e.nombre LIKE CONCAT('%', ?3, '%')) "
+            + "ORDER BY e.fechaInicio DESC, e.id DESC")
+    List<EventoListado> listarDescendente(LocalDate fecha, Long id, String nombre, Pageable pagina);
+
+    /**
+     * Obtiene una página de los eventos sin fecha de inicio en orden ascendente de ID,
+     * a partir del último mostrado. El listado ascendente los muestra después de los
+     * eventos con fecha, y la condición usa el mismo índice {@code (fecha_inicio, id_evento)}.
+     *
+     * @param id     identificador del último evento mostrado
+     * @param nombre texto que debe contener el nombre, o {@code null} para no filtrar
+     * @param pagina página a obtener; su tamaño es la cantidad máxima de filas
+     * @return las filas sin fecha posteriores al cursor
+     */
+    @Query("SELECT new com.example.museo_v2.model.EventoListado(e.id, e.nombre, e.fechaInicio, e.horaInicio, s.nombre, e.costoEntrada) "
+            + "FROM Evento e LEFT JOIN e.sala s "
+            + "WHERE e.fechaInicio IS NULL AND e.id > ?1 "
+            + "AND (?2 IS NULL OR e.nombre LIKE CONCAT('%', ?2, '%')) "
+            + "ORDER BY e.id ASC")
+    List<EventoListado> listarSinFechaAscendente(Long id, String nombre, Pageable pagina);
+
+    /**
+     * Igual que {@link #listarSinFechaAscendente}, pero en orden descendente de ID; el
+     * listado descendente muestra estos eventos antes de los eventos con fecha.
+     *
+     * @param id     identificador del último evento mostrado
+     * @param nombre texto que debe contener el nombre, o {@code null} para no filtrar
+     * @param pagina página a obtener; su tamaño es la cantidad máxima de filas
+     * @return las filas sin fecha anteriores al cursor
+     */
+    @Query("SELECT new com.example.museo_v2.model.EventoListado(e.id, e.nombre, e.fechaInicio, e.horaInicio, s.nombre, e.costoEntrada) "
+            + "FROM Evento e LEFT JOIN e.sala s "
+            + "WHERE e.fechaInicio IS NULL AND e.id < ?1 "
+            + "AND (?2 IS NULL OR e.nombre LIKE CONCAT('%', ?2, '%')) "
+            + "ORDER BY e.id DESC")
+    List<EventoListado> listarSinFechaDescendente(Long id, String nombre, Pageable pagina);
+
+    /**
+     * Recorre todos los eventos con su sala para exportarlos, leyendo las filas del
+     * cursor de la base de datos en lotes de 1000 en lugar de cargar el resultado
+     * completo. El flujo debe consumirse y cerrarse dentro de una transacción.
+     *
+     * @return flujo de eventos ordenados por ID
+     */
+    @Query("SELECT e FROM Evento e LEFT JOIN FETCH e.sala ORDER BY e.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Evento> recorrerTodos();
+
+    /**
+     * Recorre los eventos creados o modificados desde un instante, con su sala, para
+     * las exportaciones incrementales. El flujo debe consumirse y cerrarse dentro de
+     * una transacción.
+     *
+     * @param desde instante a partir del cual se incluyen los cambios (inclusive)
+     * @return flujo de eventos ordenados por ID
+     */
+    @Query("SELECT e FROM Evento e LEFT JOIN FETCH e.sala WHERE e.fechaModificacion >= ?1 ORDER BY e.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Evento> recorrerModificadosDesde(LocalDateTime desde);
 }
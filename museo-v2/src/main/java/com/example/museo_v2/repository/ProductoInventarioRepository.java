@@ -1,8 +1,17 @@
 package com.example.museo_v2.repository;
 
 import com.example.museo_v2.model.ProductoInventario;
+import com.example.museo_v2.model.ProductoListado;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repositorio para acceder y gestionar los productos del inventario.
@@ -11,20 +20,65 @@ import java.util.List;
 public interface ProductoInventarioRepository extends JpaRepository<ProductoInventario, Long> {
 
     /**
-     * Obtiene todos los productos cuyo stock disponible sea mayor
+     * Obtiene todos los productos cuyo stock total sea mayor
      * que el valor indicado.
      *
-     * @param cantidad valor mínimo de stock disponible
+     * @param cantidad valor mínimo de stock total
      * @return lista de productos con stock superior al indicado
      */
-    List<ProductoInventario> findByStockDisponibleGreaterThan(Integer cantidad);
+    List<ProductoInventario> findByStockTotalGreaterThan(Integer cantidad);
+
+    /**
+     * Obtiene una página del listado de productos en orden ascendente de identificador,
+     * buscando a partir del último identificador mostrado. La búsqueda se resuelve sobre
+     * la clave primaria, por lo que no recorre las filas de las páginas anteriores.
+     *
+     * @param id     identificador del último elemento mostrado
+     * @param nombre texto que debe contener el nombre, o {@code null} para no filtrar
+     * @param pagina página a obtener; su tamaño es la cantidad máxima de filas
+     * @return las filas del listado posteriores al cursor
+     */
+    @Query("SELECT new com.example.museo_v2.model.ProductoListado(p.id, p.nombre, p.tipo, p.stockTotal, p.stockDisponible) FROM ProductoInventario p "
+            + "WHERE p.id > ?1 AND (?2 IS NULL OR p.nombre LIKE CONCAT('%', ?2, '%')) ORDER BY p.id ASC")
+    List<ProductoListado> listarAscendente(Long id, String nombre, Pageable pagina);
+
+    /**
+     * Igual que {@link #listarAscendente}, pero en orden descendente de identificador.
+     *
+     * @param id     identificador del último elemento mostrado
+     * @param nombre texto que debe contener el nombre, o {@code null} para no filtrar
+     * @param pagina página a obtener; su tamaño es la cantidad máxima de filas
+     * @return las filas del listado anteriores al cursor
+     */
+    @Query("SELECT new com.example.museo_v2.model.ProductoListado(p.id, p.nombre, p.tipo, p.stockTotal, p.stockDisponible) FROM ProductoInventario p "
+            + "WHERE p.id < ?1 AND (?2 IS NULL OR p.nombre LIKE CONCAT('%', ?2, '%')) ORDER BY p.id DESC")
+    List<ProductoListado> listarDescendente(Long id, String nombre, Pageable pagina);
+
+    /**
+     * Recorre todos los productos para exportarlos, leyendo las filas en lotes de 1000.
+     * El flujo debe consumirse y cerrarse dentro de una transacción.
+     *
+     * @return flujo de productos ordenados por ID
+     */
+    @Query("SELECT p FROM ProductoInventario p ORDER BY p.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<ProductoInventario> recorrerTodos();
 
     /**
-     * Cuenta los productos que tienen un stock disponible inferior
-     * al límite especificado.
+     * Recorre los productos creados o modificados desde un instante, para las
+     * exportaciones incrementales. El flujo debe consumirse y cerrarse dentro de una
+     * transacción.
      *
-     * @param cantidadLimite valor máximo de stock disponible
-     * @return cantidad de productos que están por debajo del límite
+     * @param desde instante a partir del cual se incluyen los cambios (inclusive)
+     * @return flujo de productos ordenados por ID
      */
-    long countByStockDisponibleLessThan(Integer cantidadLimite);
+    @Query("SELECT p FROM ProductoInventario p WHERE p.fechaModificacion >= ?1 ORDER BY p.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<ProductoInventario> recorrerModificadosDesde(LocalDateTime desde);
 }
@@ -1,10 +1,16 @@
 package com.example.museo_v2.repository;
 
 import com.example.museo_v2.model.Reserva;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repositorio para la gestión de reservas del museo.
@@ -21,4 +27,63 @@ public interface ReservaRepositorio extends JpaRepository<Reserva, Long> {
      */
     @Query("SELECT COALESCE(SUM(r.totalPagar), 0) FROM Reserva r")
     BigDecimal sumarIngresosTotales();
+
+    /**
+     * Busca la reserva generada al promover una solicitud de la lista de espera.
+     *
+     * @param solicitudEsperaId identificador de la solicitud
+     * @return la reserva, si la solicitud ya fue promovida
+     */
+    Optional<Reserva> findBySolicitudEsperaId(Long solicitudEsperaId);
+
+    /**
+     * Recorre todas las reservas con su evento para exportarlas, leyendo las filas del
+     * cursor de la base de datos en lotes de 1000. El flujo debe consumirse y cerrarse
+     * dentro de una transacción.
+     *
+     * @return flujo de reservas ordenadas por ID
+     */
+    @Query("SELECT r FROM Reserva r JOIN FETCH r.evento ORDER BY r.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Reserva> recorrerTodas();
+
+    /**
+     * Recorre las reservas creadas o modificadas desde un instante, con su evento, para
+     * las exportaciones incrementales. El flujo debe consumirse y cerrarse dentro de
+     * una transacción.
+     *
+     * @param desde instante a partir del cual se incluyen los cambios (inclusive)
+     * @return flujo de reservas ordenadas por ID
+     */
+    @Query("SELECT r FROM Reserva r JOIN FETCH r.evento WHERE r.fechaModificacion >= ?1 ORDER BY r.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Reserva> recorrerModificadasDesde(LocalDateTime desde);
+
+    /**
+     * Recorre las reservas de un evento con su evento y sala, para generar sus tickets.
+     * El flujo debe consumirse y cerrarse dentro de una transacción.
+     *
+     * @param eventoId identificador del evento
+     * @return flujo de reservas ordenadas por ID
+     */
+    @Query("SELECT r FROM Reserva r JOIN FETCH r.evento e LEFT JOIN FETCH e.sala WHERE e.id = ?1 ORDER BY r.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Reserva> recorrerPorEvento(Long eventoId);
+
+    /**
+     * Cuenta las reservas de un evento.
+     *
+     * @param eventoId identificador del evento
+     * @return cantidad de reservas
+     */
+    long countByEventoId(Long eventoId);
 }
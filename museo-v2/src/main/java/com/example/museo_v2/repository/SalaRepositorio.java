@@ -1,13 +1,61 @@
 package com.example.museo_v2.repository;
 
 import com.example.museo_v2.model.Sala;
+import com.example.museo_v2.model.SalaListado;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.stream.Stream;
+
 /**
  * Repositorio para acceder y manipular las salas en la base de datos.
  * Extiende JpaRepository para proporcionar operaciones CRUD estándar.
  */
 @Repository
 public interface SalaRepositorio extends JpaRepository<Sala, Integer> {
+
+    /**
+     * Obtiene una página del listado de salas en orden ascendente de identificador,
+     * buscando a partir del último identificador mostrado. La búsqueda se resuelve sobre
+     * la clave primaria, por lo que no recorre las filas de las páginas anteriores.
+     *
+     * @param id     identificador del último elemento mostrado
+     * @param nombre texto que debe contener el nombre, o {@code null} para no filtrar
+     * @param pagina página a obtener; su tamaño es la cantidad máxima de filas
+     * @return las filas del listado posteriores al cursor
+     */
+    @Query("SELECT new com.example.museo_v2.model.SalaListado(s.id, s.nombre, s.capacidad, s.ubicacion, s.descripcion, s.imagenUrl) FROM Sala s "
+            + "WHERE s.id > ?1 AND (?2 IS NULL OR s.nombre LIKE CONCAT('%', ?2, '%')) ORDER BY s.id ASC")
+    List<SalaListado> listarAscendente(Integer id, String nombre, Pageable pagina);
+
+    /**
+     * Igual que {@link #listarAscendente}, pero en orden descendente de identificador.
+     *
+     * @param id     identificador del último elemento mostrado
+     * @param nombre texto que debe contener el nombre, o {@code null} para no filtrar
+     * @param pagina página a obtener; su tamaño es la cantidad máxima de filas
+     * @return las filas del listado anteriores al cursor
+     */
+    @Query("SELECT new com.example.museo_v2.model.SalaListado(s.id, s.nombre, s.capacidad, s.ubicacion, s.descripcion, s.imagenUrl) FROM Sala s "
+            + "WHERE s.id < ?1 AND (?2 IS NULL OR s.nombre LIKE CONCAT('%', ?2, '%')) ORDER BY s.id DESC")
+    List<SalaListado> listarDescendente(Integer id, String nombre, Pageable pagina);
+
+    /**
+     * Recorre todas las salas para exportarlas, leyendo las filas en lotes de 1000.
+     * El flujo debe consumirse y cerrarse dentro de una transacción.
+     *
+     * @return flujo de salas ordenadas por ID
+     */
+    @Query("SELECT s FROM Sala s ORDER BY s.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Sala> recorrerTodas();
 }
@@ -0,0 +1,47 @@
+package com.example.museo_v2.repository;
+
+import com.example.museo_v2.model.SolicitudEspera;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repositorio de la lista de espera de los eventos.
+ */
+public interface SolicitudEsperaRepository extends JpaRepository<SolicitudEspera, Long> {
+
+    /**
+     * Obtiene las solicitudes en un estado, en orden de llegada, con su evento cargado.
+     *
+     * @param estado estado buscado
+     * @return solicitudes ordenadas por identificador
+     */
+    @Query("SELECT s FROM SolicitudEspera s JOIN FETCH s.evento WHERE s.estado = :estado ORDER BY s.id")
+    List<SolicitudEspera> findByEstadoOrdenadas(@Param("estado") String estado);
+
+    /**
+     * Marca como promovidas varias solicitudes en una sola sentencia.
+     * Solo cambia las que siguen esperando.
+     *
+     * @param ids identificadores de las solicitudes
+     * @return cantidad de solicitudes actualizadas
+     */
+    @Modifying
+    @Query("UPDATE SolicitudEspera s SET s.estado = 'PROMOVIDA' WHERE s.id IN :ids AND s.estado = 'ESPERANDO'")
+    int marcarPromovidas(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Marca como vencidas varias solicitudes en una sola sentencia.
+     * Solo cambia las que siguen esperando.
+     *
+     * @param ids identificadores de las solicitudes
+     * @return cantidad de solicitudes actualizadas
+     */
+    @Modifying
+    @Query("UPDATE SolicitudEspera s SET s.estado = 'VENCIDA' WHERE s.id IN :ids AND s.estado = 'ESPERANDO'")
+    int marcarVencidas(@Param("ids") Collection<Long> ids);
+}
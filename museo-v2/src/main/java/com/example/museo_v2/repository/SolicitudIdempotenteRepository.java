@@ -0,0 +1,61 @@
+package com.example.museo_v2.repository;
+
+import com.example.museo_v2.model.SolicitudIdempotente;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repositorio de las claves de idempotencia de los formularios.
+ */
+public interface SolicitudIdempotenteRepository extends JpaRepository<SolicitudIdempotente, String> {
+
+    /**
+     * Registra una clave como en proceso. Falla con una violación de llave
+     * primaria si la clave ya fue registrada.
+     *
+     * @param clave clave de idempotencia
+     * @param fecha momento de recepción
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO solicitudes_idempotentes (clave, fecha_creacion) VALUES (:clave, :fecha)",
+            nativeQuery = true)
+    void reclamar(@Param("clave") String clave, @Param("fecha") LocalDateTime fecha);
+
+    /**
+     * Guarda el resultado del procesamiento de una clave.
+     *
+     * @param clave clave de idempotencia
+     * @param resultado resultado a devolver en los reintentos
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE SolicitudIdempotente s SET s.resultado = :resultado WHERE s.clave = :clave")
+    void registrarResultado(@Param("clave") String clave, @Param("resultado") String resultado);
+
+    /**
+     * Elimina una clave que no llegó a completarse para permitir un nuevo intento.
+     *
+     * @param clave clave de idempotencia
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM SolicitudIdempotente s WHERE s.clave = :clave AND s.resultado IS NULL")
+    void liberar(@Param("clave") String clave);
+
+    /**
+     * Elimina las claves anteriores a la fecha indicada.
+     *
+     * @param limite fecha límite
+     * @return cantidad de claves eliminadas
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM SolicitudIdempotente s WHERE s.fechaCreacion < :limite")
+    int eliminarAnterioresA(@Param("limite") LocalDateTime limite);
+}
@@ -1,9 +1,14 @@
 package com.example.museo_v2.repository;
 
-import java.util.Optional;
+import com.example.museo_v2.model.Usuario;
+import com.example.museo_v2.model.UsuarioListado;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
-import com.example.museo_v2.model.Usuario;
+
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Repositorio para la gestión de usuarios.
@@ -19,4 +24,30 @@ public interface UsuarioRepositorio extends JpaRepository<Usuario, Long> {
      * @return un {@link Optional} que contiene el usuario si existe
      */
     Optional<Usuario> findByNombreUsuario(String nombreUsuario);
+
+    /**
+     * Obtiene una página del listado de usuarios en orden ascendente de identificador,
+     * buscando a partir del último identificador mostrado. La búsqueda se resuelve sobre
+     * la clave primaria, por lo que no recorre las filas de las páginas anteriores.
+     *
+     * @param id     identificador del último elemento mostrado
+     * @param nombre texto que debe contener el nombre, o {@code null} para no filtrar
+     * @param pagina página a obtener; su tamaño es la cantidad máxima de filas
+     * @return las filas del listado posteriores al cursor
+     */
+    @Query("SELECT new com.example.museo_v2.model.UsuarioListado(u.id, u.nombres, u.nombreUsuario, u.rol) FROM Usuario u "
+            + "WHERE u.id > ?1 AND (?2 IS NULL OR u.nombres LIKE CONCAT('%', ?2, '%') OR u.nombreUsuario LIKE CONCAT('%', ?2, '%')) ORDER BY u.id ASC")
+    List<UsuarioListado> listarAscendente(Long id, String nombre, Pageable pagina);
+
+    /**
+     * Igual que {@link #listarAscendente}, pero en orden descendente de identificador.
+     *
+     * @param id     identificador del último elemento mostrado
+     * @param nombre texto que debe contener el nombre, o {@code null} para no filtrar
+     * @param pagina página a obtener; su tamaño es la cantidad máxima de filas
+     * @return las filas del listado anteriores al cursor
+     */
+    @Query("SELECT new com.example.museo_v2.model.UsuarioListado(u.id, u.nombres, u.nombreUsuario, u.rol) FROM Usuario u "
+            + "WHERE u.id < ?1 AND (?2 IS NULL OR u.nombres LIKE CONCAT('%', ?2, '%') OR u.nombreUsuario LIKE CONCAT('%', ?2, '%')) ORDER BY u.id DESC")
+    List<UsuarioListado> listarDescendente(Long id, String nombre, Pageable pagina);
 }
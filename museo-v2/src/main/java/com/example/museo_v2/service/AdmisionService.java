@@ -0,0 +1,187 @@
+package com.example.museo_v2.service;
+
+import com.example.museo_v2.util.CubetaTokens;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Control de admisión para el flujo de reservas.
+ * <p>
+ * Cada solicitud pasa por tres filtros, del más barato al más caro:
+ * <ol>
+ *     <li>una cubeta de tokens por cliente, que frena a quien recarga en bucle;</li>
+ *     <li>una cubeta de tokens por evento, que limita la demanda sobre un evento en venta;</li>
+ *     <li>una sala de espera acotada: solo un número fijo de solicitudes trabaja a la vez
+ *     y las demás esperan su turno en orden de llegada por un tiempo máximo.</li>
+ * </ol>
+ * Lo que no pasa se rechaza de inmediato, sin ocupar conexiones de la base de datos.
+ * <p>
+ * Quien espera en la sala ocupa un hilo del servidor mientras dura la espera, así que
+ * la sala nunca supera una cuarta parte de {@code server.tomcat.threads.max}: el resto
+ * de los hilos sigue atendiendo las demás páginas aunque la sala esté llena.
+ * Se publican contadores de solicitudes admitidas y rechazadas por motivo.
+ */
+@Service
+public class AdmisionService {
+
+    /** Motivo de rechazo de una solicitud. */
+    public enum Motivo {
+        CLIENTE, EVENTO, SALA_ESPERA
+    }
+
+    /**
+     * Turno concedido a una solicitud admitida. Debe cerrarse al terminar la solicitud.
+     */
+    public interface Turno extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private final Cache<String, CubetaTokens> cubetasCliente;
+    private final Cache<Long, CubetaTokens> cubetasEvento;
+    private final double tasaCliente;
+    private final double rafagaCliente;
+    private final double tasaEvento;
+    private final double rafagaEvento;
+
+    private final Semaphore enCurso;
+    /** Parte de los hilos del servidor que como máximo puede ocupar la sala de espera. */
+    private static final int DIVISOR_HILOS_SALA_ESPERA = 4;
+
+    private final AtomicInteger enEspera = new AtomicInteger();
+    private final int capacidadSalaEspera;
+    private final long esperaMaximaMs;
+
+    private final Counter admitidas;
+    private final Counter rechazadasCliente;
+    private final Counter rechazadasEvento;
+    private final Counter rechazadasSalaEspera;
+
+    public AdmisionService(MeterRegistry registro,
+                           @Value("${app.admision.cliente.tasa-por-segundo:2}") double tasaCliente,
+                           @Value("${app.admision.cliente.rafaga:10}") double rafagaCliente,
+                           @Value("${app.admision.evento.tasa-por-segundo:50}") double tasaEvento,
+                           @Value("${app.admision.evento.rafaga:100}") double rafagaEvento,
+                           @Value("${app.admision.concurrencia-maxima:20}") int concurrenciaMaxima,
+                           @Value("${app.admision.sala-espera.capacidad:200}") int capacidadSalaEspera,
+                           @Value("${app.admision.sala-espera.espera-maxima-ms:2000}") long esperaMaximaMs,
+                           @Value("${server.tomcat.threads.max:200}") int hilosServidor) {
+        this.tasaCliente = tasaCliente;
+        this.rafagaCliente = rafagaCliente;
+        this.tasaEvento = tasaEvento;
+        this.rafagaEvento = rafagaEvento;
+        this.cubetasCliente = CacheBuilder.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+        this.cubetasEvento = CacheBuilder.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterAccess(Duration.ofMinutes(30))
+                .build();
+        this.enCurso = new Semaphore(concurrenciaMaxima, true);
+        this.capacidadSalaEspera = Math.min(capacidadSalaEspera, hilosServidor / DIVISOR_HILOS_SALA_ESPERA);
+        this.esperaMaximaMs = esperaMaximaMs;
+
+        this.admitidas = Counter.builder("museo.admision.admitidas")
+                .description("Solicitudes de reserva admitidas")
+                .register(registro);
+        this.rechazadasCliente = rechazadas(registro, Motivo.CLIENTE);
+        this.rechazadasEvento = rechazadas(registro, Motivo.EVENTO);
+        this.rechazadasSalaEspera = rechazadas(registro, Motivo.SALA_ESPERA);
+        Gauge.builder("museo.admision.en.espera", enEspera, AtomicInteger::get)
+                .description("Solicitudes esperando turno en la sala de espera")
+                .register(registro);
+        Gauge.builder("museo.admision.en.curso", enCurso, s -> concurrenciaMaxima - s.availablePermits())
+                .description("Solicitudes de reserva en proceso")
+                .register(registro);
+    }
+
+    /**
+     * Decide si una solicitud puede continuar.
+     *
+     * @param cliente  identificador del cliente (usuario o dirección remota)
+     * @param eventoId evento solicitado, o {@code null} si la ruta no se refiere a un evento
+     * @return turno a cerrar al terminar, o vacío si la solicitud debe rechazarse
+     */
+    public Optional<Turno> admitir(String cliente, Long eventoId) {
+        if (!cubeta(cubetasCliente, cliente, tasaCliente, rafagaCliente).consumir()) {
+            rechazadasCliente.increment();
+            return Optional.empty();
+        }
+        if (eventoId != null && !cubeta(cubetasEvento, eventoId, tasaEvento, rafagaEvento).consumir()) {
+            rechazadasEvento.increment();
+            return Optional.empty();
+        }
+        if (!esperarTurno()) {
+            rechazadasSalaEspera.increment();
+            return Optional.empty();
+        }
+
+        admitidas.increment();
+        return Optional.of(new TurnoConcedido());
+    }
+
+    /**
+     * Ocupa un lugar de trabajo. Si no hay lugar libre y la sala de espera tiene
+     * espacio, espera en orden de llegada hasta el tiempo máximo configurado.
+     *
+     * @return {@code true} si obtuvo el lugar
+     */
+    private boolean esperarTurno() {
+        if (enCurso.tryAcquire()) {
+            return true;
+        }
+        if (enEspera.incrementAndGet() > capacidadSalaEspera) {
+            enEspera.decrementAndGet();
+            return false;
+        }
+        try {
+            return enCurso.tryAcquire(esperaMaximaMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            enEspera.decrementAndGet();
+        }
+    }
+
+    private <K> CubetaTokens cubeta(Cache<K, CubetaTokens> cubetas, K clave, double tasa, double rafaga) {
+        try {
+            return cubetas.get(clave, () -> new CubetaTokens(tasa, rafaga));
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static Counter rechazadas(MeterRegistry registro, Motivo motivo) {
+        return Counter.builder("museo.admision.rechazadas")
+                .description("Solicitudes de reserva rechazadas por el control de admisión")
+                .tag("motivo", motivo.name().toLowerCase())
+                .register(registro);
+    }
+
+    /** Libera el lugar de trabajo una sola vez. */
+    private final class TurnoConcedido implements Turno {
+        private boolean cerrado;
+
+        @Override
+        public void close() {
+            if (!cerrado) {
+                cerrado = true;
+                enCurso.release();
+            }
+        }
+    }
+}
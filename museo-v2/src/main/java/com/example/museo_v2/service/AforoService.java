@@ -0,0 +1,105 @@
+package com.example.museo_v2.service;
+
+import com.example.museo_v2.repository.AforoEventoRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Servicio que controla el aforo de los eventos.
+ * Cada evento tiene un contador de entradas vendidas que se incrementa con una
+ * actualización condicional, de modo que dos reservas simultáneas nunca pueden
+ * superar la capacidad de la sala y solo se bloquea la fila de ese evento.
+ * <p>
+ * Cada vez que se devuelven entradas se publica {@link EntradasLiberadas},
+ * que la lista de espera usa para promover a los clientes en cola.
+ */
+@Service
+public class AforoService {
+
+    private final AforoEventoRepository aforoRepo;
+    private final ApplicationEventPublisher eventos;
+
+    /** Eventos cuyo contador ya se sabe que existe en la base de datos. */
+    private final Set<Long> contadoresCreados = ConcurrentHashMap.newKeySet();
+
+    public AforoService(AforoEventoRepository aforoRepo, ApplicationEventPublisher eventos) {
+        this.aforoRepo = aforoRepo;
+        this.eventos = eventos;
+    }
+
+    /**
+     * Evento de aplicación publicado cuando un evento recupera entradas.
+     *
+     * @param eventoId identificador del evento
+     * @param cantidad entradas devueltas al aforo
+     */
+    public record EntradasLiberadas(Long eventoId, int cantidad) {
+    }
+
+    /**
+     * Intenta ocupar entradas de un evento respetando la capacidad de su sala.
+     *
+     * @param eventoId identificador del evento
+     * @param cantidad entradas solicitadas
+     * @return {@code true} si las entradas quedaron asignadas, {@code false} si el evento no tiene aforo suficiente
+     */
+    public boolean ocuparEntradas(Long eventoId, int cantidad) {
+        asegurarContador(eventoId);
+        return aforoRepo.ocuparEntradas(eventoId, cantidad) == 1;
+    }
+
+    /**
+     * Devuelve entradas al aforo de un evento, por ejemplo al anular una reserva.
+     *
+     * @param eventoId identificador del evento
+     * @param cantidad entradas a liberar
+     */
+    public void liberarEntradas(Long eventoId, int cantidad) {
+        if (aforoRepo.liberarEntradas(eventoId, cantidad) == 1) {
+            eventos.publishEvent(new EntradasLiberadas(eventoId, cantidad));
+        }
+    }
+
+    /**
+     * Calcula cuántas entradas quedan libres en un evento.
+     *
+     * @param eventoId identificador del evento
+     * @return entradas libres, o {@link Integer#MAX_VALUE} si la sala no tiene capacidad registrada
+     */
+    public int entradasDisponibles(Long eventoId) {
+        asegurarContador(eventoId);
+        return aforoRepo.calcularDisponibles(eventoId)
+                .map(disponibles -> Math.max(0, disponibles))
+                .orElse(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Crea el contador del evento si aún no existe. La verificación se hace antes
+     * de la actualización condicional para no tomar bloqueos sobre una fila inexistente,
+     * y solo ocurre una vez por evento, por lo que el bloqueo no afecta las reservas siguientes.
+     *
+     * @param eventoId identificador del evento
+     */
+    private void asegurarContador(Long eventoId) {
+        if (contadoresCreados.contains(eventoId)) {
+            return;
+        }
+        synchronized (contadoresCreados) {
+            if (contadoresCreados.contains(eventoId)) {
+                return;
+            }
+            if (!aforoRepo.existsById(eventoId)) {
+                try {
+                    aforoRepo.inicializar(eventoId);
+                } catch (DataIntegrityViolationException e) {
+                    // Otra instancia de la aplicación creó el contador primero; se usa el existente.
+                }
+            }
+            contadoresCreados.add(eventoId);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.museo_v2.service;
+
+import com.example.museo_v2.util.RuedaTemporizadora;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Servicio que retiene entradas mientras el cliente completa el formulario de reserva.
+ * <p>
+ * Al abrir el formulario se ocupan las entradas en el aforo del evento y se
+ * registra un bloqueo con vencimiento. Si la reserva se confirma antes de que
+ * venza, el bloqueo se consume; si no, la {@link RuedaTemporizadora} lo vence y
+ * las entradas vuelven al aforo. Cada bloqueo ocupa una entrada en memoria y un
+ * nodo de la rueda, sin tareas programadas individuales ni consultas periódicas.
+ */
+@Service
+public class BloqueoEntradasService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BloqueoEntradasService.class);
+
+    private final AforoService aforoService;
+    private final Duration vigencia;
+    private final Map<String, Bloqueo> bloqueos = new ConcurrentHashMap<>();
+    private final ExecutorService liberador;
+    private final RuedaTemporizadora rueda;
+
+    public BloqueoEntradasService(AforoService aforoService,
+                                  @Value("${app.reservas.bloqueo.vigencia-segundos:300}") long vigenciaSegundos,
+                                  @Value("${app.reservas.bloqueo.tick-ms:1000}") long tickMs) {
+        this.aforoService = aforoService;
+        this.vigencia = Duration.ofSeconds(vigenciaSegundos);
+        this.liberador = Executors.newSingleThreadExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "bloqueos-vencimiento");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        // Ranuras suficientes para que un bloqueo venza en la primera vuelta de la rueda.
+        int ranuras = (int) Math.min(4096, Math.max(64, vigencia.toMillis() / tickMs + 1));
+        this.rueda = new RuedaTemporizadora("bloqueos-rueda", Duration.ofMillis(tickMs), ranuras, liberador);
+    }
+
+    /**
+     * Retiene entradas de un evento durante la vigencia configurada.
+     *
+     * @param eventoId identificador del evento
+     * @param cantidad entradas a retener
+     * @return identificador del bloqueo, o vacío si el evento no tiene aforo suficiente
+     */
+    public Optional<String> bloquear(Long eventoId, int cantidad) {
+        if (cantidad < 1 || !aforoService.ocuparEntradas(eventoId, cantidad)) {
+            return Optional.empty();
+        }
+
+        String id = UUID.randomUUID().toString();
+        Bloqueo bloqueo = new Bloqueo(eventoId, cantidad);
+        bloqueos.put(id, bloqueo);
+        bloqueo.temporizacion = rueda.programar(() -> vencer(id), vigencia);
+
+        logger.debug("BLOQUEO CREADO | Evento {} | Entradas {} | ID {}", eventoId, cantidad, id);
+        return Optional.of(id);
+    }
+
+    /**
+     * Consume un bloqueo al confirmar la reserva. Las entradas retenidas pasan a
+     * ser de la reserva y ya no se devuelven al aforo.
+     *
+     * @param bloqueoId identificador del bloqueo enviado con el formulario
+     * @param eventoId  evento de la reserva
+     * @return entradas que seguían retenidas, o 0 si el bloqueo no existe, venció o es de otro evento
+     */
+    public int consumir(String bloqueoId, Long eventoId) {
+        if (bloqueoId == null) {
+            return 0;
+        }
+        Bloqueo bloqueo = bloqueos.get(bloqueoId);
+        if (bloqueo == null || !bloqueo.eventoId.equals(eventoId) || !bloqueos.remove(bloqueoId, bloqueo)) {
+            return 0;
+        }
+        if (bloqueo.temporizacion != null) {
+            bloqueo.temporizacion.cancelar();
+        }
+        return bloqueo.cantidad;
+    }
+
+    /**
+     * Devuelve la vigencia de cada bloqueo.
+     *
+     * @return duración del bloqueo
+     */
+    public Duration getVigencia() {
+        return vigencia;
+    }
+
+    /**
+     * Devuelve la cantidad de bloqueos vigentes.
+     *
+     * @return bloqueos sin consumir ni vencer
+     */
+    public int contarBloqueosActivos() {
+        return bloqueos.size();
+    }
+
+    /**
+     * Detiene la rueda al cerrar la aplicación. Los bloqueos pendientes se
+     * devuelven al aforo para no dejar entradas retenidas.
+     */
+    @PreDestroy
+    public void detener() {
+        rueda.close();
+        bloqueos.keySet().forEach(this::vencer);
+        liberador.shutdown();
+        try {
+            liberador.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Libera las entradas de un bloqueo vencido, si no fue consumido antes.
+     *
+     * @param bloqueoId identificador del bloqueo
+     */
+    private void vencer(String bloqueoId) {
+        Bloqueo bloqueo = bloqueos.remove(bloqueoId);
+        if (bloqueo == null) {
+            return;
+        }
+        try {
+            aforoService.liberarEntradas(bloqueo.eventoId, bloqueo.cantidad);
+            logger.debug("BLOQUEO VENCIDO | Evento {} | Entradas {}", bloqueo.eventoId, bloqueo.cantidad);
+        } catch (RuntimeException e) {
+            logger.error("No se pudieron liberar las entradas del bloqueo {}", bloqueoId, e);
+        }
+    }
+
+    /** Entradas retenidas para un formulario abierto. */
+    private static final class Bloqueo {
+        private final Long eventoId;
+        private final int cantidad;
+        private volatile RuedaTemporizadora.Temporizacion temporizacion;
+
+        Bloqueo(Long eventoId, int cantidad) {
+            this.eventoId = eventoId;
+            this.cantidad = cantidad;
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package com.example.museo_v2.service;
 
 import com.example.museo_v2.repository.EventoRepositorio;
-import com.example.museo_v2.repository.ProductoInventarioRepository;
 import com.example.museo_v2.repository.ReservaRepositorio;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -25,7 +24,7 @@ public class DashboardService {
     private ReservaRepositorio reservaRepo;
 
     @Autowired
-    private ProductoInventarioRepository productoRepo;
+    private DisponibilidadInventarioService disponibilidadService;
 
     /**
      * Obtiene un conjunto de métricas relacionadas con la actividad del museo.
@@ -34,7 +33,8 @@ public class DashboardService {
      * <ul>
      *     <li><b>ingresosTotales</b>: suma total generada por reservas</li>
      *     <li><b>eventosFuturos</b>: cantidad de eventos cuya fecha de inicio es posterior a hoy</li>
-     *     <li><b>bajoStock</b>: cantidad de productos con stock disponible menor a 5</li>
+     *     <li><b>bajoStock</b>: cantidad de productos con menos de 5 unidades libres todos los días
+     *     a partir de hoy, según las fechas de los eventos a los que están asignados</li>
      *     <li><b>totalReservas</b>: número total de reservas registradas</li>
      * </ul>
      *
@@ -49,7 +49,7 @@ public class DashboardService {
         long eventosFuturos = eventoRepo.countByFechaInicioAfter(LocalDate.now());
         metricas.put("eventosFuturos", eventosFuturos);
 
-        long bajoStock = productoRepo.countByStockDisponibleLessThan(5);
+        long bajoStock = disponibilidadService.contarBajoStock(5, LocalDate.now());
         metricas.put("bajoStock", bajoStock);
 
         long totalReservas = reservaRepo.count();
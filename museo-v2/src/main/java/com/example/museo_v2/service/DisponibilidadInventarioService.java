@@ -0,0 +1,289 @@
+package com.example.museo_v2.service;
+
+import com.example.museo_v2.util.IndiceOcupacion;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Disponibilidad de los productos del inventario según las fechas de los eventos.
+ * <p>
+ * Una asignación ocupa las unidades solo entre la fecha de inicio y la de fin de su
+ * evento (si falta la de fin, el día de inicio; si faltan ambas, indefinidamente), así
+ * que las mismas sillas pueden asignarse a eventos que no se solapan. Las unidades
+ * disponibles de un producto en un rango son su stock total menos la mayor ocupación
+ * de un día del rango.
+ * <p>
+ * La ocupación de cada producto se guarda en memoria en un {@link IndiceOcupacion},
+ * que responde en tiempo logarítmico aunque haya miles de eventos solapados. Cada
+ * índice se asocia a la versión de la fila del producto con la que se construyó: toda
+ * escritura sobre el producto (reservas, liberaciones, ediciones, importaciones) y todo
+ * cambio en un evento con productos asignados incrementan esa versión, y un índice con
+ * otra versión se descarta y se vuelve a leer de la base. Así el índice sirve también
+ * con varias instancias de la aplicación.
+ */
+@Service
+public class DisponibilidadInventarioService {
+
+    /**
+     * Índice de un producto y versión de la fila que refleja. Se accede sincronizando
+     * sobre la instancia.
+     */
+    private static final class Ocupacion {
+        private final IndiceOcupacion indice = new IndiceOcupacion();
+        private long version;
+
+        private Ocupacion(long version) {
+            this.version = version;
+        }
+    }
+
+    private final JdbcTemplate jdbc;
+    private final Cache<Long, Ocupacion> ocupaciones;
+
+    public DisponibilidadInventarioService(JdbcTemplate jdbc,
+                                           @Value("${app.inventario.disponibilidad.max-productos:10000}")
+                                           long maxProductos) {
+        this.jdbc = jdbc;
+        this.ocupaciones = CacheBuilder.newBuilder()
+                .maximumSize(maxProductos)
+                .build();
+    }
+
+    /**
+     * Unidades de un producto libres todos los días de un rango.
+     *
+     * @param productoId  producto consultado
+     * @param desde       primer día, o {@code null} si no tiene límite
+     * @param hasta       último día, o {@code null} si no tiene límite
+     * @param stockTotal  unidades en inventario
+     * @param ocupadas    unidades asignadas el día de mayor ocupación del rango
+     * @param disponibles unidades que aún pueden asignarse en todo el rango
+     */
+    public record Disponibilidad(Long productoId, LocalDate desde, LocalDate hasta, long stockTotal, long ocupadas,
+                                 long disponibles) {
+    }
+
+    /**
+     * Calcula cuántas unidades de un producto quedan libres todos los días de un rango.
+     *
+     * @param productoId producto a consultar
+     * @param desde      primer día, o {@code null} para no tener límite
+     * @param hasta      último día, o {@code null} para no tener límite
+     * @return la disponibilidad; puede ser negativa si el stock total se redujo
+     * @throws IllegalArgumentException si el producto no existe o el rango está invertido
+     */
+    public Disponibilidad disponibilidad(Long productoId, LocalDate desde, LocalDate hasta) {
+        List<long[]> filas = jdbc.query("SELECT stock_total, version FROM inventario_productos WHERE id = ?",
+                (fila, numero) -> new long[]{fila.getLong(1), fila.getLong(2)}, productoId);
+        if (filas.isEmpty()) {
+            throw new IllegalArgumentException("Producto no encontrado: " + productoId);
+        }
+        long total = filas.get(0)[0];
+        long ocupadas = ocupacionMaxima(productoId, filas.get(0)[1], desde, hasta);
+        return new Disponibilidad(productoId, desde, hasta, total, ocupadas, total - ocupadas);
+    }
+
+    /**
+     * Unidades de cada producto libres todos los días desde una fecha, con una sola
+     * consulta de los productos.
+     *
+     * @param productoIds productos a consultar; los que no existen se omiten
+     * @param desde       primer día
+     * @return unidades libres por ID de producto; pueden ser negativas si el stock total se redujo
+     */
+    public Map<Long, Long> disponiblesDesde(Collection<Long> productoIds, LocalDate desde) {
+        Map<Long, Long> disponibles = new HashMap<>();
+        if (productoIds.isEmpty()) {
+            return disponibles;
+        }
+        for (long[] producto : productos("SELECT id, stock_total, version FROM inventario_productos WHERE id IN ("
+                + String.join(", ", Collections.nCopies(productoIds.size(), "?")) + ")", productoIds.toArray())) {
+            disponibles.put(producto[0], producto[1] - ocupacionMaxima(producto[0], producto[2], desde, null));
+        }
+        return disponibles;
+    }
+
+    /**
+     * Cuenta los productos con menos de cierta cantidad de unidades libres todos los días
+     * desde una fecha. Solo se consultan los índices de los productos con asignaciones;
+     * los demás se resuelven con su stock total.
+     *
+     * @param limite cantidad mínima de unidades libres para no contar el producto
+     * @param desde  primer día
+     * @return cantidad de productos por debajo del límite
+     */
+    public long contarBajoStock(int limite, LocalDate desde) {
+        return productos("SELECT p.id, p.stock_total, p.version FROM inventario_productos p WHERE p.stock_total < ? "
+                        + "OR EXISTS (SELECT 1 FROM evento_productos a WHERE a.producto_id = p.id)", limite)
+                .stream()
+                .filter(producto -> producto[1] < limite
+                        || producto[1] - ocupacionMaxima(producto[0], producto[2], desde, null) < limite)
+                .count();
+    }
+
+    /**
+     * Mayor ocupación de un día del rango según las asignaciones confirmadas en la
+     * versión indicada del producto. Si el índice en memoria no corresponde a esa
+     * versión, se reconstruye con una consulta de las asignaciones del producto.
+     * <p>
+     * Para que el resultado sirva de control, quien llama debe escribir la fila del
+     * producto con la condición {@code version = ?} y repetir la operación si no la
+     * encuentra.
+     *
+     * @param productoId producto a consultar
+     * @param version    versión confirmada de la fila del producto
+     * @param desde      primer día, o {@code null} para no tener límite
+     * @param hasta      último día, o {@code null} para no tener límite
+     * @return unidades ocupadas el día de mayor ocupación del rango
+     */
+    public long ocupacionMaxima(Long productoId, long version, LocalDate desde, LocalDate hasta) {
+        Ocupacion ocupacion = ocupaciones.getIfPresent(productoId);
+        if (ocupacion != null) {
+            synchronized (ocupacion) {
+                if (ocupacion.version == version) {
+                    return ocupacion.indice.maximo(desde, hasta);
+                }
+            }
+        }
+        ocupacion = construir(productoId, version);
+        // Solo se guarda si ninguna escritura confirmada cambió el producto mientras se leía.
+        if (Long.valueOf(version).equals(versionActual(productoId))) {
+            ocupaciones.put(productoId, ocupacion);
+        }
+        synchronized (ocupacion) {
+            return ocupacion.indice.maximo(desde, hasta);
+        }
+    }
+
+    /**
+     * Agrega al índice en memoria una asignación cuando se confirme la transacción en
+     * curso, pasando de la versión anterior del producto a la nueva. Si el índice ya
+     * no está en la versión anterior, se descarta. Sin transacción se descarta de inmediato.
+     *
+     * @param productoId producto asignado
+     * @param anterior   versión confirmada antes de la asignación
+     * @param nueva      versión que deja la asignación
+     * @param rango      días que ocupa el evento
+     * @param cantidad   unidades asignadas
+     */
+    public void asignarAlConfirmar(Long productoId, long anterior, long nueva, Rango rango, int cantidad) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            ocupaciones.invalidate(productoId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                Ocupacion ocupacion = ocupaciones.getIfPresent(productoId);
+                if (ocupacion == null) {
+                    return;
+                }
+                synchronized (ocupacion) {
+                    if (ocupacion.version == anterior) {
+                        ocupacion.indice.agregar(rango.desde(), rango.hasta(), cantidad);
+                        ocupacion.version = nueva;
+                        return;
+                    }
+                }
+                ocupaciones.invalidate(productoId);
+            }
+        });
+    }
+
+    /**
+     * Incrementa la versión de los productos asignados a un evento que cambió, para
+     * que sus índices se reconstruyan con las fechas nuevas. No cambia la fecha de
+     * modificación de los productos, cuyos datos siguen siendo los mismos.
+     *
+     * @param modificado evento de dominio publicado por {@link EventoService}
+     */
+    @EventListener
+    public void alModificarEvento(EventoService.EventoModificado modificado) {
+        if (modificado.eventoId() != null) {
+            eventosModificados(List.of(modificado.eventoId()));
+        }
+    }
+
+    /**
+     * Incrementa la versión de los productos asignados a cualquiera de los eventos
+     * indicados, con una sola sentencia.
+     *
+     * @param eventoIds eventos cuyas fechas pudieron cambiar
+     */
+    public void eventosModificados(Collection<Long> eventoIds) {
+        if (eventoIds.isEmpty()) {
+            return;
+        }
+        jdbc.update("UPDATE inventario_productos SET version = version + 1 WHERE id IN "
+                        + "(SELECT a.producto_id FROM evento_productos a WHERE a.evento_id IN ("
+                        + String.join(", ", Collections.nCopies(eventoIds.size(), "?")) + "))",
+                eventoIds.toArray());
+    }
+
+    private Ocupacion construir(Long productoId, long version) {
+        Ocupacion ocupacion = new Ocupacion(version);
+        jdbc.query("SELECT e.fecha_inicio, e.fecha_fin, a.cantidad_asignada FROM evento_productos a "
+                        + "JOIN Evento e ON e.id_evento = a.evento_id WHERE a.producto_id = ?",
+                fila -> {
+                    Date inicio = fila.getDate(1);
+                    Date fin = fila.getDate(2);
+                    Rango rango = Rango.deEvento(inicio != null ? inicio.toLocalDate() : null,
+                            fin != null ? fin.toLocalDate() : null);
+                    ocupacion.indice.agregar(rango.desde(), rango.hasta(), fila.getInt(3));
+                }, productoId);
+        return ocupacion;
+    }
+
+    /**
+     * Lee ID, stock total y versión de los productos antes de consultar sus índices,
+     * para no abrir otras consultas mientras se recorre el resultado.
+     */
+    private List<long[]> productos(String sql, Object... parametros) {
+        return jdbc.query(sql, (fila, numero) -> new long[]{fila.getLong(1), fila.getLong(2), fila.getLong(3)},
+                parametros);
+    }
+
+    private Long versionActual(Long productoId) {
+        List<Long> versiones = jdbc.queryForList("SELECT version FROM inventario_productos WHERE id = ?",
+                Long.class, productoId);
+        return versiones.isEmpty() ? null : versiones.get(0);
+    }
+
+    /**
+     * Días que ocupa un evento, ambos incluidos.
+     *
+     * @param desde primer día, o {@code null} si no tiene límite
+     * @param hasta último día, o {@code null} si no tiene límite
+     */
+    public record Rango(LocalDate desde, LocalDate hasta) {
+
+        /**
+         * Rango de un evento: de inicio a fin; solo el día de inicio si falta el fin o
+         * es anterior; sin límites si falta el inicio.
+         *
+         * @param inicio fecha de inicio del evento
+         * @param fin    fecha de fin del evento
+         * @return los días que ocupa
+         */
+        public static Rango deEvento(LocalDate inicio, LocalDate fin) {
+            if (inicio == null) {
+                return new Rango(null, null);
+            }
+            return new Rango(inicio, fin != null && !fin.isBefore(inicio) ? fin : inicio);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.museo_v2.service;
+
+import com.example.museo_v2.model.Evento;
+import com.example.museo_v2.model.EventoListado;
+import com.example.museo_v2.model.EventoResumen;
+import com.example.museo_v2.model.PaginaKeyset;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Servicio de eventos con caché de corta duración para las búsquedas por ID.
+ * <p>
+ * Se ubica delante de {@link EventoServiceImpl}. Las búsquedas concurrentes del mismo
+ * evento que no están en caché comparten una única consulta a la base de datos
+ * (las demás esperan su resultado), y el resultado se reutiliza durante unos segundos.
+ * Guardar o eliminar un evento invalida su entrada; la caducidad corta acota el
+ * tiempo en que una carga concurrente con la escritura puede dejar un dato anterior.
+ * <p>
+ * El evento devuelto es compartido entre solicitudes y debe tratarse como de solo lectura.
+ */
+@Service
+@Primary
+public class EventoCacheadoService implements EventoService {
+
+    private final EventoServiceImpl eventoServiceImpl;
+    private final LoadingCache<Long, Optional<Evento>> eventosPorId;
+
+    public EventoCacheadoService(EventoServiceImpl eventoServiceImpl,
+                                 MeterRegistry registro,
+                                 @Value("${app.eventos.cache.ttl-segundos:5}") long ttlSegundos,
+                                 @Value("${app.eventos.cache.max-eventos:10000}") long maxEventos) {
+        this.eventoServiceImpl = eventoServiceImpl;
+        this.eventosPorId = CacheBuilder.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSegundos))
+                .maximumSize(maxEventos)
+                .recordStats()
+                .build(CacheLoader.from(id -> Optional.ofNullable(eventoServiceImpl.obtenerEventoPorId(id))));
+        GuavaCacheMetrics.monitor(registro, eventosPorId, "eventosPorId");
+    }
+
+    @Override
+    public List<Evento> listarTodosLosEventos() {
+        return eventoServiceImpl.listarTodosLosEventos();
+    }
+
+    @Override
+    public PaginaKeyset<EventoListado> listarEventosPaginados(String nombre, boolean descendente,
+                                                              LocalDate despuesDeFecha, Long despuesDeId, int tamano) {
+        return eventoServiceImpl.listarEventosPaginados(nombre, descendente, despuesDeFecha, despuesDeId, tamano);
+    }
+
+    /**
+     * Guarda el evento e invalida su entrada en caché.
+     *
+     * @param evento El evento a guardar.
+     * @return El evento guardado.
+     */
+    @Override
+    public Evento guardarEvento(Evento evento) {
+        Evento guardado = eventoServiceImpl.guardarEvento(evento);
+        if (guardado != null && guardado.getId() != null) {
+            eventosPorId.invalidate(guardado.getId());
+        }
+        return guardado;
+    }
+
+    /**
+     * Obtiene un evento por su ID desde la caché, cargándolo una sola vez
+     * aunque lo pidan muchas solicitudes a la vez.
+     *
+     * @param id El ID del evento a obtener.
+     * @return El evento o {@code null} si no existe.
+     */
+    @Override
+    public Evento obtenerEventoPorId(Long id) {
+        if (id == null) {
+            return null;
+        }
+        try {
+            return eventosPorId.getUnchecked(id).orElse(null);
+        } catch (UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Elimina el evento e invalida su entrada en caché.
+     *
+     * @param id El ID del evento a eliminar.
+     */
+    @Override
+    public void eliminarEvento(Long id) {
+        eventoServiceImpl.eliminarEvento(id);
+        eventosPorId.invalidate(id);
+    }
+
+    @Override
+    public List<Evento> obtenerEventosDelMesActual() {
+        return eventoServiceImpl.obtenerEventosDelMesActual();
+    }
+
+    @Override
+    public List<EventoResumen> obtenerProximosEventos(int limit) {
+        return eventoServiceImpl.obtenerProximosEventos(limit);
+    }
+}
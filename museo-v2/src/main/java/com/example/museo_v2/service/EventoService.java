@@ -1,6 +1,11 @@
 package com.example.museo_v2.service;
 
 import com.example.museo_v2.model.Evento;
+import com.example.museo_v2.model.EventoListado;
+import com.example.museo_v2.model.EventoResumen;
+import com.example.museo_v2.model.PaginaKeyset;
+
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -8,6 +13,15 @@ import java.util.List;
  * Proporciona métodos para listar, guardar, obtener, eliminar y obtener eventos del mes actual y futuros.
  */
 public interface EventoService {
+
+    /**
+     * Evento de dominio publicado cuando un evento se crea, modifica o elimina.
+     *
+     * @param eventoId identificador del evento afectado, o {@code null} si una importación
+     *                 masiva modificó varios eventos
+     */
+    record EventoModificado(Long eventoId) {
+    }
     
     /**
      * Obtiene una lista de todos los eventos.
@@ -15,6 +29,22 @@ public interface EventoService {
      * @return Una lista de todos los eventos.
      */
     List<Evento> listarTodosLosEventos();
+
+    /**
+     * Obtiene una página del listado de eventos ordenado por fecha de inicio, a partir
+     * del cursor del último evento de la página anterior. Los eventos sin fecha de inicio
+     * se muestran al final del orden ascendente y al principio del descendente.
+     *
+     * @param nombre         texto que debe contener el nombre, o {@code null} para no filtrar
+     * @param descendente    {@code true} para ordenar de la fecha más reciente a la más antigua
+     * @param despuesDeFecha fecha de inicio del último evento mostrado, o {@code null} si no
+     *                       tenía fecha o es la primera página
+     * @param despuesDeId    identificador del último evento mostrado, o {@code null} para la primera página
+     * @param tamano         cantidad de eventos por página
+     * @return la página de eventos
+     */
+    PaginaKeyset<EventoListado> listarEventosPaginados(String nombre, boolean descendente,
+                                                       LocalDate despuesDeFecha, Long despuesDeId, int tamano);
     
     /**
      * Guarda un evento en la base de datos.
@@ -50,7 +80,7 @@ public interface EventoService {
      * Obtiene una lista de los próximos eventos, limitado a un número especificado.
      * 
      * @param limit El número máximo de eventos a devolver.
-     * @return Una lista de los próximos eventos.
+     * @return Una lista de resúmenes de los próximos eventos.
      */
-    List<Evento> obtenerProximosEventos(int limit);
+    List<EventoResumen> obtenerProximosEventos(int limit);
 }
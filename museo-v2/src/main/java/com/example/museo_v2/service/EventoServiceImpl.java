@@ -1,11 +1,18 @@
 package com.example.museo_v2.service;
 
 import com.example.museo_v2.model.Evento;
+import com.example.museo_v2.model.EventoListado;
+import com.example.museo_v2.model.EventoResumen;
+import com.example.museo_v2.model.PaginaKeyset;
 import com.example.museo_v2.repository.EventoRepositorio;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,9 +23,18 @@ import java.util.Optional;
 @Service
 public class EventoServiceImpl implements EventoService {
 
+    /** Cursor inicial del listado ascendente: anterior a cualquier fecha de inicio. */
+    private static final LocalDate FECHA_MINIMA = LocalDate.of(1000, 1, 1);
+
+    /** Cursor inicial del listado descendente: posterior a cualquier fecha de inicio. */
+    private static final LocalDate FECHA_MAXIMA = LocalDate.of(9999, 12, 31);
+
     @Autowired
     private EventoRepositorio eventoRepositorio;
 
+    @Autowired
+    private ApplicationEventPublisher eventos;
+
     /**
      * Obtiene una lista de todos los eventos.
      * 
@@ -30,14 +46,67 @@ public class EventoServiceImpl implements EventoService {
     }
 
     /**
-     * Guarda un nuevo evento o actualiza uno existente.
+     * Obtiene una página del listado de eventos. Se pide una fila más que el tamaño de
+     * página para saber si existe una página siguiente sin contar el total de eventos.
+     * Sin cursor se parte de una fecha anterior (o posterior) a cualquier evento.
+     * <p>
+     * Los eventos sin fecha de inicio forman un tramo aparte ordenado por ID: van al
+     * final del orden ascendente y al principio del descendente. Cuando un tramo no
+     * completa la página se sigue con el otro, y un cursor sin fecha indica que la
+     * página anterior terminó dentro del tramo sin fecha.
+     *
+     * @param nombre         texto que debe contener el nombre, o {@code null} para no filtrar
+     * @param descendente    {@code true} para ordenar de la fecha más reciente a la más antigua
+     * @param despuesDeFecha fecha de inicio del último evento mostrado, o {@code null} si no
+     *                       tenía fecha o es la primera página
+     * @param despuesDeId    identificador del último evento mostrado, o {@code null} para la primera página
+     * @param tamano         cantidad de eventos por página
+     * @return la página de eventos
+     */
+    @Override
+    public PaginaKeyset<EventoListado> listarEventosPaginados(String nombre, boolean descendente,
+                                                              LocalDate despuesDeFecha, Long despuesDeId, int tamano) {
+        int filas = PaginaKeyset.normalizarTamano(tamano);
+        boolean conCursor = despuesDeId != null;
+        boolean enTramoSinFecha = conCursor && despuesDeFecha == null;
+        String filtro = StringUtils.trimToNull(nombre);
+
+        List<EventoListado> resultado = new ArrayList<>();
+        if (descendente) {
+            if (!conCursor || enTramoSinFecha) {
+                resultado.addAll(eventoRepositorio.listarSinFechaDescendente(
+                        conCursor ? despuesDeId : Long.MAX_VALUE, filtro, PageRequest.of(0, filas + 1)));
+            }
+            if (resultado.size() <= filas) {
+                boolean cursorConFecha = conCursor && !enTramoSinFecha;
+                resultado.addAll(eventoRepositorio.listarDescendente(cursorConFecha ? despuesDeFecha : FECHA_MAXIMA,
+                        cursorConFecha ? despuesDeId : Long.MAX_VALUE, filtro,
+                        PageRequest.of(0, filas + 1 - resultado.size())));
+            }
+        } else {
+            if (!enTramoSinFecha) {
+                resultado.addAll(eventoRepositorio.listarAscendente(conCursor ? despuesDeFecha : FECHA_MINIMA,
+                        conCursor ? despuesDeId : 0L, filtro, PageRequest.of(0, filas + 1)));
+            }
+            if (resultado.size() <= filas) {
+                resultado.addAll(eventoRepositorio.listarSinFechaAscendente(enTramoSinFecha ? despuesDeId : 0L,
+                        filtro, PageRequest.of(0, filas + 1 - resultado.size())));
+            }
+        }
+        return PaginaKeyset.de(resultado, filas);
+    }
+
+    /**
+     * Guarda un nuevo evento o actualiza uno existente y publica {@link EventoModificado}.
      * 
      * @param evento El evento a guardar o actualizar.
      * @return El evento guardado o actualizado.
      */
     @Override
     public Evento guardarEvento(Evento evento) {
-        return eventoRepositorio.save(evento);
+        Evento guardado = eventoRepositorio.save(evento);
+        eventos.publishEvent(new EventoModificado(guardado.getId()));
+        return guardado;
     }
 
     /**
@@ -53,13 +122,14 @@ public class EventoServiceImpl implements EventoService {
     }
 
     /**
-     * Elimina un evento de la base de datos por su ID.
+     * Elimina un evento de la base de datos por su ID y publica {@link EventoModificado}.
      * 
      * @param id El ID del evento a eliminar.
      */
     @Override
     public void eliminarEvento(Long id) {
         eventoRepositorio.deleteById(id);
+        eventos.publishEvent(new EventoModificado(id));
     }
 
     /**
@@ -69,25 +139,22 @@ public class EventoServiceImpl implements EventoService {
      */
     @Override
     public List<Evento> obtenerEventosDelMesActual() {
-        LocalDate hoy = LocalDate.now();
-        return eventoRepositorio.findEventosByMonthAndYear(hoy);
+        LocalDate inicioMes = LocalDate.now().withDayOfMonth(1);
+        return eventoRepositorio.findEventosEntreFechas(inicioMes, inicioMes.plusMonths(1));
     }
 
     /**
      * Obtiene una lista de los próximos eventos, limitado a un número específico.
+     * El límite se aplica en la base de datos.
      * 
      * @param limit El número máximo de eventos a devolver.
      * @return Una lista de los próximos eventos, limitada por el parámetro `limit`.
      */
     @Override
-    public List<Evento> obtenerProximosEventos(int limit) {
-        LocalDate hoy = LocalDate.now();
-        List<Evento> proximos = eventoRepositorio.findByFechaInicioAfterOrderByFechaInicioAsc(hoy);
-
-        // Limita la cantidad de eventos devueltos si excede el límite especificado.
-        if (proximos.size() > limit) {
-            return proximos.subList(0, limit);
+    public List<EventoResumen> obtenerProximosEventos(int limit) {
+        if (limit < 1) {
+            return List.of();
         }
-        return proximos;
+        return eventoRepositorio.findProximosEventos(LocalDate.now(), PageRequest.of(0, limit));
     }
 }
@@ -0,0 +1,146 @@
+package com.example.museo_v2.service;
+
+import com.example.museo_v2.model.TipoReporte;
+import com.example.museo_v2.repository.EventoRepositorio;
+import com.example.museo_v2.repository.ProductoInventarioRepository;
+import com.example.museo_v2.repository.ReservaRepositorio;
+import com.example.museo_v2.repository.SalaRepositorio;
+import com.example.museo_v2.util.EscritorTabla;
+import com.example.museo_v2.util.EscritorXlsx;
+import com.example.museo_v2.util.EsquemaExportacion;
+import com.example.museo_v2.util.EsquemasReporte;
+import com.example.museo_v2.util.FormatoExportacion;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exporta los reportes leyendo las tablas como flujos.
+ *
+ * <p>Cada exportación recorre un cursor de la base de datos dentro de una transacción de
+ * solo lectura y escribe cada fila en el reporte apenas se lee. Las entidades se
+ * desvinculan del contexto de persistencia al leerse para que este no crezca con el
+ * recorrido; junto con la ventana de filas de {@link EscritorXlsx} y el búfer fijo de
+ * los formatos de texto, la memoria usada se mantiene constante sin importar la
+ * cantidad de filas.</p>
+ *
+ * <p>Las columnas de cada reporte son las de {@link EsquemasReporte} y las usan todos
+ * los formatos de archivo. Los reportes de eventos, inventario y reservas pueden
+ * limitarse a las filas modificadas desde un instante, para las cargas incrementales.</p>
+ */
+@Service
+public class ExportacionService {
+
+    /** Búfer del compresor gzip, del mismo tamaño que el búfer de los escritores de texto. */
+    private static final int TAMANO_BUFER_GZIP = 64 * 1024;
+
+    private final EventoRepositorio eventoRepositorio;
+    private final SalaRepositorio salaRepositorio;
+    private final ProductoInventarioRepository productoRepo;
+    private final ReservaRepositorio reservaRepositorio;
+    private final EntityManager entityManager;
+
+    public ExportacionService(EventoRepositorio eventoRepositorio, SalaRepositorio salaRepositorio,
+                              ProductoInventarioRepository productoRepo, ReservaRepositorio reservaRepositorio,
+                              EntityManager entityManager) {
+        this.eventoRepositorio = eventoRepositorio;
+        this.salaRepositorio = salaRepositorio;
+        this.productoRepo = productoRepo;
+        this.reservaRepositorio = reservaRepositorio;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Escribe el reporte indicado, avisando cada fila leída para informar el progreso.
+     *
+     * @param tipo      reporte a generar
+     * @param salida    flujo donde se escribe el archivo
+     * @param filaLeida acción invocada por cada fila, antes de escribirla
+     */
+    @Transactional(readOnly = true)
+    public void exportar(TipoReporte tipo, OutputStream salida, Runnable filaLeida) {
+        exportar(tipo, FormatoExportacion.XLSX.getEscritor(), null, salida, filaLeida);
+    }
+
+    /**
+     * Escribe el reporte indicado en el formato pedido, opcionalmente comprimido con gzip.
+     *
+     * @param tipo    reporte a generar
+     * @param formato formato del archivo
+     * @param desde   si no es {@code null}, solo se incluyen las filas modificadas desde ese instante
+     * @param gzip    si el archivo se comprime
+     * @param salida  flujo donde se escribe el archivo
+     * @throws IllegalArgumentException si se filtra por fecha un reporte que no la registra
+     */
+    @Transactional(readOnly = true)
+    public void exportar(TipoReporte tipo, FormatoExportacion formato, LocalDateTime desde, boolean gzip,
+                         OutputStream salida) {
+        if (!gzip) {
+            exportar(tipo, formato.getEscritor(), desde, salida, () -> { });
+            return;
+        }
+        try {
+            GZIPOutputStream comprimido = new GZIPOutputStream(salida, TAMANO_BUFER_GZIP);
+            exportar(tipo, formato.getEscritor(), desde, comprimido, () -> { });
+            comprimido.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al comprimir el reporte de " + tipo.getRuta(), e);
+        }
+    }
+
+    /**
+     * Cuenta las filas que tendrá el reporte, para calcular el porcentaje de avance.
+     *
+     * @param tipo reporte a generar
+     * @return cantidad de filas de datos
+     */
+    public long contarFilas(TipoReporte tipo) {
+        return switch (tipo) {
+            case EVENTOS -> eventoRepositorio.count();
+            case SALAS -> salaRepositorio.count();
+            case INVENTARIO -> productoRepo.count();
+            case RESERVAS -> reservaRepositorio.count();
+        };
+    }
+
+    private void exportar(TipoReporte tipo, EscritorTabla escritor, LocalDateTime desde, OutputStream salida,
+                          Runnable filaLeida) {
+        switch (tipo) {
+            case EVENTOS -> escribir(escritor, EsquemasReporte.EVENTOS, desde == null
+                    ? eventoRepositorio.recorrerTodos()
+                    : eventoRepositorio.recorrerModificadosDesde(desde), salida, filaLeida);
+            case SALAS -> {
+                if (desde != null) {
+                    throw new IllegalArgumentException("Las salas no registran su fecha de modificación");
+                }
+                escribir(escritor, EsquemasReporte.SALAS, salaRepositorio.recorrerTodas(), salida, filaLeida);
+            }
+            case INVENTARIO -> escribir(escritor, EsquemasReporte.INVENTARIO, desde == null
+                    ? productoRepo.recorrerTodos()
+                    : productoRepo.recorrerModificadosDesde(desde), salida, filaLeida);
+            case RESERVAS -> escribir(escritor, EsquemasReporte.RESERVAS, desde == null
+                    ? reservaRepositorio.recorrerTodas()
+                    : reservaRepositorio.recorrerModificadasDesde(desde), salida, filaLeida);
+        }
+    }
+
+    private <T> void escribir(EscritorTabla escritor, EsquemaExportacion<T> esquema, Stream<T> cursor,
+                              OutputStream salida, Runnable filaLeida) {
+        try (Stream<T> filas = cursor) {
+            escritor.escribir(esquema, filas.map(fila -> desvincular(fila, filaLeida)), salida);
+        }
+    }
+
+    private <T> T desvincular(T entidad, Runnable filaLeida) {
+        entityManager.detach(entidad);
+        filaLeida.run();
+        return entidad;
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.museo_v2.service;
+
+import com.example.museo_v2.model.SolicitudIdempotente;
+import com.example.museo_v2.repository.SolicitudIdempotenteRepository;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Servicio que evita procesar dos veces el mismo envío de un formulario.
+ * <p>
+ * Cada formulario lleva una clave única. El primer envío con esa clave ejecuta
+ * la acción y guarda su resultado (la vista de redirección); los reintentos y
+ * dobles clics reciben ese mismo resultado desde memoria, sin volver a ejecutar
+ * la acción. La memoria está acotada y expira; la tabla de claves respalda el
+ * caso en que la entrada ya no está en memoria o el reintento llega a otra instancia.
+ */
+@Service
+public class IdempotenciaService {
+
+    private final SolicitudIdempotenteRepository solicitudRepo;
+    private final Cache<String, CompletableFuture<String>> resultados;
+    private final Duration retencion;
+
+    public IdempotenciaService(SolicitudIdempotenteRepository solicitudRepo,
+                               @Value("${app.idempotencia.max-claves:10000}") long maxClaves,
+                               @Value("${app.idempotencia.retencion-minutos:30}") long retencionMinutos) {
+        this.solicitudRepo = solicitudRepo;
+        this.retencion = Duration.ofMinutes(retencionMinutos);
+        this.resultados = CacheBuilder.newBuilder()
+                .maximumSize(maxClaves)
+                .expireAfterWrite(retencion)
+                .build();
+    }
+
+    /**
+     * Genera una nueva clave para incluir en un formulario.
+     *
+     * @return clave aleatoria
+     */
+    public String generarClave() {
+        return UUID.randomUUID().toString();
+    }
+
+    /**
+     * Ejecuta la acción una sola vez por clave y devuelve siempre el mismo resultado.
+     * Si la acción falla, la clave se libera para que el usuario pueda reintentar.
+     *
+     * @param clave clave enviada con el formulario; si está vacía la acción se ejecuta sin control
+     * @param accion acción a ejecutar, que devuelve la vista resultante
+     * @return resultado del primer procesamiento de la clave
+     * @throws IllegalStateException si otra instancia aún está procesando la misma clave
+     */
+    public String ejecutar(String clave, Supplier<String> accion) {
+        if (clave == null || clave.isBlank()) {
+            return accion.get();
+        }
+
+        CompletableFuture<String> propio = new CompletableFuture<>();
+        CompletableFuture<String> existente = resultados.asMap().putIfAbsent(clave, propio);
+        if (existente != null) {
+            return esperar(existente);
+        }
+
+        Optional<String> previo;
+        try {
+            previo = reclamar(clave);
+        } catch (RuntimeException e) {
+            resultados.invalidate(clave);
+            propio.completeExceptionally(e);
+            throw e;
+        }
+        if (previo.isPresent()) {
+            propio.complete(previo.get());
+            return previo.get();
+        }
+
+        try {
+            String resultado = accion.get();
+            solicitudRepo.registrarResultado(clave, resultado);
+            propio.complete(resultado);
+            return resultado;
+
+        } catch (RuntimeException e) {
+            resultados.invalidate(clave);
+            solicitudRepo.liberar(clave);
+            propio.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Elimina periódicamente las claves que ya no pueden reenviarse.
+     */
+    @Scheduled(fixedDelayString = "${app.idempotencia.limpieza-ms:3600000}")
+    public void limpiarClavesVencidas() {
+        solicitudRepo.eliminarAnterioresA(LocalDateTime.now().minus(retencion.multipliedBy(2)));
+    }
+
+    /**
+     * Registra la clave en la base de datos. Si ya existía, devuelve su resultado.
+     *
+     * @param clave clave de idempotencia
+     * @return resultado previo si la clave ya fue procesada, vacío si este es el primer envío
+     */
+    private Optional<String> reclamar(String clave) {
+        try {
+            solicitudRepo.reclamar(clave, LocalDateTime.now());
+            return Optional.empty();
+        } catch (DataIntegrityViolationException e) {
+            String resultado = solicitudRepo.findById(clave)
+                    .map(SolicitudIdempotente::getResultado)
+                    .orElse(null);
+            if (resultado == null) {
+                throw new IllegalStateException("La solicitud ya se está procesando.");
+            }
+            return Optional.of(resultado);
+        }
+    }
+
+    private String esperar(CompletableFuture<String> existente) {
+        try {
+            return existente.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,738 @@
+package com.example.museo_v2.service;
+
+import com.example.museo_v2.model.ResultadoImportacion;
+import com.example.museo_v2.model.ResultadoImportacion.ErrorFila;
+import com.example.museo_v2.model.Sala;
+import com.example.museo_v2.model.TipoMovimiento;
+import com.example.museo_v2.repository.SalaRepositorio;
+import com.example.museo_v2.service.LibroInventarioService.Movimiento;
+import com.example.museo_v2.service.ReintentoOptimistaService.Politica;
+import com.example.museo_v2.util.LectorFilas;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Servicio de importación masiva de productos de inventario y eventos desde CSV o XLSX.
+ * <p>
+ * El archivo se lee en flujo y se procesa por lotes de tamaño fijo: las filas de un
+ * lote se validan en paralelo y las válidas se escriben con dos sentencias JDBC en
+ * lote, una de inserción para las filas sin ID y una de actualización para las que
+ * traen el ID de un registro existente. Cada lote se confirma en su propia
+ * transacción, de modo que la memoria usada depende del tamaño del lote y no del
+ * archivo; si choca con otra escritura sobre los mismos productos, el lote se repite
+ * según {@link ReintentoOptimistaService}. Las filas rechazadas se informan con su
+ * número y el motivo. Si el archivo resulta mal formado después de la cabecera, los
+ * lotes anteriores ya están confirmados: se guardan también las filas leídas hasta ese
+ * punto y el resultado informa cuántas se importaron junto con el motivo de la
+ * interrupción.
+ * <p>
+ * Las columnas se reconocen por su cabecera, las mismas que escriben las
+ * exportaciones, así que un reporte exportado puede editarse y volver a importarse.
+ * Las columnas desconocidas se ignoran.
+ * <p>
+ * Las sentencias no pasan por Hibernate: fijan ellas mismas la fecha de modificación
+ * e incrementan la versión de cada fila actualizada, de modo que un formulario de
+ * edición abierto antes de la importación detecta el cambio. Las altas y los cambios de
+ * stock total de los productos se registran en el libro de inventario dentro de la
+ * transacción del lote. Al terminar una importación de eventos se publica
+ * {@link EventoService.EventoModificado} para que se recalcule la página de inicio.
+ */
+@Service
+public class ImportacionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportacionService.class);
+
+    private static final DateTimeFormatter FECHA_DIA_MES_ANIO = DateTimeFormatter.ofPattern("d/M/uuuu");
+
+    private final JdbcTemplate jdbc;
+    private final ReintentoOptimistaService reintentos;
+    private final SalaRepositorio salaRepositorio;
+    private final LibroInventarioService libro;
+    private final DisponibilidadInventarioService disponibilidad;
+    private final ApplicationEventPublisher eventos;
+    private final int tamanoLote;
+
+    public ImportacionService(JdbcTemplate jdbc,
+                              ReintentoOptimistaService reintentos,
+                              SalaRepositorio salaRepositorio,
+                              LibroInventarioService libro,
+                              DisponibilidadInventarioService disponibilidad,
+                              ApplicationEventPublisher eventos,
+                              @Value("${app.importacion.tamano-lote:1000}") int tamanoLote) {
+        this.jdbc = jdbc;
+        this.reintentos = reintentos;
+        this.salaRepositorio = salaRepositorio;
+        this.libro = libro;
+        this.disponibilidad = disponibilidad;
+        this.eventos = eventos;
+        this.tamanoLote = tamanoLote;
+    }
+
+    /**
+     * Importa productos de inventario. Columnas: {@code ID} (opcional), {@code Nombre},
+     * {@code Tipo}, {@code Stock Total} y {@code Stock Disponible} (opcional).
+     * <p>
+     * Un producto nuevo toma el stock disponible indicado o, si falta, el total. En un
+     * producto existente el stock disponible no se toma del archivo: se ajusta en la
+     * misma diferencia que el total, para no perder las unidades asignadas a eventos, y
+     * la fila se rechaza si el nuevo total queda por debajo de lo asignado algún día a
+     * partir de hoy.
+     *
+     * @param nombreArchivo nombre original, para elegir entre CSV y XLSX
+     * @param entrada       contenido del archivo; no se cierra
+     * @return filas importadas y rechazadas
+     * @throws IOException              si falla la lectura del archivo antes de la cabecera
+     * @throws IllegalArgumentException si el formato o las cabeceras no son válidos
+     */
+    public ResultadoImportacion importarProductos(String nombreArchivo, InputStream entrada) throws IOException {
+        return importar(nombreArchivo, entrada, new DestinoProductos());
+    }
+
+    /**
+     * Importa eventos. Columnas: {@code ID} (opcional), {@code Nombre},
+     * {@code Fecha Inicio} (aaaa-mm-dd o d/m/aaaa), {@code Costo Entrada} y {@code Sala},
+     * que se busca por nombre. Al actualizar un evento existente, el costo y la sala se
+     * conservan si la columna falta en la cabecera o la celda está vacía.
+     *
+     * @param nombreArchivo nombre original, para elegir entre CSV y XLSX
+     * @param entrada       contenido del archivo; no se cierra
+     * @return filas importadas y rechazadas
+     * @throws IOException              si falla la lectura del archivo antes de la cabecera
+     * @throws IllegalArgumentException si el formato o las cabeceras no son válidos
+     */
+    public ResultadoImportacion importarEventos(String nombreArchivo, InputStream entrada) throws IOException {
+        Map<String, Integer> salas = new HashMap<>();
+        for (Sala sala : salaRepositorio.findAll()) {
+            salas.putIfAbsent(clave(sala.getNombre()), sala.getId());
+        }
+        ResultadoImportacion resultado = importar(nombreArchivo, entrada, new DestinoEventos(salas));
+        if (resultado.insertadas() + resultado.actualizadas() > 0) {
+            eventos.publishEvent(new EventoService.EventoModificado(null));
+        }
+        return resultado;
+    }
+
+    private <T> ResultadoImportacion importar(String nombreArchivo, InputStream entrada, Destino<T> destino)
+            throws IOException {
+        LectorFilas lector = LectorFilas.paraArchivo(nombreArchivo);
+        Importacion<T> importacion = new Importacion<>(destino);
+        try {
+            lector.leer(entrada, importacion);
+        } catch (IllegalArgumentException | IOException e) {
+            // Sin cabecera no se guardó nada: el archivo se rechaza completo.
+            if (importacion.cabeceras == null) {
+                throw e;
+            }
+            logger.warn("Importación de {}: lectura interrumpida tras {} filas", destino.nombre(),
+                    importacion.filasLeidas, e);
+            importacion.errorLectura = e instanceof IOException
+                    ? "No se pudo leer el resto del archivo" : e.getMessage();
+        }
+        if (importacion.cabeceras == null) {
+            throw new IllegalArgumentException("El archivo está vacío");
+        }
+        importacion.procesarPendientes();
+        ResultadoImportacion resultado = importacion.resultado();
+        logger.info("Importación de {}: {} filas, {} insertadas, {} actualizadas, {} rechazadas",
+                destino.nombre(), resultado.filasLeidas(), resultado.insertadas(), resultado.actualizadas(),
+                resultado.rechazadas());
+        return resultado;
+    }
+
+    /**
+     * Estado de una importación en curso: recibe las filas del lector, las agrupa en
+     * lotes y acumula los totales.
+     */
+    private final class Importacion<T> implements LectorFilas.Receptor {
+
+        private final Destino<T> destino;
+        private final List<Fila> pendientes = new ArrayList<>();
+        private final List<ErrorFila> errores = new ArrayList<>();
+        private Map<String, Integer> cabeceras;
+        private long filasLeidas;
+        private long insertadas;
+        private long actualizadas;
+        private long erroresOmitidos;
+        private String errorLectura;
+
+        private Importacion(Destino<T> destino) {
+            this.destino = destino;
+        }
+
+        @Override
+        public void fila(int numero, String[] celdas) {
+            if (cabeceras == null) {
+                cabeceras = leerCabeceras(celdas, destino.obligatorias());
+                return;
+            }
+            if (vacia(celdas)) {
+                return;
+            }
+            filasLeidas++;
+            pendientes.add(new Fila(numero, celdas, cabeceras));
+            if (pendientes.size() >= tamanoLote) {
+                procesarPendientes();
+            }
+        }
+
+        private void procesarPendientes() {
+            if (pendientes.isEmpty()) {
+                return;
+            }
+            List<Validada<T>> validadas = pendientes.parallelStream().map(this::validar).toList();
+            pendientes.clear();
+
+            List<Validada<T>> validas = new ArrayList<>(validadas.size());
+            List<ErrorFila> rechazadas = new ArrayList<>();
+            for (Validada<T> validada : validadas) {
+                if (validada.error() != null) {
+                    rechazadas.add(new ErrorFila(validada.fila(), validada.error()));
+                } else {
+                    validas.add(validada);
+                }
+            }
+            if (!validas.isEmpty()) {
+                try {
+                    Escritura escritura = reintentos.ejecutar(destino.entidad(), Politica.REINTENTAR,
+                            () -> destino.escribir(validas));
+                    insertadas += escritura.insertadas();
+                    actualizadas += escritura.actualizadas();
+                    rechazadas.addAll(escritura.errores());
+                } catch (DataAccessException e) {
+                    String motivo = "No se pudo guardar el lote: "
+                            + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                    logger.warn("Importación de {}: lote rechazado", destino.nombre(), e);
+                    validas.forEach(validada -> rechazadas.add(new ErrorFila(validada.fila(), motivo)));
+                }
+            }
+            rechazadas.sort(Comparator.comparingInt(ErrorFila::fila));
+            rechazadas.forEach(this::rechazar);
+        }
+
+        private Validada<T> validar(Fila fila) {
+            try {
+                return new Validada<>(fila.numero, destino.convertir(fila), null);
+            } catch (IllegalArgumentException e) {
+                return new Validada<>(fila.numero, null, e.getMessage());
+            }
+        }
+
+        private void rechazar(ErrorFila error) {
+            if (errores.size() < ResultadoImportacion.MAXIMO_ERRORES) {
+                errores.add(error);
+            } else {
+                erroresOmitidos++;
+            }
+        }
+
+        private ResultadoImportacion resultado() {
+            return new ResultadoImportacion(filasLeidas, insertadas, actualizadas, errores, erroresOmitidos,
+                    errorLectura);
+        }
+    }
+
+    private static Map<String, Integer> leerCabeceras(String[] celdas, List<String> obligatorias) {
+        Map<String, Integer> cabeceras = new HashMap<>();
+        for (int i = 0; i < celdas.length; i++) {
+            cabeceras.putIfAbsent(clave(celdas[i]), i);
+        }
+        List<String> faltantes = obligatorias.stream()
+                .filter(cabecera -> !cabeceras.containsKey(clave(cabecera)))
+                .toList();
+        if (!faltantes.isEmpty()) {
+            throw new IllegalArgumentException("Faltan columnas en la cabecera: " + String.join(", ", faltantes));
+        }
+        return cabeceras;
+    }
+
+    private static boolean vacia(String[] celdas) {
+        for (String celda : celdas) {
+            if (!celda.isBlank()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String clave(String texto) {
+        return texto == null ? "" : texto.strip().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Fila leída del archivo, con acceso a sus celdas por cabecera.
+     */
+    private static final class Fila {
+
+        private final int numero;
+        private final String[] celdas;
+        private final Map<String, Integer> cabeceras;
+
+        private Fila(int numero, String[] celdas, Map<String, Integer> cabeceras) {
+            this.numero = numero;
+            this.celdas = celdas;
+            this.cabeceras = cabeceras;
+        }
+
+        /** Texto de la celda sin espacios en los extremos, o {@code null} si está vacía o no existe. */
+        private String texto(String cabecera) {
+            Integer indice = cabeceras.get(clave(cabecera));
+            if (indice == null || indice >= celdas.length) {
+                return null;
+            }
+            String valor = celdas[indice].strip();
+            return valor.isEmpty() ? null : valor;
+        }
+
+        private String textoObligatorio(String cabecera, int largoMaximo) {
+            String valor = texto(cabecera);
+            if (valor == null) {
+                throw new IllegalArgumentException(cabecera + " es obligatorio");
+            }
+            if (valor.length() > largoMaximo) {
+                throw new IllegalArgumentException(cabecera + " supera los " + largoMaximo + " caracteres");
+            }
+            return valor;
+        }
+
+        private Long id() {
+            String valor = texto("ID");
+            if (valor == null) {
+                return null;
+            }
+            long id = entero("ID", valor);
+            if (id <= 0) {
+                throw new IllegalArgumentException("ID debe ser positivo");
+            }
+            return id;
+        }
+
+        private Integer enteroNoNegativo(String cabecera) {
+            String valor = texto(cabecera);
+            if (valor == null) {
+                return null;
+            }
+            long numero = entero(cabecera, valor);
+            if (numero < 0 || numero > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException(cabecera + " fuera de rango: " + valor);
+            }
+            return (int) numero;
+        }
+
+        private BigDecimal decimalNoNegativo(String cabecera) {
+            String valor = texto(cabecera);
+            if (valor == null) {
+                return null;
+            }
+            try {
+                BigDecimal numero = new BigDecimal(valor);
+                if (numero.signum() < 0) {
+                    throw new IllegalArgumentException(cabecera + " no puede ser negativo");
+                }
+                return numero;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(cabecera + " no es un número: " + valor);
+            }
+        }
+
+        private LocalDate fecha(String cabecera) {
+            String valor = texto(cabecera);
+            if (valor == null) {
+                throw new IllegalArgumentException(cabecera + " es obligatorio");
+            }
+            try {
+                return valor.indexOf('/') >= 0
+                        ? LocalDate.parse(valor, FECHA_DIA_MES_ANIO)
+                        : LocalDate.parse(valor.length() > 10 ? valor.substring(0, 10) : valor);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException(cabecera + " no es una fecha válida: " + valor);
+            }
+        }
+
+        private static long entero(String cabecera, String valor) {
+            try {
+                return new BigDecimal(valor).longValueExact();
+            } catch (NumberFormatException | ArithmeticException e) {
+                throw new IllegalArgumentException(cabecera + " no es un número entero: " + valor);
+            }
+        }
+    }
+
+    /**
+     * Resultado de validar una fila: el registro a escribir o el motivo del rechazo.
+     */
+    private record Validada<T>(int fila, T registro, String error) {
+    }
+
+    /**
+     * Totales de un lote ya escrito.
+     */
+    private record Escritura(int insertadas, int actualizadas, List<ErrorFila> errores) {
+    }
+
+    /**
+     * Resultado de {@link #escribirLote}: los totales y los IDs generados para las
+     * filas insertadas, en el orden del lote.
+     */
+    private record LoteEscrito(Escritura escritura, List<Long> generados) {
+    }
+
+    /**
+     * Tabla de destino de una importación: qué columnas exige, cómo convierte cada
+     * fila y cómo escribe un lote de filas válidas.
+     */
+    private interface Destino<T> {
+
+        String nombre();
+
+        /** Entidad escrita, para las métricas de conflictos de versión. */
+        String entidad();
+
+        List<String> obligatorias();
+
+        /**
+         * @throws IllegalArgumentException con el motivo si la fila no es válida
+         */
+        T convertir(Fila fila);
+
+        Escritura escribir(List<Validada<T>> lote);
+    }
+
+    /**
+     * Escribe un lote separando las inserciones de las actualizaciones. Las
+     * actualizaciones que no afectan ninguna fila se rechazan con el mensaje indicado.
+     * Las inserciones devuelven los IDs generados.
+     */
+    private <T> LoteEscrito escribirLote(List<Validada<T>> lote, Timestamp ahora, String insercion,
+                                       String actualizacion, Asignador<T> asignarInsercion,
+                                       Asignador<T> asignarActualizacion, Predicate<T> esNuevo,
+                                       String sinActualizar) {
+        List<Validada<T>> nuevos = new ArrayList<>();
+        List<Validada<T>> existentes = new ArrayList<>();
+        for (Validada<T> validada : lote) {
+            (esNuevo.test(validada.registro()) ? nuevos : existentes).add(validada);
+        }
+        List<Long> generados = nuevos.isEmpty() ? List.of() : insertar(insercion, nuevos, asignarInsercion, ahora);
+        List<ErrorFila> errores = new ArrayList<>();
+        int actualizadas = 0;
+        if (!existentes.isEmpty()) {
+            int[][] filas = jdbc.batchUpdate(actualizacion, existentes, existentes.size(),
+                    (sentencia, validada) -> asignarActualizacion.asignar(sentencia, validada.registro(), ahora));
+            int[] afectadas = filas[0];
+            for (int i = 0; i < afectadas.length; i++) {
+                if (afectadas[i] == 0) {
+                    errores.add(new ErrorFila(existentes.get(i).fila(), sinActualizar));
+                } else {
+                    actualizadas++;
+                }
+            }
+        }
+        return new LoteEscrito(new Escritura(nuevos.size(), actualizadas, errores), generados);
+    }
+
+    /**
+     * Inserta las filas en un solo lote JDBC y lee las claves generadas, que llegan en
+     * el orden del lote.
+     */
+    private <T> List<Long> insertar(String insercion, List<Validada<T>> nuevos, Asignador<T> asignador,
+                                    Timestamp ahora) {
+        return jdbc.execute((ConnectionCallback<List<Long>>) conexion -> {
+            try (PreparedStatement sentencia = conexion.prepareStatement(insercion,
+                    Statement.RETURN_GENERATED_KEYS)) {
+                for (Validada<T> validada : nuevos) {
+                    asignador.asignar(sentencia, validada.registro(), ahora);
+                    sentencia.addBatch();
+                }
+                sentencia.executeBatch();
+                List<Long> generados = new ArrayList<>(nuevos.size());
+                try (ResultSet claves = sentencia.getGeneratedKeys()) {
+                    while (claves.next()) {
+                        generados.add(claves.getLong(1));
+                    }
+                }
+                if (generados.size() != nuevos.size()) {
+                    throw new IllegalStateException("Se insertaron " + nuevos.size() + " filas pero se recibieron "
+                            + generados.size() + " claves generadas");
+                }
+                return generados;
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface Asignador<T> {
+        void asignar(PreparedStatement sentencia, T registro, Timestamp ahora) throws SQLException;
+    }
+
+    /**
+     * Producto leído del archivo. {@code version} es la que debe tener la fila al
+     * actualizarla; se completa al escribir el lote.
+     */
+    private record Producto(Long id, String nombre, String tipo, int stockTotal, Integer stockDisponible,
+                            Long version) {
+
+        private Producto conVersion(long version) {
+            return new Producto(id, nombre, tipo, stockTotal, stockDisponible, version);
+        }
+    }
+
+    private final class DestinoProductos implements Destino<Producto> {
+
+        @Override
+        public String nombre() {
+            return "inventario";
+        }
+
+        @Override
+        public String entidad() {
+            return "producto";
+        }
+
+        @Override
+        public List<String> obligatorias() {
+            return List.of("Nombre", "Stock Total");
+        }
+
+        @Override
+        public Producto convertir(Fila fila) {
+            Long id = fila.id();
+            String nombre = fila.textoObligatorio("Nombre", 255);
+            String tipo = fila.texto("Tipo");
+            Integer total = fila.enteroNoNegativo("Stock Total");
+            if (total == null) {
+                throw new IllegalArgumentException("Stock Total es obligatorio");
+            }
+            Integer disponible = fila.enteroNoNegativo("Stock Disponible");
+            if (id == null && disponible != null && disponible > total) {
+                throw new IllegalArgumentException("Stock Disponible no puede superar el Stock Total");
+            }
+            return new Producto(id, nombre, tipo, total, disponible, null);
+        }
+
+        /**
+         * Además de escribir el lote, registra en el libro el alta de cada producto
+         * nuevo y la diferencia de stock total de cada producto actualizado. Los
+         * productos existentes se leen sin bloquear sus filas; se rechaza la fila de un
+         * ID inexistente y la cuyo Stock Total no cubre el día de mayor ocupación desde
+         * hoy. Cada actualización exige la versión leída (más las actualizaciones previas
+         * del mismo ID en el lote): si otra escritura cambió el producto entretanto, se
+         * lanza {@link OptimisticLockingFailureException} para repetir el lote.
+         */
+        @Override
+        public Escritura escribir(List<Validada<Producto>> lote) {
+            Map<Long, Integer> totales = new HashMap<>();
+            Map<Long, Long> versiones = new HashMap<>();
+            Map<Long, Long> asignadas = new HashMap<>();
+            leerExistentes(lote, totales, versiones, asignadas);
+
+            List<ErrorFila> errores = new ArrayList<>();
+            List<Validada<Producto>> aceptadas = new ArrayList<>(lote.size());
+            for (Validada<Producto> validada : lote) {
+                Long id = validada.registro().id();
+                if (id == null) {
+                    aceptadas.add(validada);
+                } else if (!versiones.containsKey(id)) {
+                    errores.add(new ErrorFila(validada.fila(), "No existe un producto con ese ID"));
+                } else if (validada.registro().stockTotal() < asignadas.get(id)) {
+                    errores.add(new ErrorFila(validada.fila(),
+                            "El Stock Total es menor que las unidades asignadas a eventos (" + asignadas.get(id) + ")"));
+                } else {
+                    // Un mismo ID puede repetirse en el lote: cada actualización parte de la anterior.
+                    long version = versiones.merge(id, 1L, Long::sum) - 1;
+                    aceptadas.add(new Validada<>(validada.fila(), validada.registro().conVersion(version), null));
+                }
+            }
+
+            Timestamp fecha = Timestamp.valueOf(LocalDateTime.now());
+            LoteEscrito escrito = escribirLote(aceptadas, fecha,
+                    "INSERT INTO inventario_productos (nombre, tipo, stock_total, stock_disponible, fecha_modificacion, "
+                            + "version) VALUES (?, ?, ?, ?, ?, 0)",
+                    "UPDATE inventario_productos SET nombre = ?, tipo = ?, "
+                            + "stock_disponible = stock_disponible + (? - stock_total), stock_total = ?, "
+                            + "fecha_modificacion = ?, version = version + 1 WHERE id = ? AND version = ?",
+                    (sentencia, producto, ahora) -> {
+                        sentencia.setString(1, producto.nombre());
+                        sentencia.setString(2, producto.tipo());
+                        sentencia.setInt(3, producto.stockTotal());
+                        sentencia.setInt(4, producto.stockDisponible() != null
+                                ? producto.stockDisponible() : producto.stockTotal());
+                        sentencia.setTimestamp(5, ahora);
+                    },
+                    (sentencia, producto, ahora) -> {
+                        sentencia.setString(1, producto.nombre());
+                        sentencia.setString(2, producto.tipo());
+                        sentencia.setInt(3, producto.stockTotal());
+                        sentencia.setInt(4, producto.stockTotal());
+                        sentencia.setTimestamp(5, ahora);
+                        sentencia.setLong(6, producto.id());
+                        sentencia.setLong(7, producto.version());
+                    },
+                    producto -> producto.id() == null,
+                    "El producto cambió durante la importación");
+            Escritura escritura = escrito.escritura();
+            if (!escritura.errores().isEmpty()) {
+                throw new OptimisticLockingFailureException("Otra escritura modificó productos del lote");
+            }
+
+            List<Movimiento> movimientos = new ArrayList<>();
+            Iterator<Long> generados = escrito.generados().iterator();
+            for (Validada<Producto> validada : aceptadas) {
+                Producto producto = validada.registro();
+                if (producto.id() == null) {
+                    movimientos.add(new Movimiento(generados.next(), null, TipoMovimiento.ALTA, producto.stockTotal(),
+                            producto.stockDisponible() != null ? producto.stockDisponible() : producto.stockTotal()));
+                    continue;
+                }
+                int cambio = producto.stockTotal() - totales.put(producto.id(), producto.stockTotal());
+                if (cambio != 0) {
+                    movimientos.add(new Movimiento(producto.id(), null, TipoMovimiento.AJUSTE, cambio, cambio));
+                }
+            }
+            libro.registrar(movimientos, fecha);
+            return new Escritura(escritura.insertadas(), escritura.actualizadas(), errores);
+        }
+
+        /**
+         * Lee el stock total y la versión actuales de los productos existentes del lote
+         * y las unidades asignadas el día de mayor ocupación desde hoy.
+         */
+        private void leerExistentes(List<Validada<Producto>> lote, Map<Long, Integer> totales,
+                                    Map<Long, Long> versiones, Map<Long, Long> asignadas) {
+            List<Long> ids = lote.stream().map(validada -> validada.registro().id()).filter(id -> id != null)
+                    .distinct().toList();
+            if (ids.isEmpty()) {
+                return;
+            }
+            jdbc.query("SELECT id, stock_total, version FROM inventario_productos WHERE id IN ("
+                            + String.join(", ", Collections.nCopies(ids.size(), "?")) + ")",
+                    fila -> {
+                        totales.put(fila.getLong(1), fila.getInt(2));
+                        versiones.put(fila.getLong(1), fila.getLong(3));
+                    }, ids.toArray());
+            LocalDate hoy = LocalDate.now();
+            versiones.forEach((id, version) ->
+                    asignadas.put(id, disponibilidad.ocupacionMaxima(id, version, hoy, null)));
+        }
+    }
+
+    private record EventoImportado(Long id, String nombre, LocalDate fechaInicio, BigDecimal costoEntrada,
+                                   Integer salaId) {
+    }
+
+    private final class DestinoEventos implements Destino<EventoImportado> {
+
+        private final Map<String, Integer> salas;
+
+        private DestinoEventos(Map<String, Integer> salas) {
+            this.salas = salas;
+        }
+
+        @Override
+        public String nombre() {
+            return "eventos";
+        }
+
+        @Override
+        public String entidad() {
+            return "evento";
+        }
+
+        @Override
+        public List<String> obligatorias() {
+            return List.of("Nombre", "Fecha Inicio");
+        }
+
+        @Override
+        public EventoImportado convertir(Fila fila) {
+            Long id = fila.id();
+            String nombre = fila.textoObligatorio("Nombre", 255);
+            LocalDate fechaInicio = fila.fecha("Fecha Inicio");
+            BigDecimal costo = fila.decimalNoNegativo("Costo Entrada");
+            String sala = fila.texto("Sala");
+            Integer salaId = null;
+            if (sala != null) {
+                salaId = salas.get(clave(sala));
+                if (salaId == null) {
+                    throw new IllegalArgumentException("No existe una sala llamada " + sala);
+                }
+            }
+            return new EventoImportado(id, nombre, fechaInicio, costo, salaId);
+        }
+
+        /**
+         * Además de escribir el lote, avisa a {@link DisponibilidadInventarioService} de
+         * los eventos actualizados, cuyas fechas pueden haber cambiado.
+         */
+        @Override
+        public Escritura escribir(List<Validada<EventoImportado>> lote) {
+            Escritura escritura = escribirLote(lote, Timestamp.valueOf(LocalDateTime.now()),
+                    "INSERT INTO Evento (nombre, fecha_inicio, costo_entrada, id_sala, fecha_modificacion, version) "
+                            + "VALUES (?, ?, ?, ?, ?, 0)",
+                    "UPDATE Evento SET nombre = ?, fecha_inicio = ?, costo_entrada = COALESCE(?, costo_entrada), "
+                            + "id_sala = COALESCE(?, id_sala), "
+                            + "fecha_modificacion = ?, version = version + 1 WHERE id_evento = ?",
+                    (sentencia, evento, ahora) -> asignarEvento(sentencia, evento, ahora),
+                    (sentencia, evento, ahora) -> {
+                        asignarEvento(sentencia, evento, ahora);
+                        sentencia.setLong(6, evento.id());
+                    },
+                    evento -> evento.id() == null,
+                    "No existe un evento con ese ID").escritura();
+
+            Set<Integer> rechazadas = new HashSet<>();
+            escritura.errores().forEach(error -> rechazadas.add(error.fila()));
+            disponibilidad.eventosModificados(lote.stream()
+                    .filter(validada -> validada.registro().id() != null && !rechazadas.contains(validada.fila()))
+                    .map(validada -> validada.registro().id())
+                    .distinct()
+                    .toList());
+            return escritura;
+        }
+
+        private void asignarEvento(PreparedStatement sentencia, EventoImportado evento, Timestamp ahora)
+                throws SQLException {
+            sentencia.setString(1, evento.nombre());
+            sentencia.setDate(2, Date.valueOf(evento.fechaInicio()));
+            sentencia.setBigDecimal(3, evento.costoEntrada());
+            if (evento.salaId() != null) {
+                sentencia.setInt(4, evento.salaId());
+            } else {
+                sentencia.setNull(4, Types.INTEGER);
+            }
+            sentencia.setTimestamp(5, ahora);
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.example.museo_v2.service;
+
+import com.example.museo_v2.model.TipoMovimiento;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Libro de movimientos del inventario: cada reserva, liberación, alta y ajuste de
+ * stock queda registrado como una fila que no se modifica ni se borra.
+ * <p>
+ * Los movimientos se escriben en la misma transacción que actualiza los contadores
+ * de {@code inventario_productos}, siempre en lote o con una sola sentencia
+ * {@code INSERT ... SELECT}, así que el libro y los contadores se confirman juntos.
+ * Los contadores siguen siendo la fuente de verdad para reservar: el descuento
+ * condicional sobre la fila del producto es lo que impide vender más de lo que hay.
+ * El libro aporta el historial, la auditoría de los contadores y el stock de un
+ * producto en cualquier momento pasado.
+ * <p>
+ * Para no sumar el libro completo en cada consulta se guardan instantáneas
+ * periódicas con el saldo acumulado de cada producto hasta un movimiento dado. Un
+ * saldo es la última instantánea más los movimientos posteriores, que el índice
+ * por producto e ID lee como un rango corto.
+ */
+@Service
+public class LibroInventarioService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LibroInventarioService.class);
+
+    /**
+     * Movimiento a registrar.
+     *
+     * @param productoId       producto afectado
+     * @param eventoId         evento que lo origina, o {@code null}
+     * @param tipo             origen del movimiento
+     * @param cambioTotal      unidades que se suman al stock total
+     * @param cambioDisponible unidades que se suman al stock disponible
+     */
+    public record Movimiento(Long productoId, Long eventoId, TipoMovimiento tipo, int cambioTotal,
+                             int cambioDisponible) {
+    }
+
+    /**
+     * Stock de un producto según el libro.
+     *
+     * @param stockTotal      unidades en inventario
+     * @param stockDisponible unidades sin asignar a eventos
+     */
+    public record Saldo(int stockTotal, int stockDisponible) {
+    }
+
+    /**
+     * Producto cuyos contadores no coinciden con el saldo de su libro.
+     *
+     * @param productoId producto afectado
+     * @param contadores stock guardado en el producto
+     * @param libro      stock calculado a partir de los movimientos
+     */
+    public record Descuadre(Long productoId, Saldo contadores, Saldo libro) {
+    }
+
+    private static final String ULTIMA_INSTANTANEA = "s.hasta_movimiento = (SELECT MAX(x.hasta_movimiento) "
+            + "FROM instantaneas_inventario x WHERE x.producto_id = s.producto_id)";
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transaccion;
+    private final Duration margen;
+
+    public LibroInventarioService(JdbcTemplate jdbc,
+                                  TransactionTemplate transaccion,
+                                  @Value("${app.inventario.instantaneas.margen-segundos:60}") long margenSegundos) {
+        this.jdbc = jdbc;
+        this.transaccion = transaccion;
+        this.margen = Duration.ofSeconds(margenSegundos);
+    }
+
+    /**
+     * Registra movimientos en un solo lote. Debe llamarse dentro de la transacción que
+     * actualiza los contadores.
+     *
+     * @param movimientos movimientos a registrar
+     * @param fecha       momento de los movimientos
+     */
+    public void registrar(List<Movimiento> movimientos, Timestamp fecha) {
+        if (movimientos.isEmpty()) {
+            return;
+        }
+        jdbc.batchUpdate("INSERT INTO movimientos_inventario (producto_id, evento_id, tipo, cambio_total, "
+                        + "cambio_disponible, fecha) VALUES (?, ?, ?, ?, ?, ?)",
+                movimientos, movimientos.size(), (sentencia, movimiento) -> {
+                    sentencia.setLong(1, movimiento.productoId());
+                    if (movimiento.eventoId() != null) {
+                        sentencia.setLong(2, movimiento.eventoId());
+                    } else {
+                        sentencia.setNull(2, Types.BIGINT);
+                    }
+                    sentencia.setString(3, movimiento.tipo().name());
+                    sentencia.setInt(4, movimiento.cambioTotal());
+                    sentencia.setInt(5, movimiento.cambioDisponible());
+                    sentencia.setTimestamp(6, fecha);
+                });
+    }
+
+    /**
+     * Registra la devolución de todas las unidades asignadas a un evento, un
+     * movimiento por producto. Debe llamarse antes de borrar las asignaciones.
+     *
+     * @param eventoId evento que se elimina
+     * @param fecha    momento de la liberación
+     */
+    public void registrarLiberacion(Long eventoId, Timestamp fecha) {
+        jdbc.update("INSERT INTO movimientos_inventario (producto_id, evento_id, tipo, cambio_total, "
+                        + "cambio_disponible, fecha) "
+                        + "SELECT a.producto_id, a.evento_id, ?, 0, SUM(a.cantidad_asignada), ? "
+                        + "FROM evento_productos a WHERE a.evento_id = ? GROUP BY a.producto_id, a.evento_id",
+                TipoMovimiento.LIBERACION.name(), fecha, eventoId);
+    }
+
+    /**
+     * Abre el libro de los productos que no tienen alta ni apertura, los creados antes
+     * de llevar el libro. El movimiento de apertura es la diferencia entre los
+     * contadores actuales y los movimientos que el producto ya tenga, de modo que el
+     * saldo coincide con los contadores aunque una reserva, liberación o edición haya
+     * llegado antes que la apertura. Contadores y movimientos se leen en la misma
+     * sentencia, así que las transacciones sin confirmar no cuentan en ninguno de los dos.
+     * <p>
+     * Se ejecuta al arrancar la aplicación, antes de atender solicitudes, y de nuevo
+     * antes de cada instantánea.
+     *
+     * @return productos abiertos
+     */
+    public int abrirSaldos() {
+        return jdbc.update("INSERT INTO movimientos_inventario (producto_id, evento_id, tipo, cambio_total, "
+                        + "cambio_disponible, fecha) "
+                        + "SELECT p.id, NULL, ?, "
+                        + "COALESCE(p.stock_total, 0) - COALESCE((SELECT SUM(m.cambio_total) "
+                        + "FROM movimientos_inventario m WHERE m.producto_id = p.id), 0), "
+                        + "COALESCE(p.stock_disponible, 0) - COALESCE((SELECT SUM(m.cambio_disponible) "
+                        + "FROM movimientos_inventario m WHERE m.producto_id = p.id), 0), ? "
+                        + "FROM inventario_productos p "
+                        + "WHERE NOT EXISTS (SELECT 1 FROM movimientos_inventario m WHERE m.producto_id = p.id "
+                        + "AND m.tipo IN (?, ?))",
+                TipoMovimiento.APERTURA.name(), Timestamp.valueOf(LocalDateTime.now()),
+                TipoMovimiento.APERTURA.name(), TipoMovimiento.ALTA.name());
+    }
+
+    /**
+     * Guarda una instantánea de cada producto con movimientos nuevos: su instantánea
+     * anterior más la suma de esos movimientos, con una sola sentencia.
+     * <p>
+     * Solo se incluyen movimientos con más antigüedad que el margen configurado, para
+     * no dejar atrás los de transacciones que aún no se confirmaron. Antes se abren
+     * los productos que no tienen libro y después se revisa que los contadores
+     * coincidan con el libro.
+     *
+     * @return productos con una instantánea nueva
+     */
+    @Scheduled(fixedDelayString = "${app.inventario.instantaneas.intervalo-ms:3600000}")
+    public int tomarInstantaneas() {
+        int abiertos = abrirSaldos();
+        if (abiertos > 0) {
+            logger.info("Libro de inventario abierto para {} productos", abiertos);
+        }
+
+        Timestamp limite = Timestamp.valueOf(LocalDateTime.now().minus(margen));
+        int guardadas = transaccion.execute(estado -> {
+            Long corte = jdbc.queryForObject(
+                    "SELECT MAX(id) FROM movimientos_inventario WHERE fecha < ?", Long.class, limite);
+            if (corte == null) {
+                return 0;
+            }
+            return jdbc.update("INSERT INTO instantaneas_inventario (producto_id, stock_total, stock_disponible, "
+                            + "hasta_movimiento, fecha) "
+                            + "SELECT m.producto_id, COALESCE(s.stock_total, 0) + SUM(m.cambio_total), "
+                            + "COALESCE(s.stock_disponible, 0) + SUM(m.cambio_disponible), ?, ? "
+                            + "FROM movimientos_inventario m "
+                            + "LEFT JOIN instantaneas_inventario s ON s.producto_id = m.producto_id AND "
+                            + ULTIMA_INSTANTANEA + " "
+                            + "WHERE m.id <= ? AND m.id > COALESCE(s.hasta_movimiento, 0) "
+                            + "GROUP BY m.producto_id, s.stock_total, s.stock_disponible",
+                    corte, limite, corte);
+        });
+
+        List<Descuadre> descuadres = auditar();
+        if (!descuadres.isEmpty()) {
+            logger.warn("Libro de inventario: {} productos no coinciden con sus contadores, por ejemplo {}",
+                    descuadres.size(), descuadres.get(0));
+        }
+        return guardadas;
+    }
+
+    /**
+     * Calcula el stock actual de un producto a partir del libro.
+     *
+     * @param productoId producto a consultar
+     * @return el saldo; cero si el producto no tiene movimientos
+     */
+    public Saldo saldo(Long productoId) {
+        return saldoAl(productoId, null);
+    }
+
+    /**
+     * Calcula el stock que tenía un producto en un momento dado: la última
+     * instantánea tomada hasta ese momento más los movimientos posteriores a ella
+     * con fecha no mayor.
+     *
+     * @param productoId producto a consultar
+     * @param momento    momento de la consulta, o {@code null} para el stock actual
+     * @return el saldo; cero si el producto no tenía movimientos
+     */
+    public Saldo saldoAl(Long productoId, LocalDateTime momento) {
+        Timestamp fecha = momento != null ? Timestamp.valueOf(momento) : null;
+        String hasta = fecha != null ? " AND fecha <= ?" : "";
+        Object[] parametros = fecha != null ? new Object[]{productoId, fecha} : new Object[]{productoId};
+
+        List<long[]> instantaneas = jdbc.query("SELECT stock_total, stock_disponible, hasta_movimiento "
+                        + "FROM instantaneas_inventario WHERE producto_id = ?" + hasta
+                        + " ORDER BY hasta_movimiento DESC LIMIT 1",
+                (fila, numero) -> new long[]{fila.getLong(1), fila.getLong(2), fila.getLong(3)}, parametros);
+        long[] base = instantaneas.isEmpty() ? new long[3] : instantaneas.get(0);
+
+        Object[] parametrosDelta = fecha != null
+                ? new Object[]{productoId, base[2], fecha} : new Object[]{productoId, base[2]};
+        return jdbc.queryForObject("SELECT COALESCE(SUM(cambio_total), 0), COALESCE(SUM(cambio_disponible), 0) "
+                        + "FROM movimientos_inventario WHERE producto_id = ? AND id > ?" + hasta,
+                (fila, numero) -> new Saldo((int) (base[0] + fila.getLong(1)), (int) (base[1] + fila.getLong(2))),
+                parametrosDelta);
+    }
+
+    /**
+     * Compara los contadores de cada producto con el saldo de su libro.
+     *
+     * @return los productos que no coinciden
+     */
+    public List<Descuadre> auditar() {
+        return jdbc.query("SELECT p.id, COALESCE(p.stock_total, 0), COALESCE(p.stock_disponible, 0), "
+                        + "COALESCE(s.stock_total, 0) + COALESCE(SUM(m.cambio_total), 0), "
+                        + "COALESCE(s.stock_disponible, 0) + COALESCE(SUM(m.cambio_disponible), 0) "
+                        + "FROM inventario_productos p "
+                        + "LEFT JOIN instantaneas_inventario s ON s.producto_id = p.id AND " + ULTIMA_INSTANTANEA + " "
+                        + "LEFT JOIN movimientos_inventario m ON m.producto_id = p.id "
+                        + "AND m.id > COALESCE(s.hasta_movimiento, 0) "
+                        + "GROUP BY p.id, p.stock_total, p.stock_disponible, s.stock_total, s.stock_disponible",
+                        (fila, numero) -> new Descuadre(fila.getLong(1),
+                                new Saldo(fila.getInt(2), fila.getInt(3)), new Saldo(fila.getInt(4), fila.getInt(5))))
+                .stream()
+                .filter(descuadre -> !descuadre.contadores().equals(descuadre.libro()))
+                .toList();
+    }
+}
@@ -0,0 +1,333 @@
+package com.example.museo_v2.service;
+
+import com.example.museo_v2.model.Evento;
+import com.example.museo_v2.model.Reserva;
+import com.example.museo_v2.model.SolicitudEspera;
+import com.example.museo_v2.repository.ReservaRepositorio;
+import com.example.museo_v2.repository.SolicitudEsperaRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Servicio de lista de espera para eventos agotados.
+ * <p>
+ * Cada evento tiene una cola en memoria ordenada por orden de llegada, respaldada
+ * por la tabla {@code lista_espera}. Cuando {@link AforoService} publica que se
+ * liberaron entradas (por cancelaciones o bloqueos vencidos), se promueve la cabeza
+ * de la cola en una sola transacción: una actualización condicional del aforo por
+ * el total de entradas, una inserción en lote de las reservas y una actualización
+ * en bloque de las solicitudes, sin importar cuántos clientes se promuevan.
+ * <p>
+ * El orden es estricto: si la primera solicitud no cabe en las entradas libres,
+ * las siguientes tampoco se promueven aunque pidan menos. Para que una solicitud
+ * demasiado grande no bloquee la cola indefinidamente, la cabeza que no cabe y
+ * lleva más del tiempo de espera configurado se marca como vencida y se retira,
+ * y la promoción sigue con la siguiente.
+ */
+@Service
+public class ListaEsperaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ListaEsperaService.class);
+
+    private final SolicitudEsperaRepository solicitudRepo;
+    private final ReservaRepositorio reservaRepositorio;
+    private final EventoService eventoService;
+    private final AforoService aforoService;
+    private final TransactionTemplate transaccion;
+    private final Duration vigencia;
+    private final int maxEntradas;
+
+    /** Colas por evento, ordenadas por identificador de solicitud (orden de llegada). */
+    private final Map<Long, NavigableMap<Long, SolicitudEspera>> colas = new ConcurrentHashMap<>();
+
+    /** Eventos con una promoción ya encargada al hilo de la lista de espera. */
+    private final Set<Long> promocionesPendientes = ConcurrentHashMap.newKeySet();
+
+    private final ExecutorService promotor = Executors.newSingleThreadExecutor(tarea -> {
+        Thread hilo = new Thread(tarea, "lista-espera");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    public ListaEsperaService(SolicitudEsperaRepository solicitudRepo,
+                              ReservaRepositorio reservaRepositorio,
+                              EventoService eventoService,
+                              AforoService aforoService,
+                              TransactionTemplate transaccion,
+                              @Value("${app.reservas.espera.vigencia-minutos:60}") long vigenciaMinutos,
+                              @Value("${app.reservas.max-entradas:20}") int maxEntradas) {
+        this.solicitudRepo = solicitudRepo;
+        this.reservaRepositorio = reservaRepositorio;
+        this.eventoService = eventoService;
+        this.aforoService = aforoService;
+        this.transaccion = transaccion;
+        this.vigencia = Duration.ofMinutes(vigenciaMinutos);
+        this.maxEntradas = maxEntradas;
+    }
+
+    /**
+     * Reconstruye las colas en memoria a partir de la tabla y revisa si alguna
+     * puede avanzar con entradas liberadas mientras la aplicación estaba detenida.
+     */
+    @PostConstruct
+    public void cargar() {
+        for (SolicitudEspera solicitud : solicitudRepo.findByEstadoOrdenadas(SolicitudEspera.ESPERANDO)) {
+            cola(solicitud.getEvento().getId()).put(solicitud.getId(), solicitud);
+        }
+        colas.keySet().forEach(this::encargarPromocion);
+    }
+
+    /**
+     * Detiene el hilo de promociones al cerrar la aplicación.
+     */
+    @PreDestroy
+    public void detener() {
+        promotor.shutdown();
+        try {
+            promotor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Inscribe a un cliente en la lista de espera de un evento.
+     *
+     * @param datos    datos del cliente tomados del formulario de reserva
+     * @param eventoId identificador del evento
+     * @return solicitud registrada
+     * @throws IllegalArgumentException si el evento no existe o la cantidad no es válida
+     *                                  o supera el máximo de entradas por reserva
+     */
+    public SolicitudEspera inscribir(Reserva datos, Long eventoId) {
+        Evento evento = eventoService.obtenerEventoPorId(eventoId);
+        if (evento == null) {
+            throw new IllegalArgumentException("Evento no encontrado.");
+        }
+        if (datos.getNEntradas() == null || datos.getNEntradas() < 1) {
+            throw new IllegalArgumentException("Cantidad de entradas no válida.");
+        }
+        if (datos.getNEntradas() > maxEntradas) {
+            throw new IllegalArgumentException("Se pueden reservar como máximo " + maxEntradas + " entradas por reserva.");
+        }
+
+        SolicitudEspera solicitud = new SolicitudEspera();
+        solicitud.setEvento(evento);
+        solicitud.setNombreCompleto(datos.getNombreCompleto());
+        solicitud.setDniRuc(datos.getDniRuc());
+        solicitud.setTelefono(datos.getTelefono());
+        solicitud.setNEntradas(datos.getNEntradas());
+        solicitud.setTipoComprobante(datos.getTipoComprobante());
+        solicitud.setMetodoPago(datos.getMetodoPago());
+
+        SolicitudEspera guardada = solicitudRepo.save(solicitud);
+        cola(eventoId).put(guardada.getId(), guardada);
+
+        // Las entradas pudieron liberarse entre el rechazo de la reserva y la inscripción.
+        encargarPromocion(eventoId);
+        return guardada;
+    }
+
+    /**
+     * Obtiene una solicitud de la lista de espera.
+     *
+     * @param id identificador de la solicitud
+     * @return la solicitud o {@code null} si no existe
+     */
+    public SolicitudEspera obtenerSolicitud(Long id) {
+        return solicitudRepo.findById(id).orElse(null);
+    }
+
+    /**
+     * Obtiene la reserva generada para una solicitud promovida.
+     *
+     * @param solicitudId identificador de la solicitud
+     * @return la reserva o {@code null} si la solicitud sigue en espera
+     */
+    public Reserva obtenerReservaPromovida(Long solicitudId) {
+        return reservaRepositorio.findBySolicitudEsperaId(solicitudId).orElse(null);
+    }
+
+    /**
+     * Calcula la posición de una solicitud en la cola de su evento.
+     *
+     * @param solicitud solicitud en espera
+     * @return posición empezando en 1, o 0 si ya no está en la cola
+     */
+    public int posicion(SolicitudEspera solicitud) {
+        NavigableMap<Long, SolicitudEspera> cola = colas.get(solicitud.getEvento().getId());
+        if (cola == null || !cola.containsKey(solicitud.getId())) {
+            return 0;
+        }
+        return cola.headMap(solicitud.getId(), false).size() + 1;
+    }
+
+    /**
+     * Recibe la notificación de entradas liberadas y encarga la promoción del evento.
+     * Si la liberación ocurrió dentro de una transacción, se atiende tras su confirmación.
+     *
+     * @param liberadas evento publicado por {@link AforoService}
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alLiberarEntradas(AforoService.EntradasLiberadas liberadas) {
+        encargarPromocion(liberadas.eventoId());
+    }
+
+    /**
+     * Encarga una promoción al hilo de la lista de espera. Varias liberaciones del
+     * mismo evento antes de que el hilo la atienda se agrupan en una sola.
+     *
+     * @param eventoId identificador del evento
+     */
+    private void encargarPromocion(Long eventoId) {
+        NavigableMap<Long, SolicitudEspera> cola = colas.get(eventoId);
+        if (cola == null || cola.isEmpty() || !promocionesPendientes.add(eventoId)) {
+            return;
+        }
+        try {
+            promotor.execute(() -> {
+                promocionesPendientes.remove(eventoId);
+                try {
+                    promover(eventoId);
+                } catch (RuntimeException e) {
+                    logger.error("PROMOCIÓN FALLIDA | Evento {}", eventoId, e);
+                }
+            });
+        } catch (RuntimeException e) {
+            promocionesPendientes.remove(eventoId);
+            logger.warn("PROMOCIÓN NO ENCARGADA | Evento {} | Motivo: {}", eventoId, e.getMessage());
+        }
+    }
+
+    /**
+     * Convierte en reservas las primeras solicitudes de la cola que caben en las
+     * entradas libres del evento. Las solicitudes que no caben y esperan desde
+     * antes del tiempo de espera se retiran como vencidas mientras estén al
+     * frente de la cola.
+     *
+     * @param eventoId identificador del evento
+     * @return cantidad de solicitudes promovidas
+     */
+    int promover(Long eventoId) {
+        NavigableMap<Long, SolicitudEspera> cola = colas.get(eventoId);
+        if (cola == null || cola.isEmpty()) {
+            return 0;
+        }
+
+        int disponibles = aforoService.entradasDisponibles(eventoId);
+        LocalDateTime limite = LocalDateTime.now().minus(vigencia);
+        List<SolicitudEspera> cabeza = new ArrayList<>();
+        List<SolicitudEspera> vencidas = new ArrayList<>();
+        int entradas = 0;
+        for (SolicitudEspera solicitud : cola.values()) {
+            if (solicitud.getNEntradas() > disponibles - entradas) {
+                if (!cabeza.isEmpty() || !vencida(solicitud, limite)) {
+                    break;
+                }
+                vencidas.add(solicitud);
+                continue;
+            }
+            cabeza.add(solicitud);
+            entradas += solicitud.getNEntradas();
+        }
+        retirarVencidas(eventoId, cola, vencidas);
+        if (cabeza.isEmpty()) {
+            return 0;
+        }
+
+        int totalEntradas = entradas;
+        Boolean promovidas = transaccion.execute(estado -> {
+            if (!aforoService.ocuparEntradas(eventoId, totalEntradas)) {
+                // Otro cliente tomó las entradas primero; se reintentará en la próxima liberación.
+                return false;
+            }
+            Evento evento = eventoService.obtenerEventoPorId(eventoId);
+
+            List<Reserva> reservas = new ArrayList<>(cabeza.size());
+            List<Long> ids = new ArrayList<>(cabeza.size());
+            for (SolicitudEspera solicitud : cabeza) {
+                reservas.add(crearReserva(solicitud, evento));
+                ids.add(solicitud.getId());
+            }
+            reservaRepositorio.saveAll(reservas);
+
+            if (solicitudRepo.marcarPromovidas(ids) != ids.size()) {
+                // Alguna solicitud ya no estaba en espera: se descarta todo el lote.
+                estado.setRollbackOnly();
+                return false;
+            }
+            return true;
+        });
+
+        if (!Boolean.TRUE.equals(promovidas)) {
+            return 0;
+        }
+
+        cabeza.forEach(solicitud -> cola.remove(solicitud.getId()));
+        logger.info("LISTA DE ESPERA PROMOVIDA | Evento {} | Solicitudes {} | Entradas {}",
+                eventoId, cabeza.size(), totalEntradas);
+        return cabeza.size();
+    }
+
+    private boolean vencida(SolicitudEspera solicitud, LocalDateTime limite) {
+        return solicitud.getFechaSolicitud() != null && solicitud.getFechaSolicitud().isBefore(limite);
+    }
+
+    /**
+     * Marca como vencidas las solicitudes que bloqueaban la cola y las retira de ella.
+     *
+     * @param eventoId identificador del evento
+     * @param cola     cola del evento
+     * @param vencidas solicitudes a retirar
+     */
+    private void retirarVencidas(Long eventoId, NavigableMap<Long, SolicitudEspera> cola,
+                                 List<SolicitudEspera> vencidas) {
+        if (vencidas.isEmpty()) {
+            return;
+        }
+        List<Long> ids = vencidas.stream().map(SolicitudEspera::getId).toList();
+        transaccion.executeWithoutResult(estado -> solicitudRepo.marcarVencidas(ids));
+        vencidas.forEach(solicitud -> {
+            solicitud.setEstado(SolicitudEspera.VENCIDA);
+            cola.remove(solicitud.getId());
+        });
+        logger.info("LISTA DE ESPERA VENCIDA | Evento {} | Solicitudes {}", eventoId, ids);
+    }
+
+    private Reserva crearReserva(SolicitudEspera solicitud, Evento evento) {
+        Reserva reserva = new Reserva();
+        reserva.setNombreCompleto(solicitud.getNombreCompleto());
+        reserva.setDniRuc(solicitud.getDniRuc());
+        reserva.setTelefono(solicitud.getTelefono());
+        reserva.setNEntradas(solicitud.getNEntradas());
+        reserva.setTipoComprobante(solicitud.getTipoComprobante());
+        reserva.setMetodoPago(solicitud.getMetodoPago());
+        reserva.setEvento(evento);
+        reserva.setTotalPagar(ReservaService.calcularTotal(evento, solicitud.getNEntradas()));
+        reserva.setSolicitudEsperaId(solicitud.getId());
+        return reserva;
+    }
+
+    private NavigableMap<Long, SolicitudEspera> cola(Long eventoId) {
+        return colas.computeIfAbsent(eventoId, id -> new ConcurrentSkipListMap<>());
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.museo_v2.service;
+
+import com.example.museo_v2.model.EventoResumen;
+import com.example.museo_v2.model.PaginaInicio;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Servicio que mantiene en memoria los datos de la página de inicio.
+ * <p>
+ * La página se sirve siempre desde la última versión calculada, sin consultar la
+ * base de datos. Cuando un evento se guarda o elimina ({@link EventoService.EventoModificado})
+ * la versión se recalcula en segundo plano y reemplaza a la anterior de forma atómica;
+ * varias modificaciones seguidas se agrupan en un solo recálculo. También se recalcula
+ * periódicamente y al cambiar de día, para reflejar el paso del tiempo y los cambios de salas.
+ */
+@Service
+public class PaginaInicioService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaginaInicioService.class);
+
+    /** Cantidad de próximos eventos destacados. */
+    static final int PROXIMOS_EVENTOS = 6;
+
+    private final EventoService eventoService;
+
+    private volatile PaginaInicio actual;
+
+    private final AtomicBoolean recalculoPendiente = new AtomicBoolean();
+
+    private final ExecutorService recalculador = Executors.newSingleThreadExecutor(tarea -> {
+        Thread hilo = new Thread(tarea, "pagina-inicio");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    public PaginaInicioService(EventoService eventoService) {
+        this.eventoService = eventoService;
+    }
+
+    /**
+     * Devuelve los datos de la página de inicio. Solo la primera llamada, o la
+     * primera de un nuevo día, espera a que se calculen.
+     *
+     * @return datos de la página de inicio
+     */
+    public PaginaInicio obtener() {
+        PaginaInicio pagina = actual;
+        if (pagina != null && pagina.fecha().equals(LocalDate.now())) {
+            return pagina;
+        }
+        synchronized (this) {
+            pagina = actual;
+            if (pagina == null || !pagina.fecha().equals(LocalDate.now())) {
+                pagina = calcular();
+                actual = pagina;
+            }
+            return pagina;
+        }
+    }
+
+    /**
+     * Recalcula la página cuando un evento cambia, una vez confirmada la transacción.
+     *
+     * @param modificado evento de dominio publicado por {@link EventoService}
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarEvento(EventoService.EventoModificado modificado) {
+        solicitarRecalculo();
+    }
+
+    /**
+     * Recalcula la página periódicamente para reflejar cambios que no publican eventos.
+     */
+    @Scheduled(fixedDelayString = "${app.inicio.refresco-ms:300000}")
+    public void refrescarPeriodicamente() {
+        if (actual != null) {
+            solicitarRecalculo();
+        }
+    }
+
+    /**
+     * Detiene el hilo de recálculo al cerrar la aplicación.
+     */
+    @PreDestroy
+    public void detener() {
+        recalculador.shutdownNow();
+        try {
+            recalculador.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Encarga un recálculo en segundo plano si no hay uno pendiente.
+     */
+    void solicitarRecalculo() {
+        if (!recalculoPendiente.compareAndSet(false, true)) {
+            return;
+        }
+        recalculador.execute(() -> {
+            recalculoPendiente.set(false);
+            try {
+                PaginaInicio pagina = calcular();
+                synchronized (this) {
+                    actual = pagina;
+                }
+            } catch (RuntimeException e) {
+                // Se sigue sirviendo la versión anterior hasta el próximo recálculo.
+                logger.error("No se pudo recalcular la página de inicio", e);
+            }
+        });
+    }
+
+    private PaginaInicio calcular() {
+        LocalDate hoy = LocalDate.now();
+        return new PaginaInicio(
+                eventoService.obtenerEventosDelMesActual().stream().map(EventoResumen::desde).toList(),
+                eventoService.obtenerProximosEventos(PROXIMOS_EVENTOS),
+                hoy);
+    }
+}
@@ -1,21 +1,100 @@
 package com.example.museo_v2.service;
 
+import com.example.museo_v2.model.Evento;
 import com.example.museo_v2.model.Reserva;
-import com.lowagie.text.*;
+import com.lowagie.text.Document;
+import com.lowagie.text.Element;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.pdf.BaseFont;
+import com.lowagie.text.pdf.PdfContentByte;
+import com.lowagie.text.pdf.PdfReader;
+import com.lowagie.text.pdf.PdfStamper;
 import com.lowagie.text.pdf.PdfWriter;
 import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
 
 /**
  * Servicio encargado de generar documentos PDF relacionados con reservas.
  * Actualmente permite crear un ticket de entrada en formato A5.
+ * <p>
+ * La parte fija del ticket (encabezado, separadores, etiquetas y pie) se arma una
+ * sola vez al crear el servicio como una plantilla PDF de una página. Cada ticket se
+ * obtiene estampando sobre esa plantilla solo los datos de la reserva, en posiciones
+ * fijas, con las fuentes y formatos de fecha ya resueltos.
  */
 @Service
 public class PdfService {
 
+    private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final DateTimeFormatter FORMATO_HORA = DateTimeFormatter.ofPattern("HH:mm");
+
+    private static final float MARGEN = 36;
+    private static final float ANCHO_PAGINA = PageSize.A5.getWidth();
+    private static final float ANCHO_UTIL = ANCHO_PAGINA - 2 * MARGEN;
+    private static final float CENTRO = ANCHO_PAGINA / 2;
+    private static final float CUERPO = 12;
+    private static final float PIE = 10;
+
+    private static final String POR_DEFINIR = "Por definir";
+
+    private static final String SEPARADOR = "----------------------------------------------------------------";
+
+    /** Altura de la línea base de cada renglón, desde el borde inferior de la página. */
+    private static final float Y_TITULO = 536;
+    private static final float Y_SUBTITULO = 516;
+    private static final float Y_SEPARADOR_SUPERIOR = 486;
+    private static final float Y_EVENTO = 466;
+    private static final float Y_FECHA = 448;
+    private static final float Y_HORA = 430;
+    private static final float Y_SALA = 412;
+    private static final float Y_TITULAR = 380;
+    private static final float Y_DNI = 362;
+    private static final float Y_ENTRADAS = 344;
+    private static final float Y_TOTAL = 326;
+    private static final float Y_SEPARADOR_INFERIOR = 294;
+    private static final float Y_CODIGO = 272;
+    private static final float Y_INDICACION = 260;
+
+    private final BaseFont normal;
+    private final BaseFont negrita;
+    private final BaseFont cursiva;
+
+    /** Ticket sin datos de reserva, del que parte cada ticket generado. */
+    private final byte[] plantilla;
+
+    /** Resumen del contenido de la plantilla; cambia solo si cambia su diseño. */
+    private final byte[] versionPlantilla;
+
+    public PdfService() {
+        try {
+            this.normal = BaseFont.createFont(BaseFont.HELVETICA, BaseFont.WINANSI, BaseFont.NOT_EMBEDDED);
+            this.negrita = BaseFont.createFont(BaseFont.HELVETICA_BOLD, BaseFont.WINANSI, BaseFont.NOT_EMBEDDED);
+            this.cursiva = BaseFont.createFont(BaseFont.HELVETICA_OBLIQUE, BaseFont.WINANSI, BaseFont.NOT_EMBEDDED);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudieron cargar las fuentes del ticket", e);
+        }
+        this.plantilla = crearPlantilla();
+        try {
+            PdfReader lector = new PdfReader(plantilla);
+            this.versionPlantilla = sha256().digest(lector.getPageContent(1));
+            lector.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer la plantilla del ticket", e);
+        }
+    }
+
     /**
      * Genera un archivo PDF que representa el ticket correspondiente a una reserva.
      * Incluye información del evento, sala, titular y monto pagado.
@@ -24,72 +103,159 @@ public class PdfService {
      * @return flujo de bytes del PDF ya generado
      */
     public ByteArrayInputStream generarTicketPdf(Reserva reserva) {
-        Document document = new Document(PageSize.A5);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(plantilla.length + 1024);
+        escribirTicket(reserva, out);
+        return new ByteArrayInputStream(out.toByteArray());
+    }
+
+    /**
+     * Escribe el ticket de una reserva en un flujo de salida, estampando los datos de
+     * la reserva sobre la plantilla.
+     *
+     * @param reserva reserva para la cual se generará el ticket
+     * @param salida  flujo donde se escribe el PDF; no se cierra
+     */
+    public void escribirTicket(Reserva reserva, OutputStream salida) {
+        try {
+            PdfReader lector = new PdfReader(plantilla);
+            PdfStamper sello = new PdfStamper(lector, salida);
+            sello.getWriter().setCloseStream(false);
+            PdfContentByte capa = sello.getOverContent(1);
+
+            Datos datos = datos(reserva);
+            capa.beginText();
+            valor(capa, negrita, CUERPO, "Evento: ", datos.evento(), Y_EVENTO);
+            valor(capa, normal, CUERPO, "Fecha: ", datos.fecha(), Y_FECHA);
+            valor(capa, normal, CUERPO, "Hora: ", datos.hora(), Y_HORA);
+            valor(capa, normal, CUERPO, "Sala: ", datos.sala(), Y_SALA);
+            valor(capa, normal, CUERPO, "Titular: ", datos.titular(), Y_TITULAR);
+            valor(capa, normal, CUERPO, "DNI/RUC: ", datos.dniRuc(), Y_DNI);
+            valor(capa, normal, CUERPO, "Entradas: ", datos.entradas(), Y_ENTRADAS);
+            valor(capa, negrita, CUERPO, "Total Pagado: ", datos.total(), Y_TOTAL);
+            centrado(capa, cursiva, PIE, "Código de Reserva: #" + datos.codigo(), Y_CODIGO);
+            capa.endText();
+
+            sello.close();
+            lector.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo generar el ticket de la reserva " + reserva.getId(), e);
+        }
+    }
+
+    /**
+     * Huella del contenido del ticket de una reserva: cambia si cambia cualquiera de
+     * los datos que se estampan o la plantilla, y es la misma mientras no cambien.
+     * Sirve para guardar y validar tickets ya generados sin volver a generarlos.
+     *
+     * @param reserva reserva del ticket
+     * @return resumen SHA-256 en hexadecimal
+     */
+    public String huella(Reserva reserva) {
+        MessageDigest resumen = sha256();
+        resumen.update(versionPlantilla);
+        for (String campo : datos(reserva).campos()) {
+            resumen.update((byte) 0);
+            resumen.update(campo.getBytes(StandardCharsets.UTF_8));
+        }
+        return HexFormat.of().formatHex(resumen.digest());
+    }
+
+    /**
+     * Textos que se estampan sobre la plantilla.
+     */
+    private record Datos(String evento, String fecha, String hora, String sala, String titular, String dniRuc,
+                         String entradas, String total, String codigo) {
+
+        private List<String> campos() {
+            return List.of(evento, fecha, hora, sala, titular, dniRuc, entradas, total, codigo);
+        }
+    }
+
+    private static Datos datos(Reserva reserva) {
+        Evento evento = reserva.getEvento();
+        return new Datos(
+                Objects.toString(evento.getNombre(), ""),
+                evento.getFechaInicio() != null ? evento.getFechaInicio().format(FORMATO_FECHA) : POR_DEFINIR,
+                evento.getHoraInicio() != null ? evento.getHoraInicio().format(FORMATO_HORA) : POR_DEFINIR,
+                evento.getSala() != null ? Objects.toString(evento.getSala().getNombre(), "") : POR_DEFINIR,
+                Objects.toString(reserva.getNombreCompleto(), ""),
+                Objects.toString(reserva.getDniRuc(), ""),
+                String.valueOf(reserva.getNEntradas()),
+                "S/ " + reserva.getTotalPagar(),
+                String.valueOf(reserva.getId()));
+    }
+
+    /**
+     * Arma la parte fija del ticket: todo lo que no depende de la reserva.
+     */
+    private byte[] crearPlantilla() {
         ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Document document = new Document(PageSize.A5);
+        PdfWriter writer = PdfWriter.getInstance(document, out);
+        document.open();
+        PdfContentByte capa = writer.getDirectContent();
 
+        capa.beginText();
+        centrado(capa, negrita, 18, "MUSEO TUMBAS REALES", Y_TITULO);
+        centrado(capa, cursiva, PIE, "Ticket de Entrada", Y_SUBTITULO);
+        izquierda(capa, normal, CUERPO, SEPARADOR, Y_SEPARADOR_SUPERIOR);
+        izquierda(capa, negrita, CUERPO, "Evento: ", Y_EVENTO);
+        izquierda(capa, normal, CUERPO, "Fecha: ", Y_FECHA);
+        izquierda(capa, normal, CUERPO, "Hora: ", Y_HORA);
+        izquierda(capa, normal, CUERPO, "Sala: ", Y_SALA);
+        izquierda(capa, normal, CUERPO, "Titular: ", Y_TITULAR);
+        izquierda(capa, normal, CUERPO, "DNI/RUC: ", Y_DNI);
+        izquierda(capa, normal, CUERPO, "Entradas: ", Y_ENTRADAS);
+        izquierda(capa, negrita, CUERPO, "Total Pagado: ", Y_TOTAL);
+        izquierda(capa, normal, CUERPO, SEPARADOR, Y_SEPARADOR_INFERIOR);
+        centrado(capa, cursiva, PIE, "Por favor presente este ticket en la entrada.", Y_INDICACION);
+        capa.endText();
+
+        document.close();
+        return out.toByteArray();
+    }
+
+    private static MessageDigest sha256() {
         try {
-            PdfWriter.getInstance(document, out);
-            document.open();
-
-            // Fuentes utilizadas
-            Font tituloFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 18, Font.NORMAL);
-            Font subtituloFont = FontFactory.getFont(FontFactory.HELVETICA, 12, Font.BOLD);
-            Font cuerpoFont = FontFactory.getFont(FontFactory.HELVETICA, 12, Font.NORMAL);
-            Font pieFont = FontFactory.getFont(FontFactory.HELVETICA_OBLIQUE, 10, Font.NORMAL);
-
-            // Encabezado
-            Paragraph titulo = new Paragraph("MUSEO TUMBAS REALES", tituloFont);
-            titulo.setAlignment(Element.ALIGN_CENTER);
-            document.add(titulo);
-
-            Paragraph subtitulo = new Paragraph("Ticket de Entrada", pieFont);
-            subtitulo.setAlignment(Element.ALIGN_CENTER);
-            subtitulo.setSpacingAfter(20);
-            document.add(subtitulo);
-
-            document.add(new Paragraph("----------------------------------------------------------------"));
-
-            // Información del evento
-            document.add(new Paragraph("Evento: " + reserva.getEvento().getNombre(), subtituloFont));
-
-            DateTimeFormatter fechaFmt = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-            DateTimeFormatter horaFmt = DateTimeFormatter.ofPattern("HH:mm");
-
-            document.add(new Paragraph("Fecha: " + reserva.getEvento().getFechaInicio().format(fechaFmt), cuerpoFont));
-            document.add(new Paragraph("Hora: " + reserva.getEvento().getHoraInicio().format(horaFmt), cuerpoFont));
-
-            String sala = (reserva.getEvento().getSala() != null)
-                    ? reserva.getEvento().getSala().getNombre()
-                    : "Por definir";
-            document.add(new Paragraph("Sala: " + sala, cuerpoFont));
-
-            document.add(Chunk.NEWLINE);
-
-            // Información de la reserva
-            document.add(new Paragraph("Titular: " + reserva.getNombreCompleto(), cuerpoFont));
-            document.add(new Paragraph("DNI/RUC: " + reserva.getDniRuc(), cuerpoFont));
-            document.add(new Paragraph("Entradas: " + reserva.getNEntradas(), cuerpoFont));
-            document.add(new Paragraph("Total Pagado: S/ " + reserva.getTotalPagar(), subtituloFont));
-
-            document.add(Chunk.NEWLINE);
-            document.add(new Paragraph("----------------------------------------------------------------"));
-
-            // Pie de página
-            Paragraph footer = new Paragraph(
-                    "Código de Reserva: #" + reserva.getId() +
-                    "\nPor favor presente este ticket en la entrada.",
-                    pieFont
-            );
-            footer.setAlignment(Element.ALIGN_CENTER);
-            footer.setSpacingBefore(10);
-            document.add(footer);
-
-            document.close();
-
-        } catch (DocumentException e) {
-            e.printStackTrace();
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
         }
+    }
 
-        return new ByteArrayInputStream(out.toByteArray());
+    private static void izquierda(PdfContentByte capa, BaseFont fuente, float tamano, String texto, float y) {
+        capa.setFontAndSize(fuente, tamano);
+        capa.showTextAligned(Element.ALIGN_LEFT, texto, MARGEN, y, 0);
+    }
+
+    private static void centrado(PdfContentByte capa, BaseFont fuente, float tamano, String texto, float y) {
+        capa.setFontAndSize(fuente, tamano);
+        capa.showTextAligned(Element.ALIGN_CENTER, ajustar(texto, fuente, tamano, ANCHO_UTIL), CENTRO, y, 0);
+    }
+
+    /**
+     * Escribe el valor de un renglón a continuación de su etiqueta, que ya está en la plantilla.
+     */
+    private static void valor(PdfContentByte capa, BaseFont fuente, float tamano, String etiqueta, String texto,
+                              float y) {
+        float desplazamiento = fuente.getWidthPoint(etiqueta, tamano);
+        capa.setFontAndSize(fuente, tamano);
+        capa.showTextAligned(Element.ALIGN_LEFT,
+                ajustar(texto, fuente, tamano, ANCHO_UTIL - desplazamiento),
+                MARGEN + desplazamiento, y, 0);
+    }
+
+    /**
+     * Recorta un texto que no cabe en el ancho indicado y le agrega puntos suspensivos.
+     */
+    private static String ajustar(String texto, BaseFont fuente, float tamano, float ancho) {
+        if (fuente.getWidthPoint(texto, tamano) <= ancho) {
+            return texto;
+        }
+        int fin = texto.length();
+        while (fin > 0 && fuente.getWidthPoint(texto.substring(0, fin) + "…", tamano) > ancho) {
+            fin--;
+        }
+        return texto.substring(0, fin) + "…";
     }
 }
@@ -1,16 +1,31 @@
 package com.example.museo_v2.service;
 
 import com.example.museo_v2.model.Evento;
-import com.example.museo_v2.model.EventoProducto;
+import com.example.museo_v2.model.PaginaKeyset;
 import com.example.museo_v2.model.ProductoInventario;
-import com.example.museo_v2.repository.EventoProductoRepository;
+import com.example.museo_v2.model.ProductoListado;
+import com.example.museo_v2.model.TipoMovimiento;
 import com.example.museo_v2.repository.ProductoInventarioRepository;
+import com.example.museo_v2.service.DisponibilidadInventarioService.Rango;
+import com.example.museo_v2.service.LibroInventarioService.Movimiento;
+import com.example.museo_v2.service.ReintentoOptimistaService.Politica;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * Servicio para la gestión del inventario de productos, incluyendo consulta,
@@ -23,7 +38,16 @@ public class ProductoInventarioService {
     private ProductoInventarioRepository productoRepo;
 
     @Autowired
-    private EventoProductoRepository eventoProductoRepo;
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private ReintentoOptimistaService reintentos;
+
+    @Autowired
+    private LibroInventarioService libro;
+
+    @Autowired
+    private DisponibilidadInventarioService disponibilidad;
 
     /**
      * Obtiene todos los productos registrados en el inventario,
@@ -36,12 +60,36 @@ public class ProductoInventarioService {
     }
 
     /**
-     * Obtiene únicamente los productos con stock disponible mayor a cero.
+     * Obtiene una página del listado de inventario a partir del identificador del
+     * último producto mostrado. Se pide una fila más que el tamaño de página para
+     * saber si existe una página siguiente.
      *
-     * @return lista de productos disponibles
+     * @param nombre      texto que debe contener el nombre, o {@code null} para no filtrar
+     * @param descendente {@code true} para mostrar primero los productos más recientes
+     * @param despuesDeId identificador del último producto mostrado, o {@code null} para la primera página
+     * @param tamano      cantidad de productos por página
+     * @return la página de productos
+     */
+    public PaginaKeyset<ProductoListado> listarPaginado(String nombre, boolean descendente, Long despuesDeId, int tamano) {
+        int filas = PaginaKeyset.normalizarTamano(tamano);
+        String filtro = StringUtils.trimToNull(nombre);
+        PageRequest pagina = PageRequest.of(0, filas + 1);
+
+        List<ProductoListado> resultado = descendente
+                ? productoRepo.listarDescendente(despuesDeId != null ? despuesDeId : Long.MAX_VALUE, filtro, pagina)
+                : productoRepo.listarAscendente(despuesDeId != null ? despuesDeId : 0L, filtro, pagina);
+        return PaginaKeyset.de(resultado, filas);
+    }
+
+    /**
+     * Obtiene los productos que pueden asignarse a un evento: los que tienen stock total
+     * mayor a cero. Las unidades libres dependen de las fechas del evento y se
+     * comprueban al reservar.
+     *
+     * @return lista de productos asignables
      */
     public List<ProductoInventario> productosDisponibles() {
-        return productoRepo.findByStockDisponibleGreaterThan(0);
+        return productoRepo.findByStockTotalGreaterThan(0);
     }
 
     /**
@@ -58,69 +106,188 @@ public class ProductoInventarioService {
      * Guarda o actualiza un producto en el inventario.
      * Si se crea uno nuevo y no se especifica el stock disponible,
      * se asume que es igual al stock total.
+     * <p>
+     * Al actualizar, los datos deben venir con la versión del producto que se editó; si
+     * el producto cambió desde entonces se rechaza la edición con
+     * {@link OptimisticLockingFailureException} en lugar de sobrescribir el cambio ajeno.
+     * El stock disponible no se toma del formulario: se recalcula sobre el valor actual
+     * sumándole la diferencia de stock total, de modo que se conservan las unidades
+     * asignadas a eventos. El nuevo total debe cubrir el día de mayor ocupación desde hoy.
+     * <p>
+     * El alta y cada cambio de stock total quedan registrados en el libro de inventario.
      *
      * @param p producto a guardar
      * @return el producto persistido
+     * @throws IllegalArgumentException si el nuevo stock total es menor que las unidades asignadas
+     *                                  algún día a partir de hoy
      */
     public ProductoInventario guardar(ProductoInventario p) {
-        if (p.getId() == null && p.getStockDisponible() == null) {
-            p.setStockDisponible(p.getStockTotal());
+        if (p.getId() == null) {
+            if (p.getStockDisponible() == null) {
+                p.setStockDisponible(p.getStockTotal());
+            }
+            return reintentos.ejecutar("producto", Politica.RECHAZAR, () -> crear(p));
+        }
+        return reintentos.ejecutar("producto", Politica.RECHAZAR, () -> actualizar(p));
+    }
+
+    private ProductoInventario crear(ProductoInventario p) {
+        ProductoInventario guardado = productoRepo.saveAndFlush(p);
+        libro.registrar(List.of(new Movimiento(guardado.getId(), null, TipoMovimiento.ALTA,
+                guardado.getStockTotal(), guardado.getStockDisponible())), ahora());
+        return guardado;
+    }
+
+    private ProductoInventario actualizar(ProductoInventario datos) {
+        ProductoInventario actual = productoRepo.findById(datos.getId())
+                .orElseThrow(() -> new IllegalArgumentException("Producto no encontrado: " + datos.getId()));
+        if (!Objects.equals(datos.getVersion(), actual.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(ProductoInventario.class, datos.getId());
+        }
+
+        int total = datos.getStockTotal() != null ? datos.getStockTotal() : actual.getStockTotal();
+        long asignadas = disponibilidad.ocupacionMaxima(actual.getId(), actual.getVersion(), LocalDate.now(), null);
+        if (total < asignadas) {
+            throw new IllegalArgumentException("El stock total no puede ser menor que las unidades asignadas a eventos ("
+                    + asignadas + ")");
+        }
+        int disponible = actual.getStockDisponible() + total - actual.getStockTotal();
+
+        int cambio = total - actual.getStockTotal();
+        if (cambio != 0) {
+            libro.registrar(List.of(new Movimiento(actual.getId(), null, TipoMovimiento.AJUSTE, cambio, cambio)),
+                    ahora());
         }
-        return productoRepo.save(p);
+
+        actual.setNombre(datos.getNombre());
+        actual.setTipo(datos.getTipo());
+        actual.setStockTotal(total);
+        actual.setStockDisponible(disponible);
+        return actual;
+    }
+
+    private static Timestamp ahora() {
+        return Timestamp.valueOf(LocalDateTime.now());
     }
 
     /**
-     * Reserva productos para un evento, descontando el stock disponible
-     * y registrando la asignación en la tabla intermedia.
+     * Reserva productos para un evento, registrando la asignación en la tabla
+     * intermedia y descontando las unidades del stock sin asignar.
+     * <p>
+     * Las unidades se controlan por fechas: un producto alcanza si su stock total menos
+     * la mayor ocupación de un día del evento, según {@link DisponibilidadInventarioService},
+     * cubre la cantidad pedida. La comprobación se hace sobre la versión leída de cada
+     * producto, sin bloquear filas, y el descuento se envía en lote con la condición
+     * {@code version = ?}: si otra escritura cambió algún producto entretanto, se deshace
+     * todo y la reserva se repite sobre los datos actuales, según {@link Politica#REINTENTAR}.
+     * Si algún producto no existe o no alcanza, se lanza una excepción y no se escribe
+     * nada. Después se insertan en lote las asignaciones y los movimientos del libro de
+     * inventario. Debe llamarse fuera de una transacción.
      *
      * @param evento evento para el cual se reservarán productos
      * @param requerimientos mapa donde la clave es el ID del producto
      *                       y el valor la cantidad solicitada
+     * @throws OptimisticLockingFailureException si los productos siguen cambiando tras agotar los intentos
      */
-    @Transactional
     public void reservarProductos(Evento evento, Map<Long, Integer> requerimientos) {
-        for (Map.Entry<Long, Integer> entry : requerimientos.entrySet()) {
-            Long prodId = entry.getKey();
-            Integer cantidadSolicitada = entry.getValue();
+        // Orden fijo para que reservas concurrentes actualicen las filas en el mismo orden.
+        List<Map.Entry<Long, Integer>> pedidos = requerimientos.entrySet().stream()
+                .filter(entry -> entry.getValue() != null && entry.getValue() > 0)
+                .sorted(Map.Entry.comparingByKey())
+                .toList();
+        if (pedidos.isEmpty()) {
+            return;
+        }
+        reintentos.ejecutar("producto", Politica.REINTENTAR, () -> reservar(evento, pedidos));
+    }
 
-            if (cantidadSolicitada > 0) {
-                ProductoInventario producto = productoRepo.findById(prodId)
-                        .orElseThrow(() -> new RuntimeException("Producto no encontrado: " + prodId));
+    private void reservar(Evento evento, List<Map.Entry<Long, Integer>> pedidos) {
+        Map<Long, Leido> leidos = new HashMap<>();
+        jdbc.query("SELECT id, nombre, stock_total, version FROM inventario_productos WHERE id IN ("
+                        + String.join(", ", Collections.nCopies(pedidos.size(), "?")) + ")",
+                fila -> {
+                    leidos.put(fila.getLong(1), new Leido(fila.getString(2), fila.getInt(3), fila.getLong(4)));
+                }, pedidos.stream().map(Map.Entry::getKey).toArray());
 
-                if (producto.getStockDisponible() < cantidadSolicitada) {
-                    throw new RuntimeException("Stock insuficiente para: " + producto.getNombre());
-                }
+        Rango rango = Rango.deEvento(evento.getFechaInicio(), evento.getFechaFin());
+        for (Map.Entry<Long, Integer> pedido : pedidos) {
+            Leido producto = leidos.get(pedido.getKey());
+            if (producto == null) {
+                throw new RuntimeException("Producto no encontrado: " + pedido.getKey());
+            }
+            long ocupadas = disponibilidad.ocupacionMaxima(pedido.getKey(), producto.version(),
+                    rango.desde(), rango.hasta());
+            if (producto.stockTotal() - ocupadas < pedido.getValue()) {
+                throw new RuntimeException("Stock insuficiente para: " + producto.nombre());
+            }
+        }
 
-                producto.setStockDisponible(producto.getStockDisponible() - cantidadSolicitada);
-                productoRepo.save(producto);
+        Timestamp ahora = ahora();
+        int[][] filas = jdbc.batchUpdate(
+                "UPDATE inventario_productos SET stock_disponible = stock_disponible - ?, fecha_modificacion = ?, "
+                        + "version = version + 1 WHERE id = ? AND version = ?",
+                pedidos, pedidos.size(), (sentencia, pedido) -> {
+                    sentencia.setInt(1, pedido.getValue());
+                    sentencia.setTimestamp(2, ahora);
+                    sentencia.setLong(3, pedido.getKey());
+                    sentencia.setLong(4, leidos.get(pedido.getKey()).version());
+                });
+        int[] afectadas = filas[0];
+        for (int i = 0; i < afectadas.length; i++) {
+            if (afectadas[i] == 0) {
+                throw new ObjectOptimisticLockingFailureException(ProductoInventario.class, pedidos.get(i).getKey());
+            }
+        }
 
-                EventoProducto asignacion = new EventoProducto();
-                asignacion.setEvento(evento);
-                asignacion.setProducto(producto);
-                asignacion.setCantidadAsignada(cantidadSolicitada);
+        jdbc.batchUpdate(
+                "INSERT INTO evento_productos (evento_id, producto_id, cantidad_asignada) VALUES (?, ?, ?)",
+                pedidos, pedidos.size(), (sentencia, pedido) -> {
+                    sentencia.setLong(1, evento.getId());
+                    sentencia.setLong(2, pedido.getKey());
+                    sentencia.setInt(3, pedido.getValue());
+                });
+        libro.registrar(pedidos.stream()
+                .map(pedido -> new Movimiento(pedido.getKey(), evento.getId(), TipoMovimiento.RESERVA,
+                        0, -pedido.getValue()))
+                .toList(), ahora);
 
-                eventoProductoRepo.save(asignacion);
-            }
+        for (Map.Entry<Long, Integer> pedido : pedidos) {
+            long version = leidos.get(pedido.getKey()).version();
+            disponibilidad.asignarAlConfirmar(pedido.getKey(), version, version + 1, rango, pedido.getValue());
         }
     }
 
+    /**
+     * Datos de un producto leídos para una reserva, con la versión que debe seguir
+     * teniendo al descontar.
+     */
+    private record Leido(String nombre, int stockTotal, long version) {
+    }
+
     /**
      * Libera los productos asignados a un evento, devolviendo el stock
      * y eliminando los registros intermedios.
+     * <p>
+     * Son dos sentencias sin importar cuántos productos tenga el evento: una
+     * actualización que suma a cada producto las unidades que el evento tenía
+     * asignadas, agregadas por producto, y un borrado de todas las asignaciones del
+     * evento. No se cargan asignaciones ni productos. La suma es relativa al valor
+     * actual, así que no pisa reservas concurrentes, e incrementa la versión de cada
+     * producto afectado. Antes de borrar las asignaciones se registra en el libro de
+     * inventario la devolución de cada producto, con una sentencia más.
      *
-     * @param evento evento del cual se liberarán los productos
+     * @param eventoId identificador del evento cuyos productos se liberarán
      */
     @Transactional
-    public void liberarProductos(Evento evento) {
-        List<EventoProducto> asignaciones = eventoProductoRepo.findByEvento(evento);
-
-        for (EventoProducto asignacion : asignaciones) {
-            ProductoInventario producto = asignacion.getProducto();
-
-            producto.setStockDisponible(producto.getStockDisponible() + asignacion.getCantidadAsignada());
-            productoRepo.save(producto);
-
-            eventoProductoRepo.delete(asignacion);
-        }
+    public void liberarProductos(Long eventoId) {
+        Timestamp ahora = ahora();
+        libro.registrarLiberacion(eventoId, ahora);
+        jdbc.update("UPDATE inventario_productos p SET stock_disponible = stock_disponible + "
+                        + "(SELECT SUM(a.cantidad_asignada) FROM evento_productos a "
+                        + "WHERE a.evento_id = ? AND a.producto_id = p.id), "
+                        + "fecha_modificacion = ?, version = version + 1 "
+                        + "WHERE p.id IN (SELECT a.producto_id FROM evento_productos a WHERE a.evento_id = ?)",
+                eventoId, ahora, eventoId);
+        jdbc.update("DELETE FROM evento_productos WHERE evento_id = ?", eventoId);
     }
 }
@@ -0,0 +1,122 @@
+package com.example.museo_v2.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Política común ante conflictos de versión en salas, eventos y productos.
+ * <p>
+ * Cada operación se ejecuta en su propia transacción. Si falla porque otra escritura
+ * cambió la versión de una fila, hay dos salidas según la operación:
+ * <ul>
+ *     <li>{@link Politica#REINTENTAR}: la operación vuelve a leer lo que necesita y solo
+ *     aplica ajustes que siguen siendo válidos sobre los datos actuales (por ejemplo,
+ *     devolver al stock las unidades de un evento eliminado). Se repite tras una pausa
+ *     breve y aleatoria, hasta el número de intentos configurado.</li>
+ *     <li>{@link Politica#RECHAZAR}: la operación aplica lo que una persona decidió
+ *     mirando datos que ya cambiaron (un formulario de edición). No se repite; el
+ *     conflicto se propaga para mostrar los datos actuales.</li>
+ * </ul>
+ * Se publican contadores de operaciones y de conflictos por entidad y resultado, de
+ * modo que la tasa de conflictos puede seguirse sin recurrir a bloqueos de filas.
+ * Debe llamarse fuera de cualquier transacción, para que cada intento lea datos nuevos.
+ */
+@Service
+public class ReintentoOptimistaService {
+
+    /** Qué hacer cuando una operación choca con una escritura concurrente. */
+    public enum Politica {
+        REINTENTAR, RECHAZAR
+    }
+
+    private final TransactionTemplate transaccion;
+    private final MeterRegistry registro;
+    private final int intentos;
+
+    public ReintentoOptimistaService(PlatformTransactionManager transactionManager, MeterRegistry registro,
+                                     @Value("${app.concurrencia.intentos:3}") int intentos) {
+        this.transaccion = new TransactionTemplate(transactionManager);
+        this.registro = registro;
+        this.intentos = Math.max(1, intentos);
+    }
+
+    /**
+     * Ejecuta una operación en una transacción aplicando la política indicada ante
+     * conflictos de versión.
+     *
+     * @param entidad   nombre de la entidad afectada, para las métricas
+     * @param politica  si el conflicto se reintenta o se rechaza
+     * @param operacion operación a ejecutar; con {@link Politica#REINTENTAR} puede
+     *                  ejecutarse más de una vez
+     * @param <T>       tipo del resultado
+     * @return resultado de la operación
+     * @throws OptimisticLockingFailureException si el conflicto se rechaza o persiste
+     *                                           tras agotar los intentos
+     */
+    public <T> T ejecutar(String entidad, Politica politica, Supplier<T> operacion) {
+        contador("museo.concurrencia.operaciones", "Operaciones con control de versión", entidad, null)
+                .increment();
+        for (int intento = 1; ; intento++) {
+            try {
+                return transaccion.execute(estado -> operacion.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (politica == Politica.RECHAZAR) {
+                    conflicto(entidad, "rechazado");
+                    throw e;
+                }
+                if (intento >= intentos) {
+                    conflicto(entidad, "agotado");
+                    throw e;
+                }
+                conflicto(entidad, "reintentado");
+                esperar(intento);
+            }
+        }
+    }
+
+    /**
+     * Variante de {@link #ejecutar(String, Politica, Supplier)} para operaciones sin resultado.
+     */
+    public void ejecutar(String entidad, Politica politica, Runnable operacion) {
+        ejecutar(entidad, politica, () -> {
+            operacion.run();
+            return null;
+        });
+    }
+
+    private void conflicto(String entidad, String resultado) {
+        contador("museo.concurrencia.conflictos", "Conflictos de versión detectados", entidad, resultado)
+                .increment();
+    }
+
+    private Counter contador(String nombre, String descripcion, String entidad, String resultado) {
+        Counter.Builder builder = Counter.builder(nombre)
+                .description(descripcion)
+                .tag("entidad", entidad);
+        if (resultado != null) {
+            builder.tag("resultado", resultado);
+        }
+        return builder.register(registro);
+    }
+
+    /**
+     * Pausa antes de reintentar, creciente con cada intento y con un componente aleatorio
+     * para que dos operaciones en conflicto no vuelvan a coincidir.
+     */
+    private static void esperar(int intento) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(1, 10L * intento + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Reintento interrumpido", e);
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.museo_v2.service;
+
+import com.example.museo_v2.model.Reserva;
+import com.example.museo_v2.repository.ReservaRepositorio;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Servicio que agrupa la inserción de reservas confirmadas.
+ * Las peticiones dejan su reserva en una cola acotada y un único hilo la vacía
+ * en lotes, cada uno guardado en una sola transacción con inserciones JDBC agrupadas.
+ * Quien encola espera hasta que su lote se confirma, por lo que la respuesta
+ * solo se devuelve cuando la reserva ya es durable. La espera está acotada: si
+ * el hilo escritor aún no tomó la reserva al vencer el plazo, se retira de la
+ * cola y la petición falla sin que la reserva llegue a guardarse.
+ */
+@Service
+public class ReservaIngestaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservaIngestaService.class);
+
+    /** Tiempo máximo que una petición espera por espacio en la cola. */
+    private static final long ESPERA_COLA_MS = 2000;
+
+    private final ReservaRepositorio reservaRepositorio;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<Pendiente> cola;
+    private final int tamanoLote;
+    private final long esperaConfirmacionMs;
+
+    private volatile boolean activo;
+    private Thread hiloEscritor;
+
+    public ReservaIngestaService(ReservaRepositorio reservaRepositorio,
+                                 TransactionTemplate transactionTemplate,
+                                 @Value("${app.reservas.ingesta.capacidad-cola:2000}") int capacidadCola,
+                                 @Value("${app.reservas.ingesta.tamano-lote:50}") int tamanoLote,
+                                 @Value("${app.reservas.ingesta.espera-confirmacion-ms:10000}") long esperaConfirmacionMs) {
+        this.reservaRepositorio = reservaRepositorio;
+        this.transactionTemplate = transactionTemplate;
+        this.cola = new ArrayBlockingQueue<>(capacidadCola);
+        this.tamanoLote = tamanoLote;
+        this.esperaConfirmacionMs = esperaConfirmacionMs;
+    }
+
+    /**
+     * Inicia el hilo que vacía la cola.
+     */
+    @PostConstruct
+    public void iniciar() {
+        activo = true;
+        hiloEscritor = new Thread(this::procesarCola, "reservas-ingesta");
+        hiloEscritor.setDaemon(true);
+        hiloEscritor.start();
+    }
+
+    /**
+     * Detiene el hilo escritor después de guardar lo que quede en la cola.
+     */
+    @PreDestroy
+    public void detener() throws InterruptedException {
+        activo = false;
+        if (hiloEscritor != null) {
+            hiloEscritor.join(TimeUnit.SECONDS.toMillis(30));
+        }
+    }
+
+    /**
+     * Encola una reserva y espera a que quede guardada.
+     *
+     * <p>Si la confirmación no llega en el plazo configurado y el hilo escritor
+     * aún no tomó la reserva, se retira y no se guardará. Si ya la tomó, su
+     * transacción está en curso y se espera un plazo más a que termine, para no
+     * informar un fallo de una reserva que sí quedó guardada.</p>
+     *
+     * @param reserva reserva lista para persistir
+     * @return la reserva guardada, con su ID asignado
+     * @throws IllegalStateException si la cola está llena, la reserva no pudo
+     *                               guardarse o no se confirmó a tiempo
+     */
+    public Reserva registrar(Reserva reserva) {
+        Pendiente pendiente = new Pendiente(reserva, new CompletableFuture<>());
+        encolar(pendiente);
+        try {
+            return esperar(pendiente);
+        } catch (TimeoutException e) {
+            if (pendiente.tomar()) {
+                throw new IllegalStateException("El sistema de reservas está ocupado, intente nuevamente.", e);
+            }
+            try {
+                return esperar(pendiente);
+            } catch (TimeoutException enCurso) {
+                logger.error("RESERVA SIN CONFIRMAR | La transacción del lote sigue en curso tras {} ms",
+                        2 * esperaConfirmacionMs);
+                throw new IllegalStateException("No se pudo confirmar la reserva, intente nuevamente.", enCurso);
+            }
+        }
+    }
+
+    private Reserva esperar(Pendiente pendiente) throws TimeoutException {
+        try {
+            return pendiente.confirmacion().get(esperaConfirmacionMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException("No se pudo registrar la reserva", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Registro de reserva interrumpido", e);
+        }
+    }
+
+    /**
+     * Encola una reserva sin esperar su confirmación.
+     *
+     * @param reserva reserva lista para persistir
+     * @return futuro que se completa cuando la transacción del lote se confirma
+     * @throws IllegalStateException si la cola sigue llena tras la espera máxima
+     */
+    public CompletableFuture<Reserva> encolar(Reserva reserva) {
+        Pendiente pendiente = new Pendiente(reserva, new CompletableFuture<>());
+        encolar(pendiente);
+        return pendiente.confirmacion();
+    }
+
+    private void encolar(Pendiente pendiente) {
+        try {
+            if (!activo || !cola.offer(pendiente, ESPERA_COLA_MS, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("El sistema de reservas está ocupado, intente nuevamente.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Registro de reserva interrumpido", e);
+        }
+    }
+
+    /**
+     * Bucle del hilo escritor: toma todo lo disponible en la cola, hasta el
+     * tamaño de lote, y lo guarda de una vez. Con poca carga los lotes son de
+     * una reserva y no se añade latencia; con mucha carga crecen solos.
+     */
+    private void procesarCola() {
+        List<Pendiente> lote = new ArrayList<>(tamanoLote);
+        while (activo || !cola.isEmpty()) {
+            try {
+                Pendiente primera = cola.poll(200, TimeUnit.MILLISECONDS);
+                if (primera == null) {
+                    continue;
+                }
+                lote.add(primera);
+                cola.drainTo(lote, tamanoLote - 1);
+                guardarLote(lote);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                activo = false;
+            } catch (RuntimeException e) {
+                logger.error("ERROR EN INGESTA DE RESERVAS", e);
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    /**
+     * Guarda un lote en una sola transacción. Si falla, se reintenta cada reserva
+     * por separado para que una fila inválida no haga fallar a las demás. Las
+     * reservas cuyo solicitante dejó de esperar se descartan sin guardarse.
+     *
+     * @param pendientes reservas a guardar
+     */
+    void guardarLote(List<Pendiente> pendientes) {
+        List<Pendiente> lote = pendientes.stream().filter(Pendiente::tomar).toList();
+        if (lote.isEmpty()) {
+            return;
+        }
+        List<Reserva> reservas = new ArrayList<>(lote.size());
+        for (Pendiente pendiente : lote) {
+            reservas.add(pendiente.reserva());
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(estado -> reservaRepositorio.saveAll(reservas));
+            for (Pendiente pendiente : lote) {
+                pendiente.confirmacion().complete(pendiente.reserva());
+            }
+            logger.debug("LOTE DE RESERVAS GUARDADO | Tamaño {}", lote.size());
+        } catch (RuntimeException errorLote) {
+            logger.warn("LOTE DE RESERVAS FALLIDO | Tamaño {} | Motivo: {}", lote.size(), errorLote.getMessage());
+            for (Pendiente pendiente : lote) {
+                guardarIndividual(pendiente);
+            }
+        }
+    }
+
+    private void guardarIndividual(Pendiente pendiente) {
+        Reserva reserva = pendiente.reserva();
+        // El ID asignado en el intento fallido no llegó a la base de datos.
+        reserva.setId(null);
+        try {
+            transactionTemplate.executeWithoutResult(estado -> reservaRepositorio.save(reserva));
+            pendiente.confirmacion().complete(reserva);
+        } catch (DataIntegrityViolationException e) {
+            reserva.setId(null);
+            logger.warn("RESERVA RECHAZADA | Motivo: {}", e.getMostSpecificCause().getMessage());
+            pendiente.confirmacion().completeExceptionally(
+                    new IllegalStateException("Los datos de la reserva no son válidos o ya están registrados.", e));
+        } catch (RuntimeException e) {
+            reserva.setId(null);
+            pendiente.confirmacion().completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Reserva en espera de ser guardada junto con el futuro de su confirmación.
+     * La marca {@code tomada} decide quién se queda con la reserva cuando vence
+     * la espera: el hilo escritor, que la guardará, o el solicitante, que la retira.
+     */
+    record Pendiente(Reserva reserva, CompletableFuture<Reserva> confirmacion, AtomicBoolean tomada) {
+
+        Pendiente(Reserva reserva, CompletableFuture<Reserva> confirmacion) {
+            this(reserva, confirmacion, new AtomicBoolean());
+        }
+
+        /**
+         * @return {@code true} si quien llama se quedó con la reserva
+         */
+        boolean tomar() {
+            return tomada.compareAndSet(false, true);
+        }
+    }
+}
@@ -4,7 +4,9 @@ import com.example.museo_v2.model.Evento;
 import com.example.museo_v2.model.Reserva;
 import com.example.museo_v2.repository.ReservaRepositorio;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -22,33 +24,130 @@ public class ReservaService {
     @Autowired
     private EventoService eventoService;
 
+    @Autowired
+    private AforoService aforoService;
+
+    @Autowired
+    private ReservaIngestaService reservaIngestaService;
+
+    @Autowired
+    private BloqueoEntradasService bloqueoEntradasService;
+
+    @Value("${app.reservas.max-entradas:20}")
+    private int maxEntradas;
+
     /**
-     * Guarda una reserva asociada a un evento. Calcula el total a pagar
-     * según el costo por entrada y la cantidad solicitada.
+     * Devuelve el máximo de entradas que admite una reserva.
+     *
+     * @return entradas por reserva
+     */
+    public int getMaxEntradas() {
+        return maxEntradas;
+    }
+
+    /**
+     * Guarda una reserva asociada a un evento sin entradas retenidas previamente.
      *
      * @param reserva   reserva a registrar
      * @param eventoId  identificador del evento asociado
      * @return reserva guardada con el total a pagar calculado
-     * @throws IllegalArgumentException si el evento no existe
+     * @see #guardarReserva(Reserva, Long, String)
      */
     public Reserva guardarReserva(Reserva reserva, Long eventoId) {
+        return guardarReserva(reserva, eventoId, null);
+    }
+
+    /**
+     * Guarda una reserva asociada a un evento. Calcula el total a pagar
+     * según el costo por entrada y la cantidad solicitada, y ocupa las
+     * entradas en el aforo del evento.
+     * <p>
+     * La inserción se delega a {@link ReservaIngestaService}, que la agrupa con
+     * otras reservas concurrentes. Si no llega a guardarse, las entradas
+     * ocupadas se devuelven al aforo.
+     * <p>
+     * Si el formulario tenía entradas retenidas, se usan esas y solo se ocupa
+     * (o devuelve) la diferencia con la cantidad finalmente solicitada.
+     *
+     * @param reserva   reserva a registrar
+     * @param eventoId  identificador del evento asociado
+     * @param bloqueoId bloqueo creado al abrir el formulario; puede ser {@code null}
+     * @return reserva guardada con el total a pagar calculado
+     * @throws IllegalArgumentException si el evento no existe o la cantidad no es válida
+     * @throws IllegalStateException si la cantidad supera el máximo por reserva
+     *                               o la sala del evento no tiene aforo suficiente
+     */
+    public Reserva guardarReserva(Reserva reserva, Long eventoId, String bloqueoId) {
 
         Evento evento = eventoService.obtenerEventoPorId(eventoId);
         if (evento == null) {
             throw new IllegalArgumentException("Evento no encontrado.");
         }
 
-        BigDecimal costoUnitario = evento.getCostoEntrada() != null
-                ? evento.getCostoEntrada()
-                : BigDecimal.ZERO;
+        if (reserva.getNEntradas() == null || reserva.getNEntradas() < 1) {
+            throw new IllegalArgumentException("Cantidad de entradas no válida.");
+        }
 
-        BigDecimal nEntradas = new BigDecimal(reserva.getNEntradas());
-        BigDecimal total = costoUnitario.multiply(nEntradas).setScale(2, RoundingMode.HALF_UP);
+        int solicitadas = reserva.getNEntradas();
+        int retenidas = bloqueoEntradasService.consumir(bloqueoId, eventoId);
+        if (solicitadas > maxEntradas) {
+            if (retenidas > 0) {
+                aforoService.liberarEntradas(eventoId, retenidas);
+            }
+            throw new IllegalStateException("Se pueden reservar como máximo " + maxEntradas + " entradas por reserva.");
+        }
+        if (solicitadas > retenidas && !aforoService.ocuparEntradas(eventoId, solicitadas - retenidas)) {
+            if (retenidas > 0) {
+                aforoService.liberarEntradas(eventoId, retenidas);
+            }
+            throw new IllegalStateException("No hay entradas suficientes para el evento.");
+        }
+        if (solicitadas < retenidas) {
+            aforoService.liberarEntradas(eventoId, retenidas - solicitadas);
+        }
 
         reserva.setEvento(evento);
-        reserva.setTotalPagar(total);
+        reserva.setTotalPagar(calcularTotal(evento, solicitadas));
+
+        try {
+            return reservaIngestaService.registrar(reserva);
+        } catch (RuntimeException e) {
+            aforoService.liberarEntradas(eventoId, reserva.getNEntradas());
+            throw e;
+        }
+    }
+
+    /**
+     * Cancela una reserva y devuelve sus entradas al aforo del evento, lo que
+     * permite promover a los clientes de la lista de espera.
+     *
+     * @param id identificador de la reserva
+     * @return {@code true} si la reserva existía y se canceló
+     */
+    @Transactional
+    public boolean cancelarReserva(Long id) {
+        Reserva reserva = reservaRepositorio.findById(id).orElse(null);
+        if (reserva == null) {
+            return false;
+        }
+        reservaRepositorio.delete(reserva);
+        aforoService.liberarEntradas(reserva.getEvento().getId(), reserva.getNEntradas());
+        return true;
+    }
+
+    /**
+     * Calcula el total a pagar según el costo por entrada del evento.
+     *
+     * @param evento    evento reservado
+     * @param nEntradas cantidad de entradas
+     * @return total redondeado a dos decimales
+     */
+    public static BigDecimal calcularTotal(Evento evento, int nEntradas) {
+        BigDecimal costoUnitario = evento.getCostoEntrada() != null
+                ? evento.getCostoEntrada()
+                : BigDecimal.ZERO;
 
-        return reservaRepositorio.save(reserva);
+        return costoUnitario.multiply(new BigDecimal(nEntradas)).setScale(2, RoundingMode.HALF_UP);
     }
 
     /**
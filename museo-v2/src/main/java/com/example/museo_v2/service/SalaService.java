@@ -1,6 +1,8 @@
 package com.example.museo_v2.service;
 
+import com.example.museo_v2.model.PaginaKeyset;
 import com.example.museo_v2.model.Sala;
+import com.example.museo_v2.model.SalaListado;
 import org.springframework.web.multipart.MultipartFile;
 import java.util.List;
 
@@ -16,6 +18,18 @@ public interface SalaService {
      * @return Una lista de todas las salas.
      */
     List<Sala> listarTodasLasSalas();
+
+    /**
+     * Obtiene una página del listado de salas ordenado por identificador, a partir
+     * del identificador de la última sala de la página anterior.
+     *
+     * @param nombre      texto que debe contener el nombre, o {@code null} para no filtrar
+     * @param descendente {@code true} para mostrar primero las salas más recientes
+     * @param despuesDeId identificador de la última sala mostrada, o {@code null} para la primera página
+     * @param tamano      cantidad de salas por página
+     * @return la página de salas
+     */
+    PaginaKeyset<SalaListado> listarSalasPaginadas(String nombre, boolean descendente, Integer despuesDeId, int tamano);
     
     /**
      * Guarda una sala en la base de datos, incluyendo la imagen asociada (si se proporciona).
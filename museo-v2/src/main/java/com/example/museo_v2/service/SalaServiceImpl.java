@@ -1,9 +1,12 @@
 package com.example.museo_v2.service;
 
+import com.example.museo_v2.model.PaginaKeyset;
 import com.example.museo_v2.model.Sala;
+import com.example.museo_v2.model.SalaListado;
 import com.example.museo_v2.repository.SalaRepositorio;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -41,6 +44,28 @@ public class SalaServiceImpl implements SalaService {
         return salaRepositorio.findAll();
     }
 
+    /**
+     * Obtiene una página del listado de salas, pidiendo una fila más que el tamaño
+     * de página para saber si existe una página siguiente.
+     *
+     * @param nombre      texto que debe contener el nombre, o {@code null} para no filtrar
+     * @param descendente {@code true} para mostrar primero las salas más recientes
+     * @param despuesDeId identificador de la última sala mostrada, o {@code null} para la primera página
+     * @param tamano      cantidad de salas por página
+     * @return la página de salas
+     */
+    @Override
+    public PaginaKeyset<SalaListado> listarSalasPaginadas(String nombre, boolean descendente, Integer despuesDeId, int tamano) {
+        int filas = PaginaKeyset.normalizarTamano(tamano);
+        String filtro = StringUtils.trimToNull(nombre);
+        PageRequest pagina = PageRequest.of(0, filas + 1);
+
+        List<SalaListado> resultado = descendente
+                ? salaRepositorio.listarDescendente(despuesDeId != null ? despuesDeId : Integer.MAX_VALUE, filtro, pagina)
+                : salaRepositorio.listarAscendente(despuesDeId != null ? despuesDeId : 0, filtro, pagina);
+        return PaginaKeyset.de(resultado, filas);
+    }
+
     /**
      * Obtiene las salas disponibles.
      * Actualmente retorna todas, pero se deja para futura lógica de disponibilidad.
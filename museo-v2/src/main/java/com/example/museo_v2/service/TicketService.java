@@ -0,0 +1,376 @@
+package com.example.museo_v2.service;
+
+import com.example.museo_v2.model.Reserva;
+import com.example.museo_v2.repository.ReservaRepositorio;
+import com.lowagie.text.Document;
+import com.lowagie.text.pdf.PdfReader;
+import com.lowagie.text.pdf.PdfSmartCopy;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Servicio de tickets en PDF con caché en disco direccionada por contenido.
+ * <p>
+ * Cada ticket se identifica por una etiqueta formada por el ID de la reserva y la
+ * huella de su contenido ({@link PdfService#huella(Reserva)}); esa etiqueta ubica el
+ * archivo en el directorio de tickets y es también el {@code ETag} de la descarga. El
+ * primer pedido de un ticket lo genera directamente en la respuesta y a la vez en el
+ * archivo; los siguientes envían el archivo con {@link FileChannel#transferTo}, sin
+ * volver a generarlo ni cargarlo en memoria. Si
+ * cambia algún dato impreso (por ejemplo, el nombre del evento) cambia la etiqueta,
+ * el ticket se genera de nuevo y la versión anterior se elimina.
+ * <p>
+ * Los tickets de todas las reservas de un evento se generan en un grupo acotado de
+ * hilos y se escriben en orden, a medida que terminan, en un ZIP o en un único PDF de
+ * varias páginas. Solo se adelanta una ventana fija de tickets, de modo que la memoria
+ * usada no depende de cuántas reservas tenga el evento.
+ */
+@Service
+public class TicketService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TicketService.class);
+
+    /** Caracteres de la huella que forman parte de la etiqueta (128 bits). */
+    private static final int LARGO_HUELLA = 32;
+
+    /** Formatos de descarga de los tickets de un evento. */
+    public enum FormatoLote {
+        ZIP, PDF
+    }
+
+    private final PdfService pdfService;
+    private final ReservaRepositorio reservaRepositorio;
+    private final EntityManager entityManager;
+    private final Path directorio;
+    private final ExecutorService generadores;
+    private final int ventana;
+
+    public TicketService(PdfService pdfService,
+                         ReservaRepositorio reservaRepositorio,
+                         EntityManager entityManager,
+                         @Value("${app.tickets.dir}") String directorio,
+                         @Value("${app.tickets.hilos:0}") int hilos) {
+        this.pdfService = pdfService;
+        this.reservaRepositorio = reservaRepositorio;
+        this.entityManager = entityManager;
+        this.directorio = Path.of(directorio);
+        int cantidad = hilos > 0 ? hilos : Runtime.getRuntime().availableProcessors();
+        this.ventana = cantidad * 4;
+        AtomicInteger contador = new AtomicInteger();
+        this.generadores = Executors.newFixedThreadPool(cantidad, tarea -> {
+            Thread hilo = new Thread(tarea, "tickets-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        try {
+            Files.createDirectories(this.directorio);
+            eliminarTicketsSinSubdirectorio();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo crear el directorio de tickets " + directorio, e);
+        }
+    }
+
+    /**
+     * Etiqueta del ticket de una reserva en su estado actual.
+     *
+     * @param reserva reserva del ticket
+     * @return {@code <id>-<huella>}, usable como clave de la caché y como ETag
+     */
+    public String etiqueta(Reserva reserva) {
+        return reserva.getId() + "-" + pdfService.huella(reserva).substring(0, LARGO_HUELLA);
+    }
+
+    /**
+     * Busca un ticket ya generado.
+     *
+     * @param etiqueta etiqueta del ticket
+     * @return el archivo del ticket, si está en la caché
+     */
+    public Optional<Path> buscar(String etiqueta) {
+        Path archivo = archivo(etiqueta);
+        return Files.isRegularFile(archivo) ? Optional.of(archivo) : Optional.empty();
+    }
+
+    /**
+     * Genera el ticket en la salida indicada y lo guarda en la caché. El archivo se
+     * escribe aparte y se publica con un movimiento atómico solo si la generación
+     * termina, así que nunca se sirve un ticket a medio escribir.
+     *
+     * @param reserva  reserva del ticket
+     * @param etiqueta etiqueta calculada con {@link #etiqueta(Reserva)}
+     * @param salida   flujo de la respuesta; no se cierra
+     * @throws IOException si falla la escritura en la salida
+     */
+    public void generar(Reserva reserva, String etiqueta, OutputStream salida) throws IOException {
+        Path archivo = archivo(etiqueta);
+        Files.createDirectories(archivo.getParent());
+        Path parcial = Files.createTempFile(archivo.getParent(), "ticket-", ".part");
+        boolean guardado = false;
+        try {
+            try (OutputStream copia = new BufferedOutputStream(Files.newOutputStream(parcial))) {
+                pdfService.escribirTicket(reserva, new SalidaDuplicada(salida, copia));
+            }
+            Files.move(parcial, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            guardado = true;
+            eliminarVersionesAnteriores(archivo);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            if (!guardado) {
+                eliminar(parcial);
+            }
+        }
+    }
+
+    /**
+     * Envía un ticket guardado a la salida con {@link FileChannel#transferTo}.
+     *
+     * @param archivo archivo obtenido con {@link #buscar(String)}
+     * @param salida  flujo de la respuesta; no se cierra
+     * @throws IOException si falla la lectura o la escritura
+     */
+    public void enviar(Path archivo, OutputStream salida) throws IOException {
+        WritableByteChannel destino = Channels.newChannel(salida);
+        try (FileChannel origen = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            long tamano = origen.size();
+            long enviado = 0;
+            while (enviado < tamano) {
+                enviado += origen.transferTo(enviado, tamano - enviado, destino);
+            }
+        }
+    }
+
+    /**
+     * Cuenta las reservas de un evento, para saber si hay tickets que descargar.
+     *
+     * @param eventoId identificador del evento
+     * @return cantidad de reservas del evento
+     */
+    public long contarReservas(Long eventoId) {
+        return reservaRepositorio.countByEventoId(eventoId);
+    }
+
+    /**
+     * Escribe los tickets de todas las reservas de un evento, en orden de ID. Cada
+     * ticket se toma de la caché o se genera y se guarda en ella.
+     *
+     * @param eventoId identificador del evento
+     * @param formato  un ZIP con un PDF por reserva o un solo PDF con una página por reserva
+     * @param salida   flujo de la respuesta; no se cierra
+     * @throws IOException si falla la escritura en la salida
+     */
+    @Transactional(readOnly = true)
+    public void escribirTicketsDeEvento(Long eventoId, FormatoLote formato, OutputStream salida) throws IOException {
+        try (Stream<Reserva> reservas = reservaRepositorio.recorrerPorEvento(eventoId)) {
+            if (formato == FormatoLote.ZIP) {
+                ZipOutputStream zip = new ZipOutputStream(salida);
+                zip.setLevel(Deflater.BEST_SPEED);
+                generarEnOrden(reservas, (reserva, pdf) -> {
+                    zip.putNextEntry(new ZipEntry("ticket_museo_" + reserva.getId() + ".pdf"));
+                    zip.write(pdf);
+                    zip.closeEntry();
+                });
+                zip.finish();
+            } else {
+                Document documento = new Document();
+                PdfSmartCopy copia = new PdfSmartCopy(documento, salida);
+                copia.setCloseStream(false);
+                documento.open();
+                generarEnOrden(reservas, (reserva, pdf) -> {
+                    PdfReader lector = new PdfReader(pdf);
+                    copia.addPage(copia.getImportedPage(lector, 1));
+                    copia.freeReader(lector);
+                    lector.close();
+                });
+                documento.close();
+            }
+            salida.flush();
+        }
+    }
+
+    /**
+     * Reparte la generación de los tickets en el grupo de hilos y entrega cada PDF al
+     * destino en el orden de las reservas. Antes de encargar un ticket nuevo, si ya hay
+     * una ventana completa de tickets en curso, espera y escribe el más antiguo.
+     */
+    private void generarEnOrden(Stream<Reserva> reservas, DestinoTicket destino) throws IOException {
+        Deque<TicketEnCurso> enCurso = new ArrayDeque<>(ventana);
+        try {
+            Iterator<Reserva> iterador = reservas.iterator();
+            while (iterador.hasNext()) {
+                Reserva reserva = iterador.next();
+                entityManager.detach(reserva);
+                if (enCurso.size() == ventana) {
+                    escribirSiguiente(enCurso, destino);
+                }
+                enCurso.add(new TicketEnCurso(reserva, generadores.submit(() -> contenido(reserva))));
+            }
+            while (!enCurso.isEmpty()) {
+                escribirSiguiente(enCurso, destino);
+            }
+        } finally {
+            enCurso.forEach(ticket -> ticket.pdf().cancel(true));
+        }
+    }
+
+    private void escribirSiguiente(Deque<TicketEnCurso> enCurso, DestinoTicket destino) throws IOException {
+        TicketEnCurso siguiente = enCurso.peek();
+        byte[] pdf;
+        try {
+            pdf = siguiente.pdf().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Generación de tickets interrumpida");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException("No se pudo generar el ticket de la reserva "
+                    + siguiente.reserva().getId(), e.getCause());
+        }
+        enCurso.remove();
+        destino.escribir(siguiente.reserva(), pdf);
+    }
+
+    /**
+     * Contenido del ticket de una reserva, desde la caché o recién generado.
+     */
+    private byte[] contenido(Reserva reserva) throws IOException {
+        String etiqueta = etiqueta(reserva);
+        Optional<Path> guardado = buscar(etiqueta);
+        if (guardado.isPresent()) {
+            try {
+                return Files.readAllBytes(guardado.get());
+            } catch (NoSuchFileException e) {
+                // Otra versión lo reemplazó mientras tanto; se genera de nuevo
+            }
+        }
+        ByteArrayOutputStream pdf = new ByteArrayOutputStream(4096);
+        generar(reserva, etiqueta, pdf);
+        return pdf.toByteArray();
+    }
+
+    /**
+     * Detiene el grupo de hilos al cerrar la aplicación.
+     */
+    @PreDestroy
+    public void detener() {
+        generadores.shutdownNow();
+    }
+
+    private record TicketEnCurso(Reserva reserva, Future<byte[]> pdf) {
+    }
+
+    @FunctionalInterface
+    private interface DestinoTicket {
+        void escribir(Reserva reserva, byte[] pdf) throws IOException;
+    }
+
+    /**
+     * Ubicación del ticket en la caché: un subdirectorio por reserva con un archivo por
+     * versión, para que limpiar las versiones anteriores no recorra todos los tickets.
+     */
+    private Path archivo(String etiqueta) {
+        int separador = etiqueta.indexOf('-');
+        return directorio.resolve(etiqueta.substring(0, separador))
+                .resolve(etiqueta.substring(separador + 1) + ".pdf");
+    }
+
+    /**
+     * Elimina los tickets que las versiones anteriores guardaban directamente en el
+     * directorio, como {@code <id>-<huella>.pdf}. Ya no se sirven y nada más los borraría.
+     */
+    private void eliminarTicketsSinSubdirectorio() throws IOException {
+        try (DirectoryStream<Path> antiguos = Files.newDirectoryStream(directorio, "*.pdf")) {
+            for (Path antiguo : antiguos) {
+                if (Files.isRegularFile(antiguo)) {
+                    eliminar(antiguo);
+                }
+            }
+        }
+    }
+
+    private void eliminarVersionesAnteriores(Path actual) throws IOException {
+        try (DirectoryStream<Path> versiones = Files.newDirectoryStream(actual.getParent(), "*.pdf")) {
+            for (Path version : versiones) {
+                if (!version.equals(actual)) {
+                    eliminar(version);
+                }
+            }
+        }
+    }
+
+    private void eliminar(Path archivo) {
+        try {
+            Files.deleteIfExists(archivo);
+        } catch (IOException e) {
+            logger.warn("No se pudo eliminar el ticket {}: {}", archivo, e.getMessage());
+        }
+    }
+
+    /**
+     * Flujo que escribe cada byte en la respuesta y en el archivo de la caché.
+     */
+    private static final class SalidaDuplicada extends OutputStream {
+
+        private final OutputStream principal;
+        private final OutputStream copia;
+
+        private SalidaDuplicada(OutputStream principal, OutputStream copia) {
+            this.principal = principal;
+            this.copia = copia;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            principal.write(b);
+            copia.write(b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int desde, int largo) throws IOException {
+            principal.write(bytes, desde, largo);
+            copia.write(bytes, desde, largo);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            principal.flush();
+            copia.flush();
+        }
+    }
+}
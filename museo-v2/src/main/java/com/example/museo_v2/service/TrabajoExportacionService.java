@@ -0,0 +1,358 @@
+package com.example.museo_v2.service;
+
+import com.example.museo_v2.model.EstadoExportacion;
+import com.example.museo_v2.model.EstadoExportacion.Fase;
+import com.example.museo_v2.model.TipoReporte;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Ejecuta las exportaciones Excel como trabajos en segundo plano.
+ *
+ * <p>Una solicitud de exportación devuelve de inmediato el identificador del trabajo,
+ * que se ejecuta en un grupo acotado de hilos con una cola de capacidad fija y escribe
+ * el reporte en un archivo del directorio de exportaciones. El progreso se consulta por
+ * identificador o se recibe por SSE, y el archivo terminado se descarga desde disco.</p>
+ *
+ * <p>Cada usuario puede tener un número limitado de trabajos pendientes o en curso.
+ * Si ya hay un trabajo del mismo reporte en curso, o uno completado hace menos de la
+ * vigencia configurada, se devuelve ese trabajo en lugar de generar otro. Por cada tipo
+ * de reporte se conservan los últimos resultados; al superar ese número se elimina el
+ * archivo más antiguo.</p>
+ */
+@Service
+public class TrabajoExportacionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrabajoExportacionService.class);
+
+    /** Filas escritas entre dos avisos de progreso a los suscriptores. */
+    static final int FILAS_POR_AVISO = 500;
+
+    /** Tiempo que se conservan los trabajos fallidos para poder consultar el error. */
+    private static final Duration RETENCION_FALLIDOS = Duration.ofHours(1);
+
+    /** Nombre de los archivos que genera este servicio: identificador del trabajo y extensión. */
+    private static final Pattern ARCHIVO_PROPIO = Pattern.compile(
+            "[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}\\.(xlsx|part)");
+
+    private final ExportacionService exportacionService;
+    private final Path directorio;
+    private final int maxPorUsuario;
+    private final int resultadosPorTipo;
+    private final Duration vigencia;
+    private final ThreadPoolExecutor trabajadores;
+
+    private final Map<String, Trabajo> trabajos = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> activosPorUsuario = new ConcurrentHashMap<>();
+
+    /** Trabajo pendiente o en curso por tipo de reporte; protegido por {@code this}. */
+    private final Map<TipoReporte, Trabajo> enCurso = new EnumMap<>(TipoReporte.class);
+
+    /** Últimos trabajos completados por tipo, el más reciente primero; protegido por {@code this}. */
+    private final Map<TipoReporte, Deque<Trabajo>> resultados = new EnumMap<>(TipoReporte.class);
+
+    public TrabajoExportacionService(ExportacionService exportacionService,
+                                     @Value("${app.exportaciones.dir}") String directorio,
+                                     @Value("${app.exportaciones.hilos:2}") int hilos,
+                                     @Value("${app.exportaciones.capacidad-cola:20}") int capacidadCola,
+                                     @Value("${app.exportaciones.max-por-usuario:2}") int maxPorUsuario,
+                                     @Value("${app.exportaciones.resultados-por-tipo:3}") int resultadosPorTipo,
+                                     @Value("${app.exportaciones.vigencia-segundos:60}") long vigenciaSegundos) {
+        this.exportacionService = exportacionService;
+        this.directorio = Path.of(directorio);
+        this.maxPorUsuario = maxPorUsuario;
+        this.resultadosPorTipo = resultadosPorTipo;
+        this.vigencia = Duration.ofSeconds(vigenciaSegundos);
+
+        AtomicInteger contador = new AtomicInteger();
+        this.trabajadores = new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadCola), tarea -> {
+                    Thread hilo = new Thread(tarea, "exportacion-" + contador.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                });
+
+        for (TipoReporte tipo : TipoReporte.values()) {
+            resultados.put(tipo, new ArrayDeque<>());
+        }
+        prepararDirectorio();
+    }
+
+    /**
+     * Solicita la exportación de un reporte.
+     *
+     * @param tipo    reporte a generar
+     * @param usuario usuario que lo solicita
+     * @return estado del trabajo que generará o ya generó el reporte
+     * @throws IllegalArgumentException si se pide el reporte de reservas, cuyos datos de
+     *                                  clientes no se comparten entre usuarios
+     * @throws IllegalStateException si el usuario alcanzó su límite de trabajos
+     *                               o la cola de exportaciones está llena
+     */
+    public EstadoExportacion solicitar(TipoReporte tipo, String usuario) {
+        if (tipo == TipoReporte.RESERVAS) {
+            throw new IllegalArgumentException("El reporte de reservas no se genera en segundo plano");
+        }
+        synchronized (this) {
+            Trabajo existente = reutilizable(tipo);
+            if (existente != null) {
+                return existente.estado();
+            }
+
+            AtomicInteger activos = activosPorUsuario.computeIfAbsent(usuario, u -> new AtomicInteger());
+            if (activos.get() >= maxPorUsuario) {
+                throw new IllegalStateException("Ya tiene " + maxPorUsuario + " exportaciones en curso");
+            }
+
+            Trabajo trabajo = new Trabajo(UUID.randomUUID().toString(), tipo, usuario);
+            try {
+                trabajadores.execute(() -> ejecutar(trabajo));
+            } catch (RejectedExecutionException e) {
+                throw new IllegalStateException("Hay demasiadas exportaciones en cola, intente más tarde");
+            }
+            activos.incrementAndGet();
+            trabajos.put(trabajo.id, trabajo);
+            enCurso.put(tipo, trabajo);
+            logger.info("EXPORTACION SOLICITADA | {} | {} | {}", trabajo.id, tipo, usuario);
+            return trabajo.estado();
+        }
+    }
+
+    /**
+     * Obtiene el estado de un trabajo.
+     *
+     * @param id identificador del trabajo
+     * @return el estado, si el trabajo existe
+     */
+    public Optional<EstadoExportacion> consultar(String id) {
+        return Optional.ofNullable(trabajos.get(id)).map(Trabajo::estado);
+    }
+
+    /**
+     * Obtiene el archivo de un trabajo completado.
+     *
+     * @param id identificador del trabajo
+     * @return la ruta del archivo, si el trabajo terminó y su resultado se conserva
+     */
+    public Optional<Path> archivo(String id) {
+        Trabajo trabajo = trabajos.get(id);
+        if (trabajo == null || trabajo.fase != Fase.COMPLETADA) {
+            return Optional.empty();
+        }
+        return Optional.of(trabajo.archivo());
+    }
+
+    /**
+     * Suscribe a los avisos de progreso de un trabajo. Se envía el estado actual de
+     * inmediato y la conexión se cierra cuando el trabajo termina.
+     *
+     * @param id identificador del trabajo
+     * @return el emisor SSE, si el trabajo existe
+     */
+    public Optional<SseEmitter> suscribir(String id) {
+        Trabajo trabajo = trabajos.get(id);
+        if (trabajo == null) {
+            return Optional.empty();
+        }
+        SseEmitter emisor = new SseEmitter(0L);
+        trabajo.suscriptores.add(emisor);
+        emisor.onCompletion(() -> trabajo.suscriptores.remove(emisor));
+        emisor.onError(error -> trabajo.suscriptores.remove(emisor));
+        emisor.onTimeout(() -> trabajo.suscriptores.remove(emisor));
+
+        EstadoExportacion estado = trabajo.estado();
+        enviar(trabajo, emisor, estado);
+        if (estado.terminado()) {
+            emisor.complete();
+        }
+        return Optional.of(emisor);
+    }
+
+    /**
+     * Elimina los trabajos fallidos antiguos; los completados se eliminan al salir
+     * de los resultados conservados.
+     */
+    @Scheduled(fixedDelay = 600_000)
+    public void limpiarFallidos() {
+        Instant limite = Instant.now().minus(RETENCION_FALLIDOS);
+        trabajos.values().removeIf(t -> t.fase == Fase.FALLIDA && t.terminado.isBefore(limite));
+    }
+
+    @PreDestroy
+    public void detener() {
+        trabajadores.shutdownNow();
+    }
+
+    private void ejecutar(Trabajo trabajo) {
+        Path parcial = directorio.resolve(trabajo.id + ".part");
+        try {
+            trabajo.iniciar(exportacionService.contarFilas(trabajo.tipo));
+            avisar(trabajo);
+
+            try (OutputStream salida = new BufferedOutputStream(Files.newOutputStream(parcial))) {
+                exportacionService.exportar(trabajo.tipo, salida, () -> {
+                    if (trabajo.filasEscritas.incrementAndGet() % FILAS_POR_AVISO == 0) {
+                        avisar(trabajo);
+                    }
+                });
+            }
+            Files.move(parcial, trabajo.archivo(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            terminar(trabajo, Fase.COMPLETADA, null);
+            logger.info("EXPORTACION COMPLETADA | {} | {} filas", trabajo.id, trabajo.filasEscritas.get());
+
+        } catch (Exception e) {
+            logger.error("EXPORTACION FALLIDA | {} | {}", trabajo.id, e.getMessage(), e);
+            eliminar(parcial);
+            terminar(trabajo, Fase.FALLIDA, "No se pudo generar el reporte");
+        }
+    }
+
+    private void terminar(Trabajo trabajo, Fase fase, String error) {
+        synchronized (this) {
+            activosPorUsuario.get(trabajo.usuario).decrementAndGet();
+            trabajo.terminar(fase, error);
+            enCurso.remove(trabajo.tipo, trabajo);
+            if (fase == Fase.COMPLETADA) {
+                Deque<Trabajo> conservados = resultados.get(trabajo.tipo);
+                conservados.addFirst(trabajo);
+                while (conservados.size() > resultadosPorTipo) {
+                    Trabajo antiguo = conservados.removeLast();
+                    trabajos.remove(antiguo.id);
+                    eliminar(antiguo.archivo());
+                }
+            }
+        }
+        avisar(trabajo);
+        trabajo.suscriptores.forEach(SseEmitter::complete);
+    }
+
+    /**
+     * Trabajo que puede atender una nueva solicitud del mismo reporte: el que está en
+     * curso o el último completado, si todavía está vigente.
+     */
+    private Trabajo reutilizable(TipoReporte tipo) {
+        Trabajo actual = enCurso.get(tipo);
+        if (actual != null) {
+            return actual;
+        }
+        Trabajo ultimo = resultados.get(tipo).peekFirst();
+        if (ultimo != null && ultimo.terminado.plus(vigencia).isAfter(Instant.now())) {
+            return ultimo;
+        }
+        return null;
+    }
+
+    private void avisar(Trabajo trabajo) {
+        if (trabajo.suscriptores.isEmpty()) {
+            return;
+        }
+        EstadoExportacion estado = trabajo.estado();
+        trabajo.suscriptores.forEach(emisor -> enviar(trabajo, emisor, estado));
+    }
+
+    private void enviar(Trabajo trabajo, SseEmitter emisor, EstadoExportacion estado) {
+        try {
+            emisor.send(SseEmitter.event().name("progreso").data(estado));
+        } catch (IOException | IllegalStateException e) {
+            trabajo.suscriptores.remove(emisor);
+        }
+    }
+
+    /**
+     * Crea el directorio de exportaciones y elimina los archivos de una ejecución
+     * anterior, que ya no están asociados a ningún trabajo. Solo se eliminan los
+     * archivos con el nombre que genera este servicio; el resto del directorio no se toca.
+     */
+    private void prepararDirectorio() {
+        try {
+            Files.createDirectories(directorio);
+            try (Stream<Path> archivos = Files.list(directorio)) {
+                archivos.filter(Files::isRegularFile)
+                        .filter(archivo -> ARCHIVO_PROPIO.matcher(archivo.getFileName().toString()).matches())
+                        .forEach(this::eliminar);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo preparar el directorio de exportaciones " + directorio, e);
+        }
+    }
+
+    private void eliminar(Path archivo) {
+        try {
+            Files.deleteIfExists(archivo);
+        } catch (IOException e) {
+            logger.warn("No se pudo eliminar el archivo de exportación {}: {}", archivo, e.getMessage());
+        }
+    }
+
+    /** Estado mutable de un trabajo; las fases solo se cambian desde su hilo de ejecución. */
+    private final class Trabajo {
+
+        private final String id;
+        private final TipoReporte tipo;
+        private final String usuario;
+        private final AtomicLong filasEscritas = new AtomicLong();
+        private final List<SseEmitter> suscriptores = new CopyOnWriteArrayList<>();
+
+        private volatile Fase fase = Fase.PENDIENTE;
+        private volatile long filasTotales;
+        private volatile String error;
+        private volatile Instant terminado;
+
+        private Trabajo(String id, TipoReporte tipo, String usuario) {
+            this.id = id;
+            this.tipo = tipo;
+            this.usuario = usuario;
+        }
+
+        private void iniciar(long filasTotales) {
+            this.filasTotales = filasTotales;
+            this.fase = Fase.EN_CURSO;
+        }
+
+        private void terminar(Fase fase, String error) {
+            this.error = error;
+            this.terminado = Instant.now();
+            this.fase = fase;
+        }
+
+        private Path archivo() {
+            return directorio.resolve(id + ".xlsx");
+        }
+
+        private EstadoExportacion estado() {
+            return new EstadoExportacion(id, tipo, fase, filasEscritas.get(), filasTotales, error);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.museo_v2.service;
 
+import com.example.museo_v2.model.PaginaKeyset;
 import com.example.museo_v2.model.Usuario;
+import com.example.museo_v2.model.UsuarioListado;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,6 +19,8 @@ public interface UsuarioService {
 
     List<Usuario> listarUsuarios();
 
+    PaginaKeyset<UsuarioListado> listarUsuariosPaginados(String nombre, boolean descendente, Long despuesDeId, int tamano);
+
     Usuario actualizarUsuario(Long id, Usuario usuario);
 
     void eliminarUsuario(Long id);
@@ -1,7 +1,11 @@
 package com.example.museo_v2.service;
 
+import com.example.museo_v2.model.PaginaKeyset;
 import com.example.museo_v2.model.Usuario;
+import com.example.museo_v2.model.UsuarioListado;
 import com.example.museo_v2.repository.UsuarioRepositorio;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import java.util.List;
 import java.util.Optional;
@@ -57,6 +61,22 @@ public class UsuarioServiceImpl implements UsuarioService, UserDetailsService {
         return usuarioRepositorio.findAll();
     }
 
+    /**
+     * Devuelve una página del listado de usuarios a partir del último identificador
+     * mostrado, filtrando por nombres o nombre de usuario.
+     */
+    @Override
+    public PaginaKeyset<UsuarioListado> listarUsuariosPaginados(String nombre, boolean descendente, Long despuesDeId, int tamano) {
+        int filas = PaginaKeyset.normalizarTamano(tamano);
+        String filtro = StringUtils.trimToNull(nombre);
+        PageRequest pagina = PageRequest.of(0, filas + 1);
+
+        List<UsuarioListado> resultado = descendente
+                ? usuarioRepositorio.listarDescendente(despuesDeId != null ? despuesDeId : Long.MAX_VALUE, filtro, pagina)
+                : usuarioRepositorio.listarAscendente(despuesDeId != null ? despuesDeId : 0L, filtro, pagina);
+        return PaginaKeyset.de(resultado, filas);
+    }
+
     /**
      * Actualiza los datos de un usuario existente.
      */
@@ -0,0 +1,139 @@
+package com.example.museo_v2.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Búfer de bytes para escribir archivos de texto directamente en UTF-8.
+ * <p>
+ * Los arreglos de bytes se toman de un grupo compartido y se devuelven al cerrar,
+ * de modo que una exportación no reserva un búfer nuevo ni pasa por un
+ * {@code Writer} y su codificador. Los textos se codifican carácter a carácter y los
+ * enteros se escriben dígito a dígito sobre el mismo arreglo, sin crear cadenas
+ * intermedias. El flujo de destino no se cierra.
+ */
+public final class BuferSalida implements Closeable {
+
+    /** Tamaño de cada búfer. */
+    static final int TAMANO = 64 * 1024;
+
+    /** Búferes conservados para reutilizar; los que sobran se dejan al recolector. */
+    private static final BlockingQueue<byte[]> GRUPO = new ArrayBlockingQueue<>(16);
+
+    private final OutputStream destino;
+    private byte[] bytes;
+    private int posicion;
+
+    public BuferSalida(OutputStream destino) {
+        this.destino = destino;
+        byte[] libre = GRUPO.poll();
+        this.bytes = libre != null ? libre : new byte[TAMANO];
+    }
+
+    public void escribir(byte b) throws IOException {
+        if (posicion == bytes.length) {
+            vaciar();
+        }
+        bytes[posicion++] = b;
+    }
+
+    /**
+     * Escribe un texto codificado en UTF-8.
+     */
+    public void escribir(CharSequence texto) throws IOException {
+        escribir(texto, 0, texto.length());
+    }
+
+    /**
+     * Escribe en UTF-8 los caracteres de {@code texto} entre {@code desde} (incluido)
+     * y {@code hasta} (excluido).
+     */
+    public void escribir(CharSequence texto, int desde, int hasta) throws IOException {
+        for (int i = desde; i < hasta; i++) {
+            char c = texto.charAt(i);
+            if (c < 0x80) {
+                escribir((byte) c);
+            } else if (c < 0x800) {
+                asegurar(2);
+                bytes[posicion++] = (byte) (0xC0 | c >> 6);
+                bytes[posicion++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < hasta
+                    && Character.isLowSurrogate(texto.charAt(i + 1))) {
+                int codigo = Character.toCodePoint(c, texto.charAt(++i));
+                asegurar(4);
+                bytes[posicion++] = (byte) (0xF0 | codigo >> 18);
+                bytes[posicion++] = (byte) (0x80 | codigo >> 12 & 0x3F);
+                bytes[posicion++] = (byte) (0x80 | codigo >> 6 & 0x3F);
+                bytes[posicion++] = (byte) (0x80 | codigo & 0x3F);
+            } else if (Character.isSurrogate(c)) {
+                escribir((byte) '?');
+            } else {
+                asegurar(3);
+                bytes[posicion++] = (byte) (0xE0 | c >> 12);
+                bytes[posicion++] = (byte) (0x80 | c >> 6 & 0x3F);
+                bytes[posicion++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+    }
+
+    /**
+     * Escribe un entero en decimal.
+     */
+    public void escribir(long valor) throws IOException {
+        if (valor == Long.MIN_VALUE) {
+            escribir(Long.toString(valor));
+            return;
+        }
+        asegurar(20);
+        if (valor < 0) {
+            bytes[posicion++] = '-';
+            valor = -valor;
+        }
+        int inicio = posicion;
+        do {
+            bytes[posicion++] = (byte) ('0' + valor % 10);
+            valor /= 10;
+        } while (valor > 0);
+        for (int i = inicio, j = posicion - 1; i < j; i++, j--) {
+            byte b = bytes[i];
+            bytes[i] = bytes[j];
+            bytes[j] = b;
+        }
+    }
+
+    /**
+     * Escribe en el destino los bytes pendientes.
+     */
+    public void vaciar() throws IOException {
+        if (posicion > 0) {
+            destino.write(bytes, 0, posicion);
+            posicion = 0;
+        }
+    }
+
+    /**
+     * Vacía el búfer, vacía el destino y devuelve el arreglo al grupo.
+     */
+    @Override
+    public void close() throws IOException {
+        if (bytes == null) {
+            return;
+        }
+        try {
+            vaciar();
+            destino.flush();
+        } finally {
+            GRUPO.offer(bytes);
+            bytes = null;
+        }
+    }
+
+    private void asegurar(int cantidad) throws IOException {
+        if (bytes.length - posicion < cantidad) {
+            vaciar();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.museo_v2.util;
+
+import java.math.BigDecimal;
+import java.util.function.Function;
+
+/**
+ * Columna de un reporte: cabecera, ancho en caracteres y el accesor que obtiene el
+ * valor de cada fila.
+ * <p>
+ * Los accesores son referencias a métodos, que la JVM enlaza una sola vez mediante
+ * {@code LambdaMetafactory} al evaluar la declaración; escribir una celda es una
+ * llamada directa al getter, sin reflexión. El tipo de la columna decide cómo la
+ * escribe cada formato, de modo que los números no pasan por {@code String} ni por
+ * {@code Object[]} intermedios. Un valor {@code null} produce una celda vacía.
+ *
+ * @param <T> tipo de las filas del reporte
+ */
+public sealed interface Columna<T> {
+
+    String cabecera();
+
+    int ancho();
+
+    /** Columna de texto; los valores que no son {@code String} se escriben con {@code toString()}. */
+    record Texto<T>(String cabecera, int ancho, Function<? super T, ?> valor) implements Columna<T> {
+    }
+
+    /** Columna de números enteros. */
+    record Entero<T>(String cabecera, int ancho, Function<? super T, ? extends Number> valor) implements Columna<T> {
+    }
+
+    /** Columna de importes; se conservan exactos en CSV y JSON. */
+    record Decimal<T>(String cabecera, int ancho, Function<? super T, BigDecimal> valor) implements Columna<T> {
+    }
+
+    static <T> Columna<T> texto(String cabecera, int ancho, Function<? super T, ?> valor) {
+        return new Texto<>(cabecera, ancho, valor);
+    }
+
+    /**
+     * Columna de texto tomada de una entidad relacionada, por ejemplo el nombre de la
+     * sala de un evento. Si la entidad relacionada es {@code null}, la celda queda vacía.
+     */
+    static <T, R> Columna<T> texto(String cabecera, int ancho, Function<? super T, R> relacion,
+                                   Function<? super R, ?> valor) {
+        return new Texto<>(cabecera, ancho, fila -> {
+            R relacionada = relacion.apply(fila);
+            return relacionada != null ? valor.apply(relacionada) : null;
+        });
+    }
+
+    static <T> Columna<T> entero(String cabecera, int ancho, Function<? super T, ? extends Number> valor) {
+        return new Entero<>(cabecera, ancho, valor);
+    }
+
+    static <T> Columna<T> decimal(String cabecera, int ancho, Function<? super T, BigDecimal> valor) {
+        return new Decimal<>(cabecera, ancho, valor);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.museo_v2.util;
+
+/**
+ * Cubeta de tokens (token bucket) para limitar la tasa de solicitudes.
+ * <p>
+ * La cubeta se recarga de forma continua a la tasa indicada hasta su capacidad,
+ * lo que permite ráfagas cortas de hasta {@code capacidad} solicitudes y luego
+ * un ritmo sostenido de {@code tokensPorSegundo}. La recarga se calcula al
+ * consumir, sin hilos ni temporizadores.
+ */
+public class CubetaTokens {
+
+    private final double capacidad;
+    private final double tokensPorNano;
+    private double tokens;
+    private long ultimaRecarga;
+
+    /**
+     * Crea una cubeta llena.
+     *
+     * @param tokensPorSegundo tasa sostenida de recarga
+     * @param capacidad máximo de tokens acumulables (tamaño de la ráfaga)
+     */
+    public CubetaTokens(double tokensPorSegundo, double capacidad) {
+        if (tokensPorSegundo <= 0 || capacidad < 1) {
+            throw new IllegalArgumentException("La tasa debe ser positiva y la capacidad al menos 1");
+        }
+        this.capacidad = capacidad;
+        this.tokensPorNano = tokensPorSegundo / 1_000_000_000d;
+        this.tokens = capacidad;
+        this.ultimaRecarga = System.nanoTime();
+    }
+
+    /**
+     * Intenta consumir un token.
+     *
+     * @return {@code true} si había un token disponible
+     */
+    public synchronized boolean consumir() {
+        long ahora = System.nanoTime();
+        tokens = Math.min(capacidad, tokens + (ahora - ultimaRecarga) * tokensPorNano);
+        ultimaRecarga = ahora;
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+}
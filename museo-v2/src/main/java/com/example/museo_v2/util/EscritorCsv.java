@@ -0,0 +1,99 @@
+package com.example.museo_v2.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Escribe reportes CSV en UTF-8 según RFC 4180: separador coma, fin de línea CRLF y
+ * comillas dobles solo en los textos que contienen comas, comillas o saltos de línea.
+ * Los importes se escriben exactos, sin notación científica. Las celdas se codifican
+ * directamente sobre un {@link BuferSalida}, sin armar una cadena por fila.
+ */
+public class EscritorCsv implements EscritorTabla {
+
+    @Override
+    public <T> void escribir(EsquemaExportacion<T> esquema, Stream<T> filas, OutputStream salida) {
+        List<Columna<T>> columnas = esquema.columnas();
+        try (BuferSalida bufer = new BuferSalida(salida)) {
+            for (int i = 0; i < columnas.size(); i++) {
+                if (i > 0) {
+                    bufer.escribir((byte) ',');
+                }
+                escribirTexto(bufer, columnas.get(i).cabecera());
+            }
+            finDeLinea(bufer);
+
+            for (Iterator<T> it = filas.iterator(); it.hasNext(); ) {
+                T fila = it.next();
+                for (int i = 0; i < columnas.size(); i++) {
+                    if (i > 0) {
+                        bufer.escribir((byte) ',');
+                    }
+                    escribirCelda(bufer, columnas.get(i), fila);
+                }
+                finDeLinea(bufer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al generar el archivo CSV de " + esquema.nombre(), e);
+        }
+    }
+
+    private static <T> void escribirCelda(BuferSalida bufer, Columna<T> columna, T fila) throws IOException {
+        switch (columna) {
+            case Columna.Texto<T> texto -> {
+                Object valor = texto.valor().apply(fila);
+                if (valor != null) {
+                    escribirTexto(bufer, valor.toString());
+                }
+            }
+            case Columna.Entero<T> entero -> {
+                Number valor = entero.valor().apply(fila);
+                if (valor != null) {
+                    bufer.escribir(valor.longValue());
+                }
+            }
+            case Columna.Decimal<T> decimal -> {
+                BigDecimal valor = decimal.valor().apply(fila);
+                if (valor != null) {
+                    bufer.escribir(valor.toPlainString());
+                }
+            }
+        }
+    }
+
+    private static void escribirTexto(BuferSalida bufer, String texto) throws IOException {
+        if (!requiereComillas(texto)) {
+            bufer.escribir(texto);
+            return;
+        }
+        bufer.escribir((byte) '"');
+        int desde = 0;
+        for (int i = texto.indexOf('"'); i >= 0; i = texto.indexOf('"', i + 1)) {
+            bufer.escribir(texto, desde, i + 1);
+            bufer.escribir((byte) '"');
+            desde = i + 1;
+        }
+        bufer.escribir(texto, desde, texto.length());
+        bufer.escribir((byte) '"');
+    }
+
+    private static boolean requiereComillas(String texto) {
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void finDeLinea(BuferSalida bufer) throws IOException {
+        bufer.escribir((byte) '\r');
+        bufer.escribir((byte) '\n');
+    }
+}
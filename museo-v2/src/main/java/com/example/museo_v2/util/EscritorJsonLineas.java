@@ -0,0 +1,85 @@
+package com.example.museo_v2.util;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonFactoryBuilder;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Escribe reportes en JSON por líneas: un objeto por fila, con las cabeceras como
+ * claves, separados por saltos de línea. Se usa el generador de Jackson directamente,
+ * sin enlazar objetos, y las celdas vacías se escriben como {@code null}.
+ */
+public class EscritorJsonLineas implements EscritorTabla {
+
+    private static final JsonFactory FABRICA = new JsonFactoryBuilder()
+            .rootValueSeparator(new SerializedString("\n"))
+            .build();
+
+    @Override
+    public <T> void escribir(EsquemaExportacion<T> esquema, Stream<T> filas, OutputStream salida) {
+        List<Columna<T>> columnas = esquema.columnas();
+        SerializedString[] claves = new SerializedString[columnas.size()];
+        for (int i = 0; i < claves.length; i++) {
+            claves[i] = new SerializedString(columnas.get(i).cabecera());
+        }
+
+        try (JsonGenerator generador = FABRICA.createGenerator(salida, JsonEncoding.UTF8)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            boolean hayFilas = false;
+            for (Iterator<T> it = filas.iterator(); it.hasNext(); ) {
+                T fila = it.next();
+                generador.writeStartObject();
+                for (int i = 0; i < claves.length; i++) {
+                    generador.writeFieldName(claves[i]);
+                    escribirCelda(generador, columnas.get(i), fila);
+                }
+                generador.writeEndObject();
+                hayFilas = true;
+            }
+            if (hayFilas) {
+                generador.writeRaw('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al generar el archivo JSON de " + esquema.nombre(), e);
+        }
+    }
+
+    private static <T> void escribirCelda(JsonGenerator generador, Columna<T> columna, T fila) throws IOException {
+        switch (columna) {
+            case Columna.Texto<T> texto -> {
+                Object valor = texto.valor().apply(fila);
+                if (valor != null) {
+                    generador.writeString(valor.toString());
+                } else {
+                    generador.writeNull();
+                }
+            }
+            case Columna.Entero<T> entero -> {
+                Number valor = entero.valor().apply(fila);
+                if (valor != null) {
+                    generador.writeNumber(valor.longValue());
+                } else {
+                    generador.writeNull();
+                }
+            }
+            case Columna.Decimal<T> decimal -> {
+                BigDecimal valor = decimal.valor().apply(fila);
+                if (valor != null) {
+                    generador.writeNumber(valor);
+                } else {
+                    generador.writeNull();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.museo_v2.util;
+
+import java.io.OutputStream;
+import java.util.stream.Stream;
+
+/**
+ * Escribe un reporte en un formato de archivo a partir de su esquema, consumiendo
+ * las filas una a una a medida que se leen.
+ */
+public interface EscritorTabla {
+
+    /**
+     * Escribe la cabecera y todas las filas del reporte.
+     *
+     * @param esquema columnas del reporte
+     * @param filas   filas a escribir, en orden
+     * @param salida  flujo donde se escribe el archivo; no se cierra
+     * @param <T>     tipo de las filas
+     */
+    <T> void escribir(EsquemaExportacion<T> esquema, Stream<T> filas, OutputStream salida);
+}
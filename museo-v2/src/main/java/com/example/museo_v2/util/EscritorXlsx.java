@@ -0,0 +1,83 @@
+package com.example.museo_v2.util;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Escribe reportes XLSX con SXSSF: solo las últimas {@link #VENTANA_FILAS} filas
+ * permanecen en memoria y el resto se vuelca a un archivo temporal comprimido, por lo
+ * que el consumo de memoria no depende de la cantidad de filas. Los anchos de columna
+ * son los del esquema en lugar de calcularse con {@code autoSizeColumn}, que tendría
+ * que recorrer todas las celdas de la columna.
+ */
+public class EscritorXlsx implements EscritorTabla {
+
+    /** Filas que se mantienen en memoria mientras se escribe una hoja. */
+    public static final int VENTANA_FILAS = 100;
+
+    /**
+     * {@inheritDoc}
+     * Los archivos temporales de SXSSF se eliminan aunque la escritura falle.
+     */
+    @Override
+    public <T> void escribir(EsquemaExportacion<T> esquema, Stream<T> filas, OutputStream salida) {
+        List<Columna<T>> columnas = esquema.columnas();
+        SXSSFWorkbook workbook = new SXSSFWorkbook(VENTANA_FILAS);
+        workbook.setCompressTempFiles(true);
+        try (workbook) {
+            Sheet sheet = workbook.createSheet(esquema.nombre());
+
+            Row headerRow = sheet.createRow(0);
+            for (int i = 0; i < columnas.size(); i++) {
+                sheet.setColumnWidth(i, columnas.get(i).ancho() * 256);
+                headerRow.createCell(i).setCellValue(columnas.get(i).cabecera());
+            }
+
+            int rowIdx = 1;
+            for (Iterator<T> it = filas.iterator(); it.hasNext(); ) {
+                T fila = it.next();
+                Row row = sheet.createRow(rowIdx++);
+                for (int i = 0; i < columnas.size(); i++) {
+                    escribirCelda(row, i, columnas.get(i), fila);
+                }
+            }
+
+            workbook.write(salida);
+        } catch (IOException e) {
+            throw new RuntimeException("Error al generar el archivo Excel de " + esquema.nombre(), e);
+        } finally {
+            workbook.dispose();
+        }
+    }
+
+    private static <T> void escribirCelda(Row row, int indice, Columna<T> columna, T fila) {
+        switch (columna) {
+            case Columna.Texto<T> texto -> {
+                Object valor = texto.valor().apply(fila);
+                if (valor != null) {
+                    row.createCell(indice).setCellValue(valor.toString());
+                }
+            }
+            case Columna.Entero<T> entero -> {
+                Number valor = entero.valor().apply(fila);
+                if (valor != null) {
+                    row.createCell(indice).setCellValue(valor.longValue());
+                }
+            }
+            case Columna.Decimal<T> decimal -> {
+                BigDecimal valor = decimal.valor().apply(fila);
+                if (valor != null) {
+                    row.createCell(indice).setCellValue(valor.doubleValue());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.museo_v2.util;
+
+import java.util.List;
+
+/**
+ * Definición de un reporte: el nombre de la hoja y sus columnas, en orden. Cada
+ * entidad exportable declara su esquema una sola vez y los escritores de XLSX, CSV y
+ * JSON por líneas lo recorren para escribir cualquier flujo de filas.
+ *
+ * @param nombre   nombre de la hoja en XLSX
+ * @param columnas columnas del reporte
+ * @param <T>      tipo de las filas del reporte
+ */
+public record EsquemaExportacion<T>(String nombre, List<Columna<T>> columnas) {
+
+    public EsquemaExportacion {
+        columnas = List.copyOf(columnas);
+    }
+
+    @SafeVarargs
+    public static <T> EsquemaExportacion<T> de(String nombre, Columna<T>... columnas) {
+        return new EsquemaExportacion<>(nombre, List.of(columnas));
+    }
+}
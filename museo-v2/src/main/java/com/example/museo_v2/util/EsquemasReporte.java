@@ -0,0 +1,51 @@
+package com.example.museo_v2.util;
+
+import com.example.museo_v2.model.Evento;
+import com.example.museo_v2.model.ProductoInventario;
+import com.example.museo_v2.model.Reserva;
+import com.example.museo_v2.model.Sala;
+
+/**
+ * Esquemas de los reportes exportables, uno por cada {@link com.example.museo_v2.model.TipoReporte}.
+ * Las columnas se declaran aquí una sola vez y las usan todos los formatos de archivo.
+ */
+public final class EsquemasReporte {
+
+    public static final EsquemaExportacion<Evento> EVENTOS = EsquemaExportacion.de("Eventos",
+            Columna.entero("ID", 10, Evento::getId),
+            Columna.texto("Nombre", 40, Evento::getNombre),
+            Columna.texto("Fecha Inicio", 14, Evento::getFechaInicio),
+            Columna.decimal("Costo Entrada", 15, Evento::getCostoEntrada),
+            Columna.texto("Sala", 30, Evento::getSala, Sala::getNombre),
+            Columna.texto("Fecha Modificación", 20, Evento::getFechaModificacion));
+
+    public static final EsquemaExportacion<Sala> SALAS = EsquemaExportacion.de("Salas",
+            Columna.entero("ID", 8, Sala::getId),
+            Columna.texto("Nombre", 30, Sala::getNombre),
+            Columna.entero("Capacidad", 11, Sala::getCapacidad),
+            Columna.texto("Ubicación", 25, Sala::getUbicacion),
+            Columna.texto("Descripción", 60, Sala::getDescripcion));
+
+    public static final EsquemaExportacion<ProductoInventario> INVENTARIO = EsquemaExportacion.de("Inventario",
+            Columna.entero("ID", 10, ProductoInventario::getId),
+            Columna.texto("Nombre", 35, ProductoInventario::getNombre),
+            Columna.texto("Tipo", 20, ProductoInventario::getTipo),
+            Columna.entero("Stock Total", 12, ProductoInventario::getStockTotal),
+            Columna.entero("Sin Asignar", 12, ProductoInventario::getStockDisponible),
+            Columna.texto("Fecha Modificación", 20, ProductoInventario::getFechaModificacion));
+
+    public static final EsquemaExportacion<Reserva> RESERVAS = EsquemaExportacion.de("Reservas",
+            Columna.entero("ID", 10, Reserva::getId),
+            Columna.texto("Cliente", 35, Reserva::getNombreCompleto),
+            Columna.texto("DNI/RUC", 14, Reserva::getDniRuc),
+            Columna.texto("Evento", 40, Reserva::getEvento, Evento::getNombre),
+            Columna.entero("Entradas", 10, Reserva::getNEntradas),
+            Columna.decimal("Total", 12, Reserva::getTotalPagar),
+            Columna.texto("Comprobante", 14, Reserva::getTipoComprobante),
+            Columna.texto("Método de Pago", 16, Reserva::getMetodoPago),
+            Columna.texto("Fecha Reserva", 20, Reserva::getFechaReserva),
+            Columna.texto("Fecha Modificación", 20, Reserva::getFechaModificacion));
+
+    private EsquemasReporte() {
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.museo_v2.util;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Formatos de archivo en los que se puede descargar un reporte, con su extensión,
+ * su tipo de contenido y el escritor que lo genera.
+ */
+public enum FormatoExportacion {
+
+    XLSX("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", new EscritorXlsx()),
+    CSV("csv", "text/csv; charset=UTF-8", new EscritorCsv()),
+    JSONL("jsonl", "application/x-ndjson", new EscritorJsonLineas());
+
+    private final String extension;
+    private final String tipoContenido;
+    private final EscritorTabla escritor;
+
+    FormatoExportacion(String extension, String tipoContenido, EscritorTabla escritor) {
+        this.extension = extension;
+        this.tipoContenido = tipoContenido;
+        this.escritor = escritor;
+    }
+
+    public EscritorTabla getEscritor() {
+        return escritor;
+    }
+
+    /**
+     * Tipo de contenido de la descarga; un archivo comprimido se entrega como gzip.
+     *
+     * @param gzip si el archivo se comprime
+     * @return el tipo de contenido para la cabecera {@code Content-Type}
+     */
+    public String tipoContenido(boolean gzip) {
+        return gzip ? "application/gzip" : tipoContenido;
+    }
+
+    /**
+     * Nombre del archivo descargado.
+     *
+     * @param base nombre sin extensión, por ejemplo {@code reporte_eventos}
+     * @param gzip si el archivo se comprime
+     * @return el nombre con la extensión del formato y, si corresponde, {@code .gz}
+     */
+    public String nombreArchivo(String base, boolean gzip) {
+        return base + "." + extension + (gzip ? ".gz" : "");
+    }
+
+    /**
+     * Busca el formato por su extensión, sin distinguir mayúsculas.
+     *
+     * @param extension por ejemplo {@code csv}
+     * @return el formato, si existe
+     */
+    public static Optional<FormatoExportacion> desdeExtension(String extension) {
+        return Arrays.stream(values()).filter(f -> f.extension.equalsIgnoreCase(extension)).findFirst();
+    }
+}
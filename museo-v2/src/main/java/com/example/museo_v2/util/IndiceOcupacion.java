@@ -0,0 +1,116 @@
+package com.example.museo_v2.util;
+
+import java.time.LocalDate;
+
+/**
+ * Ocupación de un recurso por día, como suma de intervalos de fechas con una cantidad
+ * cada uno, que responde cuál es la ocupación máxima en un rango de fechas.
+ * <p>
+ * Es un árbol de segmentos sobre los días (época de 1970) con suma por rango y máximo
+ * por rango. Los nodos se crean solo donde empieza o termina algún intervalo, así que
+ * el tamaño depende de la cantidad de intervalos y no del rango de fechas. Agregar o
+ * quitar un intervalo y consultar un rango cuestan O(log D), con D la cantidad de días
+ * representables, sin importar cuántos intervalos se solapen.
+ * <p>
+ * Un extremo {@code null} se toma como abierto: el intervalo empieza en el primer día
+ * representable o termina en el último. No es seguro para hilos.
+ */
+public class IndiceOcupacion {
+
+    private static final long PRIMER_DIA = Integer.MIN_VALUE;
+    private static final long ULTIMO_DIA = Integer.MAX_VALUE;
+
+    /**
+     * Nodo de un segmento de días. {@code suma} es la cantidad agregada al segmento
+     * completo; {@code maximo} es la ocupación máxima dentro del segmento, incluida
+     * la suma. Un hijo nulo equivale a un segmento sin intervalos propios.
+     */
+    private static final class Nodo {
+        private long suma;
+        private long maximo;
+        private Nodo izquierdo;
+        private Nodo derecho;
+    }
+
+    private final Nodo raiz = new Nodo();
+
+    /**
+     * Suma una cantidad a cada día del intervalo, ambos extremos incluidos.
+     *
+     * @param desde    primer día, o {@code null} para empezar en el primer día representable
+     * @param hasta    último día, o {@code null} para no tener fin
+     * @param cantidad cantidad a sumar; negativa para quitar un intervalo agregado antes
+     */
+    public void agregar(LocalDate desde, LocalDate hasta, long cantidad) {
+        long inicio = dia(desde, PRIMER_DIA);
+        long fin = dia(hasta, ULTIMO_DIA);
+        if (inicio > fin) {
+            throw new IllegalArgumentException("El intervalo termina antes de empezar: " + desde + " - " + hasta);
+        }
+        agregar(raiz, PRIMER_DIA, ULTIMO_DIA, inicio, fin, cantidad);
+    }
+
+    /**
+     * Ocupación máxima de un día cualquiera del rango, ambos extremos incluidos.
+     *
+     * @param desde primer día, o {@code null} para empezar en el primer día representable
+     * @param hasta último día, o {@code null} para no tener fin
+     * @return la mayor suma de cantidades de un día del rango; 0 si ningún intervalo lo toca
+     */
+    public long maximo(LocalDate desde, LocalDate hasta) {
+        long inicio = dia(desde, PRIMER_DIA);
+        long fin = dia(hasta, ULTIMO_DIA);
+        if (inicio > fin) {
+            throw new IllegalArgumentException("El rango termina antes de empezar: " + desde + " - " + hasta);
+        }
+        return maximo(raiz, PRIMER_DIA, ULTIMO_DIA, inicio, fin);
+    }
+
+    private static void agregar(Nodo nodo, long inicioNodo, long finNodo, long inicio, long fin, long cantidad) {
+        if (inicio <= inicioNodo && finNodo <= fin) {
+            nodo.suma += cantidad;
+            nodo.maximo += cantidad;
+            return;
+        }
+        long medio = Math.floorDiv(inicioNodo + finNodo, 2);
+        if (inicio <= medio) {
+            if (nodo.izquierdo == null) {
+                nodo.izquierdo = new Nodo();
+            }
+            agregar(nodo.izquierdo, inicioNodo, medio, inicio, fin, cantidad);
+        }
+        if (fin > medio) {
+            if (nodo.derecho == null) {
+                nodo.derecho = new Nodo();
+            }
+            agregar(nodo.derecho, medio + 1, finNodo, inicio, fin, cantidad);
+        }
+        nodo.maximo = nodo.suma + Math.max(maximo(nodo.izquierdo), maximo(nodo.derecho));
+    }
+
+    private static long maximo(Nodo nodo, long inicioNodo, long finNodo, long inicio, long fin) {
+        if (nodo == null) {
+            return 0;
+        }
+        if (inicio <= inicioNodo && finNodo <= fin) {
+            return nodo.maximo;
+        }
+        long medio = Math.floorDiv(inicioNodo + finNodo, 2);
+        long resultado = Long.MIN_VALUE;
+        if (inicio <= medio) {
+            resultado = maximo(nodo.izquierdo, inicioNodo, medio, inicio, fin);
+        }
+        if (fin > medio) {
+            resultado = Math.max(resultado, maximo(nodo.derecho, medio + 1, finNodo, inicio, fin));
+        }
+        return nodo.suma + resultado;
+    }
+
+    private static long maximo(Nodo nodo) {
+        return nodo != null ? nodo.maximo : 0;
+    }
+
+    private static long dia(LocalDate fecha, long porDefecto) {
+        return fecha != null ? Math.clamp(fecha.toEpochDay(), PRIMER_DIA, ULTIMO_DIA) : porDefecto;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.museo_v2.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lector de CSV según RFC 4180: campos entre comillas con comas, saltos de línea y
+ * comillas duplicadas en su interior. El separador es la coma o, si aparece antes en
+ * la cabecera, el punto y coma que usa Excel con configuración regional en español.
+ * El archivo se lee en UTF-8 y se descarta la marca de orden de bytes si la tiene.
+ */
+public final class LectorCsv implements LectorFilas {
+
+    private static final int SIN_DEFINIR = -1;
+
+    @Override
+    public void leer(InputStream entrada, Receptor receptor) throws IOException {
+        Reader lector = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8), 64 * 1024);
+        List<String> celdas = new ArrayList<>();
+        StringBuilder celda = new StringBuilder();
+        int separador = SIN_DEFINIR;
+        int numero = 1;
+        boolean entreComillas = false;
+        boolean filaIniciada = false;
+
+        int c = lector.read();
+        if (c == '\uFEFF') {
+            c = lector.read();
+        }
+        for (; c != -1; c = lector.read()) {
+            if (entreComillas) {
+                if (c == '"') {
+                    lector.mark(1);
+                    if (lector.read() == '"') {
+                        celda.append('"');
+                    } else {
+                        lector.reset();
+                        entreComillas = false;
+                    }
+                } else {
+                    celda.append((char) c);
+                }
+                continue;
+            }
+            if (separador == SIN_DEFINIR && (c == ',' || c == ';')) {
+                separador = c;
+            }
+            if (c == separador) {
+                celdas.add(celda.toString());
+                celda.setLength(0);
+                filaIniciada = true;
+            } else if (c == '"' && celda.isEmpty()) {
+                entreComillas = true;
+                filaIniciada = true;
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r') {
+                    lector.mark(1);
+                    if (lector.read() != '\n') {
+                        lector.reset();
+                    }
+                }
+                if (filaIniciada || !celda.isEmpty()) {
+                    celdas.add(celda.toString());
+                    receptor.fila(numero, celdas.toArray(String[]::new));
+                }
+                numero++;
+                celdas.clear();
+                celda.setLength(0);
+                filaIniciada = false;
+            } else {
+                celda.append((char) c);
+                filaIniciada = true;
+            }
+        }
+        if (entreComillas) {
+            throw new IllegalArgumentException("Fila " + numero + ": comillas sin cerrar al final del archivo");
+        }
+        if (filaIniciada || !celda.isEmpty()) {
+            celdas.add(celda.toString());
+            receptor.fila(numero, celdas.toArray(String[]::new));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.museo_v2.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+
+/**
+ * Lee un archivo tabular fila por fila y entrega cada una a medida que la encuentra,
+ * sin cargar el archivo completo en memoria.
+ */
+public interface LectorFilas {
+
+    /**
+     * Recorre todas las filas del archivo, incluida la cabecera.
+     *
+     * @param entrada  contenido del archivo; no se cierra
+     * @param receptor destino de cada fila leída
+     * @throws IOException              si falla la lectura
+     * @throws IllegalArgumentException si el archivo no tiene el formato esperado
+     */
+    void leer(InputStream entrada, Receptor receptor) throws IOException;
+
+    /**
+     * Destino de las filas leídas.
+     */
+    @FunctionalInterface
+    interface Receptor {
+
+        /**
+         * @param numero número de fila en el archivo, comenzando en 1 por la cabecera
+         * @param celdas valores de la fila como texto; las celdas vacías son cadenas vacías
+         */
+        void fila(int numero, String[] celdas);
+    }
+
+    /**
+     * Elige el lector según la extensión del archivo.
+     *
+     * @param nombreArchivo nombre original del archivo
+     * @return lector de CSV o de XLSX
+     * @throws IllegalArgumentException si la extensión no es {@code .csv} ni {@code .xlsx}
+     */
+    static LectorFilas paraArchivo(String nombreArchivo) {
+        String nombre = nombreArchivo == null ? "" : nombreArchivo.toLowerCase(Locale.ROOT);
+        if (nombre.endsWith(".csv")) {
+            return new LectorCsv();
+        }
+        if (nombre.endsWith(".xlsx")) {
+            return new LectorXlsx();
+        }
+        throw new IllegalArgumentException("Formato no soportado: se aceptan archivos .csv y .xlsx");
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.museo_v2.util;
+
+import org.apache.poi.UnsupportedFileFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Lector de la primera hoja de un libro XLSX con la API de eventos de POI.
+ * <p>
+ * La hoja se recorre con un analizador SAX que entrega celda por celda, sin construir
+ * el modelo del libro como {@code XSSFWorkbook}; la memoria usada no crece con el
+ * número de filas. Solo la tabla de textos compartidos se conserva completa, porque
+ * las celdas la referencian por posición. El contenido se copia primero a un archivo
+ * temporal para que POI lea el paquete ZIP desde disco y no desde un arreglo en memoria.
+ * <p>
+ * Los valores se entregan con el formato visible de la celda, en configuración
+ * regional neutra (punto decimal). Las celdas omitidas en el archivo se completan
+ * con cadenas vacías según su columna.
+ */
+public final class LectorXlsx implements LectorFilas {
+
+    @Override
+    public void leer(InputStream entrada, Receptor receptor) throws IOException {
+        Path temporal = Files.createTempFile("importacion-", ".xlsx");
+        try {
+            Files.copy(entrada, temporal, StandardCopyOption.REPLACE_EXISTING);
+            try (OPCPackage paquete = OPCPackage.open(temporal.toFile(), PackageAccess.READ)) {
+                XSSFReader libro = new XSSFReader(paquete);
+                ReadOnlySharedStringsTable textos = new ReadOnlySharedStringsTable(paquete, false);
+                Iterator<InputStream> hojas = libro.getSheetsData();
+                if (!hojas.hasNext()) {
+                    return;
+                }
+                try (InputStream hoja = hojas.next()) {
+                    XMLReader analizador = XMLHelper.newXMLReader();
+                    analizador.setContentHandler(new XSSFSheetXMLHandler(libro.getStylesTable(), null, textos,
+                            new Filas(receptor), new DataFormatter(Locale.ROOT), false));
+                    analizador.parse(new InputSource(hoja));
+                }
+            }
+        } catch (OpenXML4JException | UnsupportedFileFormatException | SAXException | ParserConfigurationException e) {
+            throw new IllegalArgumentException("El archivo no es un libro XLSX válido", e);
+        } finally {
+            Files.deleteIfExists(temporal);
+        }
+    }
+
+    /**
+     * Arma cada fila a partir de las celdas que informa el analizador.
+     */
+    private static final class Filas implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final Receptor receptor;
+        private final List<String> celdas = new ArrayList<>();
+
+        private Filas(Receptor receptor) {
+            this.receptor = receptor;
+        }
+
+        @Override
+        public void startRow(int fila) {
+            celdas.clear();
+        }
+
+        @Override
+        public void endRow(int fila) {
+            receptor.fila(fila + 1, celdas.toArray(String[]::new));
+        }
+
+        @Override
+        public void cell(String referencia, String valor, XSSFComment comentario) {
+            int columna = referencia != null ? new CellReference(referencia).getCol() : celdas.size();
+            while (celdas.size() < columna) {
+                celdas.add("");
+            }
+            celdas.add(valor != null ? valor : "");
+        }
+    }
+}
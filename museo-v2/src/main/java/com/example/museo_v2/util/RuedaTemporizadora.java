@@ -0,0 +1,254 @@
+package com.example.museo_v2.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Temporizador de rueda con ranuras (hashed timing wheel).
+ * <p>
+ * Las tareas se reparten en un arreglo circular de ranuras según su vencimiento;
+ * un único hilo avanza una ranura por tick y vence las tareas de esa ranura.
+ * Programar y cancelar cuestan O(1) y cada tarea ocupa un solo nodo, por lo que
+ * decenas de miles de temporizaciones abiertas no requieren un hilo ni una tarea
+ * programada por cada una. La precisión es la duración del tick.
+ * <p>
+ * Las acciones vencidas se entregan al {@link Executor} indicado para que una
+ * acción lenta no retrase el avance de la rueda.
+ */
+public class RuedaTemporizadora implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(RuedaTemporizadora.class);
+
+    private static final int PENDIENTE = 0;
+    private static final int CANCELADA = 1;
+    private static final int VENCIDA = 2;
+
+    /** Máximo de altas procesadas por tick, para que una ráfaga no detenga la rueda. */
+    private static final int MAX_ALTAS_POR_TICK = 100_000;
+
+    /**
+     * Referencia a una acción programada.
+     */
+    public interface Temporizacion {
+
+        /**
+         * Cancela la acción si todavía no venció.
+         *
+         * @return {@code true} si se canceló, {@code false} si ya había vencido o estaba cancelada
+         */
+        boolean cancelar();
+    }
+
+    private final long duracionTick;
+    private final Ranura[] ranuras;
+    private final int mascara;
+    private final Executor ejecutor;
+    private final long inicio;
+    private final Queue<Tarea> altas = new ConcurrentLinkedQueue<>();
+    private final Queue<Tarea> bajas = new ConcurrentLinkedQueue<>();
+    private final Thread trabajador;
+    private volatile boolean activa = true;
+    private long tick;
+
+    /**
+     * Crea la rueda e inicia su hilo.
+     *
+     * @param nombre nombre del hilo de la rueda
+     * @param tick duración de cada tick (precisión del vencimiento)
+     * @param cantidadRanuras número de ranuras; se redondea a la siguiente potencia de dos
+     * @param ejecutor ejecutor donde corren las acciones vencidas
+     */
+    public RuedaTemporizadora(String nombre, Duration tick, int cantidadRanuras, Executor ejecutor) {
+        if (tick.isNegative() || tick.isZero()) {
+            throw new IllegalArgumentException("La duración del tick debe ser positiva");
+        }
+        if (cantidadRanuras < 1 || cantidadRanuras > (1 << 20)) {
+            throw new IllegalArgumentException("Cantidad de ranuras fuera de rango: " + cantidadRanuras);
+        }
+        int tamano = 1;
+        while (tamano < cantidadRanuras) {
+            tamano <<= 1;
+        }
+        this.duracionTick = tick.toNanos();
+        this.ranuras = new Ranura[tamano];
+        for (int i = 0; i < tamano; i++) {
+            ranuras[i] = new Ranura();
+        }
+        this.mascara = tamano - 1;
+        this.ejecutor = ejecutor;
+        this.inicio = System.nanoTime();
+        this.trabajador = new Thread(this::avanzar, nombre);
+        this.trabajador.setDaemon(true);
+        this.trabajador.start();
+    }
+
+    /**
+     * Programa una acción para que se ejecute tras el retraso indicado.
+     *
+     * @param accion acción a ejecutar al vencer
+     * @param retraso tiempo hasta el vencimiento
+     * @return referencia para cancelar la acción
+     */
+    public Temporizacion programar(Runnable accion, Duration retraso) {
+        if (!activa) {
+            throw new IllegalStateException("La rueda temporizadora está detenida");
+        }
+        Tarea tarea = new Tarea(accion, System.nanoTime() - inicio + retraso.toNanos());
+        altas.add(tarea);
+        return tarea;
+    }
+
+    /**
+     * Detiene el hilo de la rueda. Las acciones pendientes no se ejecutan.
+     */
+    @Override
+    public void close() {
+        activa = false;
+        trabajador.interrupt();
+        try {
+            trabajador.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void avanzar() {
+        while (activa) {
+            long plazo = duracionTick * (tick + 1);
+            long espera = plazo - (System.nanoTime() - inicio);
+            if (espera > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(espera);
+                } catch (InterruptedException e) {
+                    if (!activa) {
+                        return;
+                    }
+                    continue;
+                }
+            }
+            retirarCanceladas();
+            ubicarAltas();
+            vencer(ranuras[(int) (tick & mascara)]);
+            tick++;
+        }
+    }
+
+    private void retirarCanceladas() {
+        Tarea tarea;
+        while ((tarea = bajas.poll()) != null) {
+            if (tarea.ranura != null) {
+                tarea.ranura.quitar(tarea);
+            }
+        }
+    }
+
+    private void ubicarAltas() {
+        for (int i = 0; i < MAX_ALTAS_POR_TICK; i++) {
+            Tarea tarea = altas.poll();
+            if (tarea == null) {
+                return;
+            }
+            if (tarea.estado.get() != PENDIENTE) {
+                continue;
+            }
+            long ticksHastaPlazo = tarea.plazo / duracionTick;
+            tarea.rondas = (ticksHastaPlazo - tick) / ranuras.length;
+            long ticksDestino = Math.max(ticksHastaPlazo, tick);
+            ranuras[(int) (ticksDestino & mascara)].agregar(tarea);
+        }
+    }
+
+    private void vencer(Ranura ranura) {
+        Tarea tarea = ranura.primera;
+        while (tarea != null) {
+            Tarea siguiente = tarea.siguiente;
+            if (tarea.estado.get() == CANCELADA) {
+                ranura.quitar(tarea);
+            } else if (tarea.rondas <= 0) {
+                ranura.quitar(tarea);
+                if (tarea.estado.compareAndSet(PENDIENTE, VENCIDA)) {
+                    ejecutar(tarea.accion);
+                }
+            } else {
+                tarea.rondas--;
+            }
+            tarea = siguiente;
+        }
+    }
+
+    private void ejecutar(Runnable accion) {
+        try {
+            ejecutor.execute(accion);
+        } catch (RuntimeException e) {
+            logger.error("No se pudo ejecutar una acción vencida de la rueda temporizadora", e);
+        }
+    }
+
+    /** Lista doblemente enlazada de las tareas de una ranura; solo la usa el hilo de la rueda. */
+    private static final class Ranura {
+        private Tarea primera;
+        private Tarea ultima;
+
+        void agregar(Tarea tarea) {
+            tarea.ranura = this;
+            if (ultima == null) {
+                primera = ultima = tarea;
+            } else {
+                ultima.siguiente = tarea;
+                tarea.anterior = ultima;
+                ultima = tarea;
+            }
+        }
+
+        void quitar(Tarea tarea) {
+            if (tarea.ranura != this) {
+                return;
+            }
+            if (tarea.anterior != null) {
+                tarea.anterior.siguiente = tarea.siguiente;
+            } else {
+                primera = tarea.siguiente;
+            }
+            if (tarea.siguiente != null) {
+                tarea.siguiente.anterior = tarea.anterior;
+            } else {
+                ultima = tarea.anterior;
+            }
+            tarea.siguiente = null;
+            tarea.anterior = null;
+            tarea.ranura = null;
+        }
+    }
+
+    /** Nodo de una acción programada. */
+    private final class Tarea implements Temporizacion {
+        private final Runnable accion;
+        private final long plazo;
+        private final AtomicInteger estado = new AtomicInteger(PENDIENTE);
+        private long rondas;
+        private Ranura ranura;
+        private Tarea siguiente;
+        private Tarea anterior;
+
+        Tarea(Runnable accion, long plazo) {
+            this.accion = accion;
+            this.plazo = plazo;
+        }
+
+        @Override
+        public boolean cancelar() {
+            if (!estado.compareAndSet(PENDIENTE, CANCELADA)) {
+                return false;
+            }
+            bajas.add(this);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.museo_v2.benchmark;
+
+import com.example.museo_v2.model.Evento;
+import com.example.museo_v2.repository.EventoRepositorio;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compara la consulta de eventos del mes con {@code YEAR()/MONTH()} contra la
+ * consulta por rango semiabierto sobre una tabla de un millón de eventos.
+ * <p>
+ * No forma parte de la suite normal. Se ejecuta con:
+ * {@code mvn test -Dtest=ConsultaMensualBenchmarkTest -Dbenchmark=true [-Dbenchmark.eventos=1000000]}
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class ConsultaMensualBenchmarkTest {
+
+    private static final String CONSULTA_ANTERIOR = "SELECT e FROM Evento e WHERE YEAR(e.fechaInicio) = YEAR(?1) "
+            + "AND MONTH(e.fechaInicio) = MONTH(?1) ORDER BY e.fechaInicio ASC";
+
+    private static final LocalDate PRIMER_DIA = LocalDate.of(2000, 1, 1);
+    private static final int DIAS = 365 * 30;
+    private static final int REPETICIONES = 20;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EventoRepositorio eventoRepositorio;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    /**
+     * Carga los eventos repartidos uniformemente en treinta años.
+     */
+    @BeforeEach
+    void cargarEventos() {
+        int total = Integer.getInteger("benchmark.eventos", 1_000_000);
+        jdbcTemplate.update("DELETE FROM Evento");
+        long inicio = System.nanoTime();
+
+        List<Object[]> lote = new ArrayList<>(10_000);
+        for (int i = 0; i < total; i++) {
+            lote.add(new Object[]{"Evento " + i, Date.valueOf(PRIMER_DIA.plusDays(i % DIAS))});
+            if (lote.size() == 10_000 || i == total - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO Evento (nombre, fecha_inicio) VALUES (?, ?)", lote);
+                lote.clear();
+            }
+        }
+        jdbcTemplate.execute("ANALYZE");
+        System.out.printf("Carga de %,d eventos: %d ms%n", total, (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    /**
+     * Mide ambas consultas para el mismo mes, verifica que devuelvan los mismos
+     * eventos y que solo la consulta por rango busque por el índice de {@code fecha_inicio}.
+     * La consulta anterior, como mucho, recorre el índice completo para ordenar.
+     */
+    @Test
+    void compararConsultaMensual() {
+        LocalDate fecha = LocalDate.of(2015, 6, 15);
+        LocalDate inicioMes = fecha.withDayOfMonth(1);
+
+        Supplier<List<Evento>> anterior = () -> entityManager.createQuery(CONSULTA_ANTERIOR, Evento.class)
+                .setParameter(1, fecha)
+                .getResultList();
+        Supplier<List<Evento>> porRango = () -> eventoRepositorio.findEventosEntreFechas(inicioMes, inicioMes.plusMonths(1));
+
+        assertEquals(anterior.get().size(), porRango.get().size());
+
+        double msAnterior = medir(anterior);
+        double msPorRango = medir(porRango);
+
+        String planAnterior = plan("SELECT * FROM Evento WHERE YEAR(fecha_inicio) = 2015 AND MONTH(fecha_inicio) = 6 "
+                + "ORDER BY fecha_inicio");
+        String planPorRango = plan("SELECT * FROM Evento WHERE fecha_inicio >= DATE '2015-06-01' "
+                + "AND fecha_inicio < DATE '2015-07-01' ORDER BY fecha_inicio");
+
+        System.out.printf("YEAR()/MONTH(): %.2f ms por consulta%n  plan: %s%n", msAnterior, planAnterior);
+        System.out.printf("Rango semiabierto: %.2f ms por consulta%n  plan: %s%n", msPorRango, planPorRango);
+
+        assertFalse(planAnterior.toLowerCase().contains("idx_evento_fecha_inicio_sala: fecha_inicio >="));
+        assertTrue(planPorRango.toLowerCase().contains("idx_evento_fecha_inicio_sala: fecha_inicio >="));
+    }
+
+    private double medir(Supplier<List<Evento>> consulta) {
+        for (int i = 0; i < 3; i++) {
+            consulta.get();
+        }
+        long inicio = System.nanoTime();
+        for (int i = 0; i < REPETICIONES; i++) {
+            consulta.get();
+        }
+        return (System.nanoTime() - inicio) / 1_000_000.0 / REPETICIONES;
+    }
+
+    private String plan(String sql) {
+        return String.join(" ", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+    }
+}
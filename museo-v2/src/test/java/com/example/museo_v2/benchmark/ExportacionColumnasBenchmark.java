@@ -0,0 +1,117 @@
+package com.example.museo_v2.benchmark;
+
+import com.example.museo_v2.model.Evento;
+import com.example.museo_v2.model.Sala;
+import com.example.museo_v2.util.EscritorCsv;
+import com.example.museo_v2.util.EscritorJsonLineas;
+import com.example.museo_v2.util.EscritorXlsx;
+import com.example.museo_v2.util.EsquemasReporte;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark JMH del reporte de eventos: compara la escritura XLSX con celdas
+ * codificadas a mano, como se escribía antes de los esquemas,
+ * contra la escritura dirigida por {@link EsquemasReporte#EVENTOS}, y mide
+ * también los formatos CSV y JSON por líneas con el mismo esquema.
+ * <p>
+ * Lo ejecuta {@link ExportacionColumnasBenchmarkTest}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExportacionColumnasBenchmark {
+
+    @Param("10000")
+    public int filas;
+
+    private List<Evento> eventos;
+
+    private final EscritorXlsx xlsx = new EscritorXlsx();
+    private final EscritorCsv csv = new EscritorCsv();
+    private final EscritorJsonLineas jsonLineas = new EscritorJsonLineas();
+
+    @Setup
+    public void crearEventos() {
+        Sala sala = new Sala();
+        sala.setNombre("Sala Principal");
+        eventos = new ArrayList<>(filas);
+        for (int i = 0; i < filas; i++) {
+            Evento evento = new Evento();
+            evento.setId((long) i);
+            evento.setNombre("Evento " + i);
+            evento.setFechaInicio(LocalDate.of(2025, 1, 1).plusDays(i % 365));
+            evento.setCostoEntrada(i % 10 == 0 ? null : BigDecimal.valueOf(1250 + i % 500, 2));
+            evento.setSala(sala);
+            eventos.add(evento);
+        }
+    }
+
+    @Benchmark
+    public void xlsxCeldasManuales() throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(EscritorXlsx.VENTANA_FILAS);
+        workbook.setCompressTempFiles(true);
+        try (workbook) {
+            Sheet sheet = workbook.createSheet("Eventos");
+            String[] cabeceras = {"ID", "Nombre", "Fecha Inicio", "Costo Entrada", "Sala"};
+            int[] anchos = {10, 40, 14, 15, 30};
+            Row headerRow = sheet.createRow(0);
+            for (int i = 0; i < cabeceras.length; i++) {
+                sheet.setColumnWidth(i, anchos[i] * 256);
+                headerRow.createCell(i).setCellValue(cabeceras[i]);
+            }
+            int rowIdx = 1;
+            for (Evento evento : eventos) {
+                Row row = sheet.createRow(rowIdx++);
+                row.createCell(0).setCellValue(evento.getId());
+                row.createCell(1).setCellValue(evento.getNombre());
+                row.createCell(2).setCellValue(evento.getFechaInicio() != null ? evento.getFechaInicio().toString() : "");
+                if (evento.getCostoEntrada() != null) {
+                    row.createCell(3).setCellValue(evento.getCostoEntrada().doubleValue());
+                }
+                row.createCell(4).setCellValue(evento.getSala() != null ? evento.getSala().getNombre() : "");
+            }
+            workbook.write(OutputStream.nullOutputStream());
+        } finally {
+            workbook.dispose();
+        }
+    }
+
+    @Benchmark
+    public void xlsxEsquema() {
+        xlsx.escribir(EsquemasReporte.EVENTOS, eventos.stream(), OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void csvEsquema() {
+        csv.escribir(EsquemasReporte.EVENTOS, eventos.stream(), OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void jsonLineasEsquema() {
+        jsonLineas.escribir(EsquemasReporte.EVENTOS, eventos.stream(), OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.museo_v2.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Ejecuta {@link ExportacionColumnasBenchmark} con JMH e imprime los resultados.
+ * <p>
+ * No forma parte de la suite normal. Se ejecuta con:
+ * {@code mvn test -Dtest=ExportacionColumnasBenchmarkTest -Dbenchmark=true [-Dbenchmark.filas=10000]}
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class ExportacionColumnasBenchmarkTest {
+
+    /**
+     * Corre los cuatro escenarios y verifica que el XLSX por esquema no sea más lento
+     * que la versión con celdas codificadas a mano, con un margen para el ruido.
+     */
+    @Test
+    void compararEscrituraDeColumnas() throws Exception {
+        Options opciones = new OptionsBuilder()
+                .include(ExportacionColumnasBenchmark.class.getSimpleName())
+                .param("filas", System.getProperty("benchmark.filas", "10000"))
+                .build();
+
+        Collection<RunResult> resultados = new Runner(opciones).run();
+
+        double manual = puntaje(resultados, "xlsxCeldasManuales");
+        double esquema = puntaje(resultados, "xlsxEsquema");
+        System.out.printf("XLSX manual: %.2f ms, XLSX por esquema: %.2f ms%n", manual, esquema);
+        assertTrue(esquema < manual * 1.2);
+    }
+
+    private double puntaje(Collection<RunResult> resultados, String metodo) {
+        return resultados.stream()
+                .filter(r -> r.getParams().getBenchmark().endsWith("." + metodo))
+                .findFirst()
+                .orElseThrow()
+                .getPrimaryResult()
+                .getScore();
+    }
+}
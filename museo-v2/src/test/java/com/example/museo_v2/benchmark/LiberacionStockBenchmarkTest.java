@@ -0,0 +1,150 @@
+package com.example.museo_v2.benchmark;
+
+import com.example.museo_v2.model.Evento;
+import com.example.museo_v2.model.EventoProducto;
+import com.example.museo_v2.model.ProductoInventario;
+import com.example.museo_v2.repository.EventoProductoRepository;
+import com.example.museo_v2.repository.EventoRepositorio;
+import com.example.museo_v2.repository.ProductoInventarioRepository;
+import com.example.museo_v2.service.DisponibilidadInventarioService;
+import com.example.museo_v2.service.LibroInventarioService;
+import com.example.museo_v2.service.ProductoInventarioService;
+import com.example.museo_v2.service.ReintentoOptimistaService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compara la liberación de stock al eliminar un evento con muchos productos asignados:
+ * la versión anterior, que carga cada asignación con su producto, guarda el producto y
+ * borra la asignación una a una, contra {@link ProductoInventarioService#liberarProductos},
+ * que usa una actualización agregada y un borrado en bloque.
+ * <p>
+ * No forma parte de la suite normal. Se ejecuta con:
+ * {@code mvn test -Dtest=LiberacionStockBenchmarkTest -Dbenchmark=true [-Dbenchmark.productos=500]}
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({ProductoInventarioService.class, ReintentoOptimistaService.class, LibroInventarioService.class,
+        DisponibilidadInventarioService.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class LiberacionStockBenchmarkTest {
+
+    private static final int STOCK = 1000;
+    private static final int ASIGNADO = 7;
+    private static final int REPETICIONES = 20;
+
+    @Autowired
+    private ProductoInventarioService productoService;
+
+    @Autowired
+    private ProductoInventarioRepository productoRepo;
+
+    @Autowired
+    private EventoProductoRepository eventoProductoRepo;
+
+    @Autowired
+    private EventoRepositorio eventoRepositorio;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Evento evento;
+    private List<Long> productos;
+
+    /**
+     * Registra los productos y un evento que tiene asignadas unidades de todos ellos.
+     */
+    @BeforeEach
+    void cargarProductos() {
+        int total = Integer.getInteger("benchmark.productos", 500);
+        eventoProductoRepo.deleteAll();
+        eventoRepositorio.deleteAll();
+        productoRepo.deleteAll();
+
+        List<Object[]> filas = new ArrayList<>(total);
+        for (int i = 0; i < total; i++) {
+            filas.add(new Object[]{"Producto " + i, STOCK, STOCK});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO inventario_productos (nombre, tipo, stock_total, stock_disponible, "
+                + "version) VALUES (?, 'Mobiliario', ?, ?, 0)", filas);
+        productos = jdbcTemplate.queryForList("SELECT id FROM inventario_productos ORDER BY id", Long.class);
+
+        Evento nuevo = new Evento();
+        nuevo.setNombre("Feria");
+        evento = eventoRepositorio.save(nuevo);
+    }
+
+    /**
+     * Mide ambas liberaciones sobre el mismo evento y verifica que dejen el mismo stock.
+     */
+    @Test
+    void compararLiberacion() {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        Runnable anterior = () -> transaccion.executeWithoutResult(estado -> {
+            for (EventoProducto asignacion : eventoProductoRepo.findByEvento(evento)) {
+                ProductoInventario producto = asignacion.getProducto();
+                producto.setStockDisponible(producto.getStockDisponible() + asignacion.getCantidadAsignada());
+                productoRepo.save(producto);
+                eventoProductoRepo.delete(asignacion);
+            }
+        });
+        Runnable agregada = () -> productoService.liberarProductos(evento.getId());
+
+        double msAnterior = medir(anterior);
+        double msAgregada = medir(agregada);
+
+        System.out.printf("Liberación de %d productos, por fila: %.2f ms%n", productos.size(), msAnterior);
+        System.out.printf("Liberación de %d productos, agregada: %.2f ms%n", productos.size(), msAgregada);
+
+        assertEquals(0, eventoProductoRepo.count());
+        assertEquals(productos.size(), jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM inventario_productos WHERE stock_disponible = ?", Integer.class, STOCK));
+        assertTrue(msAgregada < msAnterior);
+    }
+
+    private double medir(Runnable liberacion) {
+        for (int i = 0; i < 3; i++) {
+            reservar();
+            liberacion.run();
+        }
+        long total = 0;
+        for (int i = 0; i < REPETICIONES; i++) {
+            reservar();
+            long inicio = System.nanoTime();
+            liberacion.run();
+            total += System.nanoTime() - inicio;
+        }
+        return total / 1_000_000.0 / REPETICIONES;
+    }
+
+    /**
+     * Vuelve a asignar al evento unidades de cada producto, fuera de la medición.
+     */
+    private void reservar() {
+        List<Object[]> filas = new ArrayList<>(productos.size());
+        for (Long id : productos) {
+            filas.add(new Object[]{evento.getId(), id, ASIGNADO});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO evento_productos (evento_id, producto_id, cantidad_asignada) "
+                + "VALUES (?, ?, ?)", filas);
+        jdbcTemplate.update("UPDATE inventario_productos SET stock_disponible = stock_disponible - ?", ASIGNADO);
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.museo_v2.benchmark;
+
+import com.example.museo_v2.model.Evento;
+import com.example.museo_v2.model.Reserva;
+import com.example.museo_v2.model.Sala;
+import com.example.museo_v2.service.PdfService;
+import com.lowagie.text.Chunk;
+import com.lowagie.text.Document;
+import com.lowagie.text.Element;
+import com.lowagie.text.Font;
+import com.lowagie.text.FontFactory;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.pdf.PdfWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark JMH del ticket de reserva: compara el armado completo del documento en
+ * cada llamada, como lo hacía {@link PdfService} antes de la plantilla, contra el
+ * estampado de los datos sobre la plantilla ya preparada.
+ * <p>
+ * Lo ejecuta {@link TicketPdfBenchmarkTest}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TicketPdfBenchmark {
+
+    private final PdfService pdfService = new PdfService();
+
+    private Reserva reserva;
+
+    @Setup
+    public void crearReserva() {
+        Sala sala = new Sala();
+        sala.setNombre("Sala Principal");
+        Evento evento = new Evento();
+        evento.setNombre("Noche de museos");
+        evento.setFechaInicio(LocalDate.of(2025, 5, 18));
+        evento.setHoraInicio(LocalTime.of(19, 0));
+        evento.setSala(sala);
+        reserva = new Reserva();
+        reserva.setId(1234L);
+        reserva.setEvento(evento);
+        reserva.setNombreCompleto("Ana Quispe Flores");
+        reserva.setDniRuc("12345678");
+        reserva.setNEntradas(3);
+        reserva.setTotalPagar(new BigDecimal("37.50"));
+    }
+
+    @Benchmark
+    public byte[] documentoCompleto() {
+        Document document = new Document(PageSize.A5);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PdfWriter.getInstance(document, out);
+        document.open();
+
+        Font tituloFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 18, Font.NORMAL);
+        Font subtituloFont = FontFactory.getFont(FontFactory.HELVETICA, 12, Font.BOLD);
+        Font cuerpoFont = FontFactory.getFont(FontFactory.HELVETICA, 12, Font.NORMAL);
+        Font pieFont = FontFactory.getFont(FontFactory.HELVETICA_OBLIQUE, 10, Font.NORMAL);
+
+        Paragraph titulo = new Paragraph("MUSEO TUMBAS REALES", tituloFont);
+        titulo.setAlignment(Element.ALIGN_CENTER);
+        document.add(titulo);
+        Paragraph subtitulo = new Paragraph("Ticket de Entrada", pieFont);
+        subtitulo.setAlignment(Element.ALIGN_CENTER);
+        subtitulo.setSpacingAfter(20);
+        document.add(subtitulo);
+        document.add(new Paragraph("----------------------------------------------------------------"));
+
+        document.add(new Paragraph("Evento: " + reserva.getEvento().getNombre(), subtituloFont));
+        DateTimeFormatter fechaFmt = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+        DateTimeFormatter horaFmt = DateTimeFormatter.ofPattern("HH:mm");
+        document.add(new Paragraph("Fecha: " + reserva.getEvento().getFechaInicio().format(fechaFmt), cuerpoFont));
+        document.add(new Paragraph("Hora: " + reserva.getEvento().getHoraInicio().format(horaFmt), cuerpoFont));
+        document.add(new Paragraph("Sala: " + reserva.getEvento().getSala().getNombre(), cuerpoFont));
+        document.add(Chunk.NEWLINE);
+        document.add(new Paragraph("Titular: " + reserva.getNombreCompleto(), cuerpoFont));
+        document.add(new Paragraph("DNI/RUC: " + reserva.getDniRuc(), cuerpoFont));
+        document.add(new Paragraph("Entradas: " + reserva.getNEntradas(), cuerpoFont));
+        document.add(new Paragraph("Total Pagado: S/ " + reserva.getTotalPagar(), subtituloFont));
+        document.add(Chunk.NEWLINE);
+        document.add(new Paragraph("----------------------------------------------------------------"));
+        Paragraph footer = new Paragraph("Código de Reserva: #" + reserva.getId()
+                + "\nPor favor presente este ticket en la entrada.", pieFont);
+        footer.setAlignment(Element.ALIGN_CENTER);
+        footer.setSpacingBefore(10);
+        document.add(footer);
+
+        document.close();
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] plantillaEstampada() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        pdfService.escribirTicket(reserva, out);
+        return out.toByteArray();
+    }
+}
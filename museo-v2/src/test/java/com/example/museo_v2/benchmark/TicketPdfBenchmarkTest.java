@@ -0,0 +1,50 @@
+package com.example.museo_v2.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Ejecuta {@link TicketPdfBenchmark} con JMH e imprime los resultados.
+ * <p>
+ * No forma parte de la suite normal. Se ejecuta con:
+ * {@code mvn test -Dtest=TicketPdfBenchmarkTest -Dbenchmark=true}
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class TicketPdfBenchmarkTest {
+
+    /**
+     * Corre ambos escenarios y verifica que estampar sobre la plantilla genere más
+     * tickets por segundo que armar el documento completo.
+     */
+    @Test
+    void compararGeneracionDeTickets() throws Exception {
+        Options opciones = new OptionsBuilder()
+                .include(TicketPdfBenchmark.class.getSimpleName())
+                .build();
+
+        Collection<RunResult> resultados = new Runner(opciones).run();
+
+        double completo = puntaje(resultados, "documentoCompleto");
+        double plantilla = puntaje(resultados, "plantillaEstampada");
+        System.out.printf("Documento completo: %.0f tickets/s, plantilla estampada: %.0f tickets/s%n",
+                completo, plantilla);
+        assertTrue(plantilla > completo);
+    }
+
+    private double puntaje(Collection<RunResult> resultados, String metodo) {
+        return resultados.stream()
+                .filter(r -> r.getParams().getBenchmark().endsWith("." + metodo))
+                .findFirst()
+                .orElseThrow()
+                .getPrimaryResult()
+                .getScore();
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.museo_v2.build;
+
+import com.example.museo_v2.model.Evento;
+import com.example.museo_v2.model.EventoProducto;
+import com.example.museo_v2.model.ProductoInventario;
+import com.example.museo_v2.model.Sala;
+import com.example.museo_v2.repository.EventoProductoRepository;
+import com.example.museo_v2.repository.EventoRepositorio;
+import com.example.museo_v2.repository.ProductoInventarioRepository;
+import com.example.museo_v2.repository.SalaRepositorio;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guarda contra consultas N+1 en las páginas de listado.
+ *
+ * <p>Cada prueba hace una solicitud real con MockMvc sobre el contexto completo, de modo
+ * que se cuentan las consultas del controlador, del servicio y de la vista renderizada
+ * con la sesión abierta, y {@link ContadorSentencias} falla si superan el máximo
+ * permitido por solicitud. MockMvc atiende la solicitud en el hilo de la prueba, por lo
+ * que el contador por hilo mide solo esa solicitud.</p>
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("prueba")
+@WithMockUser(roles = "ADMIN")
+public class ConsultasPorSolicitudTest {
+
+    /** Cantidad de filas; con N+1 cualquier listado superaría holgadamente el límite. */
+    private static final int FILAS = 20;
+
+    /** Sentencias permitidas por solicitud. */
+    private static final int MAXIMO_SENTENCIAS = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EventoRepositorio eventoRepositorio;
+
+    @Autowired
+    private SalaRepositorio salaRepositorio;
+
+    @Autowired
+    private ProductoInventarioRepository productoRepo;
+
+    @Autowired
+    private EventoProductoRepository eventoProductoRepo;
+
+    private Evento eventoConProductos;
+
+    /**
+     * Registra eventos en salas distintas y un evento con varios productos asignados.
+     */
+    @BeforeEach
+    void setUp() {
+        eventoProductoRepo.deleteAll();
+        eventoRepositorio.deleteAll();
+        productoRepo.deleteAll();
+        salaRepositorio.deleteAll();
+
+        for (int i = 0; i < FILAS; i++) {
+            Sala sala = salaRepositorio.save(new Sala("Sala " + i, 50, "Piso 1", "Sala de pruebas", null));
+            Evento evento = new Evento();
+            evento.setNombre("Evento " + i);
+            evento.setFechaInicio(LocalDate.now().plusDays(i));
+            evento.setCostoEntrada(new BigDecimal("10.00"));
+            evento.setSala(sala);
+            eventoConProductos = eventoRepositorio.save(evento);
+        }
+
+        for (int i = 0; i < FILAS; i++) {
+            ProductoInventario producto = new ProductoInventario();
+            producto.setNombre("Producto " + i);
+            producto.setTipo("Mobiliario");
+            producto.setStockTotal(10);
+            producto.setStockDisponible(9);
+            eventoProductoRepo.save(new EventoProducto(eventoConProductos, productoRepo.save(producto), 1));
+        }
+    }
+
+    /**
+     * Verifica que el listado de eventos muestre la sala de cada evento sin una
+     * consulta por fila.
+     */
+    @Test
+    void listarEventos_NoDebeConsultarLaSalaPorFila() throws Exception {
+        String html = solicitar("/eventos");
+
+        assertTrue(html.contains("Sala " + (FILAS - 1)));
+    }
+
+    /**
+     * Verifica que el listado de salas no emita una consulta por sala.
+     */
+    @Test
+    void listarSalas_NoDebeConsultarPorFila() throws Exception {
+        String html = solicitar("/salas");
+
+        assertTrue(html.contains("Sala " + (FILAS - 1)));
+    }
+
+    /**
+     * Verifica que el listado de inventario calcule las unidades libres de todos los
+     * productos de la página sin consultar las asignaciones de cada uno.
+     */
+    @Test
+    void listarInventario_NoDebeConsultarLasAsignacionesPorFila() throws Exception {
+        String html = solicitar("/inventario/lista");
+
+        assertTrue(html.contains("Producto " + (FILAS - 1)));
+    }
+
+    /**
+     * Verifica que el formulario de edición de un evento cargue el evento, las salas
+     * y los productos sin una consulta por fila.
+     */
+    @Test
+    void editarEvento_NoDebeConsultarPorFila() throws Exception {
+        String html = solicitar("/eventos/editar/" + eventoConProductos.getId());
+
+        assertTrue(html.contains(eventoConProductos.getNombre()));
+    }
+
+    /**
+     * Verifica que la página de inicio se sirva sin consultas por evento.
+     */
+    @Test
+    void inicio_NoDebeConsultarPorEvento() throws Exception {
+        solicitar("/");
+    }
+
+    private String solicitar(String ruta) throws Exception {
+        MvcResult resultado = ContadorSentencias.verificarMaximo(MAXIMO_SENTENCIAS,
+                () -> mockMvc.perform(get(ruta)).andExpect(status().isOk()).andReturn());
+        return resultado.getResponse().getContentAsString();
+    }
+}
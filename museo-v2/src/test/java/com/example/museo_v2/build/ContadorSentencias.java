@@ -0,0 +1,52 @@
+package com.example.museo_v2.build;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cuenta las sentencias SQL que Hibernate prepara en el hilo actual.
+ *
+ * <p>Se registra en las pruebas con la propiedad
+ * {@code spring.jpa.properties.hibernate.session_factory.statement_inspector} y permite
+ * detectar consultas N+1: un listado que carga una asociación perezosa por fila emite
+ * una sentencia adicional por cada registro, por lo que supera cualquier límite fijo
+ * en cuanto crece la cantidad de datos.</p>
+ *
+ * <p>El contador es por hilo para que las tareas en segundo plano de la aplicación
+ * no alteren la medición de la prueba.</p>
+ */
+public class ContadorSentencias implements StatementInspector {
+
+    private static final ThreadLocal<int[]> SENTENCIAS = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        SENTENCIAS.get()[0]++;
+        return sql;
+    }
+
+    /** Acción medida, que puede lanzar las excepciones comprobadas de MockMvc. */
+    @FunctionalInterface
+    public interface Accion<T> {
+        T ejecutar() throws Exception;
+    }
+
+    /**
+     * Ejecuta la acción y falla si emitió más sentencias SQL que las permitidas.
+     *
+     * @param maximo cantidad máxima de sentencias permitidas
+     * @param accion acción a medir, normalmente una solicitud completa
+     * @return el resultado de la acción
+     * @throws Exception si la acción falla
+     */
+    public static <T> T verificarMaximo(int maximo, Accion<T> accion) throws Exception {
+        int[] contador = SENTENCIAS.get();
+        int inicial = contador[0];
+        T resultado = accion.ejecutar();
+        int emitidas = contador[0] - inicial;
+        assertTrue(emitidas <= maximo,
+                "Se emitieron " + emitidas + " sentencias SQL y el máximo es " + maximo);
+        return resultado;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.museo_v2.config;
+
+import com.example.museo_v2.service.AdmisionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pruebas de {@link AdmisionInterceptor} sobre un controlador mínimo con
+ * MockMvc: el turno de una descarga asíncrona se conserva mientras se escribe la
+ * respuesta y se devuelve al terminar, y las rutas síncronas lo liberan al completar.
+ */
+public class AdmisionInterceptorTest {
+
+    private SimpleMeterRegistry registro;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        registro = new SimpleMeterRegistry();
+        AdmisionService admision = new AdmisionService(registro, 1000, 1000, 1000, 1000, 1, 0, 0, 200);
+        mockMvc = MockMvcBuilders.standaloneSetup(new Descargas())
+                .addInterceptors(new AdmisionInterceptor(admision, 5))
+                .build();
+    }
+
+    /**
+     * Verifica que una descarga en segundo plano ocupe el turno hasta terminar de
+     * escribirse, lo devuelva después del despacho asíncrono y que las descargas
+     * siguientes no sean rechazadas por turnos perdidos.
+     */
+    @Test
+    void descargaAsincrona_DebeDevolverElTurnoAlTerminar() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            MvcResult resultado = mockMvc.perform(get("/reservas/descarga"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            assertEquals(1, enCurso());
+
+            mockMvc.perform(asyncDispatch(resultado))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string("contenido"));
+            assertEquals(0, enCurso());
+        }
+        assertEquals(3, registro.counter("museo.admision.admitidas").count());
+    }
+
+    /**
+     * Verifica que una ruta síncrona libere el turno al completar la solicitud.
+     */
+    @Test
+    void rutaSincrona_DebeDevolverElTurnoAlCompletar() throws Exception {
+        mockMvc.perform(get("/reservas/pagina")).andExpect(status().isOk());
+        mockMvc.perform(get("/reservas/pagina")).andExpect(status().isOk());
+
+        assertEquals(0, enCurso());
+    }
+
+    private double enCurso() {
+        return registro.get("museo.admision.en.curso").gauge().value();
+    }
+
+    @RestController
+    static class Descargas {
+
+        @GetMapping("/reservas/descarga")
+        StreamingResponseBody descarga() {
+            return salida -> salida.write("contenido".getBytes(StandardCharsets.UTF_8));
+        }
+
+        @GetMapping("/reservas/pagina")
+        String pagina() {
+            return "ok";
+        }
+    }
+}
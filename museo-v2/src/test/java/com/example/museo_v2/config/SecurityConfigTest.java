@@ -0,0 +1,45 @@
+package com.example.museo_v2.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pruebas de las reglas de acceso de {@link SecurityConfig} sobre el contexto
+ * completo: las exportaciones con datos de clientes quedan reservadas al administrador.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("prueba")
+public class SecurityConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    /**
+     * Un usuario sin rol de administrador no puede descargar la exportación de reservas.
+     */
+    @Test
+    @WithMockUser(roles = "USER")
+    void exportarReservas_ComoUsuario_DebeDenegarAcceso() throws Exception {
+        mockMvc.perform(get("/reservas/exportar/excel").param("format", "csv"))
+                .andExpect(status().isForbidden());
+    }
+
+    /**
+     * El administrador sí puede descargar la exportación de reservas.
+     */
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void exportarReservas_ComoAdministrador_DebePermitirAcceso() throws Exception {
+        mockMvc.perform(get("/reservas/exportar/excel").param("format", "csv"))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.museo_v2.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para {@link AdmisionService}.
+ * Valida los límites por cliente, por evento y de la sala de espera,
+ * y que las métricas cuenten admisiones y rechazos.
+ */
+public class AdmisionServiceTest {
+
+    private SimpleMeterRegistry registro;
+
+    @BeforeEach
+    void setUp() {
+        registro = new SimpleMeterRegistry();
+    }
+
+    /**
+     * Verifica que un cliente que agota su ráfaga sea rechazado sin afectar a otros clientes.
+     */
+    @Test
+    void admitir_ClienteExcedeRafaga_DebeRechazarSoloAEseCliente() {
+        AdmisionService admision = new AdmisionService(registro, 0.001, 3, 1000, 1000, 10, 0, 0, 200);
+
+        for (int i = 0; i < 3; i++) {
+            admision.admitir("ana", 1L).orElseThrow().close();
+        }
+
+        assertTrue(admision.admitir("ana", 1L).isEmpty());
+        assertTrue(admision.admitir("luis", 1L).isPresent());
+        assertEquals(4, registro.counter("museo.admision.admitidas").count());
+        assertEquals(1, registro.counter("museo.admision.rechazadas", "motivo", "cliente").count());
+    }
+
+    /**
+     * Verifica que un evento que agota su ráfaga rechace a nuevos clientes sin
+     * limitar las solicitudes de otros eventos.
+     */
+    @Test
+    void admitir_EventoExcedeRafaga_DebeRechazarSoloEseEvento() {
+        AdmisionService admision = new AdmisionService(registro, 1000, 1000, 0.001, 2, 10, 0, 0, 200);
+
+        admision.admitir("c1", 7L).orElseThrow().close();
+        admision.admitir("c2", 7L).orElseThrow().close();
+
+        assertTrue(admision.admitir("c3", 7L).isEmpty());
+        assertTrue(admision.admitir("c3", 8L).isPresent());
+        assertTrue(admision.admitir("c4", null).isPresent());
+        assertEquals(1, registro.counter("museo.admision.rechazadas", "motivo", "evento").count());
+    }
+
+    /**
+     * Verifica que con todos los turnos ocupados y la sala de espera llena la
+     * solicitud se rechace, y que al cerrar un turno se admita la siguiente.
+     */
+    @Test
+    void admitir_SinTurnosLibres_DebeRechazarHastaQueSeLibere() {
+        AdmisionService admision = new AdmisionService(registro, 1000, 1000, 1000, 1000, 1, 0, 0, 200);
+
+        Optional<AdmisionService.Turno> turno = admision.admitir("c1", 1L);
+        assertTrue(turno.isPresent());
+        assertTrue(admision.admitir("c2", 1L).isEmpty());
+
+        turno.get().close();
+        turno.get().close();
+
+        assertTrue(admision.admitir("c2", 1L).isPresent());
+        assertTrue(admision.admitir("c3", 1L).isEmpty());
+        assertEquals(2, registro.counter("museo.admision.rechazadas", "motivo", "sala_espera").count());
+    }
+
+    /**
+     * Verifica que una solicitud en la sala de espera obtenga turno cuando otro
+     * lo libera dentro del tiempo máximo de espera.
+     */
+    @Test
+    void admitir_EnSalaDeEspera_DebeObtenerTurnoAlLiberarse() throws Exception {
+        AdmisionService admision = new AdmisionService(registro, 1000, 1000, 1000, 1000, 1, 5, 2000, 200);
+        AdmisionService.Turno turno = admision.admitir("c1", 1L).orElseThrow();
+
+        Thread liberador = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            turno.close();
+        });
+        liberador.start();
+
+        assertTrue(admision.admitir("c2", 1L).isPresent());
+        liberador.join();
+    }
+
+    /**
+     * Verifica que la sala de espera no supere la cuarta parte de los hilos del
+     * servidor aunque la capacidad configurada sea mayor: con 4 hilos solo espera
+     * una solicitud y la siguiente se rechaza sin esperar.
+     */
+    @Test
+    void admitir_SalaDeEsperaSobreLosHilos_DebeLimitarseALaCuartaParte() throws Exception {
+        AdmisionService admision = new AdmisionService(registro, 1000, 1000, 1000, 1000, 1, 100, 5000, 4);
+        AdmisionService.Turno turno = admision.admitir("c1", 1L).orElseThrow();
+
+        Thread enEspera = new Thread(() -> admision.admitir("c2", 1L).ifPresent(AdmisionService.Turno::close));
+        enEspera.start();
+        while (registro.get("museo.admision.en.espera").gauge().value() < 1) {
+            Thread.sleep(5);
+        }
+
+        long inicio = System.nanoTime();
+        assertTrue(admision.admitir("c3", 1L).isEmpty());
+        assertTrue(System.nanoTime() - inicio < 1_000_000_000L);
+
+        turno.close();
+        enEspera.join();
+    }
+}
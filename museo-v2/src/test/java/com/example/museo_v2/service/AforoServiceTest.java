@@ -0,0 +1,110 @@
+package com.example.museo_v2.service;
+
+import com.example.museo_v2.model.Evento;
+import com.example.museo_v2.model.Sala;
+import com.example.museo_v2.repository.AforoEventoRepository;
+import com.example.museo_v2.repository.EventoRepositorio;
+import com.example.museo_v2.repository.SalaRepositorio;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de concurrencia para {@link AforoService}.
+ * Se ejecutan sobre una base H2 en memoria y sin transacción de prueba,
+ * para que cada hilo confirme su propia actualización como ocurre en producción.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import(AforoService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class AforoServiceTest {
+
+    private static final int CAPACIDAD = 100;
+
+    @Autowired
+    private AforoService aforoService;
+
+    @Autowired
+    private AforoEventoRepository aforoRepo;
+
+    @Autowired
+    private EventoRepositorio eventoRepositorio;
+
+    @Autowired
+    private SalaRepositorio salaRepositorio;
+
+    private Evento evento;
+
+    /**
+     * Registra una sala con capacidad limitada y un evento asociado a ella.
+     */
+    @BeforeEach
+    void setUp() {
+        Sala sala = salaRepositorio.save(new Sala("Sala Principal", CAPACIDAD, "Piso 1", "Sala de pruebas", null));
+
+        evento = new Evento();
+        evento.setNombre("Evento concurrido " + System.nanoTime());
+        evento.setSala(sala);
+        evento = eventoRepositorio.save(evento);
+    }
+
+    /**
+     * Lanza muchas más solicitudes simultáneas que asientos disponibles y verifica
+     * que se vendan exactamente los asientos de la sala, ni uno más.
+     */
+    @Test
+    void ocuparEntradas_BajoCarga_NoDebeSobrevender() throws Exception {
+        int solicitudes = 400;
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Future<Integer>> resultados = new ArrayList<>();
+
+        for (int i = 0; i < solicitudes; i++) {
+            int cantidad = 1 + (i % 3);
+            resultados.add(pool.submit(() -> {
+                salida.await();
+                return aforoService.ocuparEntradas(evento.getId(), cantidad) ? cantidad : 0;
+            }));
+        }
+
+        salida.countDown();
+        int vendidas = 0;
+        for (Future<Integer> resultado : resultados) {
+            vendidas += resultado.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        int contador = aforoRepo.findById(evento.getId()).orElseThrow().getEntradasVendidas();
+        assertTrue(vendidas <= CAPACIDAD, "Se vendieron " + vendidas + " entradas con capacidad " + CAPACIDAD);
+        assertEquals(vendidas, contador);
+        assertTrue(vendidas >= CAPACIDAD - 2, "Con demanda de sobra el aforo debe quedar prácticamente lleno");
+    }
+
+    /**
+     * Verifica que liberar entradas las deje disponibles para nuevas reservas.
+     */
+    @Test
+    void liberarEntradas_DebeDevolverAforo() {
+        assertTrue(aforoService.ocuparEntradas(evento.getId(), CAPACIDAD));
+        assertFalse(aforoService.ocuparEntradas(evento.getId(), 1));
+
+        aforoService.liberarEntradas(evento.getId(), 5);
+
+        assertTrue(aforoService.ocuparEntradas(evento.getId(), 5));
+        assertFalse(aforoService.ocuparEntradas(evento.getId(), 1));
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.museo_v2.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para {@link BloqueoEntradasService}.
+ * Valida que las entradas retenidas vuelvan al aforo al vencer el bloqueo
+ * y que un bloqueo consumido ya no se libere.
+ */
+@ExtendWith(MockitoExtension.class)
+public class BloqueoEntradasServiceTest {
+
+    @Mock
+    private AforoService aforoService;
+
+    private BloqueoEntradasService bloqueoService;
+
+    @BeforeEach
+    void setUp() {
+        bloqueoService = new BloqueoEntradasService(aforoService, 1, 20);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bloqueoService.detener();
+    }
+
+    /**
+     * Verifica que un bloqueo no consumido libere sus entradas al vencer.
+     */
+    @Test
+    void bloquear_AlVencer_DebeLiberarEntradas() {
+        when(aforoService.ocuparEntradas(1L, 3)).thenReturn(true);
+
+        Optional<String> bloqueo = bloqueoService.bloquear(1L, 3);
+
+        assertTrue(bloqueo.isPresent());
+        verify(aforoService, after(500).never()).liberarEntradas(anyLong(), anyInt());
+        verify(aforoService, timeout(3000)).liberarEntradas(1L, 3);
+        assertEquals(0, bloqueoService.contarBloqueosActivos());
+        assertEquals(0, bloqueoService.consumir(bloqueo.get(), 1L));
+    }
+
+    /**
+     * Verifica que un bloqueo consumido entregue sus entradas y no se libere al vencer.
+     */
+    @Test
+    void consumir_AntesDeVencer_NoDebeLiberarEntradas() {
+        when(aforoService.ocuparEntradas(1L, 2)).thenReturn(true);
+        String bloqueo = bloqueoService.bloquear(1L, 2).orElseThrow();
+
+        assertEquals(0, bloqueoService.consumir(bloqueo, 2L));
+        assertEquals(2, bloqueoService.consumir(bloqueo, 1L));
+        assertEquals(0, bloqueoService.consumir(bloqueo, 1L));
+
+        verify(aforoService, after(1600).never()).liberarEntradas(anyLong(), anyInt());
+    }
+
+    /**
+     * Verifica que sin aforo suficiente no se cree el bloqueo.
+     */
+    @Test
+    void bloquear_SinAforo_NoDebeCrearBloqueo() {
+        when(aforoService.ocuparEntradas(1L, 5)).thenReturn(false);
+
+        assertTrue(bloqueoService.bloquear(1L, 5).isEmpty());
+        assertEquals(0, bloqueoService.contarBloqueosActivos());
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.museo_v2.service;
+
+import com.example.museo_v2.model.Evento;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para {@link EventoCacheadoService}.
+ * Valida que las búsquedas concurrentes compartan una sola consulta y que
+ * guardar o eliminar un evento invalide su entrada.
+ */
+@ExtendWith(MockitoExtension.class)
+public class EventoCacheadoServiceTest {
+
+    @Mock
+    private EventoServiceImpl eventoServiceImpl;
+
+    private EventoCacheadoService eventoService;
+
+    private Evento evento;
+
+    @BeforeEach
+    void setUp() {
+        eventoService = new EventoCacheadoService(eventoServiceImpl, new SimpleMeterRegistry(), 60, 100);
+
+        evento = new Evento();
+        evento.setId(1L);
+        evento.setNombre("Lanzamiento");
+    }
+
+    /**
+     * Verifica que muchas búsquedas simultáneas del mismo evento hagan una sola
+     * consulta y reciban todas el mismo resultado.
+     */
+    @Test
+    void obtenerEventoPorId_Concurrente_DebeConsultarUnaSolaVez() throws Exception {
+        when(eventoServiceImpl.obtenerEventoPorId(1L)).thenAnswer(invocacion -> {
+            Thread.sleep(100);
+            return evento;
+        });
+
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Future<Evento>> resultados = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            resultados.add(pool.submit(() -> {
+                salida.await();
+                return eventoService.obtenerEventoPorId(1L);
+            }));
+        }
+        salida.countDown();
+
+        for (Future<Evento> resultado : resultados) {
+            assertSame(evento, resultado.get());
+        }
+        pool.shutdown();
+
+        verify(eventoServiceImpl, times(1)).obtenerEventoPorId(1L);
+    }
+
+    /**
+     * Verifica que guardar un evento invalide su entrada y la siguiente búsqueda
+     * obtenga el dato actualizado.
+     */
+    @Test
+    void guardarEvento_DebeInvalidarCache() {
+        Evento actualizado = new Evento();
+        actualizado.setId(1L);
+        actualizado.setNombre("Lanzamiento reprogramado");
+        when(eventoServiceImpl.obtenerEventoPorId(1L)).thenReturn(evento, actualizado);
+        when(eventoServiceImpl.guardarEvento(actualizado)).thenReturn(actualizado);
+
+        assertSame(evento, eventoService.obtenerEventoPorId(1L));
+        assertSame(evento, eventoService.obtenerEventoPorId(1L));
+
+        eventoService.guardarEvento(actualizado);
+
+        assertSame(actualizado, eventoService.obtenerEventoPorId(1L));
+        verify(eventoServiceImpl, times(2)).obtenerEventoPorId(1L);
+    }
+
+    /**
+     * Verifica que eliminar un evento invalide su entrada.
+     */
+    @Test
+    void eliminarEvento_DebeInvalidarCache() {
+        when(eventoServiceImpl.obtenerEventoPorId(1L)).thenReturn(evento, (Evento) null);
+
+        assertNotNull(eventoService.obtenerEventoPorId(1L));
+
+        eventoService.eliminarEvento(1L);
+
+        assertNull(eventoService.obtenerEventoPorId(1L));
+        verify(eventoServiceImpl).eliminarEvento(1L);
+    }
+}
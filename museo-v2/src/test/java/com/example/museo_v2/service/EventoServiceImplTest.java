@@ -1,6 +1,9 @@
 package com.example.museo_v2.service;
 
 import com.example.museo_v2.model.Evento;
+import com.example.museo_v2.model.EventoListado;
+import com.example.museo_v2.model.EventoResumen;
+import com.example.museo_v2.model.PaginaKeyset;
 import com.example.museo_v2.repository.EventoRepositorio;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -8,6 +11,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
@@ -15,6 +21,8 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,6 +31,9 @@ class EventoServiceImplTest {
     @Mock
     private EventoRepositorio eventoRepositorio;
 
+    @Mock
+    private ApplicationEventPublisher eventos;
+
     @InjectMocks
     private EventoServiceImpl eventoService;
 
@@ -62,6 +73,22 @@ class EventoServiceImplTest {
         verify(eventoRepositorio, times(1)).findAll();
     }
 
+    /**
+     * Verifica que {@code obtenerEventosDelMesActual()} consulte el rango semiabierto
+     * que va del primer día del mes actual al primer día del mes siguiente.
+     */
+    @Test
+    void obtenerEventosDelMesActual_DebeConsultarRangoDelMes() {
+        LocalDate inicioMes = LocalDate.now().withDayOfMonth(1);
+        when(eventoRepositorio.findEventosEntreFechas(inicioMes, inicioMes.plusMonths(1)))
+                .thenReturn(Arrays.asList(evento1));
+
+        List<Evento> eventos = eventoService.obtenerEventosDelMesActual();
+
+        assertEquals(1, eventos.size());
+        verify(eventoRepositorio).findEventosEntreFechas(inicioMes, inicioMes.plusMonths(1));
+    }
+
     /**
      * Verifica que {@code obtenerEventoPorId()} retorne el evento correcto 
      * cuando existe en el repositorio.
@@ -91,7 +118,8 @@ class EventoServiceImplTest {
 
     /**
      * Verifica que el método {@code guardarEvento()} invoque correctamente 
-     * al método {@code save()} del repositorio y retorne el evento guardado.
+     * al método {@code save()} del repositorio, retorne el evento guardado
+     * y publique el evento de dominio.
      */
     @Test
     void guardarEvento_DebeLlamarAlRepositorioSave() {
@@ -101,6 +129,7 @@ class EventoServiceImplTest {
 
         assertNotNull(eventoGuardado);
         verify(eventoRepositorio, times(1)).save(evento1);
+        verify(eventos).publishEvent(new EventoService.EventoModificado(evento1.getId()));
     }
 
     /**
@@ -115,25 +144,27 @@ class EventoServiceImplTest {
         eventoService.eliminarEvento(eventoId);
 
         verify(eventoRepositorio, times(1)).deleteById(eventoId);
+        verify(eventos).publishEvent(new EventoService.EventoModificado(eventoId));
     }
 
     /**
-     * Verifica que {@code obtenerProximosEventos()} retorne una lista limitada 
-     * cuando la cantidad de eventos futuros supera el límite especificado.
+     * Verifica que {@code obtenerProximosEventos()} pida a la base de datos solo
+     * la cantidad de eventos indicada por el límite.
      */
     @Test
     void obtenerProximosEventos_CuandoHayMasDelLimite_DebeDevolverListaLimitada() {
-        List<Evento> muchosEventosFuturos = Arrays.asList(new Evento(), new Evento(), new Evento(), new Evento(),
-                new Evento(), new Evento());
-        when(eventoRepositorio.findByFechaInicioAfterOrderByFechaInicioAsc(any(LocalDate.class)))
-                .thenReturn(muchosEventosFuturos);
+        List<EventoResumen> primerosEventos = Arrays.asList(resumen(1L), resumen(2L), resumen(3L), resumen(4L),
+                resumen(5L));
+        when(eventoRepositorio.findProximosEventos(any(LocalDate.class), eq(PageRequest.of(0, 5))))
+                .thenReturn(primerosEventos);
 
         int limit = 5;
 
-        List<Evento> proximosEventos = eventoService.obtenerProximosEventos(limit);
+        List<EventoResumen> proximosEventos = eventoService.obtenerProximosEventos(limit);
 
         assertNotNull(proximosEventos);
         assertEquals(limit, proximosEventos.size());
+        verify(eventoRepositorio).findProximosEventos(any(LocalDate.class), eq(PageRequest.of(0, limit)));
     }
 
     /**
@@ -142,15 +173,56 @@ class EventoServiceImplTest {
      */
     @Test
     void obtenerProximosEventos_CuandoHayMenosDelLimite_DebeDevolverListaCompleta() {
-        List<Evento> pocosEventosFuturos = Arrays.asList(evento2);
-        when(eventoRepositorio.findByFechaInicioAfterOrderByFechaInicioAsc(any(LocalDate.class)))
+        List<EventoResumen> pocosEventosFuturos = Arrays.asList(resumen(2L));
+        when(eventoRepositorio.findProximosEventos(any(LocalDate.class), any(Pageable.class)))
                 .thenReturn(pocosEventosFuturos);
 
         int limit = 5;
 
-        List<Evento> proximosEventos = eventoService.obtenerProximosEventos(limit);
+        List<EventoResumen> proximosEventos = eventoService.obtenerProximosEventos(limit);
 
         assertNotNull(proximosEventos);
         assertEquals(1, proximosEventos.size());
     }
-}
\ No newline at end of file
+
+    private EventoResumen resumen(Long id) {
+        return new EventoResumen(id, "Evento " + id, LocalDate.now().plusDays(id), null, "Sala Principal", null);
+    }
+
+    /**
+     * Verifica que la primera página pida una fila más que el tamaño de página,
+     * parta del inicio del calendario y descarte la fila extra para indicar que
+     * existe una página siguiente.
+     */
+    @Test
+    void listarEventosPaginados_SinCursor_DebeIndicarPaginaSiguiente() {
+        when(eventoRepositorio.listarAscendente(any(LocalDate.class), eq(0L), isNull(), eq(PageRequest.of(0, 3))))
+                .thenReturn(List.of(fila(1L), fila(2L), fila(3L)));
+
+        PaginaKeyset<EventoListado> pagina = eventoService.listarEventosPaginados(" ", false, null, null, 2);
+
+        assertTrue(pagina.haySiguiente());
+        assertEquals(2, pagina.elementos().size());
+        assertEquals(2L, pagina.ultimo().id());
+    }
+
+    /**
+     * Verifica que el listado descendente busque a partir del cursor recibido
+     * y aplique el filtro por nombre.
+     */
+    @Test
+    void listarEventosPaginados_Descendente_DebeBuscarDesdeElCursor() {
+        LocalDate fecha = LocalDate.of(2025, 5, 10);
+        when(eventoRepositorio.listarDescendente(fecha, 7L, "Noche", PageRequest.of(0, 21)))
+                .thenReturn(List.of(fila(6L)));
+
+        PaginaKeyset<EventoListado> pagina = eventoService.listarEventosPaginados("Noche", true, fecha, 7L, 20);
+
+        assertFalse(pagina.haySiguiente());
+        assertEquals(1, pagina.elementos().size());
+    }
+
+    private EventoListado fila(Long id) {
+        return new EventoListado(id, "Evento " + id, LocalDate.now(), null, "Sala Principal", null);
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.museo_v2.service;
+
+import com.example.museo_v2.model.Evento;
+import com.example.museo_v2.model.ProductoInventario;
+import com.example.museo_v2.model.Sala;
+import com.example.museo_v2.model.TipoReporte;
+import com.example.museo_v2.repository.EventoProductoRepository;
+import com.example.museo_v2.repository.EventoRepositorio;
+import com.example.museo_v2.repository.ProductoInventarioRepository;
+import com.example.museo_v2.repository.SalaRepositorio;
+import com.example.museo_v2.util.EscritorXlsx;
+import com.example.museo_v2.util.FormatoExportacion;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de integración para {@link ExportacionService} sobre una base H2 en memoria.
+ * Valida que los reportes generados a partir de los flujos de la base de datos
+ * contengan todas las filas, incluidas las que SXSSF ya volcó a disco.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import(ExportacionService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ExportacionServiceTest {
+
+    /** Más filas que la ventana en memoria de SXSSF. */
+    private static final int EVENTOS = EscritorXlsx.VENTANA_FILAS * 3;
+
+    @Autowired
+    private ExportacionService exportacionService;
+
+    @Autowired
+    private EventoRepositorio eventoRepositorio;
+
+    @Autowired
+    private SalaRepositorio salaRepositorio;
+
+    @Autowired
+    private ProductoInventarioRepository productoRepo;
+
+    @Autowired
+    private EventoProductoRepository eventoProductoRepo;
+
+    private final List<Long> idsEventos = new ArrayList<>();
+
+    /**
+     * Registra eventos repartidos en dos salas.
+     */
+    @BeforeEach
+    void setUp() {
+        eventoProductoRepo.deleteAll();
+        eventoRepositorio.deleteAll();
+        productoRepo.deleteAll();
+        salaRepositorio.deleteAll();
+
+        Sala norte = salaRepositorio.save(new Sala("Sala Norte", 60, "Piso 1", "Sala de pruebas", null));
+        Sala sur = salaRepositorio.save(new Sala("Sala Sur", 40, "Piso 2", "Sala de pruebas", null));
+        List<Evento> eventos = new ArrayList<>();
+        for (int i = 0; i < EVENTOS; i++) {
+            Evento evento = new Evento();
+            evento.setNombre("Evento " + i);
+            evento.setFechaInicio(LocalDate.of(2025, 1, 1).plusDays(i));
+            evento.setCostoEntrada(new BigDecimal("12.50"));
+            evento.setSala(i % 2 == 0 ? norte : sur);
+            eventos.add(evento);
+        }
+        eventoRepositorio.saveAll(eventos).forEach(evento -> idsEventos.add(evento.getId()));
+    }
+
+    /**
+     * Verifica que el reporte de eventos contenga las cabeceras y todas las filas en
+     * orden de ID, con el nombre de la sala de cada evento.
+     */
+    @Test
+    void exportar_EventosXlsx_DebeEscribirTodasLasFilas() throws Exception {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        exportacionService.exportar(TipoReporte.EVENTOS, FormatoExportacion.XLSX, null, false, salida);
+
+        try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(salida.toByteArray()))) {
+            Sheet sheet = workbook.getSheet("Eventos");
+            Row cabecera = sheet.getRow(0);
+            assertEquals("ID", cabecera.getCell(0).getStringCellValue());
+            assertEquals("Nombre", cabecera.getCell(1).getStringCellValue());
+            assertEquals("Fecha Inicio", cabecera.getCell(2).getStringCellValue());
+            assertEquals("Costo Entrada", cabecera.getCell(3).getStringCellValue());
+            assertEquals("Sala", cabecera.getCell(4).getStringCellValue());
+            assertEquals(EVENTOS, sheet.getLastRowNum());
+            assertEquals("2025-01-01", sheet.getRow(1).getCell(2).getStringCellValue());
+            assertEquals(12.50, sheet.getRow(1).getCell(3).getNumericCellValue());
+            assertEquals(idsEventos.get(0).doubleValue(), sheet.getRow(1).getCell(0).getNumericCellValue());
+            assertEquals("Sala Norte", sheet.getRow(1).getCell(4).getStringCellValue());
+            assertEquals("Evento " + (EVENTOS - 1), sheet.getRow(EVENTOS).getCell(1).getStringCellValue());
+            assertEquals("Sala Sur", sheet.getRow(EVENTOS).getCell(4).getStringCellValue());
+        }
+    }
+
+    /**
+     * Verifica que el reporte de salas escriba los datos de cada sala y use los
+     * anchos fijos de sus columnas en lugar de ajustarse al contenido.
+     */
+    @Test
+    void exportar_SalasXlsx_DebeUsarAnchosFijos() throws Exception {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        exportacionService.exportar(TipoReporte.SALAS, FormatoExportacion.XLSX, null, false, salida);
+
+        try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(salida.toByteArray()))) {
+            Sheet sheet = workbook.getSheet("Salas");
+            Row cabecera = sheet.getRow(0);
+            assertEquals("Capacidad", cabecera.getCell(2).getStringCellValue());
+            assertEquals("Ubicación", cabecera.getCell(3).getStringCellValue());
+            assertEquals("Descripción", cabecera.getCell(4).getStringCellValue());
+            assertEquals(2, sheet.getLastRowNum());
+            Row norte = sheet.getRow(1);
+            assertEquals("Sala Norte", norte.getCell(1).getStringCellValue());
+            assertEquals(60.0, norte.getCell(2).getNumericCellValue());
+            assertEquals("Piso 1", norte.getCell(3).getStringCellValue());
+            assertEquals(30 * 256, sheet.getColumnWidth(1));
+        }
+    }
+
+    /**
+     * Verifica que el reporte de inventario se genere desde el flujo de productos.
+     */
+    @Test
+    void exportar_InventarioXlsx_DebeEscribirLosProductos() throws Exception {
+        ProductoInventario producto = new ProductoInventario();
+        producto.setNombre("Vitrina");
+        producto.setTipo("Mobiliario");
+        producto.setStockTotal(6);
+        producto.setStockDisponible(4);
+        productoRepo.save(producto);
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        exportacionService.exportar(TipoReporte.INVENTARIO, FormatoExportacion.XLSX, null, false, salida);
+
+        try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(salida.toByteArray()))) {
+            Sheet sheet = workbook.getSheet("Inventario");
+            assertEquals(1, sheet.getLastRowNum());
+            assertEquals("Vitrina", sheet.getRow(1).getCell(1).getStringCellValue());
+            assertEquals(4.0, sheet.getRow(1).getCell(4).getNumericCellValue());
+        }
+    }
+
+    /**
+     * Verifica que la exportación incremental en CSV comprimido incluya solo los
+     * eventos modificados desde el instante indicado.
+     */
+    @Test
+    void exportar_CsvDesdeFecha_DebeIncluirSoloLosModificados() throws Exception {
+        Thread.sleep(20);
+        LocalDateTime corte = LocalDateTime.now();
+        Evento modificado = eventoRepositorio.findById(idsEventos.get(5)).orElseThrow();
+        modificado.setNombre("Evento renombrado");
+        eventoRepositorio.save(modificado);
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        exportacionService.exportar(TipoReporte.EVENTOS, FormatoExportacion.CSV, corte, true, salida);
+
+        String csv;
+        try (GZIPInputStream entrada = new GZIPInputStream(new ByteArrayInputStream(salida.toByteArray()))) {
+            csv = new String(entrada.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        String[] lineas = csv.split("\r\n");
+        assertEquals(2, lineas.length);
+        assertTrue(lineas[1].startsWith(idsEventos.get(5) + ",Evento renombrado,"));
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.museo_v2.service;
+
+import com.example.museo_v2.model.SolicitudIdempotente;
+import com.example.museo_v2.repository.SolicitudIdempotenteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para {@link IdempotenciaService}.
+ * Valida que un mismo envío de formulario se procese una sola vez.
+ */
+@ExtendWith(MockitoExtension.class)
+public class IdempotenciaServiceTest {
+
+    @Mock
+    private SolicitudIdempotenteRepository solicitudRepo;
+
+    private IdempotenciaService idempotenciaService;
+
+    @BeforeEach
+    void setUp() {
+        idempotenciaService = new IdempotenciaService(solicitudRepo, 100, 30);
+    }
+
+    /**
+     * Verifica que un reenvío con la misma clave devuelva el resultado del primero
+     * sin volver a ejecutar la acción ni consultar la base de datos.
+     */
+    @Test
+    void ejecutar_ReenvioConMismaClave_DebeDevolverMismoResultado() {
+        AtomicInteger ejecuciones = new AtomicInteger();
+
+        String primero = idempotenciaService.ejecutar("clave-1",
+                () -> "redirect:/reservas/confirmacion/" + ejecuciones.incrementAndGet());
+        String segundo = idempotenciaService.ejecutar("clave-1",
+                () -> "redirect:/reservas/confirmacion/" + ejecuciones.incrementAndGet());
+
+        assertEquals("redirect:/reservas/confirmacion/1", primero);
+        assertEquals(primero, segundo);
+        assertEquals(1, ejecuciones.get());
+        verify(solicitudRepo, times(1)).reclamar(eq("clave-1"), any());
+        verify(solicitudRepo).registrarResultado("clave-1", primero);
+    }
+
+    /**
+     * Verifica que si la clave ya fue procesada en otra instancia se devuelva
+     * el resultado guardado sin ejecutar la acción.
+     */
+    @Test
+    void ejecutar_ClaveYaRegistrada_DebeDevolverResultadoGuardado() {
+        SolicitudIdempotente previa = new SolicitudIdempotente();
+        previa.setClave("clave-2");
+        previa.setResultado("redirect:/eventos");
+        doThrow(new DataIntegrityViolationException("duplicada")).when(solicitudRepo).reclamar(eq("clave-2"), any());
+        when(solicitudRepo.findById("clave-2")).thenReturn(Optional.of(previa));
+
+        String resultado = idempotenciaService.ejecutar("clave-2", () -> fail("La acción no debe ejecutarse"));
+
+        assertEquals("redirect:/eventos", resultado);
+        verify(solicitudRepo, never()).liberar(anyString());
+    }
+
+    /**
+     * Verifica que si la acción falla la clave se libere y un nuevo intento
+     * con la misma clave vuelva a ejecutarla.
+     */
+    @Test
+    void ejecutar_AccionFalla_DebeLiberarClave() {
+        assertThrows(IllegalStateException.class, () -> idempotenciaService.ejecutar("clave-3", () -> {
+            throw new IllegalStateException("No hay entradas suficientes para el evento.");
+        }));
+        verify(solicitudRepo).liberar("clave-3");
+
+        String resultado = idempotenciaService.ejecutar("clave-3", () -> "redirect:/reservas/confirmacion/7");
+
+        assertEquals("redirect:/reservas/confirmacion/7", resultado);
+    }
+
+    /**
+     * Verifica que sin clave la acción se ejecute directamente.
+     */
+    @Test
+    void ejecutar_SinClave_DebeEjecutarSinRegistrar() {
+        assertEquals("redirect:/eventos", idempotenciaService.ejecutar(null, () -> "redirect:/eventos"));
+        verifyNoInteractions(solicitudRepo);
+    }
+}
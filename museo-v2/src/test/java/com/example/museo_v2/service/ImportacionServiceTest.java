@@ -0,0 +1,296 @@
+package com.example.museo_v2.service;
+
+import com.example.museo_v2.model.Evento;
+import com.example.museo_v2.model.EventoProducto;
+import com.example.museo_v2.model.ProductoInventario;
+import com.example.museo_v2.model.ResultadoImportacion;
+import com.example.museo_v2.model.ResultadoImportacion.ErrorFila;
+import com.example.museo_v2.model.Sala;
+import com.example.museo_v2.model.TipoReporte;
+import com.example.museo_v2.repository.EventoProductoRepository;
+import com.example.museo_v2.repository.EventoRepositorio;
+import com.example.museo_v2.repository.ProductoInventarioRepository;
+import com.example.museo_v2.repository.SalaRepositorio;
+import com.example.museo_v2.util.FormatoExportacion;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de integración para {@link ImportacionService} sobre una base H2 en memoria.
+ * El tamaño de lote se reduce para que cada archivo de prueba ocupe varios lotes.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "app.importacion.tamano-lote=3"
+})
+@Import({ImportacionService.class, ExportacionService.class, LibroInventarioService.class,
+        DisponibilidadInventarioService.class, ReintentoOptimistaService.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ImportacionServiceTest {
+
+    @Autowired
+    private ImportacionService importacionService;
+
+    @Autowired
+    private ExportacionService exportacionService;
+
+    @Autowired
+    private ProductoInventarioRepository productoRepo;
+
+    @Autowired
+    private EventoProductoRepository eventoProductoRepo;
+
+    @Autowired
+    private EventoRepositorio eventoRepositorio;
+
+    @Autowired
+    private SalaRepositorio salaRepositorio;
+
+    @BeforeEach
+    void setUp() {
+        eventoProductoRepo.deleteAll();
+        eventoRepositorio.deleteAll();
+        productoRepo.deleteAll();
+        salaRepositorio.deleteAll();
+    }
+
+    /**
+     * Verifica que un CSV cree los productos válidos, actualice los existentes
+     * conservando las unidades asignadas y rechace cada fila inválida con su número.
+     */
+    @Test
+    void importarProductos_Csv_DebeInsertarActualizarYReportarErrores() throws Exception {
+        ProductoInventario asignado = producto("Proyector", 10, 6);
+        String csv = "ID,Nombre,Tipo,Stock Total,Stock Disponible\r\n"
+                + ",Vitrina,Mobiliario,5,\r\n"
+                + ",\"Parlante, portátil\",Audio,4,3\r\n"
+                + ",,Audio,2,\r\n"
+                + ",Silla,Mobiliario,muchas,\r\n"
+                + "\r\n"
+                + asignado.getId() + ",Proyector HD,Video,8,\r\n"
+                + "999999,Fantasma,,1,\r\n"
+                + ",Mesa,Mobiliario,3,5\r\n";
+
+        ResultadoImportacion resultado = importacionService.importarProductos("inventario.csv", texto(csv));
+
+        assertEquals(7, resultado.filasLeidas());
+        assertEquals(2, resultado.insertadas());
+        assertEquals(1, resultado.actualizadas());
+        assertEquals(List.of(4, 5, 8, 9), resultado.errores().stream().map(ErrorFila::fila).toList());
+        assertEquals("Nombre es obligatorio", resultado.errores().get(0).mensaje());
+
+        Map<String, ProductoInventario> productos = productosPorNombre();
+        assertEquals(5, productos.get("Vitrina").getStockDisponible());
+        assertEquals(3, productos.get("Parlante, portátil").getStockDisponible());
+        ProductoInventario actualizado = productos.get("Proyector HD");
+        assertEquals(8, actualizado.getStockTotal());
+        assertEquals(4, actualizado.getStockDisponible());
+        assertNotNull(actualizado.getFechaModificacion());
+        assertEquals(asignado.getVersion() + 1, actualizado.getVersion());
+    }
+
+    /**
+     * Verifica que no se pueda reducir el stock total por debajo de las unidades
+     * que ya están asignadas a eventos.
+     */
+    @Test
+    void importarProductos_TotalMenorQueLoAsignado_DebeRechazarLaFila() throws Exception {
+        ProductoInventario asignado = producto("Proyector", 10, 6);
+        Evento muestra = new Evento();
+        muestra.setNombre("Muestra permanente");
+        eventoProductoRepo.save(new EventoProducto(eventoRepositorio.save(muestra), asignado, 4));
+
+        ResultadoImportacion resultado = importacionService.importarProductos("inventario.csv",
+                texto("ID;Nombre;Stock Total\n" + asignado.getId() + ";Proyector;3\n"));
+
+        assertEquals(0, resultado.actualizadas());
+        assertEquals(1, resultado.rechazadas());
+        ProductoInventario guardado = productoRepo.findById(asignado.getId()).orElseThrow();
+        assertEquals(10, guardado.getStockTotal());
+        assertEquals(6, guardado.getStockDisponible());
+    }
+
+    /**
+     * Verifica que un archivo mal formado al final informe las filas ya guardadas en
+     * lotes anteriores junto con el motivo de la interrupción, en lugar de solo el error.
+     */
+    @Test
+    void importarProductos_ComillasSinCerrarAlFinal_DebeInformarLasFilasGuardadas() throws Exception {
+        StringBuilder csv = new StringBuilder("Nombre;Stock Total\n");
+        for (int i = 0; i < 7; i++) {
+            csv.append("Producto ").append(i).append(";").append(i).append("\n");
+        }
+        csv.append("\"Producto roto;4\n");
+
+        ResultadoImportacion resultado = importacionService.importarProductos("inventario.csv", texto(csv.toString()));
+
+        assertEquals(7, resultado.insertadas());
+        assertNotNull(resultado.errorLectura());
+        assertTrue(resultado.errorLectura().contains("comillas sin cerrar"));
+        assertEquals(7, productoRepo.count());
+    }
+
+    /**
+     * Verifica que un inventario exportado en CSV pueda volver a importarse sin
+     * errores ni cambios en el stock.
+     */
+    @Test
+    void importarProductos_ReporteExportado_DebeActualizarTodasLasFilas() throws Exception {
+        for (int i = 0; i < 7; i++) {
+            producto("Producto " + i, 10 + i, 5);
+        }
+        ByteArrayOutputStream exportado = new ByteArrayOutputStream();
+        exportacionService.exportar(TipoReporte.INVENTARIO, FormatoExportacion.CSV, null, false, exportado);
+
+        ResultadoImportacion resultado = importacionService.importarProductos("inventario.csv",
+                new ByteArrayInputStream(exportado.toByteArray()));
+
+        assertEquals(7, resultado.actualizadas());
+        assertEquals(0, resultado.insertadas());
+        assertTrue(resultado.errores().isEmpty());
+        assertEquals(5, productosPorNombre().get("Producto 6").getStockDisponible());
+    }
+
+    /**
+     * Verifica que un XLSX de eventos se lea con la API de eventos de POI, resuelva
+     * las salas por nombre y acepte fechas en ambos formatos.
+     */
+    @Test
+    void importarEventos_Xlsx_DebeResolverSalasYFechas() throws Exception {
+        salaRepositorio.save(new Sala("Sala Norte", 60, "Piso 1", "Sala de pruebas", null));
+        Evento existente = new Evento();
+        existente.setNombre("Noche de museos");
+        existente.setFechaInicio(LocalDate.of(2025, 5, 1));
+        existente = eventoRepositorio.save(existente);
+
+        byte[] libro = xlsx(
+                new Object[]{"ID", "Nombre", "Fecha Inicio", "Costo Entrada", "Sala"},
+                new Object[]{null, "Taller de cerámica", "2025-06-10", 15.5, "sala norte"},
+                new Object[]{null, "Charla", "18/5/2025", null, null},
+                new Object[]{existente.getId().doubleValue(), "Noche de museos 2025", "2025-05-17", 0, "Sala Norte"},
+                new Object[]{null, "Concierto", "2025-13-01", 20, null},
+                new Object[]{null, "Recorrido", "2025-07-01", 10, "Sala Inexistente"});
+
+        ResultadoImportacion resultado = importacionService.importarEventos("eventos.xlsx",
+                new ByteArrayInputStream(libro));
+
+        assertEquals(2, resultado.insertadas());
+        assertEquals(1, resultado.actualizadas());
+        assertEquals(List.of(5, 6), resultado.errores().stream().map(ErrorFila::fila).toList());
+
+        Map<String, Evento> eventos = eventoRepositorio.findAll().stream()
+                .collect(Collectors.toMap(Evento::getNombre, Function.identity()));
+        Evento taller = eventos.get("Taller de cerámica");
+        assertEquals(0, new BigDecimal("15.5").compareTo(taller.getCostoEntrada()));
+        assertEquals("Sala Norte", salaRepositorio.findAll().get(0).getNombre());
+        assertNotNull(taller.getFechaModificacion());
+        assertEquals(LocalDate.of(2025, 5, 18), eventos.get("Charla").getFechaInicio());
+        assertEquals(LocalDate.of(2025, 5, 17), eventos.get("Noche de museos 2025").getFechaInicio());
+    }
+
+    /**
+     * Verifica que al actualizar eventos con una cabecera parcial o con celdas vacías
+     * se conserven el costo y la sala ya registrados.
+     */
+    @Test
+    void importarEventos_CabeceraParcial_DebeConservarCostoYSala() throws Exception {
+        Sala sala = salaRepositorio.save(new Sala("Sala Norte", 60, "Piso 1", "Sala de pruebas", null));
+        Evento sinColumnas = evento("Noche de museos", new BigDecimal("12.00"), sala);
+        Evento conCeldasVacias = evento("Taller", new BigDecimal("8.00"), sala);
+
+        String sinCosto = "ID,Nombre,Fecha Inicio\r\n"
+                + sinColumnas.getId() + ",Noche de museos 2025,2025-05-17\r\n";
+        String vacias = "ID,Nombre,Fecha Inicio,Costo Entrada,Sala\r\n"
+                + conCeldasVacias.getId() + ",Taller de cerámica,2025-06-10,,\r\n";
+
+        assertEquals(1, importacionService.importarEventos("eventos.csv", texto(sinCosto)).actualizadas());
+        assertEquals(1, importacionService.importarEventos("eventos.csv", texto(vacias)).actualizadas());
+
+        for (Evento original : List.of(sinColumnas, conCeldasVacias)) {
+            Evento actualizado = eventoRepositorio.findById(original.getId()).orElseThrow();
+            assertNotEquals(original.getNombre(), actualizado.getNombre());
+            assertEquals(0, original.getCostoEntrada().compareTo(actualizado.getCostoEntrada()));
+            assertEquals(sala.getId(), actualizado.getSala().getId());
+        }
+    }
+
+    /**
+     * Verifica que un archivo sin las columnas obligatorias o con otra extensión se
+     * rechace completo antes de escribir.
+     */
+    @Test
+    void importar_ArchivoInvalido_DebeLanzarExcepcion() {
+        assertThrows(IllegalArgumentException.class, () ->
+                importacionService.importarProductos("inventario.csv", texto("Nombre,Tipo\nVitrina,Mobiliario\n")));
+        assertThrows(IllegalArgumentException.class, () ->
+                importacionService.importarEventos("eventos.txt", texto("Nombre\n")));
+        assertEquals(0, productoRepo.count());
+    }
+
+    private Evento evento(String nombre, BigDecimal costo, Sala sala) {
+        Evento evento = new Evento();
+        evento.setNombre(nombre);
+        evento.setFechaInicio(LocalDate.of(2025, 5, 1));
+        evento.setCostoEntrada(costo);
+        evento.setSala(sala);
+        return eventoRepositorio.save(evento);
+    }
+
+    private ProductoInventario producto(String nombre, int total, int disponible) {
+        ProductoInventario producto = new ProductoInventario();
+        producto.setNombre(nombre);
+        producto.setStockTotal(total);
+        producto.setStockDisponible(disponible);
+        return productoRepo.save(producto);
+    }
+
+    private Map<String, ProductoInventario> productosPorNombre() {
+        return productoRepo.findAll().stream()
+                .collect(Collectors.toMap(ProductoInventario::getNombre, Function.identity()));
+    }
+
+    private static InputStream texto(String contenido) {
+        return new ByteArrayInputStream(contenido.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] xlsx(Object[]... filas) throws Exception {
+        try (XSSFWorkbook libro = new XSSFWorkbook(); ByteArrayOutputStream salida = new ByteArrayOutputStream()) {
+            Sheet hoja = libro.createSheet("Eventos");
+            for (int i = 0; i < filas.length; i++) {
+                Row fila = hoja.createRow(i);
+                for (int j = 0; j < filas[i].length; j++) {
+                    Object valor = filas[i][j];
+                    if (valor instanceof Number numero) {
+                        fila.createCell(j).setCellValue(numero.doubleValue());
+                    } else if (valor != null) {
+                        fila.createCell(j).setCellValue(valor.toString());
+                    }
+                }
+            }
+            libro.write(salida);
+            return salida.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.example.museo_v2.service;
+
+import com.example.museo_v2.model.Evento;
+import com.example.museo_v2.model.ProductoInventario;
+import com.example.museo_v2.model.TipoMovimiento;
+import com.example.museo_v2.repository.EventoProductoRepository;
+import com.example.museo_v2.repository.EventoRepositorio;
+import com.example.museo_v2.repository.ProductoInventarioRepository;
+import com.example.museo_v2.service.LibroInventarioService.Descuadre;
+import com.example.museo_v2.service.LibroInventarioService.Movimiento;
+import com.example.museo_v2.service.LibroInventarioService.Saldo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de integración del libro de inventario sobre una base H2 en memoria: los
+ * movimientos que dejan las altas, reservas, liberaciones, ediciones e importaciones,
+ * las instantáneas, las consultas a una fecha pasada y la auditoría de contadores.
+ * El margen de las instantáneas se anula para que incluyan los movimientos recién hechos.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "app.inventario.instantaneas.margen-segundos=0"
+})
+@Import({LibroInventarioService.class, ProductoInventarioService.class, ReintentoOptimistaService.class,
+        ImportacionService.class, DisponibilidadInventarioService.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class LibroInventarioServiceTest {
+
+    @Autowired
+    private LibroInventarioService libro;
+
+    @Autowired
+    private ProductoInventarioService productoService;
+
+    @Autowired
+    private ImportacionService importacionService;
+
+    @Autowired
+    private ProductoInventarioRepository productoRepo;
+
+    @Autowired
+    private EventoProductoRepository eventoProductoRepo;
+
+    @Autowired
+    private EventoRepositorio eventoRepositorio;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        eventoProductoRepo.deleteAll();
+        eventoRepositorio.deleteAll();
+        productoRepo.deleteAll();
+        jdbc.update("DELETE FROM instantaneas_inventario");
+        jdbc.update("DELETE FROM movimientos_inventario");
+    }
+
+    /**
+     * Verifica que el alta, las reservas, la liberación y la edición de un producto
+     * queden en el libro y que su saldo coincida siempre con los contadores.
+     */
+    @Test
+    void operaciones_DebenRegistrarMovimientosQueCuadranConLosContadores() {
+        ProductoInventario sillas = productoService.guardar(nuevo("Sillas", 50));
+        Evento charla = evento("Charla");
+        Evento feria = evento("Feria");
+
+        productoService.reservarProductos(charla, Map.of(sillas.getId(), 20));
+        productoService.reservarProductos(charla, Map.of(sillas.getId(), 5));
+        productoService.reservarProductos(feria, Map.of(sillas.getId(), 10));
+        assertEquals(new Saldo(50, 15), libro.saldo(sillas.getId()));
+
+        productoService.liberarProductos(charla.getId());
+        ProductoInventario actual = productoRepo.findById(sillas.getId()).orElseThrow();
+        ProductoInventario edicion = new ProductoInventario();
+        edicion.setId(actual.getId());
+        edicion.setVersion(actual.getVersion());
+        edicion.setNombre("Sillas");
+        edicion.setStockTotal(60);
+        productoService.guardar(edicion);
+
+        assertEquals(new Saldo(60, 50), libro.saldo(sillas.getId()));
+        assertEquals(List.of("ALTA", "RESERVA", "RESERVA", "RESERVA", "LIBERACION", "AJUSTE"), tipos(sillas.getId()));
+        assertEquals(25, jdbc.queryForObject("SELECT cambio_disponible FROM movimientos_inventario "
+                + "WHERE tipo = 'LIBERACION' AND evento_id = ?", Integer.class, charla.getId()));
+        assertTrue(libro.auditar().isEmpty());
+    }
+
+    /**
+     * Verifica que una reserva rechazada no deje movimientos.
+     */
+    @Test
+    void reservarProductos_StockInsuficiente_NoDebeRegistrarMovimientos() {
+        ProductoInventario proyector = productoService.guardar(nuevo("Proyector", 2));
+
+        assertThrows(RuntimeException.class, () ->
+                productoService.reservarProductos(evento("Charla"), Map.of(proyector.getId(), 3)));
+
+        assertEquals(List.of("ALTA"), tipos(proyector.getId()));
+    }
+
+    /**
+     * Verifica que una instantánea acumule sobre la anterior y que el saldo sea la
+     * última instantánea más los movimientos posteriores.
+     */
+    @Test
+    void tomarInstantaneas_DebeAcumularSobreLaAnterior() {
+        ProductoInventario mesas = productoService.guardar(nuevo("Mesas", 10));
+        productoService.reservarProductos(evento("Charla"), Map.of(mesas.getId(), 4));
+
+        assertEquals(1, libro.tomarInstantaneas());
+        assertEquals(0, libro.tomarInstantaneas());
+        productoService.reservarProductos(evento("Feria"), Map.of(mesas.getId(), 1));
+        assertEquals(1, libro.tomarInstantaneas());
+        productoService.reservarProductos(evento("Taller"), Map.of(mesas.getId(), 2));
+
+        Map<String, Object> ultima = jdbc.queryForMap("SELECT stock_total, stock_disponible FROM "
+                + "instantaneas_inventario WHERE producto_id = ? ORDER BY hasta_movimiento DESC LIMIT 1", mesas.getId());
+        assertEquals(10, ((Number) ultima.get("STOCK_TOTAL")).intValue());
+        assertEquals(5, ((Number) ultima.get("STOCK_DISPONIBLE")).intValue());
+        assertEquals(new Saldo(10, 3), libro.saldo(mesas.getId()));
+        assertTrue(libro.auditar().isEmpty());
+    }
+
+    /**
+     * Verifica que el stock a una fecha pasada sume solo los movimientos hasta esa
+     * fecha, tanto antes como después de tomar una instantánea.
+     */
+    @Test
+    void saldoAl_FechaPasada_DebeIgnorarMovimientosPosteriores() {
+        Long id = productoRepo.save(nuevo("Vitrinas", 0)).getId();
+        LocalDateTime inicio = LocalDateTime.now().minusDays(3);
+        libro.registrar(List.of(new Movimiento(id, null, TipoMovimiento.ALTA, 8, 8)),
+                Timestamp.valueOf(inicio));
+        libro.registrar(List.of(new Movimiento(id, 1L, TipoMovimiento.RESERVA, 0, -3)),
+                Timestamp.valueOf(inicio.plusDays(1)));
+        libro.registrar(List.of(new Movimiento(id, null, TipoMovimiento.AJUSTE, 4, 4)),
+                Timestamp.valueOf(inicio.plusDays(2)));
+
+        assertEquals(new Saldo(0, 0), libro.saldoAl(id, inicio.minusHours(1)));
+        assertEquals(new Saldo(8, 5), libro.saldoAl(id, inicio.plusDays(1).plusHours(1)));
+
+        libro.tomarInstantaneas();
+
+        assertEquals(new Saldo(8, 5), libro.saldoAl(id, inicio.plusDays(1).plusHours(1)));
+        assertEquals(new Saldo(12, 9), libro.saldoAl(id, LocalDateTime.now()));
+        assertEquals(new Saldo(12, 9), libro.saldo(id));
+    }
+
+    /**
+     * Verifica que los productos anteriores al libro se abran con sus contadores y
+     * que la auditoría detecte un contador modificado fuera del libro.
+     */
+    @Test
+    void auditar_ContadorModificadoFueraDelLibro_DebeInformarDescuadre() {
+        jdbc.update("INSERT INTO inventario_productos (nombre, tipo, stock_total, stock_disponible, version) "
+                + "VALUES ('Atriles', 'Mobiliario', 6, 4, 0)");
+        Long id = jdbc.queryForObject("SELECT id FROM inventario_productos WHERE nombre = 'Atriles'", Long.class);
+
+        assertEquals(1, libro.abrirSaldos());
+        assertEquals(0, libro.abrirSaldos());
+        assertEquals(new Saldo(6, 4), libro.saldo(id));
+        assertTrue(libro.auditar().isEmpty());
+
+        jdbc.update("UPDATE inventario_productos SET stock_disponible = 3 WHERE id = ?", id);
+
+        List<Descuadre> descuadres = libro.auditar();
+        assertEquals(1, descuadres.size());
+        assertEquals(new Descuadre(id, new Saldo(6, 3), new Saldo(6, 4)), descuadres.get(0));
+    }
+
+    /**
+     * Verifica que un producto anterior al libro que recibe una reserva antes de su
+     * apertura se abra con la diferencia, de modo que el libro cuadre con los contadores.
+     */
+    @Test
+    void abrirSaldos_MovimientoAntesDeLaApertura_DebeCuadrarConLosContadores() {
+        jdbc.update("INSERT INTO inventario_productos (nombre, tipo, stock_total, stock_disponible, version) "
+                + "VALUES ('Atriles', 'Mobiliario', 6, 6, 0)");
+        Long id = jdbc.queryForObject("SELECT id FROM inventario_productos WHERE nombre = 'Atriles'", Long.class);
+        productoService.reservarProductos(evento("Charla"), Map.of(id, 2));
+
+        assertEquals(1, libro.abrirSaldos());
+        assertEquals(0, libro.abrirSaldos());
+
+        assertEquals(List.of("RESERVA", "APERTURA"), tipos(id));
+        assertEquals(new Saldo(6, 4), libro.saldo(id));
+        assertTrue(libro.auditar().isEmpty());
+    }
+
+    /**
+     * Verifica que una importación registre el alta de los productos nuevos y la
+     * diferencia de stock total de los actualizados, incluso con un ID repetido.
+     */
+    @Test
+    void importarProductos_DebeRegistrarAltasYAjustes() throws Exception {
+        ProductoInventario sillas = productoService.guardar(nuevo("Sillas", 10));
+        String csv = "ID,Nombre,Tipo,Stock Total\n"
+                + ",Mesas,Mobiliario,5\n"
+                + sillas.getId() + ",Sillas,Mobiliario,14\n"
+                + sillas.getId() + ",Sillas,Mobiliario,12\n";
+
+        importacionService.importarProductos("productos.csv",
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(List.of("ALTA", "AJUSTE", "AJUSTE"), tipos(sillas.getId()));
+        assertEquals(new Saldo(12, 12), libro.saldo(sillas.getId()));
+        Long mesas = jdbc.queryForObject("SELECT id FROM inventario_productos WHERE nombre = 'Mesas'", Long.class);
+        assertEquals(List.of("ALTA"), tipos(mesas));
+        assertEquals(new Saldo(5, 5), libro.saldo(mesas));
+        assertTrue(libro.auditar().isEmpty());
+    }
+
+    private List<String> tipos(Long productoId) {
+        return jdbc.queryForList("SELECT tipo FROM movimientos_inventario WHERE producto_id = ? ORDER BY id",
+                String.class, productoId);
+    }
+
+    private Evento evento(String nombre) {
+        Evento evento = new Evento();
+        evento.setNombre(nombre);
+        return eventoRepositorio.save(evento);
+    }
+
+    private static ProductoInventario nuevo(String nombre, int stock) {
+        ProductoInventario producto = new ProductoInventario();
+        producto.setNombre(nombre);
+        producto.setTipo("Mobiliario");
+        producto.setStockTotal(stock);
+        return producto;
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.museo_v2.service;
+
+import com.example.museo_v2.model.Evento;
+import com.example.museo_v2.model.Reserva;
+import com.example.museo_v2.model.Sala;
+import com.example.museo_v2.model.SolicitudEspera;
+import com.example.museo_v2.repository.EventoRepositorio;
+import com.example.museo_v2.repository.ReservaRepositorio;
+import com.example.museo_v2.repository.SalaRepositorio;
+import com.example.museo_v2.repository.SolicitudEsperaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de integración para {@link ListaEsperaService} sobre una base H2 en memoria.
+ * Valida que las solicitudes se promuevan en orden de llegada cuando el aforo
+ * del evento recupera entradas.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({ListaEsperaService.class, AforoService.class, EventoServiceImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ListaEsperaServiceTest {
+
+    @Autowired
+    private ListaEsperaService listaEsperaService;
+
+    @Autowired
+    private AforoService aforoService;
+
+    @Autowired
+    private SolicitudEsperaRepository solicitudRepo;
+
+    @Autowired
+    private ReservaRepositorio reservaRepositorio;
+
+    @Autowired
+    private EventoRepositorio eventoRepositorio;
+
+    @Autowired
+    private SalaRepositorio salaRepositorio;
+
+    private Evento evento;
+
+    /**
+     * Registra un evento con aforo de 5 entradas, todas ya vendidas.
+     */
+    @BeforeEach
+    void setUp() {
+        Sala sala = salaRepositorio.save(new Sala("Sala Pequeña", 5, "Piso 2", "Sala de pruebas", null));
+
+        evento = new Evento();
+        evento.setNombre("Evento agotado " + System.nanoTime());
+        evento.setCostoEntrada(new BigDecimal("10.00"));
+        evento.setSala(sala);
+        evento = eventoRepositorio.save(evento);
+
+        assertTrue(aforoService.ocuparEntradas(evento.getId(), 5));
+    }
+
+    /**
+     * Verifica que al liberar entradas se promuevan en lote las primeras solicitudes
+     * que caben, respetando el orden de llegada, y que el resto siga esperando.
+     */
+    @Test
+    void alLiberarEntradas_DebePromoverCabezaEnOrden() {
+        SolicitudEspera primera = listaEsperaService.inscribir(datos("Ana", 2), evento.getId());
+        SolicitudEspera segunda = listaEsperaService.inscribir(datos("Luis", 2), evento.getId());
+        SolicitudEspera tercera = listaEsperaService.inscribir(datos("Rosa", 3), evento.getId());
+        assertEquals(3, listaEsperaService.posicion(tercera));
+
+        aforoService.liberarEntradas(evento.getId(), 5);
+
+        esperarHasta(() -> listaEsperaService.obtenerReservaPromovida(segunda.getId()) != null);
+        Reserva reserva = listaEsperaService.obtenerReservaPromovida(primera.getId());
+        assertNotNull(reserva);
+        assertEquals(new BigDecimal("20.00"), reserva.getTotalPagar());
+        assertEquals(SolicitudEspera.PROMOVIDA, solicitudRepo.findById(primera.getId()).orElseThrow().getEstado());
+
+        assertNull(listaEsperaService.obtenerReservaPromovida(tercera.getId()));
+        assertEquals(SolicitudEspera.ESPERANDO, solicitudRepo.findById(tercera.getId()).orElseThrow().getEstado());
+        assertEquals(1, listaEsperaService.posicion(tercera));
+        assertEquals(1, aforoService.entradasDisponibles(evento.getId()));
+    }
+
+    /**
+     * Verifica que una solicitud que no cabe bloquee a las siguientes, aunque estas
+     * pidan menos entradas, para no saltarse el orden de llegada.
+     */
+    @Test
+    void alLiberarEntradas_PrimeraNoCabe_NoDebePromoverSiguientes() {
+        SolicitudEspera grande = listaEsperaService.inscribir(datos("Pedro", 4), evento.getId());
+        SolicitudEspera pequena = listaEsperaService.inscribir(datos("Marta", 1), evento.getId());
+
+        aforoService.liberarEntradas(evento.getId(), 2);
+        assertEquals(0, listaEsperaService.promover(evento.getId()));
+        assertNull(listaEsperaService.obtenerReservaPromovida(pequena.getId()));
+
+        aforoService.liberarEntradas(evento.getId(), 3);
+        esperarHasta(() -> listaEsperaService.obtenerReservaPromovida(pequena.getId()) != null);
+        assertNotNull(listaEsperaService.obtenerReservaPromovida(grande.getId()));
+        assertEquals(0, aforoService.entradasDisponibles(evento.getId()));
+    }
+
+    /**
+     * Verifica que una solicitud al frente que no cabe y superó el tiempo de espera
+     * se retire como vencida, y que la promoción siga con las siguientes.
+     */
+    @Test
+    void promover_CabezaVencidaQueNoCabe_DebeRetirarlaYSeguir() {
+        SolicitudEspera grande = listaEsperaService.inscribir(datos("Pedro", 4), evento.getId());
+        SolicitudEspera pequena = listaEsperaService.inscribir(datos("Marta", 1), evento.getId());
+        grande.setFechaSolicitud(LocalDateTime.now().minusHours(2));
+
+        aforoService.liberarEntradas(evento.getId(), 2);
+
+        esperarHasta(() -> listaEsperaService.obtenerReservaPromovida(pequena.getId()) != null);
+        assertEquals(SolicitudEspera.VENCIDA, solicitudRepo.findById(grande.getId()).orElseThrow().getEstado());
+        assertEquals(0, listaEsperaService.posicion(grande));
+        assertNull(listaEsperaService.obtenerReservaPromovida(grande.getId()));
+        assertEquals(1, aforoService.entradasDisponibles(evento.getId()));
+    }
+
+    /**
+     * Verifica que no se pueda inscribir en la lista de espera una solicitud que
+     * supera el máximo de entradas por reserva, y que no quede registrada.
+     */
+    @Test
+    void inscribir_SobreElMaximoDeEntradas_DebeRechazar() {
+        long registradas = solicitudRepo.count();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> listaEsperaService.inscribir(datos("Pedro", 21), evento.getId()));
+        assertEquals(registradas, solicitudRepo.count());
+    }
+
+    private Reserva datos(String nombre, int entradas) {
+        Reserva reserva = new Reserva();
+        reserva.setNombreCompleto(nombre);
+        reserva.setDniRuc("4" + System.nanoTime() % 10_000_000);
+        reserva.setTelefono("999888777");
+        reserva.setNEntradas(entradas);
+        reserva.setTipoComprobante("Boleta");
+        reserva.setMetodoPago("Efectivo");
+        return reserva;
+    }
+
+    private void esperarHasta(BooleanSupplier condicion) {
+        long limite = System.currentTimeMillis() + 5000;
+        while (!condicion.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < limite, "La promoción no ocurrió a tiempo");
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.museo_v2.service;
+
+import com.example.museo_v2.model.Evento;
+import com.example.museo_v2.model.EventoResumen;
+import com.example.museo_v2.model.PaginaInicio;
+import com.example.museo_v2.model.Sala;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para {@link PaginaInicioService}.
+ * Valida que la página se sirva desde memoria y se recalcule al modificarse un evento.
+ */
+@ExtendWith(MockitoExtension.class)
+public class PaginaInicioServiceTest {
+
+    @Mock
+    private EventoService eventoService;
+
+    private PaginaInicioService paginaInicioService;
+
+    private Evento eventoDelMes;
+
+    @BeforeEach
+    void setUp() {
+        paginaInicioService = new PaginaInicioService(eventoService);
+
+        eventoDelMes = new Evento();
+        eventoDelMes.setId(1L);
+        eventoDelMes.setNombre("Noche de museos");
+        eventoDelMes.setFechaInicio(LocalDate.now());
+        eventoDelMes.setSala(new Sala("Sala Principal", 100, "Piso 1", "Sala", "/uploads/salas/principal.png"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        paginaInicioService.detener();
+    }
+
+    /**
+     * Verifica que las visitas repetidas se sirvan desde memoria con una sola carga.
+     */
+    @Test
+    void obtener_VisitasRepetidas_DebeConsultarUnaSolaVez() {
+        when(eventoService.obtenerEventosDelMesActual()).thenReturn(List.of(eventoDelMes));
+        when(eventoService.obtenerProximosEventos(PaginaInicioService.PROXIMOS_EVENTOS)).thenReturn(List.of());
+
+        PaginaInicio primera = paginaInicioService.obtener();
+        PaginaInicio segunda = paginaInicioService.obtener();
+
+        assertSame(primera, segunda);
+        assertEquals("Sala Principal", primera.eventosDelMes().get(0).salaNombre());
+        assertEquals("/uploads/salas/principal.png", primera.eventosDelMes().get(0).salaImagenUrl());
+        verify(eventoService, times(1)).obtenerEventosDelMesActual();
+    }
+
+    /**
+     * Verifica que al modificarse un evento la página se recalcule en segundo plano
+     * y las visitas siguientes reciban la nueva versión.
+     */
+    @Test
+    void alModificarEvento_DebeRecalcularEnSegundoPlano() {
+        EventoResumen proximo = new EventoResumen(2L, "Concierto", LocalDate.now().plusDays(40), null, null, null);
+        when(eventoService.obtenerEventosDelMesActual()).thenReturn(List.of(eventoDelMes));
+        when(eventoService.obtenerProximosEventos(PaginaInicioService.PROXIMOS_EVENTOS))
+                .thenReturn(List.of())
+                .thenReturn(List.of(proximo));
+
+        assertTrue(paginaInicioService.obtener().eventosProximos().isEmpty());
+
+        paginaInicioService.alModificarEvento(new EventoService.EventoModificado(2L));
+
+        verify(eventoService, timeout(2000).times(2)).obtenerProximosEventos(PaginaInicioService.PROXIMOS_EVENTOS);
+        long limite = System.currentTimeMillis() + 2000;
+        while (paginaInicioService.obtener().eventosProximos().isEmpty() && System.currentTimeMillis() < limite) {
+            Thread.onSpinWait();
+        }
+        assertEquals(List.of(proximo), paginaInicioService.obtener().eventosProximos());
+    }
+}
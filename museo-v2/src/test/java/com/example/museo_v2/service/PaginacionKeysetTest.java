@@ -0,0 +1,171 @@
+package com.example.museo_v2.service;
+
+import com.example.museo_v2.model.Evento;
+import com.example.museo_v2.model.EventoListado;
+import com.example.museo_v2.model.PaginaKeyset;
+import com.example.museo_v2.model.ProductoInventario;
+import com.example.museo_v2.model.ProductoListado;
+import com.example.museo_v2.model.Sala;
+import com.example.museo_v2.repository.EventoProductoRepository;
+import com.example.museo_v2.repository.EventoRepositorio;
+import com.example.museo_v2.repository.ProductoInventarioRepository;
+import com.example.museo_v2.repository.SalaRepositorio;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de integración de los listados paginados por cursor sobre una base H2.
+ * Recorren todas las páginas siguiendo el cursor del último elemento y validan
+ * que no se repitan ni se pierdan filas, incluso cuando varios eventos comparten fecha.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({EventoServiceImpl.class, ProductoInventarioService.class, ReintentoOptimistaService.class,
+        LibroInventarioService.class, DisponibilidadInventarioService.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class PaginacionKeysetTest {
+
+    private static final LocalDate HOY = LocalDate.of(2025, 3, 1);
+
+    @Autowired
+    private EventoServiceImpl eventoService;
+
+    @Autowired
+    private ProductoInventarioService productoService;
+
+    @Autowired
+    private EventoRepositorio eventoRepositorio;
+
+    @Autowired
+    private SalaRepositorio salaRepositorio;
+
+    @Autowired
+    private ProductoInventarioRepository productoRepo;
+
+    @Autowired
+    private EventoProductoRepository eventoProductoRepo;
+
+    /**
+     * Registra 11 eventos repartidos en 4 fechas, de modo que varias páginas
+     * terminen en medio de un grupo de eventos con la misma fecha.
+     */
+    @BeforeEach
+    void setUp() {
+        eventoProductoRepo.deleteAll();
+        eventoRepositorio.deleteAll();
+        productoRepo.deleteAll();
+        salaRepositorio.deleteAll();
+
+        Sala sala = salaRepositorio.save(new Sala("Sala Central", 80, "Piso 1", "Sala de pruebas", null));
+        for (int i = 0; i < 11; i++) {
+            Evento evento = new Evento();
+            evento.setNombre((i % 2 == 0 ? "Concierto " : "Taller ") + i);
+            evento.setFechaInicio(HOY.plusDays(i % 4));
+            evento.setCostoEntrada(new BigDecimal("15.00"));
+            evento.setSala(sala);
+            eventoRepositorio.save(evento);
+        }
+    }
+
+    /**
+     * Verifica que al seguir el cursor se obtengan todos los eventos una sola vez,
+     * en orden de fecha y con el ID como desempate.
+     */
+    @Test
+    void listarEventos_AlSeguirElCursor_DebeRecorrerTodosEnOrden() {
+        List<EventoListado> recorridos = recorrerEventos(null, false);
+
+        assertEquals(11, recorridos.size());
+        assertEquals(11, recorridos.stream().map(EventoListado::id).distinct().count());
+        for (int i = 1; i < recorridos.size(); i++) {
+            EventoListado anterior = recorridos.get(i - 1);
+            EventoListado actual = recorridos.get(i);
+            assertTrue(anterior.fechaInicio().isBefore(actual.fechaInicio())
+                    || (anterior.fechaInicio().equals(actual.fechaInicio()) && anterior.id() < actual.id()));
+        }
+        assertEquals("Sala Central", recorridos.get(0).salaNombre());
+    }
+
+    /**
+     * Verifica que el orden descendente y el filtro por nombre se mantengan
+     * entre páginas.
+     */
+    @Test
+    void listarEventos_DescendenteConFiltro_DebeRecorrerSoloCoincidencias() {
+        List<EventoListado> recorridos = recorrerEventos("Taller", true);
+
+        assertEquals(5, recorridos.size());
+        assertTrue(recorridos.stream().allMatch(e -> e.nombre().startsWith("Taller")));
+        assertFalse(recorridos.get(0).fechaInicio().isBefore(recorridos.get(4).fechaInicio()));
+    }
+
+    /**
+     * Verifica que los eventos sin fecha de inicio aparezcan al final del orden
+     * ascendente y al principio del descendente, ordenados por ID, aunque las páginas
+     * crucen de un tramo al otro.
+     */
+    @Test
+    void listarEventos_SinFechaDeInicio_DebenAparecerEnAmbosOrdenes() {
+        List<Long> sinFecha = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Evento evento = new Evento();
+            evento.setNombre("Por programar " + i);
+            sinFecha.add(eventoRepositorio.save(evento).getId());
+        }
+
+        List<EventoListado> ascendente = recorrerEventos(null, false);
+        List<EventoListado> descendente = recorrerEventos(null, true);
+
+        assertEquals(15, ascendente.stream().map(EventoListado::id).distinct().count());
+        assertEquals(sinFecha, ascendente.subList(11, 15).stream().map(EventoListado::id).toList());
+        assertNotNull(ascendente.get(10).fechaInicio());
+
+        assertEquals(15, descendente.stream().map(EventoListado::id).distinct().count());
+        assertEquals(sinFecha.reversed(), descendente.subList(0, 4).stream().map(EventoListado::id).toList());
+        assertEquals(HOY.plusDays(3), descendente.get(4).fechaInicio());
+    }
+
+    /**
+     * Verifica que el inventario se recorra por ID desde el cursor recibido.
+     */
+    @Test
+    void listarProductos_DesdeCursor_DebeDevolverLosSiguientes() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ProductoInventario producto = new ProductoInventario();
+            producto.setNombre("Silla " + i);
+            producto.setTipo("Mobiliario");
+            producto.setStockTotal(10);
+            ids.add(productoService.guardar(producto).getId());
+        }
+
+        PaginaKeyset<ProductoListado> pagina = productoService.listarPaginado(null, false, ids.get(1), 2);
+
+        assertEquals(List.of(ids.get(2), ids.get(3)), pagina.elementos().stream().map(ProductoListado::id).toList());
+        assertTrue(pagina.haySiguiente());
+    }
+
+    private List<EventoListado> recorrerEventos(String nombre, boolean descendente) {
+        List<EventoListado> recorridos = new ArrayList<>();
+        PaginaKeyset<EventoListado> pagina = eventoService.listarEventosPaginados(nombre, descendente, null, null, 3);
+        recorridos.addAll(pagina.elementos());
+        while (pagina.haySiguiente()) {
+            EventoListado ultimo = pagina.ultimo();
+            pagina = eventoService.listarEventosPaginados(nombre, descendente, ultimo.fechaInicio(), ultimo.id(), 3);
+            recorridos.addAll(pagina.elementos());
+        }
+        return recorridos;
+    }
+}
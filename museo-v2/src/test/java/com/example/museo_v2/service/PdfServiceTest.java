@@ -0,0 +1,102 @@
+package com.example.museo_v2.service;
+
+import com.example.museo_v2.model.Evento;
+import com.example.museo_v2.model.Reserva;
+import com.example.museo_v2.model.Sala;
+import com.lowagie.text.pdf.PdfReader;
+import com.lowagie.text.pdf.parser.PdfTextExtractor;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para {@link PdfService}.
+ */
+public class PdfServiceTest {
+
+    private final PdfService pdfService = new PdfService();
+
+    /**
+     * Verifica que el ticket contenga la parte fija de la plantilla y los datos
+     * estampados de la reserva.
+     */
+    @Test
+    void escribirTicket_DebeEstamparLosDatosSobreLaPlantilla() throws Exception {
+        String texto = texto(reserva(7L, "Taller de cerámica", "Ana Quispe"));
+
+        assertTrue(texto.contains("MUSEO TUMBAS REALES"));
+        assertTrue(texto.contains("Por favor presente este ticket en la entrada."));
+        assertTrue(texto.contains("Taller de cerámica"));
+        assertTrue(texto.contains("18/05/2025"));
+        assertTrue(texto.contains("10:30"));
+        assertTrue(texto.contains("Sala Norte"));
+        assertTrue(texto.contains("Ana Quispe"));
+        assertTrue(texto.contains("S/ 25.00"));
+        assertTrue(texto.contains("#7"));
+    }
+
+    /**
+     * Verifica que cada ticket lleve solo sus propios datos aunque todos partan
+     * de la misma plantilla.
+     */
+    @Test
+    void escribirTicket_VariasReservas_NoDebeMezclarDatos() throws Exception {
+        String primero = texto(reserva(1L, "Noche de museos", "Luis Flores"));
+        String segundo = texto(reserva(2L, "Charla", "Rosa Díaz"));
+
+        assertTrue(primero.contains("Luis Flores"));
+        assertFalse(primero.contains("Rosa Díaz"));
+        assertTrue(segundo.contains("Charla"));
+        assertFalse(segundo.contains("Noche de museos"));
+    }
+
+    /**
+     * Verifica que un nombre de evento más ancho que la página se recorte en vez
+     * de salirse del ticket, y que falten datos opcionales sin fallar.
+     */
+    @Test
+    void escribirTicket_NombreLargoYSinHora_DebeRecortarYCompletar() throws Exception {
+        Reserva reserva = reserva(3L, "Exposición ".repeat(20), "Ana Quispe");
+        reserva.getEvento().setHoraInicio(null);
+        reserva.getEvento().setSala(null);
+
+        String texto = texto(reserva);
+
+        assertTrue(texto.contains("…"));
+        assertTrue(texto.contains("Por definir"));
+    }
+
+    private String texto(Reserva reserva) throws Exception {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        pdfService.escribirTicket(reserva, salida);
+        PdfReader lector = new PdfReader(salida.toByteArray());
+        try {
+            return new PdfTextExtractor(lector).getTextFromPage(1);
+        } finally {
+            lector.close();
+        }
+    }
+
+    private static Reserva reserva(Long id, String nombreEvento, String titular) {
+        Sala sala = new Sala();
+        sala.setNombre("Sala Norte");
+        Evento evento = new Evento();
+        evento.setNombre(nombreEvento);
+        evento.setFechaInicio(LocalDate.of(2025, 5, 18));
+        evento.setHoraInicio(LocalTime.of(10, 30));
+        evento.setSala(sala);
+        Reserva reserva = new Reserva();
+        reserva.setId(id);
+        reserva.setEvento(evento);
+        reserva.setNombreCompleto(titular);
+        reserva.setDniRuc("12345678");
+        reserva.setNEntradas(2);
+        reserva.setTotalPagar(new BigDecimal("25.00"));
+        return reserva;
+    }
+}
@@ -0,0 +1,280 @@
+package com.example.museo_v2.service;
+
+import com.example.museo_v2.model.Evento;
+import com.example.museo_v2.model.ProductoInventario;
+import com.example.museo_v2.model.Sala;
+import com.example.museo_v2.repository.EventoProductoRepository;
+import com.example.museo_v2.repository.EventoRepositorio;
+import com.example.museo_v2.repository.ProductoInventarioRepository;
+import com.example.museo_v2.repository.SalaRepositorio;
+import com.example.museo_v2.service.ReintentoOptimistaService.Politica;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Pruebas de integración del control optimista de versiones sobre una base H2 en
+ * memoria: la política de reintento o rechazo, sus métricas, las reservas de productos
+ * que chocan con otra escritura y las ediciones de productos y salas con una versión vencida.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "app.concurrencia.intentos=3"
+})
+@Import({ReintentoOptimistaService.class, ProductoInventarioService.class, LibroInventarioService.class,
+        DisponibilidadInventarioService.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ReintentoOptimistaServiceTest {
+
+    @Autowired
+    private ReintentoOptimistaService reintentos;
+
+    @Autowired
+    private ProductoInventarioService productoService;
+
+    @Autowired
+    private ProductoInventarioRepository productoRepo;
+
+    @Autowired
+    private EventoProductoRepository eventoProductoRepo;
+
+    @Autowired
+    private EventoRepositorio eventoRepositorio;
+
+    @Autowired
+    private SalaRepositorio salaRepositorio;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry registro;
+
+    @MockitoSpyBean
+    private DisponibilidadInventarioService disponibilidad;
+
+    @BeforeEach
+    void setUp() {
+        eventoProductoRepo.deleteAll();
+        eventoRepositorio.deleteAll();
+        productoRepo.deleteAll();
+        salaRepositorio.deleteAll();
+        registro.clear();
+    }
+
+    /**
+     * Verifica que si otra transacción modifica el producto entre la lectura y la
+     * escritura, el ajuste se repita sobre los datos actuales sin perder ninguno de
+     * los dos cambios.
+     */
+    @Test
+    void ejecutar_ConflictoConReintento_DebeRepetirSobreDatosActuales() {
+        ProductoInventario sillas = producto("Sillas", 10, 10);
+        AtomicInteger intentos = new AtomicInteger();
+
+        reintentos.ejecutar("producto", Politica.REINTENTAR, () -> {
+            ProductoInventario actual = productoRepo.findById(sillas.getId()).orElseThrow();
+            if (intentos.incrementAndGet() == 1) {
+                descontarEnOtraTransaccion(sillas.getId(), 4);
+            }
+            actual.setStockDisponible(actual.getStockDisponible() + 2);
+        });
+
+        assertEquals(2, intentos.get());
+        assertEquals(8, productoRepo.findById(sillas.getId()).orElseThrow().getStockDisponible());
+        assertEquals(1, conflictos("producto", "reintentado"));
+        assertEquals(1, registro.counter("museo.concurrencia.operaciones", "entidad", "producto").count());
+    }
+
+    /**
+     * Verifica que al agotar los intentos se propague el conflicto y se cuente como agotado.
+     */
+    @Test
+    void ejecutar_ConflictoPersistente_DebeAgotarLosIntentos() {
+        ProductoInventario sillas = producto("Sillas", 10, 10);
+        AtomicInteger intentos = new AtomicInteger();
+
+        assertThrows(OptimisticLockingFailureException.class, () ->
+                reintentos.ejecutar("producto", Politica.REINTENTAR, () -> {
+                    intentos.incrementAndGet();
+                    ProductoInventario actual = productoRepo.findById(sillas.getId()).orElseThrow();
+                    descontarEnOtraTransaccion(sillas.getId(), 1);
+                    actual.setNombre("Sillas plegables");
+                }));
+
+        assertEquals(3, intentos.get());
+        assertEquals(2, conflictos("producto", "reintentado"));
+        assertEquals(1, conflictos("producto", "agotado"));
+        assertEquals("Sillas", productoRepo.findById(sillas.getId()).orElseThrow().getNombre());
+    }
+
+    /**
+     * Verifica que la edición de un producto recalcule el stock disponible sobre el
+     * valor actual, conservando las unidades asignadas, e incremente la versión.
+     */
+    @Test
+    void guardar_VersionVigente_DebeRecalcularDisponible() {
+        ProductoInventario proyector = producto("Proyector", 10, 6);
+
+        ProductoInventario edicion = edicion(proyector, "Proyector HD", 12);
+        productoService.guardar(edicion);
+
+        ProductoInventario guardado = productoRepo.findById(proyector.getId()).orElseThrow();
+        assertEquals("Proyector HD", guardado.getNombre());
+        assertEquals(12, guardado.getStockTotal());
+        assertEquals(8, guardado.getStockDisponible());
+        assertEquals(proyector.getVersion() + 1, guardado.getVersion());
+    }
+
+    /**
+     * Verifica que una edición hecha sobre una versión anterior se rechace sin
+     * sobrescribir el cambio concurrente, aquí una reserva de productos.
+     */
+    @Test
+    void guardar_VersionVencida_DebeRechazarSinSobrescribir() {
+        ProductoInventario proyector = producto("Proyector", 10, 10);
+        Evento evento = new Evento();
+        evento.setNombre("Charla");
+        productoService.reservarProductos(eventoRepositorio.save(evento), Map.of(proyector.getId(), 3));
+
+        ProductoInventario edicion = edicion(proyector, "Proyector HD", 20);
+        assertThrows(OptimisticLockingFailureException.class, () -> productoService.guardar(edicion));
+
+        ProductoInventario guardado = productoRepo.findById(proyector.getId()).orElseThrow();
+        assertEquals("Proyector", guardado.getNombre());
+        assertEquals(10, guardado.getStockTotal());
+        assertEquals(7, guardado.getStockDisponible());
+        assertEquals(1, conflictos("producto", "rechazado"));
+    }
+
+    /**
+     * Verifica que si otra escritura cambia el producto entre la comprobación de
+     * disponibilidad y el descuento, la reserva se repita sobre la versión nueva en lugar
+     * de descontar con datos vencidos.
+     */
+    @Test
+    void reservarProductos_ProductoCambiaAntesDelDescuento_DebeReintentar() {
+        ProductoInventario sillas = producto("Sillas", 10, 10);
+        AtomicInteger consultas = new AtomicInteger();
+        doAnswer(invocacion -> {
+            if (consultas.incrementAndGet() == 1) {
+                descontarEnOtraTransaccion(sillas.getId(), 4);
+            }
+            return invocacion.callRealMethod();
+        }).when(disponibilidad).ocupacionMaxima(any(), anyLong(), any(), any());
+        Evento evento = new Evento();
+        evento.setNombre("Charla");
+
+        productoService.reservarProductos(eventoRepositorio.save(evento), Map.of(sillas.getId(), 3));
+
+        assertEquals(2, consultas.get());
+        ProductoInventario guardado = productoRepo.findById(sillas.getId()).orElseThrow();
+        assertEquals(3, guardado.getStockDisponible());
+        assertEquals(sillas.getVersion() + 2, guardado.getVersion());
+        assertEquals(1, eventoProductoRepo.count());
+        assertEquals(1, conflictos("producto", "reintentado"));
+    }
+
+    /**
+     * Verifica que no se acepte un stock total menor que las unidades asignadas a eventos.
+     */
+    @Test
+    void guardar_TotalMenorQueLoAsignado_DebeLanzarExcepcion() {
+        Long id = producto("Proyector", 10, 10).getId();
+        Evento muestra = new Evento();
+        muestra.setNombre("Muestra permanente");
+        productoService.reservarProductos(eventoRepositorio.save(muestra), Map.of(id, 6));
+        ProductoInventario proyector = productoRepo.findById(id).orElseThrow();
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () ->
+                productoService.guardar(edicion(proyector, "Proyector", 5)));
+
+        assertTrue(error.getMessage().contains("(6)"));
+        assertEquals(10, productoRepo.findById(proyector.getId()).orElseThrow().getStockTotal());
+    }
+
+    /**
+     * Verifica que guardar una sala con la versión que tenía al abrir el formulario
+     * falle si otra persona la guardó antes.
+     */
+    @Test
+    void guardarSala_VersionVencida_DebeRechazar() {
+        Sala sala = salaRepositorio.save(new Sala("Sala Norte", 60, "Piso 1", "Sala de pruebas", null));
+        Sala primera = copia(sala);
+        Sala segunda = copia(sala);
+
+        primera.setCapacidad(80);
+        reintentos.ejecutar("sala", Politica.RECHAZAR, () -> salaRepositorio.save(primera));
+        segunda.setCapacidad(40);
+
+        assertThrows(OptimisticLockingFailureException.class, () ->
+                reintentos.ejecutar("sala", Politica.RECHAZAR, () -> salaRepositorio.save(segunda)));
+        assertEquals(80, salaRepositorio.findById(sala.getId()).orElseThrow().getCapacidad());
+        assertEquals(1, conflictos("sala", "rechazado"));
+    }
+
+    private void descontarEnOtraTransaccion(Long id, int cantidad) {
+        TransactionTemplate nueva = new TransactionTemplate(transactionManager);
+        nueva.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        nueva.executeWithoutResult(estado -> jdbc.update(
+                "UPDATE inventario_productos SET stock_disponible = stock_disponible - ?, version = version + 1 "
+                        + "WHERE id = ?", cantidad, id));
+    }
+
+    private double conflictos(String entidad, String resultado) {
+        return registro.counter("museo.concurrencia.conflictos", "entidad", entidad, "resultado", resultado).count();
+    }
+
+    private ProductoInventario producto(String nombre, int total, int disponible) {
+        ProductoInventario producto = new ProductoInventario();
+        producto.setNombre(nombre);
+        producto.setTipo("Electrónico");
+        producto.setStockTotal(total);
+        producto.setStockDisponible(disponible);
+        return productoRepo.save(producto);
+    }
+
+    /**
+     * Datos que envía el formulario de edición: sin stock disponible.
+     */
+    private static ProductoInventario edicion(ProductoInventario original, String nombre, int total) {
+        ProductoInventario edicion = new ProductoInventario();
+        edicion.setId(original.getId());
+        edicion.setVersion(original.getVersion());
+        edicion.setNombre(nombre);
+        edicion.setTipo(original.getTipo());
+        edicion.setStockTotal(total);
+        return edicion;
+    }
+
+    private static Sala copia(Sala sala) {
+        Sala copia = new Sala(sala.getNombre(), sala.getCapacidad(), sala.getUbicacion(), sala.getDescripcion(),
+                sala.getImagenUrl());
+        copia.setId(sala.getId());
+        copia.setVersion(sala.getVersion());
+        return copia;
+    }
+}
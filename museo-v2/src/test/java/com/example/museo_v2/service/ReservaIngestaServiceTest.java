@@ -0,0 +1,152 @@
+package com.example.museo_v2.service;
+
+import com.example.museo_v2.model.Reserva;
+import com.example.museo_v2.repository.ReservaRepositorio;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para {@link ReservaIngestaService}.
+ * Valida que las reservas se guarden en lotes y que cada solicitante reciba
+ * la confirmación o el error de su propia reserva.
+ */
+@ExtendWith(MockitoExtension.class)
+public class ReservaIngestaServiceTest {
+
+    @Mock
+    private ReservaRepositorio reservaRepositorio;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ReservaIngestaService ingesta;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        ingesta = new ReservaIngestaService(reservaRepositorio, new TransactionTemplate(transactionManager), 100, 50, 200);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        ingesta.detener();
+    }
+
+    /**
+     * Verifica que varias reservas encoladas se guarden con una sola llamada
+     * a {@code saveAll()} y que todas reciban su confirmación.
+     */
+    @Test
+    void guardarLote_DebeGuardarTodasEnUnaLlamada() {
+        List<ReservaIngestaService.Pendiente> lote = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            lote.add(new ReservaIngestaService.Pendiente(new Reserva(), new CompletableFuture<>()));
+        }
+
+        ingesta.guardarLote(lote);
+
+        verify(reservaRepositorio, times(1)).saveAll(anyList());
+        verify(reservaRepositorio, never()).save(any());
+        lote.forEach(p -> assertTrue(p.confirmacion().isDone()));
+    }
+
+    /**
+     * Verifica que si el lote falla, cada reserva se reintente por separado y
+     * solo la inválida reciba el error.
+     */
+    @Test
+    void guardarLote_ConFilaInvalida_DebeAislarElError() {
+        Reserva valida = new Reserva();
+        Reserva invalida = new Reserva();
+        invalida.setDniRuc("invalida");
+
+        when(reservaRepositorio.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("lote"));
+        when(reservaRepositorio.save(valida)).thenReturn(valida);
+        when(reservaRepositorio.save(invalida)).thenThrow(new DataIntegrityViolationException("fila"));
+
+        ReservaIngestaService.Pendiente ok = new ReservaIngestaService.Pendiente(valida, new CompletableFuture<>());
+        ReservaIngestaService.Pendiente error = new ReservaIngestaService.Pendiente(invalida, new CompletableFuture<>());
+
+        ingesta.guardarLote(List.of(ok, error));
+
+        assertSame(valida, ok.confirmacion().join());
+        CompletionException fallo = assertThrows(CompletionException.class, () -> error.confirmacion().join());
+        assertInstanceOf(IllegalStateException.class, fallo.getCause());
+    }
+
+    /**
+     * Verifica que si la reserva no se confirma a tiempo el solicitante reciba
+     * {@link IllegalStateException} y que el hilo escritor ya no la guarde.
+     */
+    @Test
+    void registrar_SinConfirmacionATiempo_DebeRetirarLaReserva() throws InterruptedException {
+        CountDownLatch ocupado = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        Reserva bloqueante = reservaConDni("bloqueante");
+        Reserva retirada = reservaConDni("retirada");
+        List<Reserva> guardadas = new CopyOnWriteArrayList<>();
+        when(reservaRepositorio.saveAll(anyList())).thenAnswer(invocacion -> {
+            List<Reserva> reservas = invocacion.getArgument(0);
+            if (reservas.contains(bloqueante)) {
+                ocupado.countDown();
+                liberar.await(5, TimeUnit.SECONDS);
+            }
+            guardadas.addAll(reservas);
+            return reservas;
+        });
+        ingesta.iniciar();
+        CompletableFuture<Reserva> primera = ingesta.encolar(bloqueante);
+        assertTrue(ocupado.await(5, TimeUnit.SECONDS));
+
+        assertThrows(IllegalStateException.class, () -> ingesta.registrar(retirada));
+
+        liberar.countDown();
+        assertSame(bloqueante, primera.join());
+        assertNotNull(ingesta.encolar(reservaConDni("siguiente")).join());
+        assertFalse(guardadas.contains(retirada));
+    }
+
+    private static Reserva reservaConDni(String dniRuc) {
+        Reserva reserva = new Reserva();
+        reserva.setDniRuc(dniRuc);
+        return reserva;
+    }
+
+    /**
+     * Verifica el recorrido completo: una reserva encolada se guarda desde el
+     * hilo escritor y el solicitante recibe la confirmación.
+     */
+    @Test
+    void encolar_DebeConfirmarDesdeElHiloEscritor() throws InterruptedException, ExecutionException, TimeoutException {
+        ingesta.iniciar();
+        Reserva reserva = new Reserva();
+
+        Reserva confirmada = ingesta.encolar(reserva).get(5, TimeUnit.SECONDS);
+
+        assertSame(reserva, confirmada);
+        verify(reservaRepositorio, times(1)).saveAll(anyList());
+    }
+}
@@ -0,0 +1,308 @@
+package com.example.museo_v2.service;
+
+import com.example.museo_v2.model.Evento;
+import com.example.museo_v2.model.EventoProducto;
+import com.example.museo_v2.model.ProductoInventario;
+import com.example.museo_v2.repository.EventoProductoRepository;
+import com.example.museo_v2.repository.EventoRepositorio;
+import com.example.museo_v2.repository.ProductoInventarioRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de integración de {@link ProductoInventarioService#reservarProductos} y
+ * {@link ProductoInventarioService#liberarProductos} sobre una base H2 en memoria: el
+ * control de unidades por fechas de los eventos, la reversión ante un faltante,
+ * reservas simultáneas del mismo producto y la devolución del stock al eliminar un evento.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "app.concurrencia.intentos=10"
+})
+@Import({ProductoInventarioService.class, ReintentoOptimistaService.class, LibroInventarioService.class,
+        DisponibilidadInventarioService.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ReservaProductosTest {
+
+    @Autowired
+    private ProductoInventarioService servicio;
+
+    @Autowired
+    private ProductoInventarioRepository productoRepo;
+
+    @Autowired
+    private EventoProductoRepository eventoProductoRepo;
+
+    @Autowired
+    private EventoRepositorio eventoRepositorio;
+
+    @Autowired
+    private DisponibilidadInventarioService disponibilidad;
+
+    @BeforeEach
+    void setUp() {
+        eventoProductoRepo.deleteAll();
+        eventoRepositorio.deleteAll();
+        productoRepo.deleteAll();
+    }
+
+    /**
+     * Verifica que con stock suficiente se descuente cada cantidad, se registre la
+     * asignación de cada producto y se ignoren las cantidades en cero.
+     */
+    @Test
+    void reservarProductos_StockSuficiente_DebeDescontarYAsignar() {
+        Evento evento = evento();
+        ProductoInventario proyector = producto("Proyector", 10);
+        ProductoInventario sillas = producto("Sillas", 50);
+        ProductoInventario mesa = producto("Mesa", 4);
+
+        servicio.reservarProductos(evento, Map.of(proyector.getId(), 3, sillas.getId(), 50, mesa.getId(), 0));
+
+        assertEquals(7, stock(proyector));
+        assertEquals(0, stock(sillas));
+        assertEquals(4, stock(mesa));
+        List<EventoProducto> asignaciones = eventoProductoRepo.findByEvento(evento);
+        assertEquals(2, asignaciones.size());
+        assertTrue(asignaciones.stream().allMatch(a -> a.getEvento().getId().equals(evento.getId())));
+        assertEquals(53, asignaciones.stream().mapToInt(EventoProducto::getCantidadAsignada).sum());
+        ProductoInventario guardado = productoRepo.findById(proyector.getId()).orElseThrow();
+        assertNotNull(guardado.getFechaModificacion());
+        assertEquals(proyector.getVersion() + 1, guardado.getVersion());
+    }
+
+    /**
+     * Verifica que si un producto no alcanza se informe cuál es y no quede aplicado
+     * ningún descuento ni asignación, tampoco de los productos que sí alcanzaban.
+     */
+    @Test
+    void reservarProductos_StockInsuficiente_DebeLanzarExcepcionYRevertir() {
+        Evento evento = evento();
+        ProductoInventario proyector = producto("Proyector", 10);
+        ProductoInventario vitrina = producto("Vitrina", 2);
+
+        RuntimeException error = assertThrows(RuntimeException.class, () ->
+                servicio.reservarProductos(evento, Map.of(proyector.getId(), 3, vitrina.getId(), 5)));
+
+        assertEquals("Stock insuficiente para: Vitrina", error.getMessage());
+        assertEquals(10, stock(proyector));
+        assertEquals(2, stock(vitrina));
+        assertTrue(eventoProductoRepo.findByEvento(evento).isEmpty());
+    }
+
+    /**
+     * Verifica que se rechace la reserva de un producto inexistente.
+     */
+    @Test
+    void reservarProductos_ProductoInexistente_DebeLanzarExcepcion() {
+        Evento evento = evento();
+
+        RuntimeException error = assertThrows(RuntimeException.class, () ->
+                servicio.reservarProductos(evento, Map.of(999999L, 1)));
+
+        assertEquals("Producto no encontrado: 999999", error.getMessage());
+    }
+
+    /**
+     * Verifica que reservas simultáneas del mismo producto no puedan descontar más
+     * unidades de las disponibles: las que chocan se repiten sobre la versión nueva y
+     * solo prosperan las que caben en el stock.
+     */
+    @Test
+    void reservarProductos_Concurrentes_NoDebenDejarStockNegativo() throws Exception {
+        ProductoInventario sillas = producto("Sillas", 10);
+        int solicitudes = 8;
+        List<Evento> eventos = new ArrayList<>();
+        for (int i = 0; i < solicitudes; i++) {
+            eventos.add(evento());
+        }
+
+        ExecutorService hilos = Executors.newFixedThreadPool(solicitudes);
+        CountDownLatch salida = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> resultados = new ArrayList<>();
+            for (Evento evento : eventos) {
+                Callable<Boolean> reserva = () -> {
+                    salida.await();
+                    try {
+                        servicio.reservarProductos(evento, Map.of(sillas.getId(), 3));
+                        return true;
+                    } catch (RuntimeException e) {
+                        return false;
+                    }
+                };
+                resultados.add(hilos.submit(reserva));
+            }
+            salida.countDown();
+
+            int exitosas = 0;
+            for (Future<Boolean> resultado : resultados) {
+                if (resultado.get()) {
+                    exitosas++;
+                }
+            }
+            assertEquals(3, exitosas);
+        } finally {
+            hilos.shutdownNow();
+        }
+
+        assertEquals(1, stock(sillas));
+        assertEquals(3, eventoProductoRepo.count());
+    }
+
+    /**
+     * Verifica que al liberar los productos de un evento se devuelva a cada producto
+     * la suma de sus asignaciones y se borren solo las asignaciones de ese evento.
+     */
+    @Test
+    void liberarProductos_DebeRestaurarStockYBorrarAsignaciones() {
+        Evento evento = evento();
+        Evento otro = evento();
+        ProductoInventario proyector = producto("Proyector", 10);
+        ProductoInventario sillas = producto("Sillas", 50);
+        servicio.reservarProductos(evento, Map.of(proyector.getId(), 3, sillas.getId(), 20));
+        servicio.reservarProductos(evento, Map.of(sillas.getId(), 5));
+        servicio.reservarProductos(otro, Map.of(sillas.getId(), 10));
+        long version = productoRepo.findById(sillas.getId()).orElseThrow().getVersion();
+
+        servicio.liberarProductos(evento.getId());
+
+        assertEquals(10, stock(proyector));
+        assertEquals(40, stock(sillas));
+        assertTrue(eventoProductoRepo.findByEvento(evento).isEmpty());
+        assertEquals(1, eventoProductoRepo.findByEvento(otro).size());
+        assertEquals(version + 1, productoRepo.findById(sillas.getId()).orElseThrow().getVersion());
+    }
+
+    /**
+     * Verifica que las mismas unidades puedan asignarse a eventos en fechas que no se
+     * solapan y que se rechace un evento que se solapa con ambos.
+     */
+    @Test
+    void reservarProductos_EventosEnOtrasFechas_DebenCompartirUnidades() {
+        ProductoInventario sillas = producto("Sillas", 50);
+        servicio.reservarProductos(evento(dia(0), dia(2)), Map.of(sillas.getId(), 40));
+        servicio.reservarProductos(evento(dia(3), dia(5)), Map.of(sillas.getId(), 50));
+        servicio.reservarProductos(evento(dia(6), null), Map.of(sillas.getId(), 30));
+
+        Evento solapado = evento(dia(2), dia(3));
+        assertThrows(RuntimeException.class, () ->
+                servicio.reservarProductos(solapado, Map.of(sillas.getId(), 1)));
+
+        servicio.reservarProductos(evento(dia(6), dia(8)), Map.of(sillas.getId(), 20));
+        assertEquals(0, disponibilidad.disponibilidad(sillas.getId(), dia(0), dia(8)).disponibles());
+        assertEquals(50, disponibilidad.disponibilidad(sillas.getId(), dia(6), dia(8)).ocupadas());
+        assertEquals(30, disponibilidad.disponibilidad(sillas.getId(), dia(7), dia(8)).disponibles());
+        assertEquals(-90, stock(sillas));
+        assertTrue(eventoProductoRepo.findByEvento(solapado).isEmpty());
+    }
+
+    /**
+     * Verifica que al cambiar las fechas de un evento con productos asignados se
+     * vuelva a calcular la ocupación de esos productos.
+     */
+    @Test
+    void eventosModificados_DebeRecalcularLaOcupacion() {
+        ProductoInventario proyector = producto("Proyector", 4);
+        Evento charla = evento(dia(0), dia(1));
+        servicio.reservarProductos(charla, Map.of(proyector.getId(), 3));
+        assertEquals(1, disponibilidad.disponibilidad(proyector.getId(), dia(1), dia(1)).disponibles());
+
+        charla.setFechaInicio(dia(10));
+        charla.setFechaFin(dia(11));
+        eventoRepositorio.save(charla);
+        disponibilidad.eventosModificados(List.of(charla.getId()));
+
+        assertEquals(4, disponibilidad.disponibilidad(proyector.getId(), dia(1), dia(1)).disponibles());
+        assertEquals(1, disponibilidad.disponibilidad(proyector.getId(), dia(11), null).disponibles());
+        servicio.reservarProductos(evento(dia(0), dia(1)), Map.of(proyector.getId(), 4));
+    }
+
+    /**
+     * Verifica que al editar el stock total solo cuenten las asignaciones de eventos
+     * que terminan hoy o después.
+     */
+    @Test
+    void guardar_AsignacionesPasadas_NoDebenLimitarElStockTotal() {
+        ProductoInventario mesas = producto("Mesas", 10);
+        servicio.reservarProductos(evento(LocalDate.now().minusDays(10), LocalDate.now().minusDays(8)),
+                Map.of(mesas.getId(), 10));
+        servicio.reservarProductos(evento(LocalDate.now().plusDays(3), null), Map.of(mesas.getId(), 2));
+
+        ProductoInventario edicion = productoRepo.findById(mesas.getId()).orElseThrow();
+        edicion.setStockTotal(2);
+        servicio.guardar(edicion);
+
+        ProductoInventario otra = productoRepo.findById(mesas.getId()).orElseThrow();
+        assertEquals(2, otra.getStockTotal());
+        otra.setStockTotal(1);
+        assertThrows(IllegalArgumentException.class, () -> servicio.guardar(otra));
+    }
+
+    /**
+     * Verifica que las unidades libres desde hoy y el conteo de productos con poco
+     * stock ignoren las asignaciones de eventos pasados.
+     */
+    @Test
+    void contarBajoStock_DebeUsarLaOcupacionDesdeHoy() {
+        LocalDate hoy = LocalDate.now();
+        ProductoInventario proyector = producto("Proyector", 10);
+        ProductoInventario sillas = producto("Sillas", 10);
+        ProductoInventario atril = producto("Atril", 3);
+        producto("Mesas", 20);
+        servicio.reservarProductos(evento(hoy.plusDays(2), hoy.plusDays(3)), Map.of(proyector.getId(), 8));
+        servicio.reservarProductos(evento(hoy.minusDays(5), hoy.minusDays(4)), Map.of(sillas.getId(), 10));
+
+        assertEquals(Map.of(proyector.getId(), 2L, sillas.getId(), 10L, atril.getId(), 3L),
+                disponibilidad.disponiblesDesde(List.of(proyector.getId(), sillas.getId(), atril.getId()), hoy));
+        assertEquals(2, disponibilidad.contarBajoStock(5, hoy));
+        assertEquals(0, stock(sillas));
+    }
+
+    private Evento evento() {
+        return evento(null, null);
+    }
+
+    private Evento evento(LocalDate inicio, LocalDate fin) {
+        Evento evento = new Evento();
+        evento.setNombre("Charla");
+        evento.setFechaInicio(inicio);
+        evento.setFechaFin(fin);
+        return eventoRepositorio.save(evento);
+    }
+
+    private static LocalDate dia(int desplazamiento) {
+        return LocalDate.of(2026, 3, 1).plusDays(desplazamiento);
+    }
+
+    private ProductoInventario producto(String nombre, int stock) {
+        ProductoInventario producto = new ProductoInventario();
+        producto.setNombre(nombre);
+        producto.setTipo("Mobiliario");
+        producto.setStockTotal(stock);
+        producto.setStockDisponible(stock);
+        return productoRepo.save(producto);
+    }
+
+    private int stock(ProductoInventario producto) {
+        return productoRepo.findById(producto.getId()).orElseThrow().getStockDisponible();
+    }
+}
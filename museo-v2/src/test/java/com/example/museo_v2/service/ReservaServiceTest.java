@@ -15,11 +15,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.never;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 
 import com.example.museo_v2.model.Evento;
 import com.example.museo_v2.model.Reserva;
@@ -34,6 +38,15 @@ public class ReservaServiceTest {
     @Mock
     private EventoService eventoService;
 
+    @Mock
+    private AforoService aforoService;
+
+    @Mock
+    private ReservaIngestaService reservaIngestaService;
+
+    @Mock
+    private BloqueoEntradasService bloqueoEntradasService;
+
     @InjectMocks
     private ReservaService reservaService;
 
@@ -46,6 +59,8 @@ public class ReservaServiceTest {
      */
     @BeforeEach
     void setUp() {
+        ReflectionTestUtils.setField(reservaService, "maxEntradas", 20);
+
         evento1 = new Evento();
         evento1.setId(1L);
         evento1.setNombre("Evento Pasado");
@@ -65,22 +80,104 @@ public class ReservaServiceTest {
     }
 
     /**
-     * Verifica que al guardar una reserva, se invoque correctamente
-     * el método {@code save()} del repositorio y {@code obtenerEventoPorId()}
-     * del servicio de eventos.
+     * Verifica que al guardar una reserva, se delegue la inserción a la cola
+     * de ingesta y se invoque {@code obtenerEventoPorId()} del servicio de eventos.
      */
     @Test
-    void guardarReserva_DebeLlamarAlRepositorioSave() {
+    void guardarReserva_DebeRegistrarEnLaIngesta() {
         when(eventoService.obtenerEventoPorId(evento1.getId())).thenReturn(evento1);
-        when(reservaRepositorio.save(any(Reserva.class))).thenReturn(reserva1);
+        when(aforoService.ocuparEntradas(evento1.getId(), 10)).thenReturn(true);
+        when(reservaIngestaService.registrar(any(Reserva.class))).thenReturn(reserva1);
 
         Reserva reservaGuardada = reservaService.guardarReserva(reserva1, evento1.getId());
 
         assertNotNull(reservaGuardada);
-        verify(reservaRepositorio, times(1)).save(reserva1);
+        verify(reservaIngestaService, times(1)).registrar(reserva1);
         verify(eventoService, times(1)).obtenerEventoPorId(evento1.getId());
     }
 
+    /**
+     * Verifica que si la reserva no llega a guardarse, las entradas ocupadas
+     * se devuelvan al aforo del evento.
+     */
+    @Test
+    void guardarReserva_FallaLaIngesta_DebeLiberarEntradas() {
+        when(eventoService.obtenerEventoPorId(evento1.getId())).thenReturn(evento1);
+        when(aforoService.ocuparEntradas(evento1.getId(), 10)).thenReturn(true);
+        when(reservaIngestaService.registrar(any(Reserva.class)))
+                .thenThrow(new IllegalStateException("Cola llena"));
+
+        assertThrows(IllegalStateException.class,
+                () -> reservaService.guardarReserva(reserva1, evento1.getId()));
+
+        verify(aforoService, times(1)).liberarEntradas(evento1.getId(), 10);
+    }
+
+    /**
+     * Verifica que si el evento no tiene aforo suficiente no se guarde la reserva.
+     */
+    @Test
+    void guardarReserva_SinAforo_DebeLanzarExcepcionYNoGuardar() {
+        when(eventoService.obtenerEventoPorId(evento1.getId())).thenReturn(evento1);
+        when(aforoService.ocuparEntradas(evento1.getId(), 10)).thenReturn(false);
+
+        assertThrows(IllegalStateException.class,
+                () -> reservaService.guardarReserva(reserva1, evento1.getId()));
+
+        verify(reservaIngestaService, never()).registrar(any(Reserva.class));
+    }
+
+    /**
+     * Verifica que una reserva por encima del máximo de entradas se rechace sin
+     * ocupar aforo y que las entradas retenidas vuelvan al aforo.
+     */
+    @Test
+    void guardarReserva_SobreElMaximo_DebeRechazarYLiberarBloqueo() {
+        reserva1.setNEntradas(21);
+        when(eventoService.obtenerEventoPorId(evento1.getId())).thenReturn(evento1);
+        when(bloqueoEntradasService.consumir("bloqueo-3", evento1.getId())).thenReturn(5);
+
+        assertThrows(IllegalStateException.class,
+                () -> reservaService.guardarReserva(reserva1, evento1.getId(), "bloqueo-3"));
+
+        verify(aforoService, never()).ocuparEntradas(any(), anyInt());
+        verify(aforoService, times(1)).liberarEntradas(evento1.getId(), 5);
+        verify(reservaIngestaService, never()).registrar(any(Reserva.class));
+    }
+
+    /**
+     * Verifica que con entradas retenidas solo se ocupe en el aforo la
+     * diferencia con la cantidad solicitada.
+     */
+    @Test
+    void guardarReserva_ConBloqueo_DebeOcuparSoloLaDiferencia() {
+        when(eventoService.obtenerEventoPorId(evento1.getId())).thenReturn(evento1);
+        when(bloqueoEntradasService.consumir("bloqueo-1", evento1.getId())).thenReturn(4);
+        when(aforoService.ocuparEntradas(evento1.getId(), 6)).thenReturn(true);
+        when(reservaIngestaService.registrar(any(Reserva.class))).thenReturn(reserva1);
+
+        reservaService.guardarReserva(reserva1, evento1.getId(), "bloqueo-1");
+
+        verify(aforoService, times(1)).ocuparEntradas(evento1.getId(), 6);
+        verify(aforoService, never()).liberarEntradas(any(), anyInt());
+    }
+
+    /**
+     * Verifica que si se solicitan menos entradas que las retenidas, el
+     * sobrante vuelva al aforo sin ocupar nuevas entradas.
+     */
+    @Test
+    void guardarReserva_ConBloqueoMayor_DebeLiberarSobrante() {
+        when(eventoService.obtenerEventoPorId(evento1.getId())).thenReturn(evento1);
+        when(bloqueoEntradasService.consumir("bloqueo-2", evento1.getId())).thenReturn(12);
+        when(reservaIngestaService.registrar(any(Reserva.class))).thenReturn(reserva1);
+
+        reservaService.guardarReserva(reserva1, evento1.getId(), "bloqueo-2");
+
+        verify(aforoService, never()).ocuparEntradas(any(), anyInt());
+        verify(aforoService, times(1)).liberarEntradas(evento1.getId(), 2);
+    }
+
     /**
      * Verifica que se devuelva una reserva existente al buscar por su ID.
      */
@@ -1,6 +1,7 @@
 package com.example.museo_v2.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.Mockito.times;
@@ -22,10 +23,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import com.example.museo_v2.model.PaginaKeyset;
 import com.example.museo_v2.model.Sala;
+import com.example.museo_v2.model.SalaListado;
 import com.example.museo_v2.repository.SalaRepositorio;
 
 @ExtendWith(MockitoExtension.class)
@@ -192,4 +196,19 @@ public class SalaServiceImplTest {
             assertNull(resultado);
         }
     }
+
+    /**
+     * Verifica que el listado de salas limite el tamaño de página al máximo
+     * permitido y busque a partir del ID recibido.
+     */
+    @Test
+    void listarSalasPaginadas_DebeLimitarElTamanoDePagina() {
+        when(salaRepositorio.listarAscendente(5, null, PageRequest.of(0, PaginaKeyset.TAMANO_MAXIMO + 1)))
+                .thenReturn(List.of(new SalaListado(6, "Sala Norte", 40, "Piso 1", null, null)));
+
+        PaginaKeyset<SalaListado> pagina = salaService.listarSalasPaginadas(null, false, 5, 5000);
+
+        assertEquals(1, pagina.elementos().size());
+        assertFalse(pagina.haySiguiente());
+    }
 }
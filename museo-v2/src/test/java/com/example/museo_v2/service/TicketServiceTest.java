@@ -0,0 +1,198 @@
+package com.example.museo_v2.service;
+
+import com.example.museo_v2.model.Evento;
+import com.example.museo_v2.model.Reserva;
+import com.example.museo_v2.repository.ReservaRepositorio;
+import com.lowagie.text.pdf.PdfReader;
+import com.lowagie.text.pdf.parser.PdfTextExtractor;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para {@link TicketService} con la caché en un directorio temporal.
+ */
+@ExtendWith(MockitoExtension.class)
+public class TicketServiceTest {
+
+    @TempDir
+    Path directorio;
+
+    @Mock
+    private ReservaRepositorio reservaRepositorio;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private TicketService ticketService;
+    private Reserva reserva;
+
+    @BeforeEach
+    void setUp() {
+        ticketService = new TicketService(new PdfService(), reservaRepositorio, entityManager,
+                directorio.toString(), 2);
+        reserva = reserva(42L, new Evento());
+    }
+
+    @AfterEach
+    void tearDown() {
+        ticketService.detener();
+    }
+
+    /**
+     * Verifica que el primer pedido escriba el ticket en la respuesta y lo guarde,
+     * y que el archivo guardado se envíe con los mismos bytes.
+     */
+    @Test
+    void generar_DebeEscribirEnLaSalidaYGuardarEnCache() throws Exception {
+        String etiqueta = ticketService.etiqueta(reserva);
+        assertTrue(ticketService.buscar(etiqueta).isEmpty());
+
+        ByteArrayOutputStream generado = new ByteArrayOutputStream();
+        ticketService.generar(reserva, etiqueta, generado);
+
+        Path archivo = ticketService.buscar(etiqueta).orElseThrow();
+        ByteArrayOutputStream enviado = new ByteArrayOutputStream();
+        ticketService.enviar(archivo, enviado);
+        assertTrue(generado.size() > 0);
+        assertArrayEquals(generado.toByteArray(), enviado.toByteArray());
+        assertArrayEquals(generado.toByteArray(), Files.readAllBytes(archivo));
+    }
+
+    /**
+     * Verifica que al iniciar se eliminen los tickets guardados directamente en el
+     * directorio y se conserven los de los subdirectorios por reserva.
+     */
+    @Test
+    void crear_TicketsSinSubdirectorio_DebeEliminarlos() throws Exception {
+        ByteArrayOutputStream generado = new ByteArrayOutputStream();
+        String etiqueta = ticketService.etiqueta(reserva);
+        ticketService.generar(reserva, etiqueta, generado);
+        Path antiguo = Files.writeString(directorio.resolve("42-0123456789abcdef0123456789abcdef.pdf"), "x");
+        Path otro = Files.writeString(directorio.resolve("leame.txt"), "x");
+        ticketService.detener();
+
+        ticketService = new TicketService(new PdfService(), reservaRepositorio, entityManager,
+                directorio.toString(), 2);
+
+        assertFalse(Files.exists(antiguo));
+        assertTrue(Files.exists(otro));
+        assertTrue(ticketService.buscar(etiqueta).isPresent());
+    }
+
+    /**
+     * Verifica que la etiqueta no cambie mientras no cambien los datos impresos, y
+     * que al cambiar se genere una versión nueva y se elimine la anterior.
+     */
+    @Test
+    void etiqueta_AlCambiarLosDatos_DebeReemplazarLaVersionAnterior() throws Exception {
+        String anterior = ticketService.etiqueta(reserva);
+        assertEquals(anterior, ticketService.etiqueta(reserva));
+        assertTrue(anterior.startsWith("42-"));
+        ticketService.generar(reserva, anterior, new ByteArrayOutputStream());
+
+        reserva.getEvento().setNombre("Noche de museos 2025");
+        String nueva = ticketService.etiqueta(reserva);
+        ticketService.generar(reserva, nueva, new ByteArrayOutputStream());
+
+        assertNotEquals(anterior, nueva);
+        assertTrue(ticketService.buscar(anterior).isEmpty());
+        assertTrue(ticketService.buscar(nueva).isPresent());
+        try (Stream<Path> archivos = Files.list(directorio.resolve("42"))) {
+            assertEquals(1, archivos.count());
+        }
+    }
+
+    /**
+     * Verifica que el ZIP de un evento tenga un ticket por reserva, en orden de ID,
+     * aunque haya más reservas que la ventana de generación en paralelo.
+     */
+    @Test
+    void escribirTicketsDeEvento_Zip_DebeIncluirCadaReservaEnOrden() throws Exception {
+        List<Reserva> reservas = reservasDeEvento(30);
+        when(reservaRepositorio.recorrerPorEvento(1L)).thenReturn(reservas.stream());
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        ticketService.escribirTicketsDeEvento(1L, TicketService.FormatoLote.ZIP, salida);
+
+        List<String> entradas = new ArrayList<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(salida.toByteArray()))) {
+            for (ZipEntry entrada = zip.getNextEntry(); entrada != null; entrada = zip.getNextEntry()) {
+                entradas.add(entrada.getName());
+                assertTrue(new String(zip.readAllBytes(), 0, 5, StandardCharsets.US_ASCII).startsWith("%PDF"));
+            }
+        }
+        assertEquals(30, entradas.size());
+        assertEquals("ticket_museo_100.pdf", entradas.get(0));
+        assertEquals("ticket_museo_129.pdf", entradas.get(29));
+        verify(entityManager, times(30)).detach(any(Reserva.class));
+    }
+
+    /**
+     * Verifica que el PDF de un evento tenga una página por reserva con los datos de
+     * cada una.
+     */
+    @Test
+    void escribirTicketsDeEvento_Pdf_DebeTenerUnaPaginaPorReserva() throws Exception {
+        when(reservaRepositorio.recorrerPorEvento(1L)).thenReturn(reservasDeEvento(12).stream());
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        ticketService.escribirTicketsDeEvento(1L, TicketService.FormatoLote.PDF, salida);
+
+        PdfReader lector = new PdfReader(salida.toByteArray());
+        try {
+            assertEquals(12, lector.getNumberOfPages());
+            PdfTextExtractor extractor = new PdfTextExtractor(lector);
+            assertTrue(extractor.getTextFromPage(1).contains("Cliente 100"));
+            assertTrue(extractor.getTextFromPage(12).contains("Cliente 111"));
+        } finally {
+            lector.close();
+        }
+    }
+
+    private static List<Reserva> reservasDeEvento(int cantidad) {
+        Evento evento = new Evento();
+        List<Reserva> reservas = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            Reserva reserva = reserva(100L + i, evento);
+            reserva.setNombreCompleto("Cliente " + (100 + i));
+            reservas.add(reserva);
+        }
+        return reservas;
+    }
+
+    private static Reserva reserva(Long id, Evento evento) {
+        evento.setNombre("Noche de museos");
+        evento.setFechaInicio(LocalDate.of(2025, 5, 18));
+        Reserva reserva = new Reserva();
+        reserva.setId(id);
+        reserva.setEvento(evento);
+        reserva.setNombreCompleto("Ana Quispe");
+        reserva.setDniRuc("12345678");
+        reserva.setNEntradas(2);
+        reserva.setTotalPagar(new BigDecimal("25.00"));
+        return reserva;
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.museo_v2.service;
+
+import com.example.museo_v2.model.EstadoExportacion;
+import com.example.museo_v2.model.EstadoExportacion.Fase;
+import com.example.museo_v2.model.TipoReporte;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TrabajoExportacionServiceTest {
+
+    @TempDir
+    Path directorio;
+
+    private ExportacionService exportacionService;
+    private TrabajoExportacionService trabajos;
+
+    /** Retiene las exportaciones en curso hasta que la prueba las libere. */
+    private final CountDownLatch liberar = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        exportacionService = mock(ExportacionService.class);
+        when(exportacionService.contarFilas(any())).thenReturn(3L);
+        doAnswer(invocacion -> {
+            OutputStream salida = invocacion.getArgument(1);
+            Runnable filaLeida = invocacion.getArgument(2);
+            liberar.await(5, TimeUnit.SECONDS);
+            for (int i = 0; i < 3; i++) {
+                filaLeida.run();
+                salida.write('x');
+            }
+            return null;
+        }).when(exportacionService).exportar(any(), any(), any());
+    }
+
+    @AfterEach
+    void tearDown() {
+        liberar.countDown();
+        if (trabajos != null) {
+            trabajos.detener();
+        }
+    }
+
+    /**
+     * Verifica que un trabajo completado informe todas sus filas y deje el archivo
+     * final en el directorio de exportaciones, sin el archivo parcial.
+     */
+    @Test
+    void solicitar_CuandoTermina_DebeDejarElArchivo() throws Exception {
+        trabajos = crear(2, 3, 60);
+        liberar.countDown();
+
+        EstadoExportacion solicitado = trabajos.solicitar(TipoReporte.EVENTOS, "admin");
+        EstadoExportacion estado = esperarFin(solicitado.id());
+
+        assertEquals(Fase.COMPLETADA, estado.fase());
+        assertEquals(3, estado.filasEscritas());
+        assertEquals(100, estado.porcentaje());
+        Path archivo = trabajos.archivo(solicitado.id()).orElseThrow();
+        assertEquals(3, Files.size(archivo));
+        assertFalse(Files.exists(directorio.resolve(solicitado.id() + ".part")));
+    }
+
+    /**
+     * Verifica que dos solicitudes del mismo reporte mientras el primero está en
+     * curso, o poco después de completarse, compartan el mismo trabajo.
+     */
+    @Test
+    void solicitar_MismoReporte_DebeReutilizarElTrabajo() throws Exception {
+        trabajos = crear(2, 3, 60);
+
+        EstadoExportacion primero = trabajos.solicitar(TipoReporte.SALAS, "admin");
+        EstadoExportacion enCurso = trabajos.solicitar(TipoReporte.SALAS, "otro");
+        liberar.countDown();
+        esperarFin(primero.id());
+        EstadoExportacion completado = trabajos.solicitar(TipoReporte.SALAS, "admin");
+
+        assertEquals(primero.id(), enCurso.id());
+        assertEquals(primero.id(), completado.id());
+        verify(exportacionService, times(1)).exportar(eq(TipoReporte.SALAS), any(), any());
+    }
+
+    /**
+     * Verifica que un usuario no pueda superar su límite de trabajos simultáneos
+     * y que el límite se libere cuando sus trabajos terminan.
+     */
+    @Test
+    void solicitar_SobreElLimitePorUsuario_DebeRechazar() throws Exception {
+        trabajos = crear(1, 3, 60);
+
+        EstadoExportacion eventos = trabajos.solicitar(TipoReporte.EVENTOS, "admin");
+        assertThrows(IllegalStateException.class, () -> trabajos.solicitar(TipoReporte.SALAS, "admin"));
+        assertNotNull(trabajos.solicitar(TipoReporte.SALAS, "otro"));
+
+        liberar.countDown();
+        esperarFin(eventos.id());
+        assertNotNull(trabajos.solicitar(TipoReporte.INVENTARIO, "admin"));
+    }
+
+    /**
+     * Verifica que el reporte de reservas, con datos de clientes, no se genere como
+     * trabajo compartido en segundo plano.
+     */
+    @Test
+    void solicitar_ReporteReservas_DebeRechazar() {
+        trabajos = crear(2, 3, 60);
+
+        assertThrows(IllegalArgumentException.class, () -> trabajos.solicitar(TipoReporte.RESERVAS, "admin"));
+        verifyNoInteractions(exportacionService);
+    }
+
+    /**
+     * Verifica que al superar los resultados conservados por reporte se elimine
+     * el trabajo más antiguo junto con su archivo.
+     */
+    @Test
+    void solicitar_SobreLosResultadosConservados_DebeEliminarElMasAntiguo() throws Exception {
+        trabajos = crear(2, 1, 0);
+        liberar.countDown();
+
+        EstadoExportacion primero = trabajos.solicitar(TipoReporte.INVENTARIO, "admin");
+        esperarFin(primero.id());
+        Path archivoPrimero = trabajos.archivo(primero.id()).orElseThrow();
+        EstadoExportacion segundo = trabajos.solicitar(TipoReporte.INVENTARIO, "admin");
+        esperarFin(segundo.id());
+
+        assertNotEquals(primero.id(), segundo.id());
+        assertTrue(trabajos.consultar(primero.id()).isEmpty());
+        assertFalse(Files.exists(archivoPrimero));
+        assertTrue(trabajos.archivo(segundo.id()).isPresent());
+    }
+
+    /**
+     * Verifica que al iniciar se eliminen solo los archivos de exportaciones
+     * anteriores y se conserven los demás archivos del directorio.
+     */
+    @Test
+    void crear_DirectorioConOtrosArchivos_DebeEliminarSoloLosPropios() throws Exception {
+        Path terminado = Files.writeString(directorio.resolve("0f8e2a4c-1b3d-4e5f-8a9b-0c1d2e3f4a5b.xlsx"), "x");
+        Path parcial = Files.writeString(directorio.resolve("0f8e2a4c-1b3d-4e5f-8a9b-0c1d2e3f4a5b.part"), "x");
+        Path ajeno = Files.writeString(directorio.resolve("presupuesto.xlsx"), "x");
+        Path nota = Files.writeString(directorio.resolve("notas.txt"), "x");
+
+        trabajos = crear(2, 3, 60);
+
+        assertFalse(Files.exists(terminado));
+        assertFalse(Files.exists(parcial));
+        assertTrue(Files.exists(ajeno));
+        assertTrue(Files.exists(nota));
+    }
+
+    private TrabajoExportacionService crear(int maxPorUsuario, int resultadosPorTipo, long vigenciaSegundos) {
+        return new TrabajoExportacionService(exportacionService, directorio.toString(), 2, 5,
+                maxPorUsuario, resultadosPorTipo, vigenciaSegundos);
+    }
+
+    private EstadoExportacion esperarFin(String id) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            EstadoExportacion estado = trabajos.consultar(id).orElseThrow();
+            if (estado.terminado()) {
+                return estado;
+            }
+            Thread.sleep(10);
+        }
+        fail("La exportación " + id + " no terminó");
+        return null;
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.museo_v2.service;
 
+import com.example.museo_v2.model.PaginaKeyset;
 import com.example.museo_v2.model.Usuario;
+import com.example.museo_v2.model.UsuarioListado;
 import com.example.museo_v2.repository.UsuarioRepositorio;
 
 import org.junit.jupiter.api.Test;
@@ -11,8 +13,11 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.List;
+
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
@@ -69,4 +74,19 @@ public class UsuarioServiceImplTest {
         assertNotEquals(clavePlana, usuarioCapturado.getClave());
         assertTrue(usuarioCapturado.getClave().startsWith("$2a$"));
     }
+
+    /**
+     * Verifica que la primera página descendente parta del mayor ID posible.
+     */
+    @Test
+    void listarUsuariosPaginados_Descendente_DebePartirDelUltimoId() {
+        when(usuarioRepositorio.listarDescendente(Long.MAX_VALUE, "ana", PageRequest.of(0, 2)))
+                .thenReturn(List.of(new UsuarioListado(9L, "Ana Díaz", "ana", "ADMIN"),
+                        new UsuarioListado(4L, "Ana Ruiz", "aruiz", "USER")));
+
+        PaginaKeyset<UsuarioListado> pagina = usuarioService.listarUsuariosPaginados("ana", true, null, 1);
+
+        assertTrue(pagina.haySiguiente());
+        assertEquals(9L, pagina.ultimo().id());
+    }
 }
@@ -0,0 +1,50 @@
+package com.example.museo_v2.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BuferSalidaTest {
+
+    /**
+     * Verifica que los textos se codifiquen igual que con {@link String#getBytes}
+     * en UTF-8, incluidos los caracteres de dos, tres y cuatro bytes.
+     */
+    @Test
+    void escribir_Texto_DebeCodificarEnUtf8() throws Exception {
+        String texto = "Sipán · €15 · 🏛";
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        try (BuferSalida bufer = new BuferSalida(salida)) {
+            bufer.escribir(texto);
+        }
+
+        assertArrayEquals(texto.getBytes(StandardCharsets.UTF_8), salida.toByteArray());
+    }
+
+    /**
+     * Verifica que los enteros se escriban en decimal, incluidos el cero y los negativos,
+     * y que el contenido que no cabe en un búfer se vacíe al destino sin perder bytes.
+     */
+    @Test
+    void escribir_Enteros_DebeVaciarAlLlenarse() throws Exception {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        StringBuilder esperado = new StringBuilder();
+
+        try (BuferSalida bufer = new BuferSalida(salida)) {
+            for (long i = -5; esperado.length() < BuferSalida.TAMANO * 2; i += 7919) {
+                bufer.escribir(i);
+                bufer.escribir((byte) ';');
+                esperado.append(i).append(';');
+            }
+            bufer.escribir(0L);
+            bufer.escribir(Long.MIN_VALUE);
+            esperado.append(0).append(Long.MIN_VALUE);
+        }
+
+        assertEquals(esperado.toString(), salida.toString(StandardCharsets.US_ASCII));
+    }
+}
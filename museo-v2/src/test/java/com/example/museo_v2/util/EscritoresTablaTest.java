@@ -0,0 +1,101 @@
+package com.example.museo_v2.util;
+
+import com.example.museo_v2.model.Evento;
+import com.example.museo_v2.model.Sala;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de los escritores de reportes a partir de un mismo esquema.
+ */
+class EscritoresTablaTest {
+
+    private Evento completo;
+    private Evento sinSala;
+
+    @BeforeEach
+    void setUp() {
+        Sala sala = new Sala();
+        sala.setNombre("Sala \"Señor de Sipán\", planta 1");
+
+        completo = new Evento();
+        completo.setId(1L);
+        completo.setNombre("Noche de museos");
+        completo.setFechaInicio(LocalDate.of(2025, 5, 18));
+        completo.setCostoEntrada(new BigDecimal("12.50"));
+        completo.setSala(sala);
+
+        sinSala = new Evento();
+        sinSala.setId(2L);
+        sinSala.setNombre("Taller");
+    }
+
+    /**
+     * Verifica que el CSV escriba la cabecera y entrecomille solo los textos con comas
+     * o comillas, duplicando las comillas internas y dejando vacías las celdas nulas.
+     */
+    @Test
+    void escritorCsv_DebeEscaparTextosYDejarNulosVacios() {
+        String csv = escribir(new EscritorCsv());
+
+        assertEquals("ID,Nombre,Fecha Inicio,Costo Entrada,Sala,Fecha Modificación\r\n"
+                + "1,Noche de museos,2025-05-18,12.50,\"Sala \"\"Señor de Sipán\"\", planta 1\",\r\n"
+                + "2,Taller,,,,\r\n", csv);
+    }
+
+    /**
+     * Verifica que JSON por líneas escriba un objeto por fila con los importes exactos
+     * y {@code null} en las celdas vacías.
+     */
+    @Test
+    void escritorJsonLineas_DebeEscribirUnObjetoPorFila() throws Exception {
+        String[] lineas = escribir(new EscritorJsonLineas()).split("\n");
+
+        assertEquals(2, lineas.length);
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode primera = mapper.readTree(lineas[0]);
+        assertEquals(1, primera.get("ID").asLong());
+        assertTrue(lineas[0].contains("\"Costo Entrada\":12.50"));
+        assertEquals("Sala \"Señor de Sipán\", planta 1", primera.get("Sala").asText());
+        JsonNode segunda = mapper.readTree(lineas[1]);
+        assertTrue(segunda.get("Sala").isNull());
+        assertTrue(segunda.get("Costo Entrada").isNull());
+    }
+
+    /**
+     * Verifica que el XLSX escriba los números como celdas numéricas y omita las
+     * celdas de valores nulos.
+     */
+    @Test
+    void escritorXlsx_DebeOmitirCeldasNulas() throws Exception {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        new EscritorXlsx().escribir(EsquemasReporte.EVENTOS, Stream.of(completo, sinSala), salida);
+
+        try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(salida.toByteArray()))) {
+            Row fila = workbook.getSheet("Eventos").getRow(2);
+            assertEquals(2.0, fila.getCell(0).getNumericCellValue());
+            assertNull(fila.getCell(3));
+            assertNull(fila.getCell(4));
+        }
+    }
+
+    private String escribir(EscritorTabla escritor) {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        escritor.escribir(EsquemasReporte.EVENTOS, Stream.of(completo, sinSala), salida);
+        return salida.toString(StandardCharsets.UTF_8);
+    }
+}
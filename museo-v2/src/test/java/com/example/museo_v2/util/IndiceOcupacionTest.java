@@ -0,0 +1,106 @@
+package com.example.museo_v2.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndiceOcupacionTest {
+
+    private static final LocalDate BASE = LocalDate.of(2026, 3, 1);
+
+    /**
+     * Verifica que la ocupación máxima sume solo los intervalos que se solapan en un
+     * mismo día, y no todos los que tocan el rango consultado.
+     */
+    @Test
+    void maximo_IntervalosSolapados_DebeSumarSoloElDiaDeMayorOcupacion() {
+        IndiceOcupacion indice = new IndiceOcupacion();
+        indice.agregar(dia(0), dia(4), 10);
+        indice.agregar(dia(3), dia(6), 5);
+        indice.agregar(dia(8), dia(8), 20);
+
+        assertEquals(15, indice.maximo(dia(0), dia(7)));
+        assertEquals(10, indice.maximo(dia(0), dia(2)));
+        assertEquals(5, indice.maximo(dia(5), dia(7)));
+        assertEquals(20, indice.maximo(dia(0), dia(10)));
+        assertEquals(0, indice.maximo(dia(9), dia(30)));
+    }
+
+    /**
+     * Verifica que los extremos nulos se tomen como abiertos, tanto al agregar como
+     * al consultar.
+     */
+    @Test
+    void maximo_ExtremosAbiertos_DebeCubrirTodasLasFechas() {
+        IndiceOcupacion indice = new IndiceOcupacion();
+        indice.agregar(null, null, 2);
+        indice.agregar(dia(10), null, 3);
+
+        assertEquals(2, indice.maximo(LocalDate.MIN, dia(9)));
+        assertEquals(5, indice.maximo(dia(5), null));
+        assertEquals(5, indice.maximo(null, null));
+        assertEquals(5, indice.maximo(LocalDate.MAX, LocalDate.MAX));
+    }
+
+    /**
+     * Verifica que agregar una cantidad negativa quite un intervalo agregado antes.
+     */
+    @Test
+    void agregar_CantidadNegativa_DebeQuitarElIntervalo() {
+        IndiceOcupacion indice = new IndiceOcupacion();
+        indice.agregar(dia(0), dia(5), 4);
+        indice.agregar(dia(2), dia(3), 6);
+
+        indice.agregar(dia(2), dia(3), -6);
+
+        assertEquals(4, indice.maximo(null, null));
+    }
+
+    /**
+     * Verifica que un rango que termina antes de empezar se rechace.
+     */
+    @Test
+    void agregar_RangoInvertido_DebeLanzarExcepcion() {
+        IndiceOcupacion indice = new IndiceOcupacion();
+
+        assertThrows(IllegalArgumentException.class, () -> indice.agregar(dia(3), dia(2), 1));
+        assertThrows(IllegalArgumentException.class, () -> indice.maximo(dia(3), dia(2)));
+    }
+
+    /**
+     * Verifica contra un cálculo día por día que el índice dé el mismo máximo con
+     * muchos intervalos al azar, incluidas altas y bajas.
+     */
+    @Test
+    void maximo_IntervalosAlAzar_DebeCoincidirConElCalculoDiaPorDia() {
+        Random azar = new Random(42);
+        int dias = 120;
+        long[] ocupacion = new long[dias];
+        IndiceOcupacion indice = new IndiceOcupacion();
+
+        for (int i = 0; i < 500; i++) {
+            int desde = azar.nextInt(dias);
+            int hasta = desde + azar.nextInt(dias - desde);
+            long cantidad = azar.nextInt(20) - 5;
+            indice.agregar(dia(desde), dia(hasta), cantidad);
+            for (int d = desde; d <= hasta; d++) {
+                ocupacion[d] += cantidad;
+            }
+
+            int inicio = azar.nextInt(dias);
+            int fin = inicio + azar.nextInt(dias - inicio);
+            long esperado = Long.MIN_VALUE;
+            for (int d = inicio; d <= fin; d++) {
+                esperado = Math.max(esperado, ocupacion[d]);
+            }
+            assertEquals(esperado, indice.maximo(dia(inicio), dia(fin)));
+        }
+    }
+
+    private static LocalDate dia(int desplazamiento) {
+        return BASE.plusDays(desplazamiento);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.museo_v2.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para {@link LectorCsv}.
+ */
+public class LectorCsvTest {
+
+    /**
+     * Verifica que se respeten las comillas con separadores, saltos de línea y
+     * comillas duplicadas dentro de un campo, y que se numeren los registros.
+     */
+    @Test
+    void leer_CamposEntreComillas_DebeConservarSuContenido() throws Exception {
+        List<String> filas = leer("﻿Nombre,Descripción\r\n"
+                + "\"Vitrina, grande\",\"Dice \"\"frágil\"\"\"\r\n"
+                + "Mesa,\"Dos\nlíneas\"\r\n"
+                + "Silla,");
+
+        assertEquals(List.of("1:Nombre|Descripción", "2:Vitrina, grande|Dice \"frágil\"",
+                "3:Mesa|Dos\nlíneas", "4:Silla|"), filas);
+    }
+
+    /**
+     * Verifica que se detecte el punto y coma como separador y que las líneas
+     * vacías se omitan sin perder la numeración.
+     */
+    @Test
+    void leer_PuntoYComa_DebeUsarloComoSeparador() throws Exception {
+        List<String> filas = leer("Nombre;Costo\n\nCharla;12,50\n");
+
+        assertEquals(List.of("1:Nombre|Costo", "3:Charla|12,50"), filas);
+    }
+
+    /**
+     * Verifica que un campo con comillas sin cerrar se informe como error.
+     */
+    @Test
+    void leer_ComillasSinCerrar_DebeLanzarExcepcion() {
+        assertThrows(IllegalArgumentException.class, () -> leer("Nombre\n\"Vitrina\n"));
+    }
+
+    private static List<String> leer(String csv) throws Exception {
+        List<String> filas = new ArrayList<>();
+        new LectorCsv().leer(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+                (numero, celdas) -> filas.add(numero + ":" + String.join("|", celdas)));
+        return filas;
+    }
+}